@@ -0,0 +1,173 @@
+package com.geofence.geo;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.models.PreparedGeofence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Plans movement waypoints that are dense near geofence boundaries and sparse elsewhere.
+ * <p>
+ * Distance to a circle's boundary changes by at most one meter per meter travelled, so
+ * from a waypoint whose clearance to every boundary is c the next c meters cannot cross
+ * any fence. Each step is therefore the clearance, clamped to
+ * [resolutionMeters, maxSpacingMeters]. A crossing can only happen inside a step no
+ * longer than the resolution, which gives the same crossing accuracy as uniform
+ * resolution-spaced waypoints. No step is shorter than the resolution, so a path of
+ * length L never takes more than {@code ceil(L / resolution) + 1} waypoints.
+ */
+public final class BoundaryAwareStepPlanner {
+
+    private final PreparedGeofence[] fences;
+    private final double resolutionMeters;
+    private final double maxSpacingMeters;
+
+    private BoundaryAwareStepPlanner(Builder builder) {
+        this.fences = builder.fences.toArray(new PreparedGeofence[0]);
+        this.resolutionMeters = builder.resolutionMeters;
+        this.maxSpacingMeters = builder.maxSpacingMeters;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Cursor plan(GeoLocation from, GeoLocation to) {
+        return plan(GreatCircleTrajectory.between(from, to));
+    }
+
+    public Cursor plan(GreatCircleTrajectory trajectory) {
+        return new Cursor(trajectory);
+    }
+
+    public double getResolutionMeters() {
+        return resolutionMeters;
+    }
+
+    public double getMaxSpacingMeters() {
+        return maxSpacingMeters;
+    }
+
+    /**
+     * Smallest distance from the point to any fence boundary, in meters.
+     */
+    double clearance(double latitude, double longitude) {
+        double clearance = Double.POSITIVE_INFINITY;
+        for (PreparedGeofence fence : fences) {
+            double toBoundary = Math.abs(fence.distanceTo(latitude, longitude) - fence.getRadiusMeters());
+            clearance = Math.min(clearance, toBoundary);
+        }
+        return clearance;
+    }
+
+    /**
+     * Lazily computed waypoints; the first and last are the trajectory's endpoints.
+     */
+    public final class Cursor {
+
+        private final GreatCircleTrajectory trajectory;
+        private final double lengthMeters;
+        private final double[] point = new double[2];
+        private double positionMeters;
+        private int index = -1;
+
+        private Cursor(GreatCircleTrajectory trajectory) {
+            this.trajectory = trajectory;
+            this.lengthMeters = trajectory.lengthMeters();
+        }
+
+        /**
+         * Advance to the next waypoint.
+         * @return false once the end point has been visited
+         */
+        public boolean next() {
+            if (index >= 0) {
+                if (positionMeters >= lengthMeters && index > 0) {
+                    return false;
+                }
+                double step = Math.min(maxSpacingMeters,
+                        Math.max(resolutionMeters, clearance(point[0], point[1])));
+                positionMeters = Math.min(lengthMeters, positionMeters + step);
+            }
+            index++;
+            trajectory.interpolate(lengthMeters > 0 ? positionMeters / lengthMeters : index, point);
+            return true;
+        }
+
+        public double latitude() {
+            return point[0];
+        }
+
+        public double longitude() {
+            return point[1];
+        }
+
+        public int index() {
+            return index;
+        }
+
+        /**
+         * Distance along the trajectory from the start to the current waypoint.
+         */
+        public double distanceMeters() {
+            return positionMeters;
+        }
+
+        public boolean isLast() {
+            return index > 0 && positionMeters >= lengthMeters;
+        }
+    }
+
+    public static class Builder {
+        private final List<PreparedGeofence> fences = new ArrayList<>();
+        private double resolutionMeters = 1.0;
+        private double maxSpacingMeters = 100.0;
+
+        public Builder fence(Geofence fence) {
+            fences.add(PreparedGeofence.of(fence));
+            return this;
+        }
+
+        public Builder fence(GeoLocation center, double radiusMeters) {
+            fences.add(PreparedGeofence.of(center, radiusMeters));
+            return this;
+        }
+
+        public Builder fences(Collection<Geofence> newFences) {
+            for (Geofence fence : newFences) {
+                fence(fence);
+            }
+            return this;
+        }
+
+        /**
+         * Longest step allowed where a boundary could be crossed.
+         */
+        public Builder resolutionMeters(double resolutionMeters) {
+            this.resolutionMeters = resolutionMeters;
+            return this;
+        }
+
+        /**
+         * Longest step allowed anywhere, so the device still reports regular fixes.
+         */
+        public Builder maxSpacingMeters(double maxSpacingMeters) {
+            this.maxSpacingMeters = maxSpacingMeters;
+            return this;
+        }
+
+        public BoundaryAwareStepPlanner build() {
+            if (!(resolutionMeters > 0)) {
+                throw new IllegalArgumentException("resolutionMeters must be positive: " + resolutionMeters);
+            }
+            if (!(maxSpacingMeters >= resolutionMeters)) {
+                throw new IllegalArgumentException("maxSpacingMeters must be at least resolutionMeters: "
+                        + maxSpacingMeters);
+            }
+            return new BoundaryAwareStepPlanner(this);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.geofence.geo;
+
+/**
+ * Closed-form intersections between a moving point and a circular fence.
+ * Each solver writes the entering fraction to out[0] and the exiting fraction to
+ * out[1], or NaN when the path does not cross in that direction. A path that starts
+ * on the boundary is already inside, so it can exit at fraction 0 but not enter;
+ * likewise it can enter at fraction 1 but not exit. Tangent paths do not cross.
+ */
+public final class CrossingSolver {
+
+    private CrossingSolver() {
+    }
+
+    /**
+     * Crossings of the great-circle arc from (fromLat, fromLon) to (toLat, toLon).
+     * <p>
+     * With A the start, B' the unit vector 90 degrees ahead of it in the arc's plane and
+     * C the fence center, the point at angle t along the arc is A cos t + B' sin t, so
+     * its dot product with C is a cos t + b sin t = R cos(t - phi). The fence is the set
+     * where that dot product is at least cos(radius angle), which gives both roots directly.
+     */
+    public static void greatCircle(double fromLat, double fromLon, double toLat, double toLon,
+                                   double centerLat, double centerLon, double radiusMeters, double[] out) {
+        out[0] = Double.NaN;
+        out[1] = Double.NaN;
+        double[] start = GreatCircleTrajectory.unitVector(fromLat, fromLon);
+        double[] end = GreatCircleTrajectory.unitVector(toLat, toLon);
+        double[] center = GreatCircleTrajectory.unitVector(centerLat, centerLon);
+
+        double cosArc = dot(start, end);
+        double[] ahead = {end[0] - cosArc * start[0], end[1] - cosArc * start[1], end[2] - cosArc * start[2]};
+        double sinArc = Math.sqrt(dot(ahead, ahead));
+        if (sinArc < 1e-15) {
+            // Stationary (or antipodal, which has no unique arc)
+            return;
+        }
+        for (int i = 0; i < 3; i++) {
+            ahead[i] /= sinArc;
+        }
+        double arc = Math.atan2(sinArc, cosArc);
+
+        double a = dot(start, center);
+        double b = dot(ahead, center);
+        double amplitude = Math.hypot(a, b);
+        double ratio = Math.cos(radiusMeters / Haversine.EARTH_RADIUS_METERS) / amplitude;
+        if (!(ratio > -1 && ratio < 1)) {
+            // Whole great circle is inside, outside, or tangent to the fence
+            return;
+        }
+        double phase = Math.atan2(b, a);
+        double halfWidth = Math.acos(ratio);
+        double enter = normalizeAngle(phase - halfWidth);
+        double exit = normalizeAngle(phase + halfWidth);
+        if (enter > 0 && enter <= arc) {
+            out[0] = enter / arc;
+        }
+        if (exit < arc) {
+            out[1] = exit / arc;
+        }
+    }
+
+    /**
+     * Crossings of a path whose latitude and longitude change linearly, solved as a
+     * quadratic in a flat projection centered on the fence. Accurate to well under a
+     * meter for fences and paths a few kilometers across.
+     */
+    public static void straight(double fromLat, double fromLon, double toLat, double toLon,
+                                double centerLat, double centerLon, double radiusMeters, double[] out) {
+        out[0] = Double.NaN;
+        out[1] = Double.NaN;
+        double metersPerDegree = Math.toRadians(Haversine.EARTH_RADIUS_METERS);
+        double metersPerLonDegree = metersPerDegree * Math.cos(Math.toRadians(centerLat));
+
+        double startX = normalizeDegrees(fromLon - centerLon) * metersPerLonDegree;
+        double startY = (fromLat - centerLat) * metersPerDegree;
+        double deltaX = (toLon - fromLon) * metersPerLonDegree;
+        double deltaY = (toLat - fromLat) * metersPerDegree;
+
+        // |start + t * delta|^2 = r^2  =>  qa t^2 + 2 qb t + qc = 0
+        double qa = deltaX * deltaX + deltaY * deltaY;
+        double qb = startX * deltaX + startY * deltaY;
+        double qc = startX * startX + startY * startY - radiusMeters * radiusMeters;
+        double discriminant = qb * qb - qa * qc;
+        if (qa == 0 || !(discriminant > 0)) {
+            return;
+        }
+        double root = Math.sqrt(discriminant);
+        // Numerically stable pair of roots
+        double q = qb >= 0 ? -(qb + root) : -(qb - root);
+        double first = q / qa;
+        double second = qc / q;
+        double enter = Math.min(first, second);
+        double exit = Math.max(first, second);
+        if (enter > 0 && enter <= 1) {
+            out[0] = enter;
+        }
+        if (exit >= 0 && exit < 1) {
+            out[1] = exit;
+        }
+    }
+
+    private static double dot(double[] u, double[] v) {
+        return u[0] * v[0] + u[1] * v[1] + u[2] * v[2];
+    }
+
+    private static double normalizeAngle(double radians) {
+        double normalized = radians % (2 * Math.PI);
+        return normalized < 0 ? normalized + 2 * Math.PI : normalized;
+    }
+
+    private static double normalizeDegrees(double degrees) {
+        return degrees - 360 * Math.floor((degrees + 180) / 360);
+    }
+}
@@ -0,0 +1,28 @@
+package com.geofence.geo;
+
+import com.geofence.models.GeoLocation;
+
+/**
+ * Strategy for measuring the distance between two coordinates.
+ * Implementations trade accuracy for speed; see {@link DistanceMode}.
+ */
+public interface DistanceCalculator {
+
+    /**
+     * Distance in meters between (lat1, lon1) and (lat2, lon2) in degrees.
+     */
+    double distance(double lat1, double lon1, double lat2, double lon2);
+
+    default double distance(GeoLocation from, GeoLocation to) {
+        return distance(from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude());
+    }
+
+    /**
+     * Check whether the point lies within the radius of the center.
+     */
+    default boolean isWithinRadius(GeoLocation point, GeoLocation center, double radiusMeters) {
+        return distance(point, center) <= radiusMeters;
+    }
+
+    DistanceMode mode();
+}
@@ -0,0 +1,28 @@
+package com.geofence.geo;
+
+import java.util.BitSet;
+
+/**
+ * Bulk Haversine kernel over primitive coordinate arrays.
+ */
+public interface DistanceKernel {
+
+    /**
+     * Write the distance in meters from point i to the center into out[i] for i in [0, size).
+     */
+    void distances(double[] latitudes, double[] longitudes, int size,
+                   double centerLat, double centerLon, double[] out);
+
+    /**
+     * Set bit i of out when point i is within the radius and clear it otherwise.
+     * Results are identical to {@link Haversine#isWithinRadius}.
+     * @return number of points inside
+     */
+    int containedIn(double[] latitudes, double[] longitudes, int size,
+                    double centerLat, double centerLon, double radiusMeters, BitSet out);
+
+    /**
+     * Short name for logs and benchmark output.
+     */
+    String name();
+}
@@ -0,0 +1,49 @@
+package com.geofence.geo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Picks the fastest {@link DistanceKernel} the running JVM supports.
+ * The SIMD kernel needs {@code --add-modules jdk.incubator.vector}; without it
+ * the scalar kernel is used. Set {@code -Dgeofence.kernel=scalar} to force scalar.
+ */
+public class DistanceKernelFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(DistanceKernelFactory.class);
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL_CLASS = "com.geofence.geo.VectorDistanceKernel";
+    private static final DistanceKernel BEST = createBest();
+
+    private DistanceKernelFactory() {
+    }
+
+    public static DistanceKernel best() {
+        return BEST;
+    }
+
+    public static DistanceKernel scalar() {
+        return ScalarDistanceKernel.INSTANCE;
+    }
+
+    private static DistanceKernel createBest() {
+        if ("scalar".equalsIgnoreCase(System.getProperty("geofence.kernel"))) {
+            log.info("Scalar distance kernel forced by geofence.kernel property");
+            return ScalarDistanceKernel.INSTANCE;
+        }
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            log.info("{} not available, using scalar distance kernel", VECTOR_MODULE);
+            return ScalarDistanceKernel.INSTANCE;
+        }
+        try {
+            DistanceKernel kernel = (DistanceKernel) Class.forName(VECTOR_KERNEL_CLASS)
+                    .getDeclaredConstructor()
+                    .newInstance();
+            log.info("Using {} distance kernel", kernel.name());
+            return kernel;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Vector distance kernel unavailable, using scalar: {}", e.getMessage());
+            return ScalarDistanceKernel.INSTANCE;
+        }
+    }
+}
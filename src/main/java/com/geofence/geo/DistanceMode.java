@@ -0,0 +1,40 @@
+package com.geofence.geo;
+
+import java.util.Arrays;
+
+/**
+ * Available distance calculation modes, from fastest to most accurate.
+ */
+public enum DistanceMode {
+    /** Flat-earth projection at the mean latitude. Sub-millimeter error at 100 m, degrades with distance. */
+    EQUIRECTANGULAR,
+    /** Great-circle distance on a sphere of radius 6371 km. Up to ~0.5% off the WGS84 ellipsoid. */
+    HAVERSINE,
+    /** Geodesic on the WGS84 ellipsoid by Vincenty's inverse formula. Sub-millimeter accuracy. */
+    VINCENTY;
+
+    public DistanceCalculator calculator() {
+        return switch (this) {
+            case EQUIRECTANGULAR -> EquirectangularCalculator.INSTANCE;
+            case HAVERSINE -> HaversineCalculator.INSTANCE;
+            case VINCENTY -> VincentyCalculator.INSTANCE;
+        };
+    }
+
+    /**
+     * Parse a mode name, ignoring case; blank means {@link #HAVERSINE}.
+     * @throws IllegalArgumentException if the name matches no mode
+     */
+    public static DistanceMode fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return HAVERSINE;
+        }
+        for (DistanceMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown distance mode: " + value
+                + " (expected one of " + Arrays.toString(values()) + ")");
+    }
+}
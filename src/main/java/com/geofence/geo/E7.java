@@ -0,0 +1,61 @@
+package com.geofence.geo;
+
+/**
+ * Fixed-point coordinates in units of 1e-7 degrees (about 1.1 cm at the equator),
+ * the representation used by Android and common GPS protocols. A latitude/longitude
+ * pair packs into one long: latitude in the high 32 bits, longitude in the low 32 bits.
+ * Conversion rounds to nearest and is monotonic, so comparisons on E7 values preserve
+ * the order of the original degrees.
+ */
+public final class E7 {
+
+    public static final double UNITS_PER_DEGREE = 1e7;
+    public static final long MAX_LATITUDE = 900_000_000L;
+    public static final long MAX_LONGITUDE = 1_800_000_000L;
+
+    private E7() {
+    }
+
+    /**
+     * Degrees to E7 units, without range checks; longitudes past +/-180 stay unwrapped.
+     */
+    public static long toE7(double degrees) {
+        return Math.round(degrees * UNITS_PER_DEGREE);
+    }
+
+    public static double toDegrees(long e7) {
+        return e7 / UNITS_PER_DEGREE;
+    }
+
+    /**
+     * Pack a coordinate in degrees into a long.
+     * @throws IllegalArgumentException if the coordinate is outside [-90, 90] x [-180, 180]
+     */
+    public static long pack(double latitude, double longitude) {
+        // Checked before rounding: NaN and infinities would round to 0 or Long.MIN_VALUE
+        if (!(Math.abs(latitude) <= 90) || !(Math.abs(longitude) <= 180)) {
+            throw new IllegalArgumentException("Coordinate out of range: (" + latitude + ", " + longitude + ")");
+        }
+        return packE7((int) toE7(latitude), (int) toE7(longitude));
+    }
+
+    public static long packE7(int latitudeE7, int longitudeE7) {
+        return ((long) latitudeE7 << 32) | (longitudeE7 & 0xFFFFFFFFL);
+    }
+
+    public static int latitudeE7(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    public static int longitudeE7(long packed) {
+        return (int) packed;
+    }
+
+    public static double latitude(long packed) {
+        return toDegrees(latitudeE7(packed));
+    }
+
+    public static double longitude(long packed) {
+        return toDegrees(longitudeE7(packed));
+    }
+}
@@ -0,0 +1,28 @@
+package com.geofence.geo;
+
+/**
+ * Equirectangular approximation: one cos and one sqrt per call.
+ * Accurate for short distances away from the poles; error grows with distance.
+ */
+public final class EquirectangularCalculator implements DistanceCalculator {
+
+    public static final EquirectangularCalculator INSTANCE = new EquirectangularCalculator();
+
+    private EquirectangularCalculator() {
+    }
+
+    @Override
+    public double distance(double lat1, double lon1, double lat2, double lon2) {
+        double deltaLat = Math.toRadians(lat2 - lat1);
+        double deltaLon = Math.toRadians(lon2 - lon1);
+        deltaLon -= 2 * Math.PI * Math.rint(deltaLon / (2 * Math.PI));
+
+        double x = deltaLon * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        return Haversine.EARTH_RADIUS_METERS * Math.sqrt(x * x + deltaLat * deltaLat);
+    }
+
+    @Override
+    public DistanceMode mode() {
+        return DistanceMode.EQUIRECTANGULAR;
+    }
+}
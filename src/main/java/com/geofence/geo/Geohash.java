@@ -0,0 +1,90 @@
+package com.geofence.geo;
+
+import com.geofence.models.BoundingBox;
+import com.geofence.models.GeoLocation;
+
+import java.util.Arrays;
+
+/**
+ * Standard base-32 geohash strings, computed from {@link Morton} keys: each character
+ * is the next 5 bits of the key. A geohash of n characters is therefore the key prefix
+ * of 5n bits, and can be range-scanned in a sorted key index.
+ */
+public final class Geohash {
+
+    public static final int MAX_PRECISION = Morton.KEY_BITS / 5;
+
+    private static final char[] ALPHABET = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int[] DIGITS = new int[128];
+
+    static {
+        Arrays.fill(DIGITS, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DIGITS[ALPHABET[i]] = i;
+        }
+    }
+
+    private Geohash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        return fromKey(Morton.encode(latitude, longitude), precision);
+    }
+
+    public static String encode(GeoLocation location, int precision) {
+        return encode(location.getLatitude(), location.getLongitude(), precision);
+    }
+
+    /**
+     * Geohash of the cell holding a Morton key.
+     */
+    public static String fromKey(long key, int precision) {
+        checkPrecision(precision);
+        char[] chars = new char[precision];
+        for (int i = 0; i < precision; i++) {
+            chars[i] = ALPHABET[(int) (key >>> (Morton.KEY_BITS - 5 * (i + 1))) & 31];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Morton key prefix of a geohash; it covers {@code 5 * geohash.length()} bits.
+     */
+    public static long toKeyPrefix(CharSequence geohash) {
+        checkPrecision(geohash.length());
+        long prefix = 0;
+        for (int i = 0; i < geohash.length(); i++) {
+            char c = Character.toLowerCase(geohash.charAt(i));
+            int digit = c < DIGITS.length ? DIGITS[c] : -1;
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid geohash character '" + geohash.charAt(i)
+                        + "' in " + geohash);
+            }
+            prefix = (prefix << 5) | digit;
+        }
+        return prefix << (Morton.KEY_BITS - 5 * geohash.length());
+    }
+
+    /**
+     * Latitude/longitude rectangle covered by a geohash.
+     */
+    public static BoundingBox bounds(CharSequence geohash) {
+        int bits = 5 * geohash.length();
+        int longitudeBits = (bits + 1) / 2;
+        int latitudeBits = bits / 2;
+        long prefix = toKeyPrefix(geohash) >>> (Morton.KEY_BITS - bits);
+        // After the shift the last bit belongs to longitude when the bit count is odd
+        long longitudeCell = Morton.compact(bits % 2 == 1 ? prefix : prefix >>> 1);
+        long latitudeCell = Morton.compact(bits % 2 == 1 ? prefix >>> 1 : prefix);
+        double height = 180.0 / (1L << latitudeBits);
+        double width = 360.0 / (1L << longitudeBits);
+        return new BoundingBox(-90 + latitudeCell * height, -90 + (latitudeCell + 1) * height,
+                -180 + longitudeCell * width, -180 + (longitudeCell + 1) * width);
+    }
+
+    private static void checkPrecision(int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be in [1, " + MAX_PRECISION + "]: " + precision);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.geofence.geo;
+
+import com.geofence.models.GeoLocation;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Shortest great-circle path between two points, sampled lazily by spherical linear
+ * interpolation (slerp). Waypoints are computed one at a time through a {@link Cursor},
+ * so a path of any length costs constant memory. The first and last waypoints are
+ * exactly the endpoints given.
+ */
+public final class GreatCircleTrajectory {
+
+    /**
+     * Below this central angle (radians, ~6 micrometers) slerp is replaced by linear interpolation.
+     */
+    private static final double MIN_SLERP_ANGLE = 1e-12;
+
+    private final double fromLatitude;
+    private final double fromLongitude;
+    private final double toLatitude;
+    private final double toLongitude;
+    private final double[] from;
+    private final double[] to;
+    private final double angle;
+    private final double sinAngle;
+
+    private GreatCircleTrajectory(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        this.fromLatitude = fromLatitude;
+        this.fromLongitude = fromLongitude;
+        this.toLatitude = toLatitude;
+        this.toLongitude = toLongitude;
+        this.from = unitVector(fromLatitude, fromLongitude);
+        this.to = unitVector(toLatitude, toLongitude);
+
+        double dot = from[0] * to[0] + from[1] * to[1] + from[2] * to[2];
+        double crossX = from[1] * to[2] - from[2] * to[1];
+        double crossY = from[2] * to[0] - from[0] * to[2];
+        double crossZ = from[0] * to[1] - from[1] * to[0];
+        double cross = Math.sqrt(crossX * crossX + crossY * crossY + crossZ * crossZ);
+        this.angle = Math.atan2(cross, dot);
+        this.sinAngle = Math.sin(angle);
+        if (angle > MIN_SLERP_ANGLE && sinAngle < 1e-12) {
+            throw new IllegalArgumentException("Antipodal endpoints have no unique great circle: ("
+                    + fromLatitude + ", " + fromLongitude + ") -> (" + toLatitude + ", " + toLongitude + ")");
+        }
+    }
+
+    public static GreatCircleTrajectory between(double fromLatitude, double fromLongitude,
+                                                double toLatitude, double toLongitude) {
+        return new GreatCircleTrajectory(fromLatitude, fromLongitude, toLatitude, toLongitude);
+    }
+
+    public static GreatCircleTrajectory between(GeoLocation from, GeoLocation to) {
+        return between(from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude());
+    }
+
+    /**
+     * Path length in meters on the Haversine sphere.
+     */
+    public double lengthMeters() {
+        return angle * Haversine.EARTH_RADIUS_METERS;
+    }
+
+    /**
+     * Waypoints at {@code steps} equal fractions of the path: steps + 1 points including both ends.
+     */
+    public Cursor steps(int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("steps must be positive: " + steps);
+        }
+        return new Cursor(steps + 1, 1.0 / steps);
+    }
+
+    /**
+     * Waypoints every spacingMeters along the path, plus the end point.
+     */
+    public Cursor spacedMeters(double spacingMeters) {
+        if (!(spacingMeters > 0)) {
+            throw new IllegalArgumentException("spacingMeters must be positive: " + spacingMeters);
+        }
+        double length = lengthMeters();
+        long intervals = Math.max(1, (long) Math.ceil(length / spacingMeters));
+        if (intervals >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many waypoints for spacing " + spacingMeters + " m");
+        }
+        double fractionStep = length > 0 ? spacingMeters / length : 1.0;
+        return new Cursor((int) intervals + 1, fractionStep);
+    }
+
+    /**
+     * Waypoints one interval apart for a device moving at the given speed, plus the end point.
+     */
+    public Cursor spacedSeconds(double intervalSeconds, double speedMetersPerSecond) {
+        if (!(intervalSeconds > 0) || !(speedMetersPerSecond > 0)) {
+            throw new IllegalArgumentException("interval and speed must be positive: "
+                    + intervalSeconds + " s, " + speedMetersPerSecond + " m/s");
+        }
+        return spacedMeters(intervalSeconds * speedMetersPerSecond);
+    }
+
+    /**
+     * Write the point at the given fraction of the path into out[0] (latitude) and out[1] (longitude).
+     */
+    public void interpolate(double fraction, double[] out) {
+        if (fraction <= 0) {
+            out[0] = fromLatitude;
+            out[1] = fromLongitude;
+            return;
+        }
+        if (fraction >= 1) {
+            out[0] = toLatitude;
+            out[1] = toLongitude;
+            return;
+        }
+        double a;
+        double b;
+        if (angle <= MIN_SLERP_ANGLE) {
+            a = 1 - fraction;
+            b = fraction;
+        } else {
+            a = Math.sin((1 - fraction) * angle) / sinAngle;
+            b = Math.sin(fraction * angle) / sinAngle;
+        }
+        double x = a * from[0] + b * to[0];
+        double y = a * from[1] + b * to[1];
+        double z = a * from[2] + b * to[2];
+        out[0] = Math.toDegrees(Math.atan2(z, Math.sqrt(x * x + y * y)));
+        out[1] = Math.toDegrees(Math.atan2(y, x));
+    }
+
+    static double[] unitVector(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        return new double[]{cosLat * Math.cos(lon), cosLat * Math.sin(lon), Math.sin(lat)};
+    }
+
+    /**
+     * Primitive iterator over the waypoints of a trajectory. Call {@link #next()} before
+     * reading the first waypoint; the accessors then describe the current one.
+     */
+    public final class Cursor {
+
+        private final int count;
+        private final double fractionStep;
+        private final double[] point = new double[2];
+        private int index = -1;
+
+        private Cursor(int count, double fractionStep) {
+            this.count = count;
+            this.fractionStep = fractionStep;
+        }
+
+        /**
+         * Advance to the next waypoint.
+         * @return false once every waypoint has been visited
+         */
+        public boolean next() {
+            if (index + 1 >= count) {
+                return false;
+            }
+            index++;
+            interpolate(index == count - 1 ? 1.0 : index * fractionStep, point);
+            return true;
+        }
+
+        public double latitude() {
+            return point[0];
+        }
+
+        public double longitude() {
+            return point[1];
+        }
+
+        /**
+         * Zero-based position of the current waypoint.
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * Total number of waypoints, including both ends.
+         */
+        public int count() {
+            return count;
+        }
+
+        public boolean isLast() {
+            return index == count - 1;
+        }
+
+        /**
+         * Remaining waypoints as lazily built {@link GeoLocation}s named "Step i".
+         */
+        public Stream<GeoLocation> stream() {
+            Iterator<GeoLocation> iterator = new Iterator<>() {
+                private boolean ready;
+
+                @Override
+                public boolean hasNext() {
+                    if (!ready) {
+                        ready = Cursor.this.next();
+                    }
+                    return ready;
+                }
+
+                @Override
+                public GeoLocation next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    ready = false;
+                    return GeoLocation.builder()
+                            .latitude(latitude())
+                            .longitude(longitude())
+                            .name("Step " + index)
+                            .build();
+                }
+            };
+            int characteristics = Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED;
+            return StreamSupport.stream(
+                    Spliterators.spliterator(iterator, count - index - 1, characteristics), false);
+        }
+
+        /**
+         * Visit each remaining waypoint without allocating.
+         */
+        public void forEachRemaining(WaypointConsumer consumer) {
+            while (next()) {
+                consumer.accept(index, point[0], point[1]);
+            }
+        }
+    }
+
+    /**
+     * Receives waypoints as primitives.
+     */
+    @FunctionalInterface
+    public interface WaypointConsumer {
+        void accept(int index, double latitude, double longitude);
+    }
+}
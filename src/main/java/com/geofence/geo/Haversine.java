@@ -0,0 +1,175 @@
+package com.geofence.geo;
+
+/**
+ * Primitive Haversine math shared by {@code GeoLocation} and the bulk/batch types.
+ * Every entry point evaluates the same expression in the same order, so results
+ * are bit-identical regardless of which representation a caller uses.
+ */
+public final class Haversine {
+
+    public static final double EARTH_RADIUS_METERS = 6371000;
+
+    /**
+     * Largest angular radius (radians, ~637 km) handled by the trig-free fast path.
+     */
+    private static final double FAST_PATH_MAX_ANGLE = 0.1;
+    private static final double FAST_PATH_MIN_ANGLE = 1e-11;
+
+    /**
+     * Relative and absolute (radians) width of the band around the radius where
+     * the fast path defers to exact Haversine. Far wider than floating-point error.
+     */
+    private static final double BAND_RELATIVE = 1e-9;
+    private static final double BAND_ABSOLUTE = 1e-12;
+
+    private Haversine() {
+    }
+
+    /**
+     * Distance in meters from (lat1, lon1) to (lat2, lon2).
+     */
+    public static double distance(double lat1, double lon1, double lat2, double lon2) {
+        return distance(lat1, lon1, lat2, lon2, Math.cos(Math.toRadians(lat2)));
+    }
+
+    /**
+     * Distance in meters with the second point's cos(latitude) supplied by the caller,
+     * for loops that measure many points against one fixed center.
+     */
+    public static double distance(double lat1, double lon1, double lat2, double lon2, double cosLat2) {
+        double lat1Rad = Math.toRadians(lat1);
+        double deltaLat = Math.toRadians(lat2 - lat1);
+        double deltaLon = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2)
+                + Math.cos(lat1Rad) * cosLat2
+                * Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS_METERS * c;
+    }
+
+    /**
+     * Radius containment for a center used once. The latitude band rejects most far points
+     * before any trig; the center's cos/sin are computed only when the band cannot decide.
+     */
+    public static boolean isWithinRadius(double lat, double lon, double centerLat, double centerLon,
+                                         double radiusMeters) {
+        double theta = radiusMeters / EARTH_RADIUS_METERS;
+        if (!(theta >= FAST_PATH_MIN_ANGLE && theta <= FAST_PATH_MAX_ANGLE)) {
+            return distance(lat, lon, centerLat, centerLon) <= radiusMeters;
+        }
+        if (Math.abs(Math.toRadians(centerLat - lat)) > theta + theta * BAND_RELATIVE + BAND_ABSOLUTE) {
+            return false;
+        }
+        double centerLatRad = Math.toRadians(centerLat);
+        return isWithinRadius(lat, lon, centerLat, centerLon, Math.cos(centerLatRad), Math.sin(centerLatRad),
+                radiusMeters);
+    }
+
+    /**
+     * Radius containment with the same result as {@code distance(...) <= radiusMeters}.
+     */
+    public static boolean isWithinRadius(double lat, double lon, double centerLat, double centerLon,
+                                         double cosCenterLat, double sinCenterLat, double radiusMeters) {
+        int quick = quickRadiusCheck(lat, lon, centerLat, centerLon, cosCenterLat, sinCenterLat, radiusMeters);
+        if (quick != 0) {
+            return quick > 0;
+        }
+        return distance(lat, lon, centerLat, centerLon, cosCenterLat) <= radiusMeters;
+    }
+
+    /**
+     * Decide radius containment without trig on the point, using the center's cos/sin
+     * latitude and Taylor bounds on the Haversine terms. Only answers when the bounds
+     * clear the radius by a margin, so the result always matches {@link #distance}.
+     * @return 1 if inside, -1 if outside, 0 if the exact calculation is needed
+     */
+    public static int quickRadiusCheck(double lat, double lon, double centerLat, double centerLon,
+                                       double cosCenterLat, double sinCenterLat, double radiusMeters) {
+        double theta = radiusMeters / EARTH_RADIUS_METERS;
+        if (!(theta >= FAST_PATH_MIN_ANGLE && theta <= FAST_PATH_MAX_ANGLE)) {
+            return 0;
+        }
+        double margin = theta * BAND_RELATIVE + BAND_ABSOLUTE;
+
+        // Bounding-box test in latitude: the central angle is never less than |dLat|
+        if (Math.abs(Math.toRadians(centerLat - lat)) > theta + margin) {
+            return -1;
+        }
+        double insideA = theta > margin ? haversineOfSmallAngle(theta - margin) : -1;
+        return quickRadiusCheck(lat, lon, centerLat, centerLon, cosCenterLat, sinCenterLat,
+                theta + margin, haversineOfSmallAngle(theta + margin), insideA);
+    }
+
+    /**
+     * {@link #quickRadiusCheck(double, double, double, double, double, double, double)} with the
+     * thresholds from {@link #quickCheckLimits} supplied by the caller, for prepared fences.
+     */
+    public static int quickRadiusCheck(double lat, double lon, double centerLat, double centerLon,
+                                       double cosCenterLat, double sinCenterLat,
+                                       double maxDeltaLat, double outsideA, double insideA) {
+        double deltaLat = Math.toRadians(centerLat - lat);
+        double absDeltaLat = Math.abs(deltaLat);
+        if (absDeltaLat > maxDeltaLat) {
+            return -1;
+        }
+
+        double deltaLon = Math.toRadians(centerLon - lon);
+        deltaLon -= 2 * Math.PI * Math.rint(deltaLon / (2 * Math.PI));
+
+        // cos(lat) = cos(centerLat - dLat), expanded around the center
+        double cosPointEstimate = cosCenterLat * (1 - deltaLat * deltaLat / 2) + sinCenterLat * deltaLat;
+        double cosPointError = absDeltaLat * absDeltaLat * absDeltaLat / 5;
+
+        // hav(x) lies in [x^2/4 * (1 - x^2/12), x^2/4]
+        double latTerm = deltaLat * deltaLat / 4;
+        double lonTerm = deltaLon * deltaLon / 4;
+        double lowerA = latTerm * (1 - deltaLat * deltaLat / 12)
+                + cosCenterLat * Math.max(0, cosPointEstimate - cosPointError)
+                * lonTerm * (1 - deltaLon * deltaLon / 12);
+        double upperA = latTerm + cosCenterLat * Math.min(1, cosPointEstimate + cosPointError) * lonTerm;
+
+        if (lowerA > outsideA) {
+            return -1;
+        }
+        if (upperA < insideA) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Precomputed thresholds of {@link #quickRadiusCheck} for bulk kernels that
+     * evaluate the same bounds across many points at once.
+     * @return the limits, or null when the radius is outside the fast-path range
+     */
+    public static QuickCheckLimits quickCheckLimits(double radiusMeters) {
+        double theta = radiusMeters / EARTH_RADIUS_METERS;
+        if (!(theta >= FAST_PATH_MIN_ANGLE && theta <= FAST_PATH_MAX_ANGLE)) {
+            return null;
+        }
+        double margin = theta * BAND_RELATIVE + BAND_ABSOLUTE;
+        double insideA = theta > margin ? haversineOfSmallAngle(theta - margin) : -1;
+        return new QuickCheckLimits(theta + margin, haversineOfSmallAngle(theta + margin), insideA);
+    }
+
+    /**
+     * Thresholds on |dLat| (radians) and on the Haversine term a: a point is outside when
+     * |dLat| exceeds maxDeltaLat or the lower bound of a exceeds outsideA, and inside when
+     * the upper bound of a is below insideA.
+     */
+    public record QuickCheckLimits(double maxDeltaLat, double outsideA, double insideA) {
+    }
+
+    /**
+     * sin^2(x / 2) by Taylor series; accurate to ~1e-11 relative for x <= 0.1.
+     */
+    private static double haversineOfSmallAngle(double x) {
+        double half = x / 2;
+        double halfSquared = half * half;
+        double sin = half * (1 - halfSquared / 6 * (1 - halfSquared / 20 * (1 - halfSquared / 42)));
+        return sin * sin;
+    }
+}
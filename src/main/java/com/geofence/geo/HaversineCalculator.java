@@ -0,0 +1,35 @@
+package com.geofence.geo;
+
+import com.geofence.models.GeoLocation;
+
+/**
+ * Spherical Haversine distance; the framework default and identical to
+ * {@link GeoLocation#distanceTo} and {@link GeoLocation#isWithinRadius}.
+ */
+public final class HaversineCalculator implements DistanceCalculator {
+
+    public static final HaversineCalculator INSTANCE = new HaversineCalculator();
+
+    private HaversineCalculator() {
+    }
+
+    @Override
+    public double distance(double lat1, double lon1, double lat2, double lon2) {
+        return Haversine.distance(lat1, lon1, lat2, lon2);
+    }
+
+    @Override
+    public double distance(GeoLocation from, GeoLocation to) {
+        return from.distanceTo(to);
+    }
+
+    @Override
+    public boolean isWithinRadius(GeoLocation point, GeoLocation center, double radiusMeters) {
+        return point.isWithinRadius(center, radiusMeters);
+    }
+
+    @Override
+    public DistanceMode mode() {
+        return DistanceMode.HAVERSINE;
+    }
+}
@@ -0,0 +1,121 @@
+package com.geofence.geo;
+
+/**
+ * Z-order (Morton) keys for coordinates. Latitude and longitude are each quantized to
+ * 31 bits and interleaved, longitude first, into a non-negative 62-bit key. Points that
+ * share a key prefix share a rectangular cell, so a cell is one contiguous run of a
+ * sorted key array. The bit order matches geohash: the top 5n bits of a key are the
+ * n-character geohash of the point (see {@link Geohash}).
+ * <p>
+ * At 31 bits per axis a cell is about 9 mm of latitude by 19 mm of longitude.
+ */
+public final class Morton {
+
+    public static final int BITS_PER_AXIS = 31;
+    public static final int KEY_BITS = 2 * BITS_PER_AXIS;
+
+    private static final long AXIS_CELLS = 1L << BITS_PER_AXIS;
+
+    private Morton() {
+    }
+
+    /**
+     * Key of a coordinate; latitudes are clamped to [-90, 90] and longitudes wrapped.
+     */
+    public static long encode(double latitude, double longitude) {
+        return interleave(longitudeCell(longitude, BITS_PER_AXIS), latitudeCell(latitude, BITS_PER_AXIS));
+    }
+
+    /**
+     * Latitude of the center of the key's cell.
+     */
+    public static double latitude(long key) {
+        return (compact(key) + 0.5) * 180.0 / AXIS_CELLS - 90;
+    }
+
+    /**
+     * Longitude of the center of the key's cell.
+     */
+    public static double longitude(long key) {
+        return (compact(key >>> 1) + 0.5) * 360.0 / AXIS_CELLS - 180;
+    }
+
+    /**
+     * Keep only the top {@code bits} bits of the key: the first key of its cell at that level.
+     */
+    public static long prefix(long key, int bits) {
+        checkBits(bits);
+        return bits == 0 ? 0 : key & (-1L << (KEY_BITS - bits));
+    }
+
+    /**
+     * First key after every key sharing the given prefix.
+     */
+    public static long prefixEnd(long prefix, int bits) {
+        checkBits(bits);
+        return prefix + (1L << (KEY_BITS - bits));
+    }
+
+    /**
+     * Prefix of the cell at {@code level} bits per axis holding the given row and column.
+     */
+    public static long cellPrefix(long longitudeCell, long latitudeCell, int level) {
+        return interleave(longitudeCell, latitudeCell) << (KEY_BITS - 2 * level);
+    }
+
+    /**
+     * Column of the longitude among 2^level equal slices of [-180, 180).
+     */
+    public static long longitudeCell(double longitude, int level) {
+        double normalized = longitude - 360 * Math.floor((longitude + 180) / 360);
+        long cell = (long) Math.floor((normalized + 180) / 360 * (1L << level));
+        return Math.max(0, Math.min((1L << level) - 1, cell));
+    }
+
+    /**
+     * Row of the latitude among 2^level equal slices of [-90, 90].
+     */
+    public static long latitudeCell(double latitude, int level) {
+        long cell = (long) Math.floor((latitude + 90) / 180 * (1L << level));
+        return Math.max(0, Math.min((1L << level) - 1, cell));
+    }
+
+    /**
+     * Interleave two cell indexes: longitude bits land on odd positions, latitude on even.
+     */
+    static long interleave(long longitudeCell, long latitudeCell) {
+        return (spread(longitudeCell) << 1) | spread(latitudeCell);
+    }
+
+    /**
+     * Move bit i of the low 32 bits to bit 2i.
+     */
+    static long spread(long value) {
+        long x = value & 0xFFFFFFFFL;
+        x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x << 2)) & 0x3333333333333333L;
+        x = (x | (x << 1)) & 0x5555555555555555L;
+        return x;
+    }
+
+    /**
+     * Inverse of {@link #spread}: gather the even bits into the low 32 bits.
+     */
+    static long compact(long value) {
+        long x = value & 0x5555555555555555L;
+        x = (x | (x >>> 1)) & 0x3333333333333333L;
+        x = (x | (x >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x >>> 4)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x >>> 8)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x >>> 16)) & 0x00000000FFFFFFFFL;
+        return x;
+    }
+
+    private static void checkBits(int bits) {
+        if (bits < 0 || bits > KEY_BITS) {
+            throw new IllegalArgumentException("bits must be in [0, " + KEY_BITS + "]: " + bits);
+        }
+    }
+}
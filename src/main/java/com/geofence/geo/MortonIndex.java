@@ -0,0 +1,352 @@
+package com.geofence.geo;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only index of ids keyed by {@link Morton} code, stored as two sorted primitive
+ * arrays (12 bytes per entry). A geohash or Morton prefix is one contiguous run of the
+ * key array found by binary search, so cell scans read memory sequentially and radius
+ * queries touch at most a handful of runs. Queries never allocate.
+ * <p>
+ * Positions are recovered from the keys, so they are accurate to about a centimeter.
+ * Build with {@link #builder(int)}; bulk loads are sorted with an LSD radix sort.
+ */
+public final class MortonIndex {
+
+    private static final int RADIX_BITS = 11;
+    private static final int MAX_CELLS_PER_AXIS = 4;
+    private static final int SAMPLE_STRIDE = 64;
+
+    /**
+     * Padding in degrees so floating-point rounding never drops a cell on the circle's edge.
+     */
+    private static final double PADDING_DEGREES = 1e-9;
+
+    private final long[] keys;
+    private final int[] ids;
+
+    // Every SAMPLE_STRIDE-th key; small enough to stay in cache, it narrows each
+    // binary search to one block of the key array
+    private final long[] samples;
+
+    private MortonIndex(long[] keys, int[] ids) {
+        this.keys = keys;
+        this.ids = ids;
+        this.samples = new long[(keys.length + SAMPLE_STRIDE - 1) / SAMPLE_STRIDE];
+        for (int s = 0; s < samples.length; s++) {
+            samples[s] = keys[s * SAMPLE_STRIDE];
+        }
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /**
+     * Index the locations, using each one's list position as its id.
+     */
+    public static MortonIndex ofLocations(List<GeoLocation> locations) {
+        Builder builder = builder(locations.size());
+        for (int i = 0; i < locations.size(); i++) {
+            builder.add(locations.get(i), i);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Index fence centers, using each fence's list position as its id. A fence can only
+     * contain a point when its center lies within its radius of the point, so querying
+     * {@link #withinRadius} with the largest fence radius yields every candidate fence.
+     */
+    public static MortonIndex ofFences(List<Geofence> fences) {
+        Builder builder = builder(fences.size());
+        for (int i = 0; i < fences.size(); i++) {
+            builder.add(fences.get(i).center(), i);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public long key(int index) {
+        return keys[index];
+    }
+
+    public int id(int index) {
+        return ids[index];
+    }
+
+    public double latitude(int index) {
+        return Morton.latitude(keys[index]);
+    }
+
+    public double longitude(int index) {
+        return Morton.longitude(keys[index]);
+    }
+
+    /**
+     * Position of the first entry whose key is at least {@code key}, or {@link #size()}.
+     */
+    public int lowerBound(long key) {
+        // Last block whose first key is below the target; the answer lies in that block or at its end
+        int low = 0;
+        int high = samples.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (samples[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == 0) {
+            return 0;
+        }
+        return search(key, (low - 1) * SAMPLE_STRIDE + 1, Math.min(keys.length, low * SAMPLE_STRIDE));
+    }
+
+    /**
+     * Binary search for the first key at least {@code key} in [from, to), given that every
+     * key before {@code from} is smaller and every key from {@code to} on is not.
+     */
+    private int search(long key, int from, int to) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (keys[mid] < key) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Lower bound found by galloping forward from {@code hint} when the answer lies at or
+     * after it, which is cheap for nearby keys; falls back to a full search otherwise.
+     */
+    private int seek(long key, int hint) {
+        if (hint > 0 && keys[hint - 1] >= key) {
+            return lowerBound(key);
+        }
+        int low = hint;
+        int step = 1;
+        while (low < keys.length && keys[low] < key) {
+            int probe = low + step;
+            if (probe >= keys.length || keys[probe] >= key) {
+                return search(key, low + 1, Math.min(keys.length, probe));
+            }
+            low = probe;
+            step <<= 1;
+        }
+        return low;
+    }
+
+    /**
+     * Start of the run of entries sharing the top {@code bits} bits of {@code prefix}.
+     */
+    public int prefixStart(long prefix, int bits) {
+        return lowerBound(Morton.prefix(prefix, bits));
+    }
+
+    /**
+     * End (exclusive) of the run of entries sharing the top {@code bits} bits of {@code prefix}.
+     */
+    public int prefixEnd(long prefix, int bits) {
+        return lowerBound(Morton.prefixEnd(Morton.prefix(prefix, bits), bits));
+    }
+
+    /**
+     * Visit every entry whose key shares the top {@code bits} bits of {@code prefix}.
+     * @return the number of entries visited
+     */
+    public int forEachInPrefix(long prefix, int bits, EntryVisitor visitor) {
+        int start = prefixStart(prefix, bits);
+        int end = prefixEnd(prefix, bits);
+        for (int i = start; i < end; i++) {
+            visitor.visit(ids[i], keys[i]);
+        }
+        return end - start;
+    }
+
+    /**
+     * Visit every entry inside a geohash cell.
+     * @return the number of entries visited
+     */
+    public int forEachInCell(CharSequence geohash, EntryVisitor visitor) {
+        return forEachInPrefix(Geohash.toKeyPrefix(geohash), 5 * geohash.length(), visitor);
+    }
+
+    /**
+     * Copy the ids of entries within radiusMeters of the point into {@code out}.
+     * The search covers the circle's bounding box with at most 4 x 4 cells at the finest
+     * level that allows it, then checks each entry in those cells with Haversine.
+     * @return the match count; only the first {@code out.length} ids are written
+     */
+    public int withinRadius(double latitude, double longitude, double radiusMeters, int[] out) {
+        if (!(radiusMeters >= 0)) {
+            throw new IllegalArgumentException("radiusMeters must be non-negative: " + radiusMeters);
+        }
+        double angularRadius = radiusMeters / Haversine.EARTH_RADIUS_METERS;
+        double latDelta = Math.toDegrees(angularRadius) + PADDING_DEGREES;
+        double minLat = latitude - latDelta;
+        double maxLat = latitude + latDelta;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double sinRadius = Math.sin(Math.min(angularRadius, Math.PI / 2));
+        boolean allLongitudes = minLat <= -90 || maxLat >= 90 || sinRadius >= cosLat;
+        double lonDelta = allLongitudes ? 180 : Math.toDegrees(Math.asin(sinRadius / cosLat)) + PADDING_DEGREES;
+
+        int level = Morton.BITS_PER_AXIS;
+        while (level > 0 && (spanCells(latDelta, 180, level) > MAX_CELLS_PER_AXIS
+                || spanCells(lonDelta, 360, level) > MAX_CELLS_PER_AXIS)) {
+            level--;
+        }
+
+        long axisCells = 1L << level;
+        long firstRow = Morton.latitudeCell(minLat, level);
+        long lastRow = Morton.latitudeCell(maxLat, level);
+        long firstColumn = (long) Math.floor((longitude - lonDelta + 180) / 360 * axisCells);
+        long lastColumn = (long) Math.floor((longitude + lonDelta + 180) / 360 * axisCells);
+        if (allLongitudes || lastColumn - firstColumn + 1 >= axisCells) {
+            firstColumn = 0;
+            lastColumn = axisCells - 1;
+        }
+
+        int count = 0;
+        int end = 0;
+        for (long row = firstRow; row <= lastRow; row++) {
+            for (long c = firstColumn; c <= lastColumn; c++) {
+                long prefix = Morton.cellPrefix(Math.floorMod(c, axisCells), row, level);
+                int start = seek(prefix, end);
+                end = seek(Morton.prefixEnd(prefix, 2 * level), start);
+                for (int i = start; i < end; i++) {
+                    long key = keys[i];
+                    if (Haversine.distance(latitude, longitude, Morton.latitude(key), Morton.longitude(key))
+                            <= radiusMeters) {
+                        if (count < out.length) {
+                            out[count] = ids[i];
+                        }
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    public int withinRadius(GeoLocation center, double radiusMeters, int[] out) {
+        return withinRadius(center.getLatitude(), center.getLongitude(), radiusMeters, out);
+    }
+
+    /**
+     * Upper bound on the cells a range of +/-delta degrees spans at a level.
+     */
+    private static double spanCells(double delta, double axisDegrees, int level) {
+        return Math.floor(2 * delta / axisDegrees * (1L << level)) + 2;
+    }
+
+    /**
+     * Receives index entries during a scan.
+     */
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(int id, long key);
+    }
+
+    /**
+     * Collects entries, then sorts them once in {@link #build()}.
+     */
+    public static class Builder {
+        private long[] keys;
+        private int[] ids;
+        private int size;
+
+        private Builder(int expectedSize) {
+            if (expectedSize < 0) {
+                throw new IllegalArgumentException("expectedSize must be non-negative: " + expectedSize);
+            }
+            this.keys = new long[expectedSize];
+            this.ids = new int[expectedSize];
+        }
+
+        public Builder add(double latitude, double longitude, int id) {
+            return addKey(Morton.encode(latitude, longitude), id);
+        }
+
+        public Builder add(GeoLocation location, int id) {
+            return add(location.getLatitude(), location.getLongitude(), id);
+        }
+
+        public Builder addKey(long key, int id) {
+            if (key < 0 || key >>> Morton.KEY_BITS != 0) {
+                throw new IllegalArgumentException("Not a Morton key: " + key);
+            }
+            if (size == keys.length) {
+                int capacity = Math.max(16, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            keys[size] = key;
+            ids[size] = id;
+            size++;
+            return this;
+        }
+
+        public MortonIndex build() {
+            long[] sortedKeys = Arrays.copyOf(keys, size);
+            int[] sortedIds = Arrays.copyOf(ids, size);
+            radixSort(sortedKeys, sortedIds);
+            return new MortonIndex(sortedKeys, sortedIds);
+        }
+
+        /**
+         * Stable LSD radix sort of keys with their ids; entries with equal keys keep
+         * insertion order. Passes where every key has the same digit are skipped.
+         */
+        private static void radixSort(long[] sortedKeys, int[] sortedIds) {
+            long[] keys = sortedKeys;
+            int[] ids = sortedIds;
+            int n = keys.length;
+            long[] keyBuffer = new long[n];
+            int[] idBuffer = new int[n];
+            int[] counts = new int[1 << RADIX_BITS];
+            int mask = (1 << RADIX_BITS) - 1;
+
+            for (int shift = 0; shift < Morton.KEY_BITS; shift += RADIX_BITS) {
+                Arrays.fill(counts, 0);
+                for (long key : keys) {
+                    counts[(int) (key >>> shift) & mask]++;
+                }
+                if (n == 0 || counts[(int) (keys[0] >>> shift) & mask] == n) {
+                    continue;
+                }
+                for (int d = 0, offset = 0; d < counts.length; d++) {
+                    int count = counts[d];
+                    counts[d] = offset;
+                    offset += count;
+                }
+                for (int i = 0; i < n; i++) {
+                    int slot = counts[(int) (keys[i] >>> shift) & mask]++;
+                    keyBuffer[slot] = keys[i];
+                    idBuffer[slot] = ids[i];
+                }
+                long[] swapKeys = keys;
+                keys = keyBuffer;
+                keyBuffer = swapKeys;
+                int[] swapIds = ids;
+                ids = idBuffer;
+                idBuffer = swapIds;
+            }
+            if (keys != sortedKeys) {
+                System.arraycopy(keys, 0, sortedKeys, 0, n);
+                System.arraycopy(ids, 0, sortedIds, 0, n);
+            }
+        }
+    }
+}
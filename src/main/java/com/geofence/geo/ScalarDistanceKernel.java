@@ -0,0 +1,47 @@
+package com.geofence.geo;
+
+import java.util.BitSet;
+
+/**
+ * Plain loop over {@link Haversine}; the reference every other kernel is checked against.
+ */
+public final class ScalarDistanceKernel implements DistanceKernel {
+
+    public static final ScalarDistanceKernel INSTANCE = new ScalarDistanceKernel();
+
+    private ScalarDistanceKernel() {
+    }
+
+    @Override
+    public void distances(double[] latitudes, double[] longitudes, int size,
+                          double centerLat, double centerLon, double[] out) {
+        double cosCenter = Math.cos(Math.toRadians(centerLat));
+        for (int i = 0; i < size; i++) {
+            out[i] = Haversine.distance(latitudes[i], longitudes[i], centerLat, centerLon, cosCenter);
+        }
+    }
+
+    @Override
+    public int containedIn(double[] latitudes, double[] longitudes, int size,
+                           double centerLat, double centerLon, double radiusMeters, BitSet out) {
+        double centerRad = Math.toRadians(centerLat);
+        double cosCenter = Math.cos(centerRad);
+        double sinCenter = Math.sin(centerRad);
+
+        out.clear(0, size);
+        int inside = 0;
+        for (int i = 0; i < size; i++) {
+            if (Haversine.isWithinRadius(latitudes[i], longitudes[i],
+                    centerLat, centerLon, cosCenter, sinCenter, radiusMeters)) {
+                out.set(i);
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,340 @@
+package com.geofence.geo;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.models.PreparedGeofence;
+import com.geofence.time.SimulationClock;
+import com.geofence.time.SimulationClocks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Streaming Douglas-Peucker simplifier for recorded routes.
+ * <p>
+ * Points are buffered in a bounded window and simplified whenever the window fills,
+ * so memory stays constant however long the route is. Every dropped point lies within
+ * {@code toleranceMeters} of the simplified polyline. Points next to a geofence membership
+ * change (the last fix before it and the first fix after it) are always kept, so replaying
+ * the simplified route produces exactly the same transitions as the original.
+ * Not thread-safe; use one instance per route.
+ */
+public final class TrajectorySimplifier {
+
+    private static final double METERS_PER_DEGREE = Math.toRadians(Haversine.EARTH_RADIUS_METERS);
+
+    private final double toleranceMeters;
+    private final PreparedGeofence[] fences;
+    // Negative when the push cost is measured in the sink
+    private final long pushCostMillis;
+    private final WaypointSink sink;
+    private final SimulationClock clock;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final long[] timestamps;
+    private final boolean[] keep;
+    private final int[] stack;
+    private int size;
+
+    private BitSet previousMembership = new BitSet();
+    private BitSet currentMembership = new BitSet();
+
+    private long inputPoints;
+    private long keptPoints;
+    private long mandatoryPoints;
+    private long simplifyNanos;
+    private long sinkNanos;
+    private boolean finished;
+
+    private TrajectorySimplifier(Builder builder) {
+        this.toleranceMeters = builder.toleranceMeters;
+        this.fences = builder.fences.toArray(new PreparedGeofence[0]);
+        this.pushCostMillis = builder.pushCostMillis != null ? builder.pushCostMillis : -1;
+        this.sink = builder.sink;
+        this.clock = builder.clock != null ? builder.clock : SimulationClocks.current();
+        this.latitudes = new double[builder.windowSize];
+        this.longitudes = new double[builder.windowSize];
+        this.timestamps = new long[builder.windowSize];
+        this.keep = new boolean[builder.windowSize];
+        this.stack = new int[builder.windowSize * 2];
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Feed the next fix of the route.
+     */
+    public void accept(double latitude, double longitude, long timestampMillis) {
+        if (finished) {
+            throw new IllegalStateException("Simplifier already finished");
+        }
+        long start = clock.nanoTime();
+        long sinkBefore = sinkNanos;
+        inputPoints++;
+
+        membership(latitude, longitude, currentMembership);
+        boolean changed = inputPoints > 1 && !currentMembership.equals(previousMembership);
+        BitSet swap = previousMembership;
+        previousMembership = currentMembership;
+        currentMembership = swap;
+
+        if (size == latitudes.length) {
+            flush(false);
+        }
+        latitudes[size] = latitude;
+        longitudes[size] = longitude;
+        timestamps[size] = timestampMillis;
+        // The first point of the route, and every point at a membership change, is kept
+        keep[size] = inputPoints == 1 || changed;
+        if (changed) {
+            if (!keep[size - 1]) {
+                keep[size - 1] = true;
+                mandatoryPoints++;
+            }
+            mandatoryPoints++;
+        }
+        size++;
+        simplifyNanos += clock.nanoTime() - start - (sinkNanos - sinkBefore);
+    }
+
+    public void accept(GeoLocation location, long timestampMillis) {
+        accept(location.getLatitude(), location.getLongitude(), timestampMillis);
+    }
+
+    /**
+     * Simplify and emit whatever is still buffered; the last point is always kept.
+     */
+    public Report finish() {
+        if (!finished) {
+            long start = clock.nanoTime();
+            long sinkBefore = sinkNanos;
+            finished = true;
+            if (size > 0) {
+                keep[size - 1] = true;
+                flush(true);
+            }
+            simplifyNanos += clock.nanoTime() - start - (sinkNanos - sinkBefore);
+        }
+        return report();
+    }
+
+    /**
+     * Savings are the dropped points times the mean time the sink took per kept point,
+     * unless {@link Builder#pushCostMillis} supplied an estimate.
+     */
+    public Report report() {
+        long dropped = inputPoints - keptPoints;
+        boolean estimated = pushCostMillis >= 0;
+        long saved;
+        if (estimated) {
+            saved = dropped * pushCostMillis;
+        } else {
+            saved = keptPoints == 0 ? 0 : Math.round(dropped * (sinkNanos / 1e6) / keptPoints);
+        }
+        return new Report(inputPoints, keptPoints, mandatoryPoints, simplifyNanos / 1_000_000,
+                sinkNanos / 1_000_000, saved, estimated);
+    }
+
+    /**
+     * Run Douglas-Peucker over the window between each pair of kept points and emit the
+     * result. Unless this is the end of the route, the window's last point is not
+     * emitted yet but carried over as the first point of the next window.
+     */
+    private void flush(boolean last) {
+        int end = size - 1;
+        keep[0] = true;
+        keep[end] = true;
+        int anchor = 0;
+        for (int i = 1; i <= end; i++) {
+            if (keep[i]) {
+                simplifyRange(anchor, i);
+                anchor = i;
+            }
+        }
+
+        int emitUpTo = last ? end : end - 1;
+        for (int i = 0; i <= emitUpTo; i++) {
+            if (keep[i]) {
+                long sinkStart = clock.nanoTime();
+                sink.accept(latitudes[i], longitudes[i], timestamps[i]);
+                sinkNanos += clock.nanoTime() - sinkStart;
+                keptPoints++;
+            }
+        }
+
+        if (!last) {
+            latitudes[0] = latitudes[end];
+            longitudes[0] = longitudes[end];
+            timestamps[0] = timestamps[end];
+            Arrays.fill(keep, false);
+            keep[0] = true;
+            size = 1;
+        }
+    }
+
+    private void simplifyRange(int first, int last) {
+        int top = 0;
+        stack[top++] = first;
+        stack[top++] = last;
+        while (top > 0) {
+            int to = stack[--top];
+            int from = stack[--top];
+            double maxDistance = -1;
+            int farthest = -1;
+            for (int i = from + 1; i < to; i++) {
+                double distance = distanceToSegment(i, from, to);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+            if (maxDistance > toleranceMeters) {
+                keep[farthest] = true;
+                stack[top++] = from;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = to;
+            }
+        }
+    }
+
+    /**
+     * Meters from point i to the segment from point a to point b, in a flat projection at a.
+     */
+    private double distanceToSegment(int i, int a, int b) {
+        double metersPerLonDegree = METERS_PER_DEGREE * Math.cos(Math.toRadians(latitudes[a]));
+        double px = normalizeDegrees(longitudes[i] - longitudes[a]) * metersPerLonDegree;
+        double py = (latitudes[i] - latitudes[a]) * METERS_PER_DEGREE;
+        double dx = normalizeDegrees(longitudes[b] - longitudes[a]) * metersPerLonDegree;
+        double dy = (latitudes[b] - latitudes[a]) * METERS_PER_DEGREE;
+
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared > 0 ? Math.max(0, Math.min(1, (px * dx + py * dy) / lengthSquared)) : 0;
+        return Math.hypot(px - t * dx, py - t * dy);
+    }
+
+    private void membership(double latitude, double longitude, BitSet out) {
+        out.clear();
+        for (int f = 0; f < fences.length; f++) {
+            if (fences[f].contains(latitude, longitude)) {
+                out.set(f);
+            }
+        }
+    }
+
+    private static double normalizeDegrees(double degrees) {
+        return degrees - 360 * Math.floor((degrees + 180) / 360);
+    }
+
+    /**
+     * Receives the simplified route.
+     */
+    @FunctionalInterface
+    public interface WaypointSink {
+        void accept(double latitude, double longitude, long timestampMillis);
+    }
+
+    /**
+     * Outcome of a simplification run.
+     * @param mandatoryPoints points kept because geofence membership changed there
+     * @param simplifyMillis time spent simplifying, not counting the sink
+     * @param sinkMillis time spent in the sink, e.g. pushing kept points to the device
+     * @param replayMillisSaved location pushes avoided times the cost of one push
+     * @param replaySavingsEstimated whether the push cost was the configured estimate
+     *                               rather than measured in the sink
+     */
+    public record Report(long inputPoints, long keptPoints, long mandatoryPoints,
+                         long simplifyMillis, long sinkMillis, long replayMillisSaved,
+                         boolean replaySavingsEstimated) {
+
+        public long droppedPoints() {
+            return inputPoints - keptPoints;
+        }
+
+        public double reductionRatio() {
+            return keptPoints == 0 ? 1.0 : (double) inputPoints / keptPoints;
+        }
+    }
+
+    public static class Builder {
+        private double toleranceMeters = 5.0;
+        private final List<PreparedGeofence> fences = new ArrayList<>();
+        private int windowSize = 4096;
+        private Long pushCostMillis;
+        private WaypointSink sink;
+        private SimulationClock clock;
+
+        /**
+         * Largest distance a dropped point may lie from the simplified route.
+         */
+        public Builder toleranceMeters(double toleranceMeters) {
+            this.toleranceMeters = toleranceMeters;
+            return this;
+        }
+
+        public Builder fence(Geofence fence) {
+            fences.add(PreparedGeofence.of(fence));
+            return this;
+        }
+
+        public Builder fences(Collection<Geofence> newFences) {
+            for (Geofence fence : newFences) {
+                fence(fence);
+            }
+            return this;
+        }
+
+        /**
+         * Points buffered between simplification passes; bounds memory and latency.
+         */
+        public Builder windowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Estimated wall time of one location push, for sinks that do not push to the
+         * device themselves, such as one that buffers the route for a later replay.
+         * When unset, the report measures the push cost in the sink.
+         */
+        public Builder pushCostMillis(long pushCostMillis) {
+            this.pushCostMillis = pushCostMillis;
+            return this;
+        }
+
+        public Builder sink(WaypointSink sink) {
+            this.sink = sink;
+            return this;
+        }
+
+        /**
+         * Clock that times simplification and the sink, instead of the process default.
+         */
+        public Builder clock(SimulationClock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public TrajectorySimplifier build() {
+            if (!(toleranceMeters >= 0)) {
+                throw new IllegalArgumentException("toleranceMeters must be non-negative: " + toleranceMeters);
+            }
+            if (pushCostMillis != null && pushCostMillis < 0) {
+                throw new IllegalArgumentException("pushCostMillis must be non-negative: " + pushCostMillis);
+            }
+            if (windowSize < 3) {
+                throw new IllegalArgumentException("windowSize must be at least 3: " + windowSize);
+            }
+            if (sink == null) {
+                throw new IllegalArgumentException("sink must be set");
+            }
+            return new TrajectorySimplifier(this);
+        }
+    }
+}
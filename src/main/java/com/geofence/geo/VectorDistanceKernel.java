@@ -0,0 +1,139 @@
+package com.geofence.geo;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.BitSet;
+
+/**
+ * SIMD Haversine kernel built on the incubating Vector API.
+ * Only loaded reflectively by {@link DistanceKernelFactory} when the module is present.
+ * <p>
+ * Containment runs the trig-free bound from {@link Haversine#quickRadiusCheck} across
+ * all lanes and sends undecided lanes to the scalar path, so results are identical to
+ * {@link ScalarDistanceKernel}. Distances use lane-wise SIN/COS/ATAN2, which may differ
+ * from {@link Math} by a few ulps (well under a micrometer).
+ */
+public final class VectorDistanceKernel implements DistanceKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double DEGREES_TO_RADIANS = Math.PI / 180;
+    private static final double MAX_NORMALIZED_LON_DELTA = 4.8;
+
+    public VectorDistanceKernel() {
+        // Touch the species so a missing module fails here, inside the factory's try block
+        if (SPECIES.length() < 1) {
+            throw new IllegalStateException("No vector lanes available");
+        }
+    }
+
+    @Override
+    public void distances(double[] latitudes, double[] longitudes, int size,
+                          double centerLat, double centerLon, double[] out) {
+        double cosCenter = Math.cos(Math.toRadians(centerLat));
+        int bound = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector lat = DoubleVector.fromArray(SPECIES, latitudes, i);
+            DoubleVector lon = DoubleVector.fromArray(SPECIES, longitudes, i);
+
+            DoubleVector latRad = lat.mul(DEGREES_TO_RADIANS);
+            DoubleVector halfDeltaLat = lat.neg().add(centerLat).mul(DEGREES_TO_RADIANS).mul(0.5);
+            DoubleVector halfDeltaLon = lon.neg().add(centerLon).mul(DEGREES_TO_RADIANS).mul(0.5);
+
+            DoubleVector sinLat = halfDeltaLat.lanewise(VectorOperators.SIN);
+            DoubleVector sinLon = halfDeltaLon.lanewise(VectorOperators.SIN);
+            DoubleVector a = sinLat.mul(sinLat)
+                    .add(latRad.lanewise(VectorOperators.COS).mul(cosCenter).mul(sinLon).mul(sinLon));
+
+            DoubleVector c = a.sqrt().lanewise(VectorOperators.ATAN2, a.neg().add(1).sqrt()).mul(2);
+            c.mul(Haversine.EARTH_RADIUS_METERS).intoArray(out, i);
+        }
+        for (; i < size; i++) {
+            out[i] = Haversine.distance(latitudes[i], longitudes[i], centerLat, centerLon, cosCenter);
+        }
+    }
+
+    @Override
+    public int containedIn(double[] latitudes, double[] longitudes, int size,
+                           double centerLat, double centerLon, double radiusMeters, BitSet out) {
+        double centerRad = Math.toRadians(centerLat);
+        double cosCenter = Math.cos(centerRad);
+        double sinCenter = Math.sin(centerRad);
+
+        Haversine.QuickCheckLimits limits = Haversine.quickCheckLimits(radiusMeters);
+        if (limits == null) {
+            return ScalarDistanceKernel.INSTANCE.containedIn(
+                    latitudes, longitudes, size, centerLat, centerLon, radiusMeters, out);
+        }
+
+        out.clear(0, size);
+        int inside = 0;
+        int bound = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector lat = DoubleVector.fromArray(SPECIES, latitudes, i);
+            DoubleVector deltaLat = lat.neg().add(centerLat).mul(DEGREES_TO_RADIANS);
+            DoubleVector absDeltaLat = deltaLat.abs();
+            VectorMask<Double> outsideLat = absDeltaLat.compare(VectorOperators.GT, limits.maxDeltaLat());
+            if (outsideLat.allTrue()) {
+                continue;
+            }
+
+            DoubleVector lon = DoubleVector.fromArray(SPECIES, longitudes, i);
+            DoubleVector deltaLon = lon.neg().add(centerLon).mul(DEGREES_TO_RADIANS);
+            deltaLon = deltaLon.sub(2 * Math.PI, deltaLon.compare(VectorOperators.GT, Math.PI))
+                    .add(2 * Math.PI, deltaLon.compare(VectorOperators.LT, -Math.PI));
+
+            DoubleVector deltaLatSquared = deltaLat.mul(deltaLat);
+            DoubleVector deltaLonSquared = deltaLon.mul(deltaLon);
+            DoubleVector cosPointEstimate = deltaLatSquared.mul(-0.5).add(1).mul(cosCenter)
+                    .add(deltaLat.mul(sinCenter));
+            DoubleVector cosPointError = absDeltaLat.mul(absDeltaLat).mul(absDeltaLat).mul(0.2);
+
+            DoubleVector latTerm = deltaLatSquared.mul(0.25);
+            DoubleVector lonTerm = deltaLonSquared.mul(0.25);
+            DoubleVector lowerA = latTerm.mul(deltaLatSquared.mul(-1.0 / 12).add(1))
+                    .add(cosPointEstimate.sub(cosPointError).max(0).mul(cosCenter)
+                            .mul(lonTerm).mul(deltaLonSquared.mul(-1.0 / 12).add(1)));
+            DoubleVector upperA = latTerm.add(cosPointEstimate.add(cosPointError).min(1).mul(cosCenter).mul(lonTerm));
+
+            VectorMask<Double> lonValid = deltaLon.abs().compare(VectorOperators.LE, MAX_NORMALIZED_LON_DELTA);
+            VectorMask<Double> outside = outsideLat.or(lowerA.compare(VectorOperators.GT, limits.outsideA()).and(lonValid));
+            VectorMask<Double> insideMask = upperA.compare(VectorOperators.LT, limits.insideA())
+                    .and(lonValid).andNot(outside);
+
+            long insideBits = insideMask.toLong();
+            long undecidedBits = ~(insideBits | outside.toLong()) & ((1L << SPECIES.length()) - 1);
+            while (insideBits != 0) {
+                out.set(i + Long.numberOfTrailingZeros(insideBits));
+                insideBits &= insideBits - 1;
+                inside++;
+            }
+            while (undecidedBits != 0) {
+                int index = i + Long.numberOfTrailingZeros(undecidedBits);
+                if (Haversine.isWithinRadius(latitudes[index], longitudes[index],
+                        centerLat, centerLon, cosCenter, sinCenter, radiusMeters)) {
+                    out.set(index);
+                    inside++;
+                }
+                undecidedBits &= undecidedBits - 1;
+            }
+        }
+        for (; i < size; i++) {
+            if (Haversine.isWithinRadius(latitudes[i], longitudes[i],
+                    centerLat, centerLon, cosCenter, sinCenter, radiusMeters)) {
+                out.set(i);
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.length() + "x64";
+    }
+}
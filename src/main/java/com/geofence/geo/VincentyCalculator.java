@@ -0,0 +1,74 @@
+package com.geofence.geo;
+
+/**
+ * Vincenty's inverse formula on the WGS84 ellipsoid.
+ * Falls back to Haversine for nearly antipodal points where the iteration does not converge.
+ */
+public final class VincentyCalculator implements DistanceCalculator {
+
+    public static final VincentyCalculator INSTANCE = new VincentyCalculator();
+
+    private static final double SEMI_MAJOR_AXIS = 6378137.0;
+    private static final double FLATTENING = 1 / 298.257223563;
+    private static final double SEMI_MINOR_AXIS = (1 - FLATTENING) * SEMI_MAJOR_AXIS;
+    private static final int MAX_ITERATIONS = 200;
+    private static final double CONVERGENCE_THRESHOLD = 1e-12;
+
+    private VincentyCalculator() {
+    }
+
+    @Override
+    public double distance(double lat1, double lon1, double lat2, double lon2) {
+        double deltaLon = Math.toRadians(lon2 - lon1);
+        double reducedLat1 = Math.atan((1 - FLATTENING) * Math.tan(Math.toRadians(lat1)));
+        double reducedLat2 = Math.atan((1 - FLATTENING) * Math.tan(Math.toRadians(lat2)));
+        double sinU1 = Math.sin(reducedLat1);
+        double cosU1 = Math.cos(reducedLat1);
+        double sinU2 = Math.sin(reducedLat2);
+        double cosU2 = Math.cos(reducedLat2);
+
+        double lambda = deltaLon;
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            double sinLambda = Math.sin(lambda);
+            double cosLambda = Math.cos(lambda);
+            double crossTerm = cosU1 * sinU2 - sinU1 * cosU2 * cosLambda;
+            double sinSigma = Math.sqrt(cosU2 * sinLambda * cosU2 * sinLambda + crossTerm * crossTerm);
+            if (sinSigma == 0) {
+                return 0;
+            }
+            double cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+            double sigma = Math.atan2(sinSigma, cosSigma);
+            double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+            double cosSquaredAlpha = 1 - sinAlpha * sinAlpha;
+            // Equatorial lines have cos^2(alpha) = 0
+            double cos2SigmaM = cosSquaredAlpha != 0 ? cosSigma - 2 * sinU1 * sinU2 / cosSquaredAlpha : 0;
+            double c = FLATTENING / 16 * cosSquaredAlpha * (4 + FLATTENING * (4 - 3 * cosSquaredAlpha));
+
+            double previousLambda = lambda;
+            lambda = deltaLon + (1 - c) * FLATTENING * sinAlpha
+                    * (sigma + c * sinSigma * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+
+            if (Math.abs(lambda - previousLambda) < CONVERGENCE_THRESHOLD) {
+                return geodesicLength(cosSquaredAlpha, sinSigma, cosSigma, sigma, cos2SigmaM);
+            }
+        }
+        return Haversine.distance(lat1, lon1, lat2, lon2);
+    }
+
+    private static double geodesicLength(double cosSquaredAlpha, double sinSigma, double cosSigma,
+                                         double sigma, double cos2SigmaM) {
+        double uSquared = cosSquaredAlpha * (SEMI_MAJOR_AXIS * SEMI_MAJOR_AXIS - SEMI_MINOR_AXIS * SEMI_MINOR_AXIS)
+                / (SEMI_MINOR_AXIS * SEMI_MINOR_AXIS);
+        double a = 1 + uSquared / 16384 * (4096 + uSquared * (-768 + uSquared * (320 - 175 * uSquared)));
+        double b = uSquared / 1024 * (256 + uSquared * (-128 + uSquared * (74 - 47 * uSquared)));
+        double cos2SigmaMSquared = cos2SigmaM * cos2SigmaM;
+        double deltaSigma = b * sinSigma * (cos2SigmaM + b / 4 * (cosSigma * (-1 + 2 * cos2SigmaMSquared)
+                - b / 6 * cos2SigmaM * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaMSquared)));
+        return SEMI_MINOR_AXIS * a * (sigma - deltaSigma);
+    }
+
+    @Override
+    public DistanceMode mode() {
+        return DistanceMode.VINCENTY;
+    }
+}
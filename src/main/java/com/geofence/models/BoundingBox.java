@@ -0,0 +1,56 @@
+package com.geofence.models;
+
+/**
+ * Latitude/longitude rectangle that conservatively encloses a circular geofence.
+ * Longitudes may extend past +/-180 when the box crosses the antimeridian.
+ */
+public record BoundingBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+
+    /**
+     * Small padding in degrees so floating-point rounding never excludes a point on the circle.
+     */
+    private static final double PADDING_DEGREES = 1e-9;
+
+    /**
+     * Build the smallest box containing every point within radiusMeters of the center.
+     */
+    public static BoundingBox around(GeoLocation center, double radiusMeters) {
+        double angularRadius = radiusMeters / GeoLocation.EARTH_RADIUS_METERS;
+        double latDelta = Math.toDegrees(angularRadius) + PADDING_DEGREES;
+
+        double minLat = center.getLatitude() - latDelta;
+        double maxLat = center.getLatitude() + latDelta;
+
+        double cosLat = Math.cos(Math.toRadians(center.getLatitude()));
+        double sinRadius = Math.sin(Math.min(angularRadius, Math.PI / 2));
+        if (minLat <= -90 || maxLat >= 90 || sinRadius >= cosLat) {
+            // Circle reaches a pole, so every longitude is covered
+            return new BoundingBox(Math.max(minLat, -90), Math.min(maxLat, 90), -180, 180);
+        }
+
+        double lonDelta = Math.toDegrees(Math.asin(sinRadius / cosLat)) + PADDING_DEGREES;
+        return new BoundingBox(minLat, maxLat,
+                center.getLongitude() - lonDelta, center.getLongitude() + lonDelta);
+    }
+
+    public boolean coversAllLongitudes() {
+        return maxLongitude - minLongitude >= 360;
+    }
+
+    /**
+     * Check whether a coordinate falls inside the box, taking antimeridian wrap into account.
+     */
+    public boolean contains(double latitude, double longitude) {
+        if (latitude < minLatitude || latitude > maxLatitude) {
+            return false;
+        }
+        if (coversAllLongitudes()) {
+            return true;
+        }
+        if (longitude >= minLongitude && longitude <= maxLongitude) {
+            return true;
+        }
+        double wrapped = longitude < minLongitude ? longitude + 360 : longitude - 360;
+        return wrapped >= minLongitude && wrapped <= maxLongitude;
+    }
+}
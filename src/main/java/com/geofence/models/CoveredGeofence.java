@@ -0,0 +1,291 @@
+package com.geofence.models;
+
+import com.geofence.geo.Haversine;
+import com.geofence.geo.Morton;
+import com.geofence.utils.LongLongHashMap;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A circular geofence covered by the {@link Morton} grid cells of one fixed level.
+ * <p>
+ * Every cell overlapping the fence's bounding box is classified once: inside when all of
+ * it lies within the radius, outside when none of it does, boundary otherwise. Inside and
+ * boundary cells go into a hash map; any other cell is outside. Containment for a point
+ * is then one hash lookup, and exact Haversine only runs for points in boundary cells.
+ * Results are identical to {@link PreparedGeofence#contains}.
+ * <p>
+ * Lookup counters are kept so the level can be tuned per radius; see {@link #stats()}.
+ */
+public final class CoveredGeofence {
+
+    public static final int MIN_LEVEL = 8;
+    public static final int MAX_LEVEL = Morton.BITS_PER_AXIS;
+
+    /**
+     * Largest number of cells classified for one fence; bounds precomputation time and memory.
+     */
+    private static final long MAX_CELLS = 1L << 22;
+
+    /**
+     * Cells within this many meters of the radius are never classified inside or outside,
+     * so rounding in the cell bounds cannot change a verdict.
+     */
+    private static final double MARGIN_METERS = 1e-3;
+
+    private static final long OUTSIDE = 0;
+    private static final long INSIDE = 1;
+    private static final long BOUNDARY = 2;
+
+    private final PreparedGeofence fence;
+    private final int level;
+    private final double cellHeight;
+    private final double cellWidth;
+    private final double rowsPerDegree;
+    private final double columnsPerDegree;
+    private final LongLongHashMap cells;
+    private final int insideCells;
+    private final int boundaryCells;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder exactChecks = new LongAdder();
+
+    private CoveredGeofence(Geofence fence, int level) {
+        this.fence = PreparedGeofence.of(fence);
+        this.level = level;
+        this.rowsPerDegree = (1L << level) / 180.0;
+        this.columnsPerDegree = (1L << level) / 360.0;
+
+        BoundingBox box = fence.boundingBox();
+        long axisCells = 1L << level;
+        long firstRow = Morton.latitudeCell(box.minLatitude(), level);
+        long lastRow = Morton.latitudeCell(box.maxLatitude(), level);
+        long firstColumn = (long) Math.floor((box.minLongitude() + 180) / 360 * axisCells);
+        long lastColumn = (long) Math.floor((box.maxLongitude() + 180) / 360 * axisCells);
+        if (box.coversAllLongitudes() || lastColumn - firstColumn + 1 >= axisCells) {
+            firstColumn = 0;
+            lastColumn = axisCells - 1;
+        }
+        long cellCount = (lastRow - firstRow + 1) * (lastColumn - firstColumn + 1);
+        if (cellCount > MAX_CELLS) {
+            throw new IllegalArgumentException("Fence " + fence.name() + " of " + fence.radiusMeters()
+                    + " m needs " + cellCount + " cells at level " + level + "; use a coarser level");
+        }
+
+        this.cells = new LongLongHashMap((int) Math.min(cellCount, 1 << 16));
+        this.cellHeight = 180.0 / axisCells;
+        this.cellWidth = 360.0 / axisCells;
+        boolean allColumns = lastColumn - firstColumn + 1 == axisCells;
+        long centerColumn = Math.max(firstColumn, Math.min(lastColumn,
+                (long) Math.floor((fence.center().getLongitude() + 180) / 360 * axisCells)));
+        int inside = 0;
+        int boundary = 0;
+        for (long row = firstRow; row <= lastRow; row++) {
+            long from = firstColumn;
+            long to = lastColumn;
+            long insideFrom = 0;
+            long insideTo = -1;
+            if (!allColumns) {
+                // Along a row, cells only get farther from the center moving away from its
+                // column, so the covered cells are one run with the inside cells in its middle
+                long east = reach(row, centerColumn, lastColumn - centerColumn, 1, BOUNDARY);
+                if (east < 0) {
+                    continue;
+                }
+                from = centerColumn - reach(row, centerColumn, centerColumn - firstColumn, -1, BOUNDARY);
+                to = centerColumn + east;
+                long insideEast = reach(row, centerColumn, east, 1, INSIDE);
+                if (insideEast >= 0) {
+                    insideFrom = centerColumn - reach(row, centerColumn, centerColumn - from, -1, INSIDE);
+                    insideTo = centerColumn + insideEast;
+                }
+            }
+            for (long c = from; c <= to; c++) {
+                long state = allColumns ? classify(row, c) : c >= insideFrom && c <= insideTo ? INSIDE : BOUNDARY;
+                if (state != OUTSIDE) {
+                    cells.put((row << level) | Math.floorMod(c, axisCells), state);
+                    if (state == INSIDE) {
+                        inside++;
+                    } else {
+                        boundary++;
+                    }
+                }
+            }
+        }
+        this.insideCells = inside;
+        this.boundaryCells = boundary;
+    }
+
+    /**
+     * Cover the fence at the given level: cells are 180 / 2^level degrees of latitude by
+     * 360 / 2^level degrees of longitude (level 20 is about 19 m x 38 m at the equator).
+     */
+    public static CoveredGeofence of(Geofence fence, int level) {
+        if (level < MIN_LEVEL || level > MAX_LEVEL) {
+            throw new IllegalArgumentException("level must be in [" + MIN_LEVEL + ", " + MAX_LEVEL + "]: " + level);
+        }
+        return new CoveredGeofence(fence, level);
+    }
+
+    public boolean contains(GeoLocation point) {
+        return contains(point.getLatitude(), point.getLongitude());
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        lookups.increment();
+        long state = cells.get(cellKey(latitude, longitude), OUTSIDE);
+        if (state != BOUNDARY) {
+            return state == INSIDE;
+        }
+        exactChecks.increment();
+        return fence.contains(latitude, longitude);
+    }
+
+    /**
+     * Visit the covering's inside and boundary cells by key; every other cell is outside.
+     */
+    public void forEachCell(CellVisitor visitor) {
+        cells.forEach((key, state) -> visitor.visit(key, state == BOUNDARY));
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return cellKey(latitude, longitude, level, rowsPerDegree, columnsPerDegree);
+    }
+
+    /**
+     * Row-major key of the point's cell at a level, as used by every covering of that
+     * level. Rows and columns match {@link Morton#latitudeCell} and {@link Morton#longitudeCell}.
+     */
+    public static long cellKey(double latitude, double longitude, int level) {
+        return cellKey(latitude, longitude, level, (1L << level) / 180.0, (1L << level) / 360.0);
+    }
+
+    private static long cellKey(double latitude, double longitude, int level,
+                                double rowsPerDegree, double columnsPerDegree) {
+        long row = (long) ((latitude + 90) * rowsPerDegree);
+        double shifted = longitude + 180;
+        if (!(shifted >= 0 && shifted < 360)) {
+            shifted -= 360 * Math.floor(shifted / 360);
+        }
+        long column = (long) (shifted * columnsPerDegree);
+        long lastCell = (1L << level) - 1;
+        return (Math.max(0, Math.min(lastCell, row)) << level) | Math.min(lastCell, column);
+    }
+
+    public Geofence getFence() {
+        return fence.getFence();
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Cell counts and lookup counters so far.
+     */
+    public Stats stats() {
+        return new Stats(fence.getFence().name(), fence.getRadiusMeters(), level, insideCells, boundaryCells,
+                lookups.sum(), exactChecks.sum());
+    }
+
+    public void resetStats() {
+        lookups.reset();
+        exactChecks.reset();
+    }
+
+    /**
+     * The farthest point of a lat/lon rectangle from a given point is one of its corners,
+     * unless the rectangle straddles that point's antipodal meridian. So a cell
+     * is inside when all four corners are, and outside when the distance to its center
+     * exceeds the radius plus the center's farthest corner.
+     */
+    private long classify(long row, long column) {
+        long wrapped = Math.floorMod(column, 1L << level);
+        double south = -90 + row * cellHeight;
+        double west = -180 + wrapped * cellWidth;
+        return classify(south, south + cellHeight, west, west + cellWidth);
+    }
+
+    /**
+     * Farthest offset d in [0, limit] such that the cell {@code d} columns from
+     * {@code column} in direction {@code step} is at least as covered as {@code wanted}
+     * (inside counts as covered by boundary), or -1 if not even the first cell is.
+     */
+    private long reach(long row, long column, long limit, int step, long wanted) {
+        if (!covers(classify(row, column), wanted)) {
+            return -1;
+        }
+        long low = 0;
+        long high = limit;
+        while (low < high) {
+            long mid = (low + high + 1) >>> 1;
+            if (covers(classify(row, column + step * mid), wanted)) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private static boolean covers(long state, long wanted) {
+        return wanted == BOUNDARY ? state != OUTSIDE : state == INSIDE;
+    }
+
+    private long classify(double south, double north, double west, double east) {
+        double radius = fence.getRadiusMeters();
+        boolean straddlesAntimeridian = straddles(west, east, fence.getCenter().getLongitude() + 180);
+        if (!straddlesAntimeridian
+                && fence.distanceTo(south, west) <= radius - MARGIN_METERS
+                && fence.distanceTo(south, east) <= radius - MARGIN_METERS
+                && fence.distanceTo(north, west) <= radius - MARGIN_METERS
+                && fence.distanceTo(north, east) <= radius - MARGIN_METERS) {
+            return INSIDE;
+        }
+        double centerLatitude = (south + north) / 2;
+        double centerLongitude = (west + east) / 2;
+        double halfDiagonal = Math.max(Haversine.distance(centerLatitude, centerLongitude, south, west),
+                Haversine.distance(centerLatitude, centerLongitude, north, west));
+        if (fence.distanceTo(centerLatitude, centerLongitude) > radius + halfDiagonal + MARGIN_METERS) {
+            return OUTSIDE;
+        }
+        return BOUNDARY;
+    }
+
+    private static boolean straddles(double west, double east, double longitude) {
+        double offset = longitude - west - 360 * Math.floor((longitude - west) / 360);
+        return offset <= east - west;
+    }
+
+    /**
+     * Receives covering cells.
+     */
+    @FunctionalInterface
+    public interface CellVisitor {
+        void visit(long cellKey, boolean boundary);
+    }
+
+    /**
+     * Covering size and lookup counters for one fence.
+     * @param insideCells cells answered "inside" without any distance math
+     * @param boundaryCells cells whose points still need an exact check
+     * @param exactChecks lookups that fell in a boundary cell
+     */
+    public record Stats(String fenceName, double radiusMeters, int level, int insideCells, int boundaryCells,
+                        long lookups, long exactChecks) {
+
+        /**
+         * Share of lookups answered by the cell map alone, or 0 before any lookup.
+         */
+        public double hitRate() {
+            return lookups == 0 ? 0.0 : 1.0 - (double) exactChecks / lookups;
+        }
+
+        /**
+         * Share of the fence's covering cells that are boundary cells.
+         */
+        public double boundaryCellFraction() {
+            int covering = insideCells + boundaryCells;
+            return covering == 0 ? 0.0 : (double) boundaryCells / covering;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.geofence.models;
+
+import com.geofence.geo.E7;
+
+/**
+ * A coordinate as two ints in 1e-7 degree units; see {@link E7}.
+ * Ordered by latitude, then longitude.
+ */
+public record E7Coordinate(int latitudeE7, int longitudeE7) implements Comparable<E7Coordinate> {
+
+    public E7Coordinate {
+        if (Math.abs((long) latitudeE7) > E7.MAX_LATITUDE || Math.abs((long) longitudeE7) > E7.MAX_LONGITUDE) {
+            throw new IllegalArgumentException("E7 coordinate out of range: (" + latitudeE7 + ", " + longitudeE7 + ")");
+        }
+    }
+
+    public static E7Coordinate of(double latitude, double longitude) {
+        return unpack(E7.pack(latitude, longitude));
+    }
+
+    public static E7Coordinate of(GeoLocation location) {
+        return of(location.getLatitude(), location.getLongitude());
+    }
+
+    public static E7Coordinate unpack(long packed) {
+        return new E7Coordinate(E7.latitudeE7(packed), E7.longitudeE7(packed));
+    }
+
+    public long pack() {
+        return E7.packE7(latitudeE7, longitudeE7);
+    }
+
+    public double latitude() {
+        return E7.toDegrees(latitudeE7);
+    }
+
+    public double longitude() {
+        return E7.toDegrees(longitudeE7);
+    }
+
+    public GeoLocation toGeoLocation() {
+        return GeoLocation.of(latitude(), longitude());
+    }
+
+    @Override
+    public int compareTo(E7Coordinate other) {
+        int byLatitude = Integer.compare(latitudeE7, other.latitudeE7);
+        return byLatitude != 0 ? byLatitude : Integer.compare(longitudeE7, other.longitudeE7);
+    }
+}
@@ -0,0 +1,103 @@
+package com.geofence.models;
+
+import com.geofence.geo.E7;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Compact batch of points stored as packed E7 longs: 8 bytes per point, half of
+ * {@link GeoPointBatch}. Suited to holding large recorded routes or fix streams
+ * in memory; convert to a {@link GeoPointBatch} for vectorized distance scans.
+ */
+public final class E7PointBatch {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] points;
+    private int size;
+
+    public E7PointBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public E7PointBatch(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be non-negative: " + capacity);
+        }
+        this.points = new long[capacity];
+    }
+
+    public static E7PointBatch of(Collection<GeoLocation> locations) {
+        E7PointBatch batch = new E7PointBatch(locations.size());
+        for (GeoLocation location : locations) {
+            batch.add(location);
+        }
+        return batch;
+    }
+
+    public void add(double latitude, double longitude) {
+        addPacked(E7.pack(latitude, longitude));
+    }
+
+    public void add(GeoLocation location) {
+        add(location.getLatitude(), location.getLongitude());
+    }
+
+    public void addPacked(long packed) {
+        if (size == points.length) {
+            points = Arrays.copyOf(points, Math.max(DEFAULT_CAPACITY, size * 2));
+        }
+        points[size++] = packed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public long packed(int index) {
+        checkIndex(index);
+        return points[index];
+    }
+
+    public int latitudeE7(int index) {
+        return E7.latitudeE7(packed(index));
+    }
+
+    public int longitudeE7(int index) {
+        return E7.longitudeE7(packed(index));
+    }
+
+    public double latitude(int index) {
+        return E7.latitude(packed(index));
+    }
+
+    public double longitude(int index) {
+        return E7.longitude(packed(index));
+    }
+
+    public GeoLocation get(int index) {
+        return GeoLocation.of(latitude(index), longitude(index));
+    }
+
+    /**
+     * Expand to double precision for distance kernels.
+     */
+    public GeoPointBatch toGeoPointBatch() {
+        GeoPointBatch batch = new GeoPointBatch(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(E7.latitude(points[i]), E7.longitude(points[i]));
+        }
+        return batch;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.geofence.models;
+
+/**
+ * Distance from a point to a fence's boundary.
+ * @param signedDistanceMeters distance to the center minus the radius: negative inside
+ *                             the fence, zero on the boundary, positive outside
+ */
+public record FenceDistance(Geofence fence, double signedDistanceMeters) {
+
+    public boolean isInside() {
+        return signedDistanceMeters <= 0;
+    }
+
+    /**
+     * Unsigned distance to the boundary, whichever side the point is on.
+     */
+    public double boundaryDistanceMeters() {
+        return Math.abs(signedDistanceMeters);
+    }
+}
@@ -1,5 +1,7 @@
 package com.geofence.models;
 
+import com.geofence.geo.Haversine;
+
 import java.util.Objects;
 
 /**
@@ -8,7 +10,7 @@ import java.util.Objects;
  */
 public class GeoLocation {
 
-    private static final double EARTH_RADIUS_METERS = 6371000;
+    public static final double EARTH_RADIUS_METERS = Haversine.EARTH_RADIUS_METERS;
 
     private final double latitude;
     private final double longitude;
@@ -43,25 +45,32 @@ public class GeoLocation {
      * @return distance in meters
      */
     public double distanceTo(GeoLocation other) {
-        double lat1Rad = Math.toRadians(this.latitude);
-        double lat2Rad = Math.toRadians(other.latitude);
-        double deltaLat = Math.toRadians(other.latitude - this.latitude);
-        double deltaLon = Math.toRadians(other.longitude - this.longitude);
-
-        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2)
-                + Math.cos(lat1Rad) * Math.cos(lat2Rad)
-                * Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return EARTH_RADIUS_METERS * c;
+        return Haversine.distance(latitude, longitude, other.latitude, other.longitude);
     }
 
     /**
      * Check if this location is within the given radius of a center point.
+     * Points outside the radius's latitude band are rejected without trig; the rest pay
+     * for the center's cos/sin, see {@link Haversine#isWithinRadius(double, double, double,
+     * double, double)}. Use {@link PreparedGeofence} to reuse a center.
      */
     public boolean isWithinRadius(GeoLocation center, double radiusMeters) {
-        return distanceTo(center) <= radiusMeters;
+        return Haversine.isWithinRadius(latitude, longitude, center.latitude, center.longitude, radiusMeters);
+    }
+
+    /**
+     * cos of the latitude in radians; computed on each call, so callers that reuse
+     * a center keep the result themselves.
+     */
+    public double cosLatitude() {
+        return Math.cos(Math.toRadians(latitude));
+    }
+
+    /**
+     * sin of the latitude in radians; computed on each call.
+     */
+    public double sinLatitude() {
+        return Math.sin(Math.toRadians(latitude));
     }
 
     /**
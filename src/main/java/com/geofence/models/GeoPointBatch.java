@@ -0,0 +1,138 @@
+package com.geofence.models;
+
+import com.geofence.geo.DistanceKernel;
+import com.geofence.geo.DistanceKernelFactory;
+import com.geofence.geo.Haversine;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Structure-of-arrays batch of coordinates for bulk distance and containment scans.
+ * Latitudes and longitudes live in parallel primitive arrays, so scanning a batch
+ * does no per-point allocation or pointer chasing. Results are identical to calling
+ * {@link GeoLocation#distanceTo} and {@link GeoLocation#isWithinRadius} per point.
+ */
+public class GeoPointBatch {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private double[] latitudes;
+    private double[] longitudes;
+    private int size;
+
+    public GeoPointBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public GeoPointBatch(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be non-negative: " + capacity);
+        }
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+    }
+
+    /**
+     * Wrap existing arrays without copying; both must have at least {@code size} entries.
+     */
+    public static GeoPointBatch wrap(double[] latitudes, double[] longitudes, int size) {
+        if (size > latitudes.length || size > longitudes.length) {
+            throw new IllegalArgumentException("size exceeds array length: " + size);
+        }
+        GeoPointBatch batch = new GeoPointBatch(0);
+        batch.latitudes = latitudes;
+        batch.longitudes = longitudes;
+        batch.size = size;
+        return batch;
+    }
+
+    public static GeoPointBatch of(Collection<GeoLocation> locations) {
+        GeoPointBatch batch = new GeoPointBatch(locations.size());
+        for (GeoLocation location : locations) {
+            batch.add(location);
+        }
+        return batch;
+    }
+
+    public void add(double latitude, double longitude) {
+        if (size == latitudes.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, size * 2);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+        }
+        latitudes[size] = latitude;
+        longitudes[size] = longitude;
+        size++;
+    }
+
+    public void add(GeoLocation location) {
+        add(location.getLatitude(), location.getLongitude());
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double latitude(int index) {
+        checkIndex(index);
+        return latitudes[index];
+    }
+
+    public double longitude(int index) {
+        checkIndex(index);
+        return longitudes[index];
+    }
+
+    public GeoLocation get(int index) {
+        return GeoLocation.of(latitude(index), longitude(index));
+    }
+
+    /**
+     * Write the Haversine distance in meters from each point to the center into {@code out}.
+     */
+    public void distancesTo(GeoLocation center, double[] out) {
+        if (out.length < size) {
+            throw new IllegalArgumentException("out must hold at least " + size + " values");
+        }
+        double centerLat = center.getLatitude();
+        double centerLon = center.getLongitude();
+        double cosCenter = center.cosLatitude();
+        for (int i = 0; i < size; i++) {
+            out[i] = Haversine.distance(latitudes[i], longitudes[i], centerLat, centerLon, cosCenter);
+        }
+    }
+
+    /**
+     * Bulk distances through the given kernel, e.g. {@link DistanceKernelFactory#best()}.
+     * SIMD kernels may differ from {@link #distancesTo(GeoLocation, double[])} by a few ulps.
+     */
+    public void distancesTo(GeoLocation center, double[] out, DistanceKernel kernel) {
+        if (out.length < size) {
+            throw new IllegalArgumentException("out must hold at least " + size + " values");
+        }
+        kernel.distances(latitudes, longitudes, size, center.getLatitude(), center.getLongitude(), out);
+    }
+
+    /**
+     * Set bit i of {@code out} for every point within the radius and clear it otherwise.
+     * Size the BitSet to at least {@link #size()} bits up front to avoid it growing.
+     * Runs on the fastest available kernel; containment results never depend on the kernel.
+     * @return number of points inside
+     */
+    public int containedIn(GeoLocation center, double radiusMeters, BitSet out) {
+        return DistanceKernelFactory.best().containedIn(latitudes, longitudes, size,
+                center.getLatitude(), center.getLongitude(), radiusMeters, out);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
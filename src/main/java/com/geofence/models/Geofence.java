@@ -0,0 +1,35 @@
+package com.geofence.models;
+
+import java.util.Objects;
+
+/**
+ * A named circular geofence: a center point and a radius in meters.
+ */
+public record Geofence(String name, GeoLocation center, double radiusMeters) {
+
+    public Geofence {
+        Objects.requireNonNull(center, "center must not be null");
+        if (radiusMeters < 0 || Double.isNaN(radiusMeters)) {
+            throw new IllegalArgumentException("radiusMeters must be non-negative: " + radiusMeters);
+        }
+    }
+
+    public static Geofence of(String name, double latitude, double longitude, double radiusMeters) {
+        return new Geofence(name, GeoLocation.of(latitude, longitude), radiusMeters);
+    }
+
+    public static Geofence fromRequest(GeoFenceRequest request) {
+        return of(request.getName(), request.getLatitude(), request.getLongitude(), request.getRadius());
+    }
+
+    /**
+     * Check if a point is inside this geofence using the same rule as {@link GeoLocation#isWithinRadius}.
+     */
+    public boolean contains(GeoLocation point) {
+        return point.isWithinRadius(center, radiusMeters);
+    }
+
+    public BoundingBox boundingBox() {
+        return BoundingBox.around(center, radiusMeters);
+    }
+}
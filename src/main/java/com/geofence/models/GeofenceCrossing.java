@@ -0,0 +1,9 @@
+package com.geofence.models;
+
+/**
+ * A predicted boundary crossing: where and when a path enters or exits a fence.
+ * @param fraction position along the path, from 0 (start) to 1 (end)
+ */
+public record GeofenceCrossing(Geofence fence, GeofenceTransition transition, GeoLocation location,
+                               double fraction, long timestampMillis) {
+}
@@ -0,0 +1,7 @@
+package com.geofence.models;
+
+/**
+ * A geofence transition observed for one device.
+ */
+public record GeofenceEvent(long deviceId, int fenceIndex, GeofenceTransition transition, long timestampMillis) {
+}
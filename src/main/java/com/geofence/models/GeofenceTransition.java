@@ -0,0 +1,29 @@
+package com.geofence.models;
+
+/**
+ * Geofence transition types, mirroring the platform geofencing APIs.
+ */
+public enum GeofenceTransition {
+    ENTER,
+    EXIT,
+    DWELL;
+
+    /**
+     * Parse a transition name; accepts the "ENTRY" spelling used in scenario test data.
+     * @return the transition, or null for "NONE" or blank input
+     */
+    public static GeofenceTransition fromString(String value) {
+        if (value == null || value.isBlank() || "NONE".equalsIgnoreCase(value)) {
+            return null;
+        }
+        if ("ENTRY".equalsIgnoreCase(value)) {
+            return ENTER;
+        }
+        for (GeofenceTransition transition : values()) {
+            if (transition.name().equalsIgnoreCase(value)) {
+                return transition;
+            }
+        }
+        throw new IllegalArgumentException("Unknown geofence transition: " + value);
+    }
+}
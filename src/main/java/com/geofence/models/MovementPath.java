@@ -0,0 +1,41 @@
+package com.geofence.models;
+
+import java.util.Objects;
+
+/**
+ * A device moving at constant speed from one location to another over a time window.
+ * The shape decides how intermediate positions are interpolated.
+ */
+public record MovementPath(GeoLocation from, GeoLocation to, long startMillis, long durationMillis, Shape shape) {
+
+    public enum Shape {
+        /** Latitude and longitude interpolated linearly, as uniform step simulation used to do. */
+        STRAIGHT,
+        /** Shortest great-circle arc at constant angular speed. */
+        GREAT_CIRCLE
+    }
+
+    public MovementPath {
+        Objects.requireNonNull(from, "from must not be null");
+        Objects.requireNonNull(to, "to must not be null");
+        Objects.requireNonNull(shape, "shape must not be null");
+        if (durationMillis < 0) {
+            throw new IllegalArgumentException("durationMillis must be non-negative: " + durationMillis);
+        }
+    }
+
+    public static MovementPath greatCircle(GeoLocation from, GeoLocation to, long startMillis, long durationMillis) {
+        return new MovementPath(from, to, startMillis, durationMillis, Shape.GREAT_CIRCLE);
+    }
+
+    public static MovementPath straight(GeoLocation from, GeoLocation to, long startMillis, long durationMillis) {
+        return new MovementPath(from, to, startMillis, durationMillis, Shape.STRAIGHT);
+    }
+
+    /**
+     * Time at which the device reaches the given fraction of the path.
+     */
+    public long timeAt(double fraction) {
+        return startMillis + Math.round(fraction * durationMillis);
+    }
+}
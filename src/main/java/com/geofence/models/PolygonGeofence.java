@@ -0,0 +1,130 @@
+package com.geofence.models;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A named polygon geofence. Vertices are plain latitude/longitude degrees joined by
+ * straight edges in that plane, as in GeoJSON; the ring must not cross the antimeridian.
+ * {@link #contains} scans every edge; use {@link #prepare} when checking many points.
+ */
+public final class PolygonGeofence {
+
+    private final String name;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private PolygonGeofence(String name, double[] latitudes, double[] longitudes, int size) {
+        if (size < 3) {
+            throw new IllegalArgumentException("Polygon needs at least 3 distinct vertices: " + size);
+        }
+        for (int i = 0; i < size; i++) {
+            if (!(Math.abs(latitudes[i]) <= 90) || !(Math.abs(longitudes[i]) <= 180)) {
+                throw new IllegalArgumentException("Invalid vertex " + i + ": ("
+                        + latitudes[i] + ", " + longitudes[i] + ")");
+            }
+        }
+        this.name = name;
+        this.latitudes = Arrays.copyOf(latitudes, size);
+        this.longitudes = Arrays.copyOf(longitudes, size);
+    }
+
+    /**
+     * Create a polygon from its ring; a closing vertex equal to the first one is dropped.
+     */
+    public static PolygonGeofence of(String name, double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Latitude and longitude counts differ: "
+                    + latitudes.length + " vs " + longitudes.length);
+        }
+        int size = latitudes.length;
+        if (size > 1 && latitudes[0] == latitudes[size - 1] && longitudes[0] == longitudes[size - 1]) {
+            size--;
+        }
+        return new PolygonGeofence(name, latitudes, longitudes, size);
+    }
+
+    public static PolygonGeofence of(String name, List<GeoLocation> vertices) {
+        double[] lats = new double[vertices.size()];
+        double[] lons = new double[vertices.size()];
+        for (int i = 0; i < lats.length; i++) {
+            lats[i] = vertices.get(i).getLatitude();
+            lons[i] = vertices.get(i).getLongitude();
+        }
+        return of(name, lats, lons);
+    }
+
+    /**
+     * Even-odd ray casting test against every edge.
+     */
+    public boolean contains(GeoLocation point) {
+        return contains(point.getLatitude(), point.getLongitude());
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        boolean inside = false;
+        for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+            if (crosses(latitudes[i], longitudes[i], latitudes[j], longitudes[j], latitude, longitude)) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Whether an eastward ray from the point crosses the edge from vertex i to vertex j.
+     * Shared with {@link PreparedPolygonGeofence} so both give identical answers.
+     */
+    static boolean crosses(double latI, double lonI, double latJ, double lonJ, double latitude, double longitude) {
+        return (latI > latitude) != (latJ > latitude)
+                && longitude < (lonJ - lonI) * (latitude - latI) / (latJ - latI) + lonI;
+    }
+
+    public BoundingBox boundingBox() {
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < latitudes.length; i++) {
+            minLat = Math.min(minLat, latitudes[i]);
+            maxLat = Math.max(maxLat, latitudes[i]);
+            minLon = Math.min(minLon, longitudes[i]);
+            maxLon = Math.max(maxLon, longitudes[i]);
+        }
+        return new BoundingBox(minLat, maxLat, minLon, maxLon);
+    }
+
+    /**
+     * Prepared form with latitude edge buckets only.
+     */
+    public PreparedPolygonGeofence prepare() {
+        return PreparedPolygonGeofence.of(this);
+    }
+
+    /**
+     * Prepared form with edge buckets plus a raster of gridResolution x gridResolution cells.
+     */
+    public PreparedPolygonGeofence prepare(int gridResolution) {
+        return PreparedPolygonGeofence.of(this, gridResolution);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getVertexCount() {
+        return latitudes.length;
+    }
+
+    public double getLatitude(int index) {
+        return latitudes[index];
+    }
+
+    public double getLongitude(int index) {
+        return longitudes[index];
+    }
+
+    public GeoLocation getVertex(int index) {
+        return GeoLocation.of(latitudes[index], longitudes[index]);
+    }
+}
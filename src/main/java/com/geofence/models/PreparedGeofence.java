@@ -0,0 +1,92 @@
+package com.geofence.models;
+
+import com.geofence.geo.Haversine;
+
+/**
+ * A circular geofence with its center trig and radius thresholds computed once.
+ * Each check then costs only the point-side work; results are identical to
+ * {@link GeoLocation#isWithinRadius} and {@link GeoLocation#distanceTo}.
+ */
+public final class PreparedGeofence {
+
+    private final Geofence fence;
+    private final double latitude;
+    private final double longitude;
+    private final double cosLatitude;
+    private final double sinLatitude;
+    private final double radiusMeters;
+    private final double angularRadius;
+    private final Haversine.QuickCheckLimits limits;
+
+    private PreparedGeofence(Geofence fence) {
+        this.fence = fence;
+        this.latitude = fence.center().getLatitude();
+        this.longitude = fence.center().getLongitude();
+        this.cosLatitude = fence.center().cosLatitude();
+        this.sinLatitude = fence.center().sinLatitude();
+        this.radiusMeters = fence.radiusMeters();
+        this.angularRadius = radiusMeters / Haversine.EARTH_RADIUS_METERS;
+        this.limits = Haversine.quickCheckLimits(radiusMeters);
+    }
+
+    public static PreparedGeofence of(Geofence fence) {
+        return new PreparedGeofence(fence);
+    }
+
+    public static PreparedGeofence of(GeoLocation center, double radiusMeters) {
+        return new PreparedGeofence(new Geofence(center.getName(), center, radiusMeters));
+    }
+
+    public boolean contains(GeoLocation point) {
+        return contains(point.getLatitude(), point.getLongitude());
+    }
+
+    public boolean contains(double pointLatitude, double pointLongitude) {
+        if (limits != null) {
+            int quick = Haversine.quickRadiusCheck(pointLatitude, pointLongitude, latitude, longitude,
+                    cosLatitude, sinLatitude, limits.maxDeltaLat(), limits.outsideA(), limits.insideA());
+            if (quick != 0) {
+                return quick > 0;
+            }
+        }
+        return distanceTo(pointLatitude, pointLongitude) <= radiusMeters;
+    }
+
+    /**
+     * Distance in meters from the point to the center.
+     */
+    public double distanceTo(GeoLocation point) {
+        return distanceTo(point.getLatitude(), point.getLongitude());
+    }
+
+    public double distanceTo(double pointLatitude, double pointLongitude) {
+        return Haversine.distance(pointLatitude, pointLongitude, latitude, longitude, cosLatitude);
+    }
+
+    public Geofence getFence() {
+        return fence;
+    }
+
+    public GeoLocation getCenter() {
+        return fence.center();
+    }
+
+    public double getRadiusMeters() {
+        return radiusMeters;
+    }
+
+    /**
+     * Radius as a central angle in radians.
+     */
+    public double getAngularRadius() {
+        return angularRadius;
+    }
+
+    public double getCosLatitude() {
+        return cosLatitude;
+    }
+
+    public double getSinLatitude() {
+        return sinLatitude;
+    }
+}
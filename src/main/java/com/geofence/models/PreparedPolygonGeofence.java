@@ -0,0 +1,284 @@
+package com.geofence.models;
+
+import java.util.Arrays;
+
+/**
+ * A {@link PolygonGeofence} indexed for fast containment checks.
+ * <p>
+ * Points outside the bounding box are rejected first. The box is cut into horizontal
+ * latitude bands, and every edge is copied into each band it spans, sorted by its lowest
+ * latitude. A ray-casting query then only tests the edges of the point's band and stops
+ * at the first edge that starts above the point. An optional raster grid marks each cell
+ * as inside, outside or boundary; only points in boundary cells need any edge tests.
+ * Results are identical to {@link PolygonGeofence#contains}.
+ */
+public final class PreparedPolygonGeofence {
+
+    private static final byte OUTSIDE = 0;
+    private static final byte INSIDE = 1;
+    private static final byte BOUNDARY = 2;
+
+    private static final int MAX_BANDS = 1 << 16;
+    private static final int MAX_GRID_RESOLUTION = 4096;
+
+    /**
+     * Band copies allowed per edge before the band count is halved; bounds memory for
+     * polygons with many tall edges.
+     */
+    private static final int MAX_ENTRIES_PER_EDGE = 16;
+
+    private final PolygonGeofence polygon;
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+
+    private final int bandCount;
+    private final double bandHeight;
+    private final int[] bandStart;
+    // Per band entry, sorted by lowest latitude: the edge's vertex i and j coordinates
+    private final double[] entryMinLatitude;
+    private final double[] entryCoordinates;
+
+    private final int gridResolution;
+    private final double cellHeight;
+    private final double cellWidth;
+    private final byte[] cells;
+
+    private PreparedPolygonGeofence(PolygonGeofence polygon, int gridResolution) {
+        this.polygon = polygon;
+        BoundingBox box = polygon.boundingBox();
+        this.minLatitude = box.minLatitude();
+        this.maxLatitude = box.maxLatitude();
+        this.minLongitude = box.minLongitude();
+        this.maxLongitude = box.maxLongitude();
+
+        int edges = polygon.getVertexCount();
+        int bands = Math.min(MAX_BANDS, edges);
+        int[] counts = countBandEntries(bands);
+        while (bands > 1 && counts[bands] > (long) MAX_ENTRIES_PER_EDGE * edges) {
+            bands /= 2;
+            counts = countBandEntries(bands);
+        }
+        this.bandCount = bands;
+        this.bandHeight = (maxLatitude - minLatitude) / bands;
+        this.bandStart = new int[bands + 1];
+        System.arraycopy(counts, 0, bandStart, 0, bands + 1);
+        this.entryMinLatitude = new double[bandStart[bands]];
+        this.entryCoordinates = new double[bandStart[bands] * 4];
+        fillBands();
+
+        this.gridResolution = gridResolution;
+        if (gridResolution > 0) {
+            this.cellHeight = (maxLatitude - minLatitude) / gridResolution;
+            this.cellWidth = (maxLongitude - minLongitude) / gridResolution;
+            this.cells = new byte[gridResolution * gridResolution];
+            rasterize();
+        } else {
+            this.cellHeight = 0;
+            this.cellWidth = 0;
+            this.cells = null;
+        }
+    }
+
+    public static PreparedPolygonGeofence of(PolygonGeofence polygon) {
+        return new PreparedPolygonGeofence(polygon, 0);
+    }
+
+    /**
+     * Prepare with a raster of gridResolution x gridResolution cells over the bounding box.
+     */
+    public static PreparedPolygonGeofence of(PolygonGeofence polygon, int gridResolution) {
+        if (gridResolution < 1 || gridResolution > MAX_GRID_RESOLUTION) {
+            throw new IllegalArgumentException("gridResolution must be in [1, " + MAX_GRID_RESOLUTION + "]: "
+                    + gridResolution);
+        }
+        return new PreparedPolygonGeofence(polygon, gridResolution);
+    }
+
+    public boolean contains(GeoLocation point) {
+        return contains(point.getLatitude(), point.getLongitude());
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        if (!(latitude >= minLatitude && latitude <= maxLatitude
+                && longitude >= minLongitude && longitude <= maxLongitude)) {
+            return false;
+        }
+        if (cells != null) {
+            byte state = cells[cellIndex(latitude, longitude)];
+            if (state != BOUNDARY) {
+                return state == INSIDE;
+            }
+        }
+        return containsByBands(latitude, longitude);
+    }
+
+    public PolygonGeofence getPolygon() {
+        return polygon;
+    }
+
+    public int getBandCount() {
+        return bandCount;
+    }
+
+    public int getGridResolution() {
+        return gridResolution;
+    }
+
+    /**
+     * Share of raster cells that still need edge tests, or 1 without a raster.
+     */
+    public double getBoundaryCellFraction() {
+        if (cells == null) {
+            return 1.0;
+        }
+        int boundary = 0;
+        for (byte cell : cells) {
+            if (cell == BOUNDARY) {
+                boundary++;
+            }
+        }
+        return (double) boundary / cells.length;
+    }
+
+    private boolean containsByBands(double latitude, double longitude) {
+        int band = band(latitude);
+        boolean inside = false;
+        for (int e = bandStart[band], end = bandStart[band + 1]; e < end && entryMinLatitude[e] <= latitude; e++) {
+            int offset = e * 4;
+            if (PolygonGeofence.crosses(entryCoordinates[offset], entryCoordinates[offset + 1],
+                    entryCoordinates[offset + 2], entryCoordinates[offset + 3], latitude, longitude)) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Band entry counts as prefix offsets: element b is the first entry of band b,
+     * and element {@code bands} is the total.
+     */
+    private int[] countBandEntries(int bands) {
+        double height = (maxLatitude - minLatitude) / bands;
+        int[] offsets = new int[bands + 1];
+        int vertices = polygon.getVertexCount();
+        for (int i = 0, j = vertices - 1; i < vertices; j = i++) {
+            double low = Math.min(polygon.getLatitude(i), polygon.getLatitude(j));
+            double high = Math.max(polygon.getLatitude(i), polygon.getLatitude(j));
+            int first = band(low, bands, height);
+            int last = band(high, bands, height);
+            for (int b = first; b <= last; b++) {
+                offsets[b + 1]++;
+            }
+        }
+        for (int b = 0; b < bands; b++) {
+            offsets[b + 1] += offsets[b];
+        }
+        return offsets;
+    }
+
+    private void fillBands() {
+        int vertices = polygon.getVertexCount();
+        int[] next = Arrays.copyOf(bandStart, bandCount);
+        Integer[] order = new Integer[vertices];
+        double[] lowest = new double[vertices];
+        for (int i = 0, j = vertices - 1; i < vertices; j = i++) {
+            order[i] = i;
+            lowest[i] = Math.min(polygon.getLatitude(i), polygon.getLatitude(j));
+        }
+        // Edges inserted in order of lowest latitude leave every band sorted
+        Arrays.sort(order, (a, b) -> Double.compare(lowest[a], lowest[b]));
+
+        for (int i : order) {
+            int j = i == 0 ? vertices - 1 : i - 1;
+            double high = Math.max(polygon.getLatitude(i), polygon.getLatitude(j));
+            for (int b = band(lowest[i]), last = band(high); b <= last; b++) {
+                int entry = next[b]++;
+                entryMinLatitude[entry] = lowest[i];
+                int offset = entry * 4;
+                entryCoordinates[offset] = polygon.getLatitude(i);
+                entryCoordinates[offset + 1] = polygon.getLongitude(i);
+                entryCoordinates[offset + 2] = polygon.getLatitude(j);
+                entryCoordinates[offset + 3] = polygon.getLongitude(j);
+            }
+        }
+    }
+
+    /**
+     * Mark every cell an edge passes through (or comes within a sliver of) as boundary,
+     * then classify the remaining cells by testing their centers. No edge crosses such a
+     * cell, so the center's answer holds for every point in it.
+     */
+    private void rasterize() {
+        double slack = 1e-6;
+        int vertices = polygon.getVertexCount();
+        for (int i = 0, j = vertices - 1; i < vertices; j = i++) {
+            markEdge(polygon.getLatitude(j), polygon.getLongitude(j),
+                    polygon.getLatitude(i), polygon.getLongitude(i), slack);
+        }
+        for (int row = 0; row < gridResolution; row++) {
+            double latitude = minLatitude + (row + 0.5) * cellHeight;
+            for (int column = 0; column < gridResolution; column++) {
+                int index = row * gridResolution + column;
+                if (cells[index] != BOUNDARY) {
+                    double longitude = minLongitude + (column + 0.5) * cellWidth;
+                    cells[index] = containsByBands(latitude, longitude) ? INSIDE : OUTSIDE;
+                }
+            }
+        }
+    }
+
+    private void markEdge(double lat0, double lon0, double lat1, double lon1, double slack) {
+        double padLat = cellHeight * slack;
+        double padLon = cellWidth * slack;
+        int firstRow = gridRow(Math.min(lat0, lat1) - padLat);
+        int lastRow = gridRow(Math.max(lat0, lat1) + padLat);
+        double deltaLat = lat1 - lat0;
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            double west = Math.min(lon0, lon1);
+            double east = Math.max(lon0, lon1);
+            if (deltaLat != 0) {
+                // Clip the edge to this row's latitude slab
+                double slabLow = minLatitude + row * cellHeight - padLat;
+                double slabHigh = minLatitude + (row + 1) * cellHeight + padLat;
+                double t0 = Math.max(0, Math.min((slabLow - lat0) / deltaLat, (slabHigh - lat0) / deltaLat));
+                double t1 = Math.min(1, Math.max((slabLow - lat0) / deltaLat, (slabHigh - lat0) / deltaLat));
+                if (t0 > t1) {
+                    continue;
+                }
+                double lonAtT0 = lon0 + t0 * (lon1 - lon0);
+                double lonAtT1 = lon0 + t1 * (lon1 - lon0);
+                west = Math.min(lonAtT0, lonAtT1);
+                east = Math.max(lonAtT0, lonAtT1);
+            }
+            int firstColumn = gridColumn(west - padLon);
+            int lastColumn = gridColumn(east + padLon);
+            Arrays.fill(cells, row * gridResolution + firstColumn, row * gridResolution + lastColumn + 1, BOUNDARY);
+        }
+    }
+
+    private int band(double latitude) {
+        return band(latitude, bandCount, bandHeight);
+    }
+
+    private int band(double latitude, int bands, double height) {
+        int band = (int) ((latitude - minLatitude) / height);
+        return Math.max(0, Math.min(bands - 1, band));
+    }
+
+    private int cellIndex(double latitude, double longitude) {
+        return gridRow(latitude) * gridResolution + gridColumn(longitude);
+    }
+
+    private int gridRow(double latitude) {
+        int row = (int) Math.floor((latitude - minLatitude) / cellHeight);
+        return Math.max(0, Math.min(gridResolution - 1, row));
+    }
+
+    private int gridColumn(double longitude) {
+        int column = (int) Math.floor((longitude - minLongitude) / cellWidth);
+        return Math.max(0, Math.min(gridResolution - 1, column));
+    }
+}
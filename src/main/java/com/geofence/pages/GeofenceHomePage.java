@@ -1,5 +1,6 @@
 package com.geofence.pages;
 
+import com.geofence.time.SimulationClocks;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import org.openqa.selenium.WebElement;
@@ -84,10 +85,6 @@ public class GeofenceHomePage extends BasePage {
     }
 
     private void pause(long millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        SimulationClocks.current().sleepMillis(millis);
     }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.geofence.routes;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+
+/**
+ * Streams fixes from comma-separated text. A header row names the columns
+ * (lat/latitude, lon/lng/longitude, time/timestamp, alt/altitude/ele); without one the
+ * columns are latitude, longitude, then optional timestamp and altitude. Timestamps are
+ * epoch milliseconds or ISO-8601 with a zone. Blank lines and '#' comments are skipped.
+ */
+final class CsvRouteReader implements RouteReader {
+
+    private final BufferedReader lines;
+    private int latitudeColumn = 0;
+    private int longitudeColumn = 1;
+    private int timeColumn = 2;
+    private int altitudeColumn = 3;
+    private boolean headerChecked;
+    private int lineNumber;
+
+    CsvRouteReader(BufferedReader lines) {
+        this.lines = lines;
+    }
+
+    @Override
+    public RouteFix next() {
+        try {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = trimmed.split(",", -1);
+                if (!headerChecked) {
+                    headerChecked = true;
+                    if (readHeader(fields)) {
+                        continue;
+                    }
+                }
+                return parse(fields);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV route", e);
+        }
+    }
+
+    /**
+     * @return true if the row was a header
+     */
+    private boolean readHeader(String[] fields) {
+        try {
+            Double.parseDouble(fields[0].trim());
+            return false;
+        } catch (NumberFormatException e) {
+            latitudeColumn = -1;
+            longitudeColumn = -1;
+            timeColumn = -1;
+            altitudeColumn = -1;
+        }
+        for (int i = 0; i < fields.length; i++) {
+            switch (fields[i].trim().toLowerCase(Locale.ROOT)) {
+                case "lat", "latitude" -> latitudeColumn = i;
+                case "lon", "lng", "long", "longitude" -> longitudeColumn = i;
+                case "time", "timestamp", "datetime" -> timeColumn = i;
+                case "alt", "altitude", "ele", "elevation" -> altitudeColumn = i;
+                default -> {
+                    // Extra columns are ignored
+                }
+            }
+        }
+        if (latitudeColumn < 0 || longitudeColumn < 0) {
+            throw new IllegalArgumentException("CSV header needs latitude and longitude columns: "
+                    + String.join(",", fields));
+        }
+        return true;
+    }
+
+    private RouteFix parse(String[] fields) {
+        try {
+            double latitude = Double.parseDouble(fields[latitudeColumn].trim());
+            double longitude = Double.parseDouble(fields[longitudeColumn].trim());
+            String time = column(fields, timeColumn);
+            String altitude = column(fields, altitudeColumn);
+            long timestamp = time == null ? RouteFix.NO_TIMESTAMP : parseTime(time);
+            return new RouteFix(latitude, longitude, altitude == null ? null : Double.parseDouble(altitude), timestamp);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid CSV route row at line " + lineNumber + ": "
+                    + String.join(",", fields), e);
+        }
+    }
+
+    private static long parseTime(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return RouteReaders.parseTimestamp(value);
+        }
+    }
+
+    private static String column(String[] fields, int index) {
+        if (index < 0 || index >= fields.length) {
+            return null;
+        }
+        String value = fields[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    @Override
+    public void close() {
+        try {
+            lines.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
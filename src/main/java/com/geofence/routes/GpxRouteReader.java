@@ -0,0 +1,96 @@
+package com.geofence.routes;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams track, route and way points from a GPX document with StAX.
+ */
+final class GpxRouteReader implements RouteReader {
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private final InputStream input;
+    private final XMLStreamReader xml;
+
+    GpxRouteReader(InputStream input) {
+        this.input = input;
+        try {
+            this.xml = FACTORY.createXMLStreamReader(input);
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Invalid GPX document", e);
+        }
+    }
+
+    @Override
+    public RouteFix next() {
+        try {
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && isPoint(xml.getLocalName())) {
+                    return readPoint();
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Invalid GPX at line " + xml.getLocation().getLineNumber(), e);
+        }
+    }
+
+    private RouteFix readPoint() throws XMLStreamException {
+        String element = xml.getLocalName();
+        double latitude = Double.parseDouble(xml.getAttributeValue(null, "lat"));
+        double longitude = Double.parseDouble(xml.getAttributeValue(null, "lon"));
+        Double altitude = null;
+        long timestamp = RouteFix.NO_TIMESTAMP;
+
+        int depth = 1;
+        while (depth > 0) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                if (depth == 2 && "ele".equals(xml.getLocalName())) {
+                    altitude = Double.parseDouble(xml.getElementText().trim());
+                    depth--;
+                } else if (depth == 2 && "time".equals(xml.getLocalName())) {
+                    timestamp = RouteReaders.parseTimestamp(xml.getElementText().trim());
+                    depth--;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        if (!element.equals(xml.getLocalName())) {
+            throw new XMLStreamException("Unbalanced " + element + " element");
+        }
+        return new RouteFix(latitude, longitude, altitude, timestamp);
+    }
+
+    private static boolean isPoint(String name) {
+        return "trkpt".equals(name) || "rtept".equals(name) || "wpt".equals(name);
+    }
+
+    @Override
+    public void close() {
+        try {
+            xml.close();
+            input.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Failed to close GPX reader", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // Route files are untrusted input: no DTDs or external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
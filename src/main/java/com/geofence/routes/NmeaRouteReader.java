@@ -0,0 +1,172 @@
+package com.geofence.routes;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Streams fixes from NMEA 0183 RMC and GGA sentences from any talker (GP, GN, GL, ...).
+ * Sentences with a bad checksum or no fix are skipped. RMC and GGA sentences for the same
+ * epoch are merged into one fix in either order, taking the altitude from the GGA, so each
+ * fix is returned once the next epoch's first sentence has been read. GGA carries no date,
+ * so GGA-only logs are dated from the most recent valid RMC date, or from 1970-01-01.
+ */
+final class NmeaRouteReader implements RouteReader {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final BufferedReader lines;
+    private long dayMillis;
+    private long lastTimeOfDay = -1;
+    // Set by an RMC that carried a valid date, so its epoch is not rolled over again
+    private boolean dateRefreshed;
+    // Latest epoch, held back until a sentence for another epoch shows it is complete
+    private RouteFix pending;
+
+    NmeaRouteReader(BufferedReader lines) {
+        this.lines = lines;
+    }
+
+    @Override
+    public RouteFix next() {
+        try {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                RouteFix fix = parse(line.trim());
+                if (fix != null) {
+                    RouteFix complete = pending;
+                    pending = fix;
+                    if (complete != null) {
+                        return complete;
+                    }
+                }
+            }
+            RouteFix last = pending;
+            pending = null;
+            return last;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read NMEA route", e);
+        }
+    }
+
+    private RouteFix parse(String sentence) {
+        if (sentence.length() < 7 || sentence.charAt(0) != '$' || !checksumMatches(sentence)) {
+            return null;
+        }
+        int star = sentence.indexOf('*');
+        String[] fields = sentence.substring(1, star >= 0 ? star : sentence.length()).split(",", -1);
+        String type = fields[0].length() >= 5 ? fields[0].substring(fields[0].length() - 3) : "";
+        try {
+            return switch (type) {
+                case "RMC" -> parseRmc(fields);
+                case "GGA" -> parseGga(fields);
+                default -> null;
+            };
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private RouteFix parseRmc(String[] fields) {
+        if (!"A".equals(fields[2]) || fields[1].isEmpty()) {
+            return null;
+        }
+        String date = fields[9];
+        if (date.length() == 6) {
+            int day = Integer.parseInt(date.substring(0, 2));
+            int month = Integer.parseInt(date.substring(2, 4));
+            int year = 2000 + Integer.parseInt(date.substring(4, 6));
+            try {
+                dayMillis = LocalDate.of(year, month, day).toEpochDay() * MILLIS_PER_DAY;
+                dateRefreshed = true;
+            } catch (DateTimeException e) {
+                // A receiver without a fix yet may report 000000; keep the previous date
+            }
+        }
+        return fix(fields[1], fields[3], fields[4], fields[5], fields[6], null);
+    }
+
+    private RouteFix parseGga(String[] fields) {
+        if (fields[6].isEmpty() || "0".equals(fields[6]) || fields[1].isEmpty()) {
+            return null;
+        }
+        Double altitude = fields[9].isEmpty() ? null : Double.parseDouble(fields[9]);
+        return fix(fields[1], fields[2], fields[3], fields[4], fields[5], altitude);
+    }
+
+    /**
+     * Fix for a new epoch, or null after merging a sentence for the pending fix's epoch.
+     */
+    private RouteFix fix(String time, String lat, String latHemisphere, String lon, String lonHemisphere,
+                         Double altitude) {
+        boolean dated = dateRefreshed;
+        dateRefreshed = false;
+        long timeOfDay = timeOfDayMillis(time);
+        double latitude = degrees(lat, 2) * ("S".equals(latHemisphere) ? -1 : 1);
+        double longitude = degrees(lon, 3) * ("W".equals(lonHemisphere) ? -1 : 1);
+        if (timeOfDay == lastTimeOfDay) {
+            if (pending != null) {
+                pending = new RouteFix(pending.latitude(), pending.longitude(),
+                        pending.altitude() != null ? pending.altitude() : altitude,
+                        dated ? dayMillis + timeOfDay : pending.timestampMillis());
+            }
+            return null;
+        }
+        if (!dated && lastTimeOfDay >= 0 && timeOfDay < lastTimeOfDay) {
+            // Midnight passed without a new RMC date
+            dayMillis += MILLIS_PER_DAY;
+        }
+        lastTimeOfDay = timeOfDay;
+        return new RouteFix(latitude, longitude, altitude, dayMillis + timeOfDay);
+    }
+
+    /**
+     * Convert NMEA "ddmm.mmmm" / "dddmm.mmmm" to decimal degrees.
+     */
+    private static double degrees(String value, int degreeDigits) {
+        double degrees = Integer.parseInt(value.substring(0, degreeDigits));
+        double minutes = Double.parseDouble(value.substring(degreeDigits));
+        return degrees + minutes / 60;
+    }
+
+    private static long timeOfDayMillis(String time) {
+        int hours = Integer.parseInt(time.substring(0, 2));
+        int minutes = Integer.parseInt(time.substring(2, 4));
+        double seconds = Double.parseDouble(time.substring(4));
+        return (hours * 3600L + minutes * 60L) * 1000 + Math.round(seconds * 1000);
+    }
+
+    /**
+     * XOR of the characters between '$' and '*' must equal the two hex digits after '*'.
+     * Sentences without a checksum are accepted.
+     */
+    private static boolean checksumMatches(String sentence) {
+        int star = sentence.indexOf('*');
+        if (star < 0) {
+            return true;
+        }
+        if (star + 3 > sentence.length()) {
+            return false;
+        }
+        int checksum = 0;
+        for (int i = 1; i < star; i++) {
+            checksum ^= sentence.charAt(i);
+        }
+        try {
+            return checksum == Integer.parseInt(sentence.substring(star + 1, star + 3), 16);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            lines.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
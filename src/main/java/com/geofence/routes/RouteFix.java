@@ -0,0 +1,25 @@
+package com.geofence.routes;
+
+import com.geofence.models.GeoLocation;
+
+/**
+ * One recorded position of a route.
+ * @param altitude meters, or null when the source has none
+ * @param timestampMillis epoch milliseconds, or {@link #NO_TIMESTAMP}
+ */
+public record RouteFix(double latitude, double longitude, Double altitude, long timestampMillis) {
+
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    public boolean hasTimestamp() {
+        return timestampMillis != NO_TIMESTAMP;
+    }
+
+    public GeoLocation toGeoLocation() {
+        return GeoLocation.builder()
+                .latitude(latitude)
+                .longitude(longitude)
+                .altitude(altitude)
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.geofence.routes;
+
+import java.util.Locale;
+
+/**
+ * Supported route file formats.
+ */
+public enum RouteFormat {
+    GPX,
+    NMEA,
+    CSV;
+
+    /**
+     * Detect the format from a file name extension (.gpx, .nmea/.nma/.log, .csv).
+     */
+    public static RouteFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".gpx")) {
+            return GPX;
+        }
+        if (lower.endsWith(".nmea") || lower.endsWith(".nma") || lower.endsWith(".log")) {
+            return NMEA;
+        }
+        if (lower.endsWith(".csv")) {
+            return CSV;
+        }
+        throw new IllegalArgumentException("Unknown route format: " + fileName);
+    }
+}
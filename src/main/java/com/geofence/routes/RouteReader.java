@@ -0,0 +1,19 @@
+package com.geofence.routes;
+
+import java.io.Closeable;
+
+/**
+ * Pull-based reader over the fixes of a recorded route. Implementations parse one fix
+ * at a time, so memory use does not depend on the route length.
+ */
+public interface RouteReader extends Closeable {
+
+    /**
+     * @return the next fix, or null at the end of the route
+     * @throws java.io.UncheckedIOException if the underlying stream fails
+     */
+    RouteFix next();
+
+    @Override
+    void close();
+}
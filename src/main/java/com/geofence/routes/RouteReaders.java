@@ -0,0 +1,74 @@
+package com.geofence.routes;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Factory for streaming route readers.
+ */
+public final class RouteReaders {
+
+    private RouteReaders() {
+    }
+
+    /**
+     * Open a route file, choosing the parser from its extension.
+     */
+    public static RouteReader open(Path file) {
+        return open(file, RouteFormat.fromFileName(file.getFileName().toString()));
+    }
+
+    public static RouteReader open(Path file, RouteFormat format) {
+        try {
+            return open(Files.newInputStream(file), format);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open route " + file, e);
+        }
+    }
+
+    /**
+     * Open a route from a classpath resource, e.g. "testdata/routes/sf-walk.gpx".
+     */
+    public static RouteReader openResource(String path) {
+        InputStream input = RouteReaders.class.getClassLoader().getResourceAsStream(path);
+        if (input == null) {
+            throw new IllegalArgumentException("File not found: " + path);
+        }
+        return open(input, RouteFormat.fromFileName(path));
+    }
+
+    /**
+     * Wrap a stream; the reader closes it.
+     */
+    public static RouteReader open(InputStream input, RouteFormat format) {
+        return switch (format) {
+            case GPX -> new GpxRouteReader(input);
+            case NMEA -> new NmeaRouteReader(lines(input));
+            case CSV -> new CsvRouteReader(lines(input));
+        };
+    }
+
+    private static BufferedReader lines(InputStream input) {
+        return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse an ISO-8601 timestamp with a zone ("Z" or an offset) to epoch milliseconds.
+     */
+    static long parseTimestamp(String value) {
+        try {
+            return Instant.parse(value).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return OffsetDateTime.parse(value).toInstant().toEpochMilli();
+        }
+    }
+}
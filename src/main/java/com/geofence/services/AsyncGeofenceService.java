@@ -0,0 +1,78 @@
+package com.geofence.services;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.models.GeofenceCrossing;
+import com.geofence.pages.GeofenceHomePage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking geofence flows for one device, run on the same command queue as its
+ * {@link AsyncLocationService} so flows and plain location commands stay in submission order.
+ */
+public class AsyncGeofenceService {
+
+    private final GeofenceService geofenceService;
+    private final AsyncLocationService commands;
+
+    public AsyncGeofenceService(GeofenceService geofenceService) {
+        this(geofenceService, new AsyncLocationService(geofenceService.getLocationService()));
+    }
+
+    /**
+     * @param commands the device's command queue; must wrap the geofence service's location service
+     */
+    public AsyncGeofenceService(GeofenceService geofenceService, AsyncLocationService commands) {
+        if (commands.getLocationService() != geofenceService.getLocationService()) {
+            throw new IllegalArgumentException("Command queue must drive the geofence service's location service");
+        }
+        this.geofenceService = geofenceService;
+        this.commands = commands;
+    }
+
+    public CompletableFuture<Boolean> waitForAppToLoad(GeofenceHomePage homePage, int maxRetries) {
+        return commands.submit(() -> geofenceService.waitForAppToLoad(homePage, maxRetries));
+    }
+
+    public CompletableFuture<Void> simulateGeofenceEntry(GeoLocation center, GeoLocation outsidePoint) {
+        return commands.submit(() -> geofenceService.simulateGeofenceEntry(center, outsidePoint));
+    }
+
+    public CompletableFuture<Void> simulateGeofenceExit(GeoLocation center, GeoLocation outsidePoint) {
+        return commands.submit(() -> geofenceService.simulateGeofenceExit(center, outsidePoint));
+    }
+
+    public CompletableFuture<Void> simulateGeofenceEntry(GeoLocation center, GeoLocation outsidePoint,
+                                                         double resolutionMeters) {
+        return commands.submit(() -> geofenceService.simulateGeofenceEntry(center, outsidePoint, resolutionMeters));
+    }
+
+    public CompletableFuture<Void> simulateGeofenceExit(GeoLocation center, GeoLocation outsidePoint,
+                                                        double resolutionMeters) {
+        return commands.submit(() -> geofenceService.simulateGeofenceExit(center, outsidePoint, resolutionMeters));
+    }
+
+    public CompletableFuture<List<GeofenceCrossing>> simulateGeofenceEntryAtCrossing(GeoLocation center,
+                                                                                  GeoLocation outsidePoint) {
+        return commands.submit(() -> geofenceService.simulateGeofenceEntryAtCrossing(center, outsidePoint));
+    }
+
+    public CompletableFuture<List<GeofenceCrossing>> simulateGeofenceExitAtCrossing(GeoLocation center,
+                                                                                 GeoLocation outsidePoint) {
+        return commands.submit(() -> geofenceService.simulateGeofenceExitAtCrossing(center, outsidePoint));
+    }
+
+    public CompletableFuture<GeofenceService.GeofenceStatus> placeDeviceAt(GeoLocation location,
+                                                                           GeoLocation geofenceCenter) {
+        return commands.submit(() -> geofenceService.placeDeviceAt(location, geofenceCenter));
+    }
+
+    public GeofenceService getGeofenceService() {
+        return geofenceService;
+    }
+
+    public AsyncLocationService getCommands() {
+        return commands;
+    }
+}
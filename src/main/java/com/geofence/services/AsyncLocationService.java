@@ -0,0 +1,102 @@
+package com.geofence.services;
+
+import com.geofence.geo.BoundaryAwareStepPlanner;
+import com.geofence.models.GeoLocation;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking front for one device's {@link LocationService}. Each call returns a
+ * {@link CompletableFuture} at once and the command runs on a virtual thread, so waiting
+ * on HTTP round trips and settle polls costs no platform thread: one JVM can drive dozens
+ * of devices with a handful of carrier threads.
+ * <p>
+ * Commands for the same device run one at a time in submission order, since a device can
+ * only be in one place. A failed command completes its own future exceptionally and does
+ * not stop the commands queued after it. Use one instance per device.
+ */
+public class AsyncLocationService {
+
+    private static final ExecutorService VIRTUAL_THREADS = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("device-command-", 0).factory());
+
+    private final LocationService locationService;
+    private final Executor executor;
+    private CompletableFuture<?> tail = CompletableFuture.completedFuture(null);
+
+    public AsyncLocationService(LocationService locationService) {
+        this(locationService, VIRTUAL_THREADS);
+    }
+
+    /**
+     * @param executor runs each command; the default starts one virtual thread per command
+     */
+    public AsyncLocationService(LocationService locationService, Executor executor) {
+        this.locationService = locationService;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Void> setLocation(GeoLocation location) {
+        return submit(() -> locationService.setLocation(location));
+    }
+
+    public CompletableFuture<Void> simulateMovement(GeoLocation from, GeoLocation to) {
+        return submit(() -> locationService.simulateMovement(from, to));
+    }
+
+    public CompletableFuture<Void> simulateMovement(GeoLocation from, GeoLocation to, int steps, int delayMs) {
+        return submit(() -> locationService.simulateMovement(from, to, steps, delayMs));
+    }
+
+    public CompletableFuture<Void> simulateMovementEvery(GeoLocation from, GeoLocation to,
+                                                         double spacingMeters, int delayMs) {
+        return submit(() -> locationService.simulateMovementEvery(from, to, spacingMeters, delayMs));
+    }
+
+    public CompletableFuture<Void> simulateMovement(GeoLocation from, GeoLocation to,
+                                                    BoundaryAwareStepPlanner planner, int delayMs) {
+        return submit(() -> locationService.simulateMovement(from, to, planner, delayMs));
+    }
+
+    public CompletableFuture<Void> simulateMovementAtSpeed(GeoLocation from, GeoLocation to,
+                                                           double speedMetersPerSecond, int delayMs) {
+        return submit(() -> locationService.simulateMovementAtSpeed(from, to, speedMetersPerSecond, delayMs));
+    }
+
+    public CompletableFuture<Void> simulateWaypoints(List<GeoLocation> waypoints, int delayMs) {
+        return submit(() -> locationService.simulateWaypoints(waypoints, delayMs));
+    }
+
+    public CompletableFuture<RouteReplayer.ReplayReport> replayRoute(Path routeFile, RouteReplayer.Speed speed) {
+        return submit(() -> locationService.replayRoute(routeFile, speed));
+    }
+
+    /**
+     * Queue any blocking step for this device behind the commands already submitted.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> command) {
+        CompletableFuture<T> result;
+        synchronized (this) {
+            result = tail.handle((ignored, error) -> null).thenApplyAsync(ignored -> command.get(), executor);
+            tail = result;
+        }
+        return result;
+    }
+
+    public CompletableFuture<Void> submit(Runnable command) {
+        return submit(() -> {
+            command.run();
+            return null;
+        });
+    }
+
+    public LocationService getLocationService() {
+        return locationService;
+    }
+}
@@ -0,0 +1,220 @@
+package com.geofence.services;
+
+import com.geofence.geo.Haversine;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.GeoPointBatch;
+import com.geofence.models.Geofence;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Evaluates N points against M fences in parallel on a fork/join pool.
+ * Points are split into fixed-size chunks; each chunk looks up candidate fences in the
+ * registry grid and runs the exact containment test, writing hits to its own buffer.
+ * The registry must not be modified while an evaluation is running.
+ */
+public class GeofenceBatchEvaluator {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final GeofenceRegistry registry;
+    private final double[] fenceLatitudes;
+    private final double[] fenceLongitudes;
+    private final double[] fenceCos;
+    private final double[] fenceSin;
+    private final double[] fenceRadii;
+
+    public GeofenceBatchEvaluator(List<Geofence> fences) {
+        this(buildRegistry(fences));
+    }
+
+    public GeofenceBatchEvaluator(GeofenceRegistry registry) {
+        this.registry = registry;
+        int fenceCount = registry.size();
+        this.fenceLatitudes = new double[fenceCount];
+        this.fenceLongitudes = new double[fenceCount];
+        this.fenceCos = new double[fenceCount];
+        this.fenceSin = new double[fenceCount];
+        this.fenceRadii = new double[fenceCount];
+        for (int i = 0; i < fenceCount; i++) {
+            Geofence fence = registry.get(i);
+            GeoLocation center = fence.center();
+            fenceLatitudes[i] = center.getLatitude();
+            fenceLongitudes[i] = center.getLongitude();
+            fenceCos[i] = center.cosLatitude();
+            fenceSin[i] = center.sinLatitude();
+            fenceRadii[i] = fence.radiusMeters();
+        }
+    }
+
+    /**
+     * Evaluate on the common fork/join pool, using every core.
+     */
+    public ContainmentHits evaluate(GeoPointBatch points) {
+        return evaluate(points, ForkJoinPool.commonPool());
+    }
+
+    public ContainmentHits evaluate(GeoPointBatch points, ForkJoinPool pool) {
+        int chunks = (points.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        long[][] chunkHits = new long[chunks][];
+        int[] chunkCounts = new int[chunks];
+        if (chunks > 0) {
+            pool.invoke(new ChunkTask(points, chunkHits, chunkCounts, 0, chunks));
+        }
+
+        int total = 0;
+        for (int count : chunkCounts) {
+            total += count;
+        }
+        long[] hits = new long[total];
+        int offset = 0;
+        for (int c = 0; c < chunks; c++) {
+            System.arraycopy(chunkHits[c], 0, hits, offset, chunkCounts[c]);
+            offset += chunkCounts[c];
+        }
+        return new ContainmentHits(hits, points.size(), registry.size());
+    }
+
+    public int getFenceCount() {
+        return registry.size();
+    }
+
+    private int evaluateChunk(GeoPointBatch points, int from, int to, long[][] chunkHits, int chunk) {
+        long[] hits = new long[64];
+        int hitCount = 0;
+        int[] candidates = new int[64];
+
+        for (int p = from; p < to; p++) {
+            double latitude = points.latitude(p);
+            double longitude = points.longitude(p);
+            int count = registry.candidateIds(latitude, longitude, candidates);
+            if (count > candidates.length) {
+                candidates = new int[Integer.highestOneBit(count) << 1];
+                count = registry.candidateIds(latitude, longitude, candidates);
+            }
+            for (int i = 0; i < count; i++) {
+                int fence = candidates[i];
+                if (Haversine.isWithinRadius(latitude, longitude, fenceLatitudes[fence], fenceLongitudes[fence],
+                        fenceCos[fence], fenceSin[fence], fenceRadii[fence])) {
+                    if (hitCount == hits.length) {
+                        hits = Arrays.copyOf(hits, hitCount * 2);
+                    }
+                    hits[hitCount++] = ContainmentHits.pack(p, fence);
+                }
+            }
+        }
+        chunkHits[chunk] = hits;
+        return hitCount;
+    }
+
+    private static GeofenceRegistry buildRegistry(List<Geofence> fences) {
+        GeofenceRegistry registry = new GeofenceRegistry();
+        registry.registerAll(fences);
+        return registry;
+    }
+
+    /**
+     * Splits a range of chunks in half until a single chunk remains.
+     */
+    private class ChunkTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Tasks only live inside one invoke() and are never serialized
+        private final transient GeoPointBatch points;
+        private final long[][] chunkHits;
+        private final int[] chunkCounts;
+        private final int firstChunk;
+        private final int lastChunk;
+
+        ChunkTask(GeoPointBatch points, long[][] chunkHits, int[] chunkCounts, int firstChunk, int lastChunk) {
+            this.points = points;
+            this.chunkHits = chunkHits;
+            this.chunkCounts = chunkCounts;
+            this.firstChunk = firstChunk;
+            this.lastChunk = lastChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (lastChunk - firstChunk == 1) {
+                int from = firstChunk * CHUNK_SIZE;
+                int to = Math.min(points.size(), from + CHUNK_SIZE);
+                chunkCounts[firstChunk] = evaluateChunk(points, from, to, chunkHits, firstChunk);
+                return;
+            }
+            int middle = (firstChunk + lastChunk) >>> 1;
+            invokeAll(new ChunkTask(points, chunkHits, chunkCounts, firstChunk, middle),
+                    new ChunkTask(points, chunkHits, chunkCounts, middle, lastChunk));
+        }
+    }
+
+    /**
+     * Sparse containment matrix: every (point, fence) pair where the point lies inside
+     * the fence, ordered by point index.
+     */
+    public static final class ContainmentHits {
+        private final long[] hits;
+        private final int pointCount;
+        private final int fenceCount;
+
+        ContainmentHits(long[] hits, int pointCount, int fenceCount) {
+            this.hits = hits;
+            this.pointCount = pointCount;
+            this.fenceCount = fenceCount;
+        }
+
+        static long pack(int point, int fence) {
+            return ((long) point << 32) | (fence & 0xFFFFFFFFL);
+        }
+
+        public int size() {
+            return hits.length;
+        }
+
+        public int pointIndex(int hit) {
+            return (int) (hits[hit] >>> 32);
+        }
+
+        public int fenceIndex(int hit) {
+            return (int) hits[hit];
+        }
+
+        public int getPointCount() {
+            return pointCount;
+        }
+
+        public int getFenceCount() {
+            return fenceCount;
+        }
+
+        /**
+         * Number of points inside each fence.
+         */
+        public int[] countsPerFence() {
+            int[] counts = new int[fenceCount];
+            for (long hit : hits) {
+                counts[(int) hit]++;
+            }
+            return counts;
+        }
+
+        /**
+         * Dense column of the containment matrix: bit i is set when point i is inside the fence.
+         */
+        public BitSet pointsInside(int fenceIndex) {
+            BitSet inside = new BitSet(pointCount);
+            for (long hit : hits) {
+                if ((int) hit == fenceIndex) {
+                    inside.set((int) (hit >>> 32));
+                }
+            }
+            return inside;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.geofence.services;
+
+import com.geofence.geo.E7;
+import com.geofence.geo.Haversine;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Read-only geofence set stored in a binary file and memory-mapped, so opening it costs a
+ * header check regardless of size: no parsing, and no fence objects on the heap until one
+ * is asked for. The file embeds the same grid index {@link GeofenceRegistry} would build,
+ * and containment answers are identical to a registry holding the same fences.
+ * <p>
+ * Layout, little-endian, sections back to back:
+ * <pre>
+ *   header     64 bytes: magic, format version, counts, grid cell size (E7)
+ *   records    48 bytes per fence: latitude, longitude, radius, cos/sin latitude (doubles),
+ *              name offset and UTF-8 length (ints, length -1 for no name)
+ *   cell keys  8 bytes per non-empty grid cell, ascending
+ *   cell runs  4 bytes per cell plus one: start of each cell's ids
+ *   cell ids   4 bytes per (cell, fence) pair
+ *   oversized  4 bytes per fence too large for the grid
+ *   names      UTF-8 bytes
+ * </pre>
+ * Write catalogs with {@link #write}; see {@code GeofenceCatalogConverter} for JSON test data.
+ */
+public final class GeofenceCatalog {
+
+    static final int MAGIC = 0x54434647; // "GFCT" read little-endian
+    public static final int FORMAT_VERSION = 1; // bumped on any layout change
+    static final int HEADER_BYTES = 64;
+    static final int RECORD_BYTES = 48;
+
+    private static final int LATITUDE = 0;
+    private static final int LONGITUDE = 8;
+    private static final int RADIUS = 16;
+    private static final int COS_LATITUDE = 24;
+    private static final int SIN_LATITUDE = 32;
+    private static final int NAME_OFFSET = 40;
+    private static final int NAME_LENGTH = 44;
+
+    private final ByteBuffer records;
+    private final LongBuffer cellKeys;
+    private final IntBuffer cellStarts;
+    private final IntBuffer cellIds;
+    private final IntBuffer oversized;
+    private final ByteBuffer names;
+    private final int size;
+    private final GeofenceRegistry grid;
+
+    private GeofenceCatalog(ByteBuffer file) {
+        file.order(ByteOrder.LITTLE_ENDIAN);
+        if (file.capacity() < HEADER_BYTES || file.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a geofence catalog");
+        }
+        if (file.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported catalog format version " + file.getInt(4));
+        }
+        this.size = file.getInt(8);
+        int cellCount = file.getInt(12);
+        int entryCount = file.getInt(16);
+        int oversizedCount = file.getInt(20);
+        int nameBytes = file.getInt(24);
+        this.grid = new GeofenceRegistry(E7.toDegrees(file.getLong(32)));
+
+        long recordsAt = HEADER_BYTES;
+        long keysAt = recordsAt + (long) size * RECORD_BYTES;
+        long startsAt = keysAt + 8L * cellCount;
+        long idsAt = startsAt + 4L * (cellCount + 1);
+        long oversizedAt = idsAt + 4L * entryCount;
+        long namesAt = oversizedAt + 4L * oversizedCount;
+        if (size < 0 || cellCount < 0 || entryCount < 0 || oversizedCount < 0 || nameBytes < 0
+                || namesAt + nameBytes != file.capacity()) {
+            throw new IllegalArgumentException("Catalog is truncated or corrupt: expected "
+                    + (namesAt + nameBytes) + " bytes, found " + file.capacity());
+        }
+        this.records = section(file, recordsAt, keysAt);
+        this.cellKeys = section(file, keysAt, startsAt).asLongBuffer();
+        this.cellStarts = section(file, startsAt, idsAt).asIntBuffer();
+        this.cellIds = section(file, idsAt, oversizedAt).asIntBuffer();
+        this.oversized = section(file, oversizedAt, namesAt).asIntBuffer();
+        this.names = section(file, namesAt, namesAt + nameBytes);
+    }
+
+    /**
+     * Map a catalog file. The mapping stays valid after the channel is closed.
+     */
+    public static GeofenceCatalog open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Catalog larger than 2 GB: " + file);
+            }
+            return new GeofenceCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Read a catalog already in memory, e.g. from a classpath resource.
+     */
+    public static GeofenceCatalog wrap(ByteBuffer bytes) {
+        return new GeofenceCatalog(bytes.duplicate());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double latitude(int id) {
+        return records.getDouble(record(id) + LATITUDE);
+    }
+
+    public double longitude(int id) {
+        return records.getDouble(record(id) + LONGITUDE);
+    }
+
+    public double radiusMeters(int id) {
+        return records.getDouble(record(id) + RADIUS);
+    }
+
+    public String name(int id) {
+        int at = record(id);
+        int length = records.getInt(at + NAME_LENGTH);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        names.get(records.getInt(at + NAME_OFFSET), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decode one fence; the only call that allocates per fence.
+     */
+    public Geofence get(int id) {
+        return Geofence.of(name(id), latitude(id), longitude(id), radiusMeters(id));
+    }
+
+    /**
+     * Fences by id, decoded on access.
+     */
+    public List<Geofence> getAll() {
+        return new AbstractList<>() {
+            @Override
+            public Geofence get(int index) {
+                return GeofenceCatalog.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public boolean contains(int id, double latitude, double longitude) {
+        int at = record(id);
+        return Haversine.isWithinRadius(latitude, longitude,
+                records.getDouble(at + LATITUDE), records.getDouble(at + LONGITUDE),
+                records.getDouble(at + COS_LATITUDE), records.getDouble(at + SIN_LATITUDE),
+                records.getDouble(at + RADIUS));
+    }
+
+    /**
+     * Copy the ids of fences containing the point into {@code out}; allocation-free.
+     * @return the match count; only the first {@code out.length} ids are written
+     */
+    public int findContainingIds(double latitude, double longitude, int[] out) {
+        int count = 0;
+        int cell = findCell(grid.cellKey(latitude, longitude));
+        if (cell >= 0) {
+            for (int i = cellStarts.get(cell), end = cellStarts.get(cell + 1); i < end; i++) {
+                count = collect(cellIds.get(i), latitude, longitude, out, count);
+            }
+        }
+        for (int i = 0; i < oversized.limit(); i++) {
+            count = collect(oversized.get(i), latitude, longitude, out, count);
+        }
+        return count;
+    }
+
+    public List<Geofence> findContaining(GeoLocation point) {
+        List<Geofence> result = new ArrayList<>();
+        int[] ids = new int[16];
+        int count = findContainingIds(point.getLatitude(), point.getLongitude(), ids);
+        if (count > ids.length) {
+            ids = new int[count];
+            findContainingIds(point.getLatitude(), point.getLongitude(), ids);
+        }
+        for (int i = 0; i < count; i++) {
+            result.add(get(ids[i]));
+        }
+        return result;
+    }
+
+    private int collect(int id, double latitude, double longitude, int[] out, int count) {
+        if (!contains(id, latitude, longitude)) {
+            return count;
+        }
+        if (count < out.length) {
+            out[count] = id;
+        }
+        return count + 1;
+    }
+
+    private int findCell(long key) {
+        int low = 0;
+        int high = cellKeys.limit() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = cellKeys.get(mid);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int record(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Fence id " + id + " out of range [0, " + size + ")");
+        }
+        return id * RECORD_BYTES;
+    }
+
+    private static ByteBuffer section(ByteBuffer file, long from, long to) {
+        return file.slice((int) from, (int) (to - from)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public static void write(List<Geofence> fences, Path file) throws IOException {
+        write(fences, file, new GeofenceRegistry().getCellSizeDegrees());
+    }
+
+    /**
+     * Write fences as a catalog, ids following list order. The grid index is built
+     * here once, with the same bucketing as {@code new GeofenceRegistry(cellSizeDegrees)}.
+     */
+    public static void write(List<Geofence> fences, Path file, double cellSizeDegrees) throws IOException {
+        GeofenceRegistry registry = new GeofenceRegistry(cellSizeDegrees);
+        registry.registerAll(fences);
+
+        TreeMap<Long, int[]> cells = new TreeMap<>();
+        registry.forEachBucket((key, ids, count) -> cells.put(key, Arrays.copyOf(ids, count)));
+        long[] keys = new long[cells.size()];
+        int[] starts = new int[cells.size() + 1];
+        int entries = 0;
+        for (int[] ids : cells.values()) {
+            entries += ids.length;
+        }
+        int[] cellIds = new int[entries];
+        int cell = 0;
+        int next = 0;
+        for (Map.Entry<Long, int[]> entry : cells.entrySet()) {
+            keys[cell] = entry.getKey();
+            starts[cell++] = next;
+            System.arraycopy(entry.getValue(), 0, cellIds, next, entry.getValue().length);
+            next += entry.getValue().length;
+        }
+        starts[cell] = next;
+        int[] oversizedIds = registry.oversizedIds();
+
+        byte[][] encodedNames = new byte[fences.size()][];
+        long nameBytes = 0;
+        for (int i = 0; i < fences.size(); i++) {
+            String name = fences.get(i).name();
+            if (name != null) {
+                encodedNames[i] = name.getBytes(StandardCharsets.UTF_8);
+                nameBytes += encodedNames[i].length;
+            }
+        }
+        long total = HEADER_BYTES + (long) fences.size() * RECORD_BYTES + 8L * keys.length
+                + 4L * starts.length + 4L * cellIds.length + 4L * oversizedIds.length + nameBytes;
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Catalog would exceed 2 GB: " + total + " bytes");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) total).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(fences.size()).putInt(keys.length)
+                .putInt(cellIds.length).putInt(oversizedIds.length).putInt((int) nameBytes).putInt(0)
+                .putLong(registry.getCellSizeE7());
+        out.position(HEADER_BYTES);
+        int nameOffset = 0;
+        for (int i = 0; i < fences.size(); i++) {
+            Geofence fence = fences.get(i);
+            GeoLocation center = fence.center();
+            out.putDouble(center.getLatitude()).putDouble(center.getLongitude()).putDouble(fence.radiusMeters())
+                    .putDouble(center.cosLatitude()).putDouble(center.sinLatitude());
+            byte[] name = encodedNames[i];
+            out.putInt(name != null ? nameOffset : 0).putInt(name != null ? name.length : -1);
+            nameOffset += name != null ? name.length : 0;
+        }
+        out.asLongBuffer().put(keys);
+        out.position(out.position() + 8 * keys.length);
+        for (int[] section : Arrays.asList(starts, cellIds, oversizedIds)) {
+            out.asIntBuffer().put(section);
+            out.position(out.position() + 4 * section.length);
+        }
+        for (byte[] name : encodedNames) {
+            if (name != null) {
+                out.put(name);
+            }
+        }
+        out.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+}
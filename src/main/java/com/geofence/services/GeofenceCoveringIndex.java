@@ -0,0 +1,126 @@
+package com.geofence.services;
+
+import com.geofence.models.CoveredGeofence;
+import com.geofence.models.Geofence;
+import com.geofence.models.PreparedGeofence;
+import com.geofence.utils.LongLongHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The cell coverings of many fences merged into one map, so a containment query costs a
+ * single hash lookup however many fences there are. Each cell lists the fences that cover
+ * it and whether it is on their boundary: fences whose interior holds the cell are
+ * accepted outright, and only boundary fences get an exact Haversine check.
+ * Safe to query from several threads once built.
+ */
+public class GeofenceCoveringIndex {
+
+    private static final long NO_CELL = -1;
+
+    private final List<CoveredGeofence> coverings;
+    private final PreparedGeofence[] prepared;
+    private final int level;
+    private final LongLongHashMap cellRuns;
+    // Per covered cell run: fence index shifted left once, low bit set for boundary cells
+    private final int[] entries;
+    private final LongAdder[] lookups;
+    private final LongAdder[] exactChecks;
+
+    public GeofenceCoveringIndex(List<CoveredGeofence> coverings) {
+        if (coverings.isEmpty()) {
+            throw new IllegalArgumentException("coverings must not be empty");
+        }
+        this.coverings = List.copyOf(coverings);
+        this.level = coverings.get(0).getLevel();
+        this.prepared = new PreparedGeofence[coverings.size()];
+        this.lookups = new LongAdder[coverings.size()];
+        this.exactChecks = new LongAdder[coverings.size()];
+        for (int i = 0; i < prepared.length; i++) {
+            CoveredGeofence covering = coverings.get(i);
+            if (covering.getLevel() != level) {
+                throw new IllegalArgumentException("All coverings must share level " + level + ": "
+                        + covering.getFence().name() + " has level " + covering.getLevel());
+            }
+            prepared[i] = PreparedGeofence.of(covering.getFence());
+            lookups[i] = new LongAdder();
+            exactChecks[i] = new LongAdder();
+        }
+
+        // Count entries per cell, turn the counts into run offsets, then fill the runs
+        LongLongHashMap counts = new LongLongHashMap();
+        for (CoveredGeofence covering : coverings) {
+            covering.forEachCell((key, boundary) -> counts.put(key, counts.get(key, 0) + 1));
+        }
+        this.cellRuns = new LongLongHashMap(counts.size());
+        long[] total = new long[1];
+        counts.forEach((key, count) -> {
+            cellRuns.put(key, total[0] << 32);
+            total[0] += count;
+        });
+        if (total[0] > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Coverings have too many cells: " + total[0]);
+        }
+        this.entries = new int[(int) total[0]];
+        for (int i = 0; i < prepared.length; i++) {
+            int fence = i;
+            coverings.get(i).forEachCell((key, boundary) -> {
+                long run = cellRuns.get(key, NO_CELL);
+                int start = (int) (run >>> 32);
+                int filled = (int) run;
+                entries[start + filled] = fence << 1 | (boundary ? 1 : 0);
+                cellRuns.put(key, run + 1);
+            });
+        }
+    }
+
+    /**
+     * Find every fence containing the point; same result as checking each fence exactly.
+     */
+    public List<Geofence> findContaining(double latitude, double longitude) {
+        List<Geofence> result = new ArrayList<>();
+        long run = cellRuns.get(CoveredGeofence.cellKey(latitude, longitude, level), NO_CELL);
+        if (run == NO_CELL) {
+            return result;
+        }
+        for (int e = (int) (run >>> 32), end = e + (int) run; e < end; e++) {
+            int fence = entries[e] >>> 1;
+            lookups[fence].increment();
+            boolean inside;
+            if ((entries[e] & 1) == 0) {
+                inside = true;
+            } else {
+                exactChecks[fence].increment();
+                inside = prepared[fence].contains(latitude, longitude);
+            }
+            if (inside) {
+                result.add(prepared[fence].getFence());
+            }
+        }
+        return result;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int size() {
+        return prepared.length;
+    }
+
+    /**
+     * Per-fence stats. Lookups count the queries that landed in one of the fence's
+     * covering cells; queries in its exterior never touch the fence at all.
+     */
+    public List<CoveredGeofence.Stats> stats() {
+        List<CoveredGeofence.Stats> stats = new ArrayList<>(prepared.length);
+        for (int i = 0; i < prepared.length; i++) {
+            CoveredGeofence.Stats cells = coverings.get(i).stats();
+            stats.add(new CoveredGeofence.Stats(cells.fenceName(), cells.radiusMeters(), level,
+                    cells.insideCells(), cells.boundaryCells(), lookups[i].sum(), exactChecks[i].sum()));
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,351 @@
+package com.geofence.services;
+
+import com.geofence.geo.Haversine;
+import com.geofence.geo.Morton;
+import com.geofence.models.FenceDistance;
+import com.geofence.models.Geofence;
+import com.geofence.models.GeoLocation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Static tree over fence centers for k-nearest-fence queries by signed boundary distance.
+ * <p>
+ * Fences are sorted by the {@link Morton} key of their center and packed into leaves of
+ * {@value #FAN_OUT}, then grouped {@value #FAN_OUT} at a time into parent nodes up to a
+ * single root. Each node keeps the 3D box of its centers' unit vectors and its largest
+ * radius. The chord from a query point to that box bounds the distance to every center
+ * below it, even across the antimeridian or a pole, so a best-first search can visit
+ * nodes in order of that bound and stop once no node can beat the k-th result.
+ * Immutable and safe to share between threads.
+ */
+public class GeofenceProximityIndex {
+
+    private static final int FAN_OUT = 16;
+
+    /**
+     * Subtracted from node bounds so rounding never prunes a node holding a true answer.
+     */
+    private static final double BOUND_SLACK_METERS = 1e-6;
+
+    private final Geofence[] fencesById;
+    private final int[] originalIds;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] cosLatitudes;
+    private final double[] radii;
+    private final double[] vectors;
+
+    // Nodes are numbered level by level from the leaves up; the root is the last node.
+    // Leaf children are fence positions, other nodes' children are node numbers.
+    private final int leafCount;
+    private final int[] childStart;
+    private final int[] childEnd;
+    private final double[] boxes;
+    private final double[] maxRadius;
+
+    public GeofenceProximityIndex(List<Geofence> fenceList) {
+        int n = fenceList.size();
+        long[] keys = new long[n];
+        Integer[] sorted = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            GeoLocation center = fenceList.get(i).center();
+            keys[i] = Morton.encode(center.getLatitude(), center.getLongitude());
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, Comparator.<Integer>comparingLong(i -> keys[i]).thenComparingInt(i -> i));
+
+        this.fencesById = fenceList.toArray(new Geofence[0]);
+        this.originalIds = new int[n];
+        this.latitudes = new double[n];
+        this.longitudes = new double[n];
+        this.cosLatitudes = new double[n];
+        this.radii = new double[n];
+        this.vectors = new double[n * 3];
+        for (int i = 0; i < n; i++) {
+            Geofence fence = fenceList.get(sorted[i]);
+            originalIds[i] = sorted[i];
+            latitudes[i] = fence.center().getLatitude();
+            longitudes[i] = fence.center().getLongitude();
+            cosLatitudes[i] = fence.center().cosLatitude();
+            radii[i] = fence.radiusMeters();
+            unitVector(latitudes[i], longitudes[i], vectors, i * 3);
+        }
+
+        this.leafCount = (n + FAN_OUT - 1) / FAN_OUT;
+        int nodes = 0;
+        for (int level = leafCount; ; level = (level + FAN_OUT - 1) / FAN_OUT) {
+            nodes += level;
+            if (level <= 1) {
+                break;
+            }
+        }
+        this.childStart = new int[nodes];
+        this.childEnd = new int[nodes];
+        this.boxes = new double[nodes * 6];
+        this.maxRadius = new double[nodes];
+
+        for (int leaf = 0; leaf < leafCount; leaf++) {
+            childStart[leaf] = leaf * FAN_OUT;
+            childEnd[leaf] = Math.min(n, (leaf + 1) * FAN_OUT);
+            initBox(leaf);
+            for (int f = childStart[leaf]; f < childEnd[leaf]; f++) {
+                extendBox(leaf, vectors, f * 3, f * 3);
+                maxRadius[leaf] = Math.max(maxRadius[leaf], radii[f]);
+            }
+        }
+        int levelStart = 0;
+        int levelSize = leafCount;
+        while (levelSize > 1) {
+            int parentStart = levelStart + levelSize;
+            int parents = (levelSize + FAN_OUT - 1) / FAN_OUT;
+            for (int p = 0; p < parents; p++) {
+                int node = parentStart + p;
+                childStart[node] = levelStart + p * FAN_OUT;
+                childEnd[node] = Math.min(levelStart + levelSize, levelStart + (p + 1) * FAN_OUT);
+                initBox(node);
+                for (int child = childStart[node]; child < childEnd[node]; child++) {
+                    extendBox(node, boxes, child * 6, child * 6 + 3);
+                    maxRadius[node] = Math.max(maxRadius[node], maxRadius[child]);
+                }
+            }
+            levelStart = parentStart;
+            levelSize = parents;
+        }
+    }
+
+    public int size() {
+        return fencesById.length;
+    }
+
+    /**
+     * The k fences with the smallest signed boundary distance to the point, closest first:
+     * fences containing the point come first (deepest inside first), then the fences
+     * nearest to being entered. Ties are broken by position in the original list.
+     */
+    public List<FenceDistance> nearest(GeoLocation point, int k) {
+        return nearest(point.getLatitude(), point.getLongitude(), k);
+    }
+
+    public List<FenceDistance> nearest(double latitude, double longitude, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be non-negative: " + k);
+        }
+        int limit = Math.min(k, fencesById.length);
+        if (limit == 0) {
+            return Collections.emptyList();
+        }
+        double[] query = new double[3];
+        unitVector(latitude, longitude, query, 0);
+
+        // Best results so far as a max-heap on distance, so the k-th best is on top
+        double[] bestDistance = new double[limit];
+        int[] bestFence = new int[limit];
+        int found = 0;
+
+        // Nodes still to visit as a min-heap on their lower bound
+        NodeHeap pending = new NodeHeap();
+        int root = childStart.length - 1;
+        pending.push(lowerBound(root, query), root);
+
+        while (!pending.isEmpty()) {
+            double bound = pending.peekKey();
+            if (found == limit && bound > bestDistance[0]) {
+                break;
+            }
+            int node = pending.pop();
+            if (node < leafCount) {
+                for (int f = childStart[node]; f < childEnd[node]; f++) {
+                    if (found == limit && chordBound(f, query) > bestDistance[0]) {
+                        continue;
+                    }
+                    double distance = Haversine.distance(latitude, longitude, latitudes[f], longitudes[f],
+                            cosLatitudes[f]) - radii[f];
+                    int id = originalIds[f];
+                    if (found < limit) {
+                        siftUp(bestDistance, bestFence, found++, distance, id);
+                    } else if (worse(bestDistance[0], bestFence[0], distance, id)) {
+                        replaceTop(bestDistance, bestFence, limit, distance, id);
+                    }
+                }
+            } else {
+                for (int child = childStart[node]; child < childEnd[node]; child++) {
+                    double childBound = lowerBound(child, query);
+                    if (found < limit || childBound <= bestDistance[0]) {
+                        pending.push(childBound, child);
+                    }
+                }
+            }
+        }
+
+        // Popping the max-heap yields results worst first
+        FenceDistance[] result = new FenceDistance[found];
+        for (int size = found; size > 0; size--) {
+            result[size - 1] = new FenceDistance(fencesById[bestFence[0]], bestDistance[0]);
+            double lastDistance = bestDistance[size - 1];
+            int lastFence = bestFence[size - 1];
+            replaceTop(bestDistance, bestFence, size - 1, lastDistance, lastFence);
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Lower bound on the signed distance from the query to any fence below the node: the
+     * chord to the node's box, which is never longer than the arc, less its largest radius.
+     */
+    private double lowerBound(int node, double[] query) {
+        int offset = node * 6;
+        double chordSquared = 0;
+        for (int axis = 0; axis < 3; axis++) {
+            double value = query[axis];
+            double clamped = Math.max(boxes[offset + axis], Math.min(boxes[offset + 3 + axis], value));
+            chordSquared += (value - clamped) * (value - clamped);
+        }
+        return Math.sqrt(chordSquared) * Haversine.EARTH_RADIUS_METERS - maxRadius[node] - BOUND_SLACK_METERS;
+    }
+
+    /**
+     * Lower bound on the signed distance to one fence from the chord to its center.
+     */
+    private double chordBound(int fence, double[] query) {
+        int offset = fence * 3;
+        double dx = query[0] - vectors[offset];
+        double dy = query[1] - vectors[offset + 1];
+        double dz = query[2] - vectors[offset + 2];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz) * Haversine.EARTH_RADIUS_METERS - radii[fence]
+                - BOUND_SLACK_METERS;
+    }
+
+    private void initBox(int node) {
+        int offset = node * 6;
+        for (int axis = 0; axis < 3; axis++) {
+            boxes[offset + axis] = Double.POSITIVE_INFINITY;
+            boxes[offset + 3 + axis] = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Grow the node's box to cover the min corner at {@code minOffset} and the max corner
+     * at {@code maxOffset} of {@code source}; a point passes the same offset twice.
+     */
+    private void extendBox(int node, double[] source, int minOffset, int maxOffset) {
+        int offset = node * 6;
+        for (int axis = 0; axis < 3; axis++) {
+            boxes[offset + axis] = Math.min(boxes[offset + axis], source[minOffset + axis]);
+            boxes[offset + 3 + axis] = Math.max(boxes[offset + 3 + axis], source[maxOffset + axis]);
+        }
+    }
+
+    private static void unitVector(double latitude, double longitude, double[] out, int offset) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        out[offset] = cosLat * Math.cos(lon);
+        out[offset + 1] = cosLat * Math.sin(lon);
+        out[offset + 2] = Math.sin(lat);
+    }
+
+    private static boolean worse(double distanceA, int fenceA, double distanceB, int fenceB) {
+        return distanceA > distanceB || (distanceA == distanceB && fenceA > fenceB);
+    }
+
+    private static void siftUp(double[] distances, int[] ids, int index, double distance, int id) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!worse(distance, id, distances[parent], ids[parent])) {
+                break;
+            }
+            distances[index] = distances[parent];
+            ids[index] = ids[parent];
+            index = parent;
+        }
+        distances[index] = distance;
+        ids[index] = id;
+    }
+
+    private static void replaceTop(double[] distances, int[] ids, int size, double distance, int id) {
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && worse(distances[child + 1], ids[child + 1], distances[child], ids[child])) {
+                child++;
+            }
+            if (!worse(distances[child], ids[child], distance, id)) {
+                break;
+            }
+            distances[index] = distances[child];
+            ids[index] = ids[child];
+            index = child;
+        }
+        distances[index] = distance;
+        ids[index] = id;
+    }
+
+    /**
+     * Growable binary min-heap of node numbers keyed by their lower bound.
+     */
+    private static final class NodeHeap {
+        private double[] keys = new double[64];
+        private int[] nodes = new int[64];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double peekKey() {
+            return keys[0];
+        }
+
+        void push(double key, int node) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            int index = size++;
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[index] = keys[parent];
+                nodes[index] = nodes[parent];
+                index = parent;
+            }
+            keys[index] = key;
+            nodes[index] = node;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            double key = keys[--size];
+            int node = nodes[size];
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[index] = keys[child];
+                nodes[index] = nodes[child];
+                index = child;
+            }
+            keys[index] = key;
+            nodes[index] = node;
+            return top;
+        }
+    }
+}
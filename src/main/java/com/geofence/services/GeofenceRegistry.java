@@ -0,0 +1,362 @@
+package com.geofence.services;
+
+import com.geofence.geo.E7;
+import com.geofence.models.BoundingBox;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.models.PreparedGeofence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * Registry of many circular geofences backed by a uniform lat/lon grid index.
+ * Each fence is bucketed into every grid cell its bounding box overlaps, so a
+ * containment query only runs Haversine against the fences in the point's cell.
+ * Cells are computed on E7 fixed-point coordinates with integer division, so a point
+ * exactly on a cell edge always lands in the same cell whichever path bucketed it.
+ * Not thread-safe; build the registry before sharing it between threads, or use
+ * {@link VersionedGeofenceRegistry} when fences change while others read.
+ */
+public class GeofenceRegistry {
+
+    private static final double DEFAULT_CELL_SIZE_DEGREES = 0.01;
+    private static final int MAX_CELLS_PER_FENCE = 1024;
+
+    private final double cellSizeDegrees;
+    private final long cellSizeE7;
+    private final int columns;
+    private final int rows;
+    private final List<Geofence> fences = new ArrayList<>();
+    // Center trig and thresholds per fence id, parallel to fences
+    private final List<PreparedGeofence> prepared = new ArrayList<>();
+    private final Map<Long, Bucket> cells;
+    private final Bucket oversizedFences;
+    private boolean shared;
+
+    public GeofenceRegistry() {
+        this(DEFAULT_CELL_SIZE_DEGREES);
+    }
+
+    public GeofenceRegistry(double cellSizeDegrees) {
+        if (!(cellSizeDegrees > 0) || cellSizeDegrees > 90) {
+            throw new IllegalArgumentException("cellSizeDegrees must be in (0, 90]: " + cellSizeDegrees);
+        }
+        this.cellSizeE7 = E7.toE7(cellSizeDegrees);
+        if (cellSizeE7 < 1) {
+            throw new IllegalArgumentException("cellSizeDegrees is below E7 resolution: " + cellSizeDegrees);
+        }
+        this.cellSizeDegrees = E7.toDegrees(cellSizeE7);
+        this.columns = (int) ceilDiv(2 * E7.MAX_LONGITUDE, cellSizeE7);
+        this.rows = (int) ceilDiv(2 * E7.MAX_LATITUDE, cellSizeE7);
+        this.cells = new HashMap<>();
+        this.oversizedFences = new Bucket();
+    }
+
+    private GeofenceRegistry(GeofenceRegistry source) {
+        this.cellSizeDegrees = source.cellSizeDegrees;
+        this.cellSizeE7 = source.cellSizeE7;
+        this.columns = source.columns;
+        this.rows = source.rows;
+        this.fences.addAll(source.fences);
+        this.prepared.addAll(source.prepared);
+        this.cells = new HashMap<>(source.cells);
+        this.oversizedFences = source.oversizedFences.copy();
+    }
+
+    /**
+     * Add a geofence to the registry.
+     * @return the index assigned to the fence
+     */
+    public int register(Geofence fence) {
+        if (shared) {
+            throw new IllegalStateException("Registry shares its cells with a copy and can no longer change");
+        }
+        int id = fences.size();
+        fences.add(fence);
+        prepared.add(PreparedGeofence.of(fence));
+        if (!forEachCell(fence, key -> cells.computeIfAbsent(key, k -> new Bucket()).add(id))) {
+            oversizedFences.add(id);
+        }
+        return id;
+    }
+
+    public void registerAll(Collection<Geofence> newFences) {
+        for (Geofence fence : newFences) {
+            register(fence);
+        }
+    }
+
+    /**
+     * Copy of this registry in which each fence id in {@code changes} maps to its new fence,
+     * in iteration order, after which the fence list is cut to {@code newSize}. An id equal
+     * to the current size appends. Only cells covered by a changed fence are copied; the
+     * rest are shared, so afterwards neither registry accepts {@link #register}.
+     * Costs a shallow copy plus work proportional to the changed fences, instead of
+     * re-bucketing every fence.
+     */
+    GeofenceRegistry withChanges(Map<Integer, Geofence> changes, int newSize) {
+        GeofenceRegistry copy = new GeofenceRegistry(this);
+        shared = true;
+        copy.shared = true;
+        Set<Long> copiedCells = new HashSet<>();
+        for (Map.Entry<Integer, Geofence> change : changes.entrySet()) {
+            int id = change.getKey();
+            if (id < copy.fences.size()) {
+                copy.unindex(copy.fences.get(id), id, copiedCells);
+                copy.fences.set(id, change.getValue());
+                copy.prepared.set(id, PreparedGeofence.of(change.getValue()));
+            } else if (id == copy.fences.size()) {
+                copy.fences.add(change.getValue());
+                copy.prepared.add(PreparedGeofence.of(change.getValue()));
+            } else {
+                throw new IllegalArgumentException("Fence id " + id + " leaves a gap after " + copy.fences.size());
+            }
+            copy.index(change.getValue(), id, copiedCells);
+        }
+        if (newSize < 0 || newSize > copy.fences.size()) {
+            throw new IllegalArgumentException("newSize must be in [0, " + copy.fences.size() + "]: " + newSize);
+        }
+        while (copy.fences.size() > newSize) {
+            int id = copy.fences.size() - 1;
+            copy.prepared.remove(id);
+            copy.unindex(copy.fences.remove(id), id, copiedCells);
+        }
+        return copy;
+    }
+
+    private void index(Geofence fence, int id, Set<Long> copiedCells) {
+        if (!forEachCell(fence, key -> writableBucket(key, copiedCells).add(id))) {
+            oversizedFences.add(id);
+        }
+    }
+
+    private void unindex(Geofence fence, int id, Set<Long> copiedCells) {
+        if (!forEachCell(fence, key -> {
+            Bucket bucket = writableBucket(key, copiedCells);
+            bucket.remove(id);
+            if (bucket.size == 0) {
+                cells.remove(key);
+                copiedCells.remove(key);
+            }
+        })) {
+            oversizedFences.remove(id);
+        }
+    }
+
+    /**
+     * This registry's own copy of a cell's bucket, copying a shared bucket the first time.
+     */
+    private Bucket writableBucket(long key, Set<Long> copiedCells) {
+        if (copiedCells.add(key)) {
+            Bucket bucket = cells.get(key);
+            Bucket copy = bucket != null ? bucket.copy() : new Bucket();
+            cells.put(key, copy);
+            return copy;
+        }
+        return cells.get(key);
+    }
+
+    /**
+     * Run {@code action} on the key of every cell the fence's bounding box overlaps.
+     * @return false, without visiting any cell, when the fence spans too many cells for the grid
+     */
+    private boolean forEachCell(Geofence fence, LongConsumer action) {
+        BoundingBox box = fence.boundingBox();
+        int firstRow = row(box.minLatitude());
+        int lastRow = row(box.maxLatitude());
+        int firstColumn = column(box.minLongitude());
+        int columnSpan = box.maxLongitude() - box.minLongitude() >= 360 - cellSizeDegrees
+                ? columns
+                : Math.floorMod(column(box.maxLongitude()) - firstColumn, columns) + 1;
+
+        if ((long) (lastRow - firstRow + 1) * columnSpan > MAX_CELLS_PER_FENCE) {
+            return false;
+        }
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = 0; c < columnSpan; c++) {
+                action.accept(cellKey(r, (firstColumn + c) % columns));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find every registered geofence that contains the given point.
+     */
+    public List<Geofence> findContaining(GeoLocation point) {
+        List<Geofence> result = new ArrayList<>();
+        collectContaining(cells.get(cellKey(point)), point, result);
+        collectContaining(oversizedFences, point, result);
+        return result;
+    }
+
+    /**
+     * Number of fences the index would test for this point; useful for tuning the cell size.
+     */
+    public int candidateCount(GeoLocation point) {
+        Bucket bucket = cells.get(cellKey(point));
+        return (bucket != null ? bucket.size : 0) + oversizedFences.size;
+    }
+
+    /**
+     * Candidate ids for a packed E7 coordinate, bucketed without leaving the integer domain.
+     * @see #candidateIds(double, double, int[])
+     */
+    public int candidateIds(long packedE7, int[] out) {
+        return candidateIds(cells.get(cellKey(row(E7.latitudeE7(packedE7)), column(E7.longitudeE7(packedE7)))), out);
+    }
+
+    /**
+     * Copy the ids of fences sharing the point's grid cell into {@code out}, without
+     * any distance check. Allocation-free for callers that run their own exact test.
+     * @return the candidate count; only the first {@code out.length} ids are written
+     */
+    public int candidateIds(double latitude, double longitude, int[] out) {
+        return candidateIds(cells.get(cellKey(latitude, longitude)), out);
+    }
+
+    private int candidateIds(Bucket bucket, int[] out) {
+        int count = 0;
+        if (bucket != null) {
+            int copied = Math.min(bucket.size, out.length);
+            System.arraycopy(bucket.ids, 0, out, 0, copied);
+            count = bucket.size;
+        }
+        for (int i = 0; i < oversizedFences.size; i++, count++) {
+            if (count < out.length) {
+                out[count] = oversizedFences.ids[i];
+            }
+        }
+        return count;
+    }
+
+    public Geofence get(int id) {
+        return fences.get(id);
+    }
+
+    public List<Geofence> getAll() {
+        return Collections.unmodifiableList(fences);
+    }
+
+    public int size() {
+        return fences.size();
+    }
+
+    public double getCellSizeDegrees() {
+        return cellSizeDegrees;
+    }
+
+    /**
+     * Visit every non-empty grid cell with the ids bucketed into it; fences too large for
+     * the grid are not visited, see {@link #oversizedIds()}.
+     */
+    void forEachBucket(BucketVisitor visitor) {
+        cells.forEach((key, bucket) -> visitor.visit(key, bucket.ids, bucket.size));
+    }
+
+    int[] oversizedIds() {
+        return Arrays.copyOf(oversizedFences.ids, oversizedFences.size);
+    }
+
+    long getCellSizeE7() {
+        return cellSizeE7;
+    }
+
+    private void collectContaining(Bucket bucket, GeoLocation point, List<Geofence> result) {
+        if (bucket == null) {
+            return;
+        }
+        for (int i = 0; i < bucket.size; i++) {
+            int id = bucket.ids[i];
+            if (prepared.get(id).contains(point)) {
+                result.add(fences.get(id));
+            }
+        }
+    }
+
+    private long cellKey(GeoLocation point) {
+        return cellKey(point.getLatitude(), point.getLongitude());
+    }
+
+    /**
+     * Grid cell key of a coordinate; two points with equal keys have equal candidate sets.
+     */
+    long cellKey(double latitude, double longitude) {
+        return cellKey(row(latitude), column(longitude));
+    }
+
+    private long cellKey(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    private int column(double longitude) {
+        return column(E7.toE7(longitude));
+    }
+
+    private int column(long longitudeE7) {
+        long normalized = Math.floorMod(longitudeE7 + E7.MAX_LONGITUDE, 2 * E7.MAX_LONGITUDE);
+        return (int) Math.min(columns - 1, normalized / cellSizeE7);
+    }
+
+    private int row(double latitude) {
+        return row(E7.toE7(latitude));
+    }
+
+    private int row(long latitudeE7) {
+        long row = Math.floorDiv(latitudeE7 + E7.MAX_LATITUDE, cellSizeE7);
+        return (int) Math.max(0, Math.min(rows - 1, row));
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+
+    /**
+     * Receives a grid cell key and its fence ids; only the first {@code count} ids are valid.
+     */
+    @FunctionalInterface
+    interface BucketVisitor {
+        void visit(long cellKey, int[] ids, int count);
+    }
+
+    /**
+     * Growable list of fence indexes stored as a primitive array.
+     */
+    private static final class Bucket {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        Bucket copy() {
+            Bucket copy = new Bucket();
+            copy.ids = Arrays.copyOf(ids, Math.max(4, size));
+            copy.size = size;
+            return copy;
+        }
+    }
+}
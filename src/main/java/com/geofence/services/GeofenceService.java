@@ -1,10 +1,28 @@
 package com.geofence.services;
 
+import com.geofence.geo.BoundaryAwareStepPlanner;
+import com.geofence.geo.CrossingSolver;
+import com.geofence.geo.DistanceCalculator;
+import com.geofence.geo.GreatCircleTrajectory;
+import com.geofence.geo.HaversineCalculator;
+import com.geofence.models.CoveredGeofence;
+import com.geofence.models.FenceDistance;
 import com.geofence.models.GeoLocation;
+import com.geofence.models.GeoPointBatch;
+import com.geofence.models.Geofence;
+import com.geofence.models.GeofenceCrossing;
+import com.geofence.models.GeofenceTransition;
+import com.geofence.models.MovementPath;
+import com.geofence.models.PreparedGeofence;
 import com.geofence.pages.GeofenceHomePage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
 /**
  * Service layer for geofence-related business operations.
  * Abstracts complex geofence workflows from test classes.
@@ -13,17 +31,30 @@ public class GeofenceService {
 
     private static final Logger log = LoggerFactory.getLogger(GeofenceService.class);
     private static final double DEFAULT_GEOFENCE_RADIUS = 100.0;
+    private static final int DEFAULT_STEP_DELAY_MS = 1000;
+    private static final double CROSSING_MARGIN_METERS = 1.0;
 
     private final LocationService locationService;
     private final double geofenceRadius;
+    private final GeofenceRegistry registry;
+    private final DistanceCalculator distanceCalculator;
+    private volatile PreparedGeofence lastPrepared;
+    private volatile GeofenceCoveringIndex coveringIndex;
+    private volatile GeofenceProximityIndex proximityIndex;
 
     public GeofenceService() {
         this(new LocationService(), DEFAULT_GEOFENCE_RADIUS);
     }
 
     public GeofenceService(LocationService locationService, double geofenceRadius) {
+        this(locationService, geofenceRadius, new GeofenceRegistry());
+    }
+
+    public GeofenceService(LocationService locationService, double geofenceRadius, GeofenceRegistry registry) {
         this.locationService = locationService;
         this.geofenceRadius = geofenceRadius;
+        this.registry = registry;
+        this.distanceCalculator = locationService.getDistanceCalculator();
     }
 
     /**
@@ -61,14 +92,92 @@ public class GeofenceService {
         locationService.simulateMovement(center, outsidePoint);
     }
 
+    /**
+     * Simulate a device entering the geofence, placing the crossing to within resolutionMeters
+     * while pushing dense waypoints only near the boundary. The default entry keeps the
+     * five-step walk; use this when the crossing must be placed precisely. For a 100 m fence
+     * and a 150 m path, 5 m resolution takes 8 fixes where a waypoint every 5 m takes 32,
+     * and finer resolutions save more.
+     */
+    public void simulateGeofenceEntry(GeoLocation center, GeoLocation outsidePoint, double resolutionMeters) {
+        log.info("Simulating geofence entry at {} m boundary resolution", resolutionMeters);
+        locationService.simulateMovement(outsidePoint, center,
+                boundaryPlanner(center, resolutionMeters), DEFAULT_STEP_DELAY_MS);
+    }
+
+    /**
+     * Simulate a device exiting the geofence with boundary-aware waypoints.
+     */
+    public void simulateGeofenceExit(GeoLocation center, GeoLocation outsidePoint, double resolutionMeters) {
+        log.info("Simulating geofence exit at {} m boundary resolution", resolutionMeters);
+        locationService.simulateMovement(center, outsidePoint,
+                boundaryPlanner(center, resolutionMeters), DEFAULT_STEP_DELAY_MS);
+    }
+
+    /**
+     * Simulate a device entering the geofence with four fixes: the outside point, just
+     * outside and just inside the predicted crossing, and the center.
+     * @return the predicted crossing
+     */
+    public List<GeofenceCrossing> simulateGeofenceEntryAtCrossing(GeoLocation center, GeoLocation outsidePoint) {
+        log.info("Simulating geofence entry across the predicted boundary crossing");
+        return simulateCrossings(outsidePoint, center, List.of(fenceAt(center)), CROSSING_MARGIN_METERS);
+    }
+
+    /**
+     * Simulate a device exiting the geofence with four fixes around the predicted crossing.
+     * @return the predicted crossing
+     */
+    public List<GeofenceCrossing> simulateGeofenceExitAtCrossing(GeoLocation center, GeoLocation outsidePoint) {
+        log.info("Simulating geofence exit across the predicted boundary crossing");
+        return simulateCrossings(center, outsidePoint, List.of(fenceAt(center)), CROSSING_MARGIN_METERS);
+    }
+
+    /**
+     * Move along the great circle between two locations, pushing only the start, a fix
+     * marginMeters either side of every predicted crossing, and the end. Each fence
+     * transition costs two location commands however long the path is.
+     * @return the predicted crossings, ordered along the path
+     */
+    public List<GeofenceCrossing> simulateCrossings(GeoLocation from, GeoLocation to, Collection<Geofence> fences,
+                                                    double marginMeters) {
+        if (!(marginMeters > 0)) {
+            throw new IllegalArgumentException("marginMeters must be positive: " + marginMeters);
+        }
+        List<GeofenceCrossing> crossings = predictCrossings(MovementPath.greatCircle(from, to, 0, 0), fences);
+        GreatCircleTrajectory trajectory = GreatCircleTrajectory.between(from, to);
+        double marginFraction = trajectory.lengthMeters() > 0 ? marginMeters / trajectory.lengthMeters() : 1;
+
+        List<GeoLocation> waypoints = new ArrayList<>();
+        waypoints.add(from);
+        double lastFraction = 0;
+        for (GeofenceCrossing crossing : crossings) {
+            lastFraction = addWaypoint(waypoints, trajectory, crossing.fraction() - marginFraction, lastFraction);
+            lastFraction = addWaypoint(waypoints, trajectory, crossing.fraction() + marginFraction, lastFraction);
+        }
+        waypoints.add(to);
+
+        log.info("Crossing {} boundaries with {} fixes", crossings.size(), waypoints.size());
+        locationService.simulateWaypoints(waypoints, DEFAULT_STEP_DELAY_MS);
+        return crossings;
+    }
+
     /**
      * Place device at a specific location and verify geofence status.
      */
     public GeofenceStatus placeDeviceAt(GeoLocation location, GeoLocation geofenceCenter) {
         locationService.setLocation(location);
 
-        double distance = locationService.calculateDistance(geofenceCenter, location);
-        boolean isInside = locationService.isInsideGeofence(geofenceCenter, location, geofenceRadius);
+        double distance;
+        boolean isInside;
+        if (usesHaversine()) {
+            PreparedGeofence geofence = prepare(geofenceCenter);
+            distance = geofence.distanceTo(location);
+            isInside = geofence.contains(location);
+        } else {
+            distance = distanceCalculator.distance(location, geofenceCenter);
+            isInside = distance <= geofenceRadius;
+        }
 
         log.info("Device at {} - Distance from center: {:.2f}m - Inside geofence: {}",
                 location, distance, isInside);
@@ -80,7 +189,10 @@ public class GeofenceService {
      * Verify the device is inside the geofence.
      */
     public boolean verifyInsideGeofence(GeoLocation center, GeoLocation currentLocation) {
-        return locationService.isInsideGeofence(center, currentLocation, geofenceRadius);
+        if (usesHaversine()) {
+            return prepare(center).contains(currentLocation);
+        }
+        return distanceCalculator.isWithinRadius(currentLocation, center, geofenceRadius);
     }
 
     /**
@@ -90,16 +202,193 @@ public class GeofenceService {
         return !verifyInsideGeofence(center, currentLocation);
     }
 
+    /**
+     * Find all registered geofences that contain the given location.
+     */
+    public List<Geofence> findContainingGeofences(GeoLocation location) {
+        GeofenceCoveringIndex index = coveringIndex;
+        if (index == null || index.size() != registry.size()) {
+            return registry.findContaining(location);
+        }
+        return index.findContaining(location.getLatitude(), location.getLongitude());
+    }
+
+    /**
+     * Precompute a cell covering at the given level for every registered fence, so
+     * {@link #findContainingGeofences} costs one hash lookup plus exact checks only for
+     * fences whose boundary passes through the point's cell. Registering more fences
+     * afterwards falls back to the registry until this is called again.
+     * @see CoveredGeofence#of(Geofence, int)
+     */
+    public void precomputeCoverings(int level) {
+        List<Geofence> fences = registry.getAll();
+        if (fences.isEmpty()) {
+            coveringIndex = null;
+            return;
+        }
+        long start = System.nanoTime();
+        List<CoveredGeofence> coverings = new ArrayList<>(fences.size());
+        for (Geofence fence : fences) {
+            coverings.add(CoveredGeofence.of(fence, level));
+        }
+        coveringIndex = new GeofenceCoveringIndex(coverings);
+        log.info("Precomputed level {} coverings for {} fences in {} ms",
+                level, fences.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Per-fence covering sizes and cell hit rates since the coverings were built,
+     * or an empty list if {@link #precomputeCoverings} has not been called.
+     */
+    public List<CoveredGeofence.Stats> getCoverageStats() {
+        GeofenceCoveringIndex index = coveringIndex;
+        return index != null ? index.stats() : List.of();
+    }
+
+    /**
+     * The k registered fences whose boundaries are nearest the location by signed
+     * distance: fences containing it first, then the ones closest to being entered.
+     * Useful for choosing which fences to arm on the device.
+     */
+    public List<FenceDistance> nearestFences(GeoLocation location, int k) {
+        GeofenceProximityIndex index = proximityIndex;
+        if (index == null || index.size() != registry.size()) {
+            index = new GeofenceProximityIndex(registry.getAll());
+            proximityIndex = index;
+        }
+        return index.nearest(location, k);
+    }
+
+    /**
+     * Evaluate a large batch of points against every registered geofence on all cores.
+     */
+    public GeofenceBatchEvaluator.ContainmentHits evaluateBatch(GeoPointBatch points) {
+        return new GeofenceBatchEvaluator(registry).evaluate(points);
+    }
+
+    /**
+     * Predict where and when a path crosses the boundaries of the given fences, solved in
+     * closed form rather than by stepping. Crossings are ordered by time.
+     */
+    public List<GeofenceCrossing> predictCrossings(MovementPath path, Collection<Geofence> fences) {
+        List<GeofenceCrossing> crossings = new ArrayList<>();
+        GreatCircleTrajectory trajectory = path.shape() == MovementPath.Shape.GREAT_CIRCLE
+                ? GreatCircleTrajectory.between(path.from(), path.to())
+                : null;
+        double[] roots = new double[2];
+
+        for (Geofence fence : fences) {
+            GeoLocation center = fence.center();
+            if (trajectory != null) {
+                CrossingSolver.greatCircle(path.from().getLatitude(), path.from().getLongitude(),
+                        path.to().getLatitude(), path.to().getLongitude(),
+                        center.getLatitude(), center.getLongitude(), fence.radiusMeters(), roots);
+            } else {
+                CrossingSolver.straight(path.from().getLatitude(), path.from().getLongitude(),
+                        path.to().getLatitude(), path.to().getLongitude(),
+                        center.getLatitude(), center.getLongitude(), fence.radiusMeters(), roots);
+            }
+            addCrossing(crossings, path, trajectory, fence, GeofenceTransition.ENTER, roots[0]);
+            addCrossing(crossings, path, trajectory, fence, GeofenceTransition.EXIT, roots[1]);
+        }
+
+        crossings.sort(Comparator.comparingDouble(GeofenceCrossing::fraction));
+        log.debug("Predicted {} crossings for {} fences along {} -> {}",
+                crossings.size(), fences.size(), path.from(), path.to());
+        return crossings;
+    }
+
+    /**
+     * Predict crossings against every fence in the registry.
+     */
+    public List<GeofenceCrossing> predictCrossings(MovementPath path) {
+        return predictCrossings(path, registry.getAll());
+    }
+
+    public GeofenceRegistry getRegistry() {
+        return registry;
+    }
+
+    public LocationService getLocationService() {
+        return locationService;
+    }
+
     public double getGeofenceRadius() {
         return geofenceRadius;
     }
 
-    private void pause(long millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    public DistanceCalculator getDistanceCalculator() {
+        return distanceCalculator;
+    }
+
+    private static void addCrossing(List<GeofenceCrossing> crossings, MovementPath path,
+                                    GreatCircleTrajectory trajectory, Geofence fence,
+                                    GeofenceTransition transition, double fraction) {
+        if (Double.isNaN(fraction)) {
+            return;
+        }
+        GeoLocation location;
+        if (trajectory != null) {
+            double[] point = new double[2];
+            trajectory.interpolate(fraction, point);
+            location = GeoLocation.of(point[0], point[1]);
+        } else {
+            location = GeoLocation.of(
+                    path.from().getLatitude() + fraction * (path.to().getLatitude() - path.from().getLatitude()),
+                    path.from().getLongitude() + fraction * (path.to().getLongitude() - path.from().getLongitude()));
+        }
+        crossings.add(new GeofenceCrossing(fence, transition, location, fraction, path.timeAt(fraction)));
+    }
+
+    /**
+     * Add the point at this fraction of the trajectory unless it falls at or before the
+     * previous waypoint or at the end, which is pushed anyway.
+     * @return the fraction of the last waypoint added
+     */
+    private static double addWaypoint(List<GeoLocation> waypoints, GreatCircleTrajectory trajectory,
+                                      double fraction, double lastFraction) {
+        if (fraction <= lastFraction || fraction >= 1) {
+            return lastFraction;
         }
+        double[] point = new double[2];
+        trajectory.interpolate(fraction, point);
+        waypoints.add(GeoLocation.of(point[0], point[1]));
+        return fraction;
+    }
+
+    private Geofence fenceAt(GeoLocation center) {
+        return new Geofence(center.getName(), center, geofenceRadius);
+    }
+
+    private BoundaryAwareStepPlanner boundaryPlanner(GeoLocation center, double resolutionMeters) {
+        return BoundaryAwareStepPlanner.builder()
+                .fence(center, geofenceRadius)
+                .resolutionMeters(resolutionMeters)
+                .maxSpacingMeters(Math.max(resolutionMeters, geofenceRadius))
+                .build();
+    }
+
+    /**
+     * Haversine is served by the cached prepared fence; other modes measure directly.
+     */
+    private boolean usesHaversine() {
+        return distanceCalculator instanceof HaversineCalculator;
+    }
+
+    /**
+     * Prepared form of the fence at this center, reused while the center stays the same.
+     */
+    private PreparedGeofence prepare(GeoLocation center) {
+        PreparedGeofence prepared = lastPrepared;
+        if (prepared == null || !prepared.getCenter().equals(center)) {
+            prepared = PreparedGeofence.of(center, geofenceRadius);
+            lastPrepared = prepared;
+        }
+        return prepared;
+    }
+
+    private void pause(long millis) {
+        locationService.getClock().sleepMillis(millis);
     }
 
     /**
@@ -0,0 +1,274 @@
+package com.geofence.services;
+
+import com.geofence.geo.Haversine;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.models.GeofenceEvent;
+import com.geofence.models.GeofenceTransition;
+import com.geofence.utils.LongLongHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Incremental ENTER/EXIT/DWELL detector over a stream of timestamped device positions.
+ * <p>
+ * A device enters a fence when it comes within the fence radius and exits only once
+ * it is farther than radius + hysteresis, so GPS jitter on the boundary does not flap.
+ * DWELL fires once per stay after the device has been inside for the dwell time.
+ * <p>
+ * All per-device and per-(device, fence) state lives in primitive arrays and
+ * open-addressing maps, so steady-state updates allocate nothing. Updates for a
+ * device must arrive in timestamp order. Not thread-safe; run one detector per core.
+ */
+public class GeofenceTransitionDetector {
+
+    private static final int INITIAL_DEVICE_CAPACITY = 1024;
+    private static final long NOT_INSIDE = -1;
+
+    private final double[] fenceLatitudes;
+    private final double[] fenceLongitudes;
+    private final double[] fenceCos;
+    private final double[] fenceSin;
+    private final double[] enterRadii;
+    private final double[] exitRadii;
+    private final long dwellMillis;
+    private final TransitionListener listener;
+
+    /** Registry of fences expanded by the hysteresis, used only to find candidates. */
+    private final GeofenceRegistry candidateIndex;
+    private final LongLongHashMap deviceSlots = new LongLongHashMap(INITIAL_DEVICE_CAPACITY);
+    /** Key: device slot << 32 | fence index. Value: enteredAt << 1 | dwellReported. */
+    private final LongLongHashMap insideState = new LongLongHashMap(INITIAL_DEVICE_CAPACITY);
+    private final int[] visitedEpoch;
+
+    private double[] lastLatitudes = new double[INITIAL_DEVICE_CAPACITY];
+    private double[] lastLongitudes = new double[INITIAL_DEVICE_CAPACITY];
+    private int deviceCount;
+    private int[] candidates = new int[64];
+    private int epoch;
+    private long updateCount;
+
+    private GeofenceTransitionDetector(Builder builder) {
+        int fenceCount = builder.fences.size();
+        this.fenceLatitudes = new double[fenceCount];
+        this.fenceLongitudes = new double[fenceCount];
+        this.fenceCos = new double[fenceCount];
+        this.fenceSin = new double[fenceCount];
+        this.enterRadii = new double[fenceCount];
+        this.exitRadii = new double[fenceCount];
+        this.dwellMillis = builder.dwellMillis;
+        this.listener = builder.listener;
+        this.candidateIndex = new GeofenceRegistry(builder.cellSizeDegrees);
+        this.visitedEpoch = new int[fenceCount];
+
+        for (int i = 0; i < fenceCount; i++) {
+            Geofence fence = builder.fences.get(i);
+            GeoLocation center = fence.center();
+            fenceLatitudes[i] = center.getLatitude();
+            fenceLongitudes[i] = center.getLongitude();
+            fenceCos[i] = center.cosLatitude();
+            fenceSin[i] = center.sinLatitude();
+            enterRadii[i] = fence.radiusMeters();
+            exitRadii[i] = fence.radiusMeters() + builder.hysteresisMeters;
+            candidateIndex.register(new Geofence(fence.name(), center, exitRadii[i]));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public void update(long deviceId, long timestampMillis, GeoLocation location) {
+        update(deviceId, timestampMillis, location.getLatitude(), location.getLongitude());
+    }
+
+    /**
+     * Feed one position fix for a device and emit any resulting transitions.
+     */
+    public void update(long deviceId, long timestampMillis, double latitude, double longitude) {
+        if (timestampMillis < 0) {
+            throw new IllegalArgumentException("timestampMillis must be non-negative: " + timestampMillis);
+        }
+        updateCount++;
+        long slotValue = deviceSlots.get(deviceId, NOT_INSIDE);
+        int slot;
+        boolean hasLastFix = slotValue >= 0;
+        if (hasLastFix) {
+            slot = (int) slotValue;
+        } else {
+            slot = addDevice(deviceId);
+        }
+
+        if (++epoch == 0) {
+            Arrays.fill(visitedEpoch, 0);
+            epoch = 1;
+        }
+
+        evaluateCandidatesAt(latitude, longitude, deviceId, slot, timestampMillis, latitude, longitude);
+        if (hasLastFix) {
+            // Fences the device was inside are all candidates at its previous fix
+            double lastLat = lastLatitudes[slot];
+            double lastLon = lastLongitudes[slot];
+            if (candidateIndex.cellKey(lastLat, lastLon) != candidateIndex.cellKey(latitude, longitude)) {
+                evaluateCandidatesAt(lastLat, lastLon, deviceId, slot, timestampMillis, latitude, longitude);
+            }
+        }
+        lastLatitudes[slot] = latitude;
+        lastLongitudes[slot] = longitude;
+    }
+
+    /**
+     * Check whether the detector currently considers the device inside the fence.
+     */
+    public boolean isInside(long deviceId, int fenceIndex) {
+        long slot = deviceSlots.get(deviceId, NOT_INSIDE);
+        return slot >= 0 && insideState.containsKey(stateKey((int) slot, fenceIndex));
+    }
+
+    public int getDeviceCount() {
+        return deviceCount;
+    }
+
+    /**
+     * Number of (device, fence) pairs currently inside.
+     */
+    public int getInsideCount() {
+        return insideState.size();
+    }
+
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    private void evaluateCandidatesAt(double queryLat, double queryLon, long deviceId, int slot,
+                                      long timestampMillis, double latitude, double longitude) {
+        int count = candidateIndex.candidateIds(queryLat, queryLon, candidates);
+        if (count > candidates.length) {
+            candidates = new int[Integer.highestOneBit(count) << 1];
+            count = candidateIndex.candidateIds(queryLat, queryLon, candidates);
+        }
+        for (int i = 0; i < count; i++) {
+            int fence = candidates[i];
+            if (visitedEpoch[fence] == epoch) {
+                continue;
+            }
+            visitedEpoch[fence] = epoch;
+            evaluateFence(fence, deviceId, slot, timestampMillis, latitude, longitude);
+        }
+    }
+
+    private void evaluateFence(int fence, long deviceId, int slot, long timestampMillis,
+                               double latitude, double longitude) {
+        long key = stateKey(slot, fence);
+        long state = insideState.get(key, NOT_INSIDE);
+
+        if (state == NOT_INSIDE) {
+            if (isWithin(fence, latitude, longitude, enterRadii[fence])) {
+                boolean dwellNow = dwellMillis == 0;
+                insideState.put(key, (timestampMillis << 1) | (dwellNow ? 1 : 0));
+                listener.onTransition(deviceId, fence, GeofenceTransition.ENTER, timestampMillis);
+                if (dwellNow) {
+                    listener.onTransition(deviceId, fence, GeofenceTransition.DWELL, timestampMillis);
+                }
+            }
+            return;
+        }
+
+        if (!isWithin(fence, latitude, longitude, exitRadii[fence])) {
+            insideState.remove(key);
+            listener.onTransition(deviceId, fence, GeofenceTransition.EXIT, timestampMillis);
+        } else if ((state & 1) == 0 && timestampMillis - (state >>> 1) >= dwellMillis) {
+            insideState.put(key, state | 1);
+            listener.onTransition(deviceId, fence, GeofenceTransition.DWELL, timestampMillis);
+        }
+    }
+
+    private boolean isWithin(int fence, double latitude, double longitude, double radius) {
+        return Haversine.isWithinRadius(latitude, longitude, fenceLatitudes[fence], fenceLongitudes[fence],
+                fenceCos[fence], fenceSin[fence], radius);
+    }
+
+    private int addDevice(long deviceId) {
+        int slot = deviceCount++;
+        if (slot == lastLatitudes.length) {
+            lastLatitudes = Arrays.copyOf(lastLatitudes, slot * 2);
+            lastLongitudes = Arrays.copyOf(lastLongitudes, slot * 2);
+        }
+        deviceSlots.put(deviceId, slot);
+        return slot;
+    }
+
+    private static long stateKey(int slot, int fence) {
+        return ((long) slot << 32) | (fence & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Receives transitions as primitives so the hot path never allocates event objects.
+     */
+    @FunctionalInterface
+    public interface TransitionListener {
+        void onTransition(long deviceId, int fenceIndex, GeofenceTransition transition, long timestampMillis);
+    }
+
+    /**
+     * Listener that records every transition as a {@link GeofenceEvent}, e.g. for oracle comparisons.
+     */
+    public static class EventCollector implements TransitionListener {
+        private final List<GeofenceEvent> events = new ArrayList<>();
+
+        @Override
+        public void onTransition(long deviceId, int fenceIndex, GeofenceTransition transition, long timestampMillis) {
+            events.add(new GeofenceEvent(deviceId, fenceIndex, transition, timestampMillis));
+        }
+
+        public List<GeofenceEvent> getEvents() {
+            return events;
+        }
+    }
+
+    public static class Builder {
+        private List<Geofence> fences = List.of();
+        private double hysteresisMeters;
+        private long dwellMillis = 30_000;
+        private double cellSizeDegrees = 0.01;
+        private TransitionListener listener = (deviceId, fenceIndex, transition, timestampMillis) -> { };
+
+        public Builder fences(List<Geofence> fences) {
+            this.fences = List.copyOf(fences);
+            return this;
+        }
+
+        public Builder hysteresisMeters(double hysteresisMeters) {
+            this.hysteresisMeters = hysteresisMeters;
+            return this;
+        }
+
+        public Builder dwellMillis(long dwellMillis) {
+            this.dwellMillis = dwellMillis;
+            return this;
+        }
+
+        public Builder cellSizeDegrees(double cellSizeDegrees) {
+            this.cellSizeDegrees = cellSizeDegrees;
+            return this;
+        }
+
+        public Builder listener(TransitionListener listener) {
+            this.listener = Objects.requireNonNull(listener, "listener must not be null");
+            return this;
+        }
+
+        public GeofenceTransitionDetector build() {
+            if (hysteresisMeters < 0 || Double.isNaN(hysteresisMeters)) {
+                throw new IllegalArgumentException("hysteresisMeters must be non-negative: " + hysteresisMeters);
+            }
+            if (dwellMillis < 0) {
+                throw new IllegalArgumentException("dwellMillis must be non-negative: " + dwellMillis);
+            }
+            return new GeofenceTransitionDetector(this);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.geofence.services;
+
+import com.geofence.geo.Haversine;
+import com.geofence.models.GeoLocation;
+import io.appium.java_client.AppiumDriver;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Remembers the last fix applied to a driver and drops location commands that would not
+ * change anything. A fix within {@code toleranceMeters} of the last applied one (and at
+ * the same altitude) is skipped along with its settle wait, as when a test places the
+ * device at a fence center and the next movement starts from that same center.
+ * <p>
+ * Commands that arrive while another one for the same driver is in flight are collapsed:
+ * once the driver is free only the newest is sent, and the callers it superseded return
+ * without a round trip. A failed command forgets the last fix, since the device's
+ * position is then unknown.
+ * <p>
+ * {@link #forDriver(AppiumDriver)} shares one cache per driver, so every
+ * {@link LocationService} on a session sees the same state. Code that moves the device
+ * some other way should call {@link #invalidate()}.
+ */
+public class LocationCommandCache {
+
+    /**
+     * About the resolution of a 1e-7 degree coordinate, so only repeats of the same fix are skipped.
+     */
+    public static final double DEFAULT_TOLERANCE_METERS = 0.01;
+
+    private static final Map<AppiumDriver, LocationCommandCache> BY_DRIVER =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private static final LongAdder TOTAL_REQUESTED = new LongAdder();
+    private static final LongAdder TOTAL_SKIPPED = new LongAdder();
+    private static final LongAdder TOTAL_COLLAPSED = new LongAdder();
+
+    private final double toleranceMeters;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition idle = lock.newCondition();
+    private final LongAdder requested = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private GeoLocation lastApplied;
+    private long latestRequest;
+    private boolean inFlight;
+    private int waiting;
+
+    public LocationCommandCache() {
+        this(DEFAULT_TOLERANCE_METERS);
+    }
+
+    public LocationCommandCache(double toleranceMeters) {
+        if (!(toleranceMeters >= 0)) {
+            throw new IllegalArgumentException("toleranceMeters must be non-negative: " + toleranceMeters);
+        }
+        this.toleranceMeters = toleranceMeters;
+    }
+
+    /**
+     * The shared cache for a driver session.
+     */
+    public static LocationCommandCache forDriver(AppiumDriver driver) {
+        return BY_DRIVER.computeIfAbsent(driver, d -> new LocationCommandCache());
+    }
+
+    /**
+     * Commands saved across every cache since startup.
+     */
+    public static Savings totals() {
+        return new Savings(TOTAL_REQUESTED.sum(), TOTAL_SKIPPED.sum(), TOTAL_COLLAPSED.sum());
+    }
+
+    /**
+     * Send {@code location} through {@code sender} unless it repeats the last applied fix
+     * or a newer command supersedes it while waiting for the driver.
+     * @return true if the command was sent
+     */
+    public boolean apply(GeoLocation location, Consumer<GeoLocation> sender) {
+        count(requested, TOTAL_REQUESTED);
+        lock.lock();
+        try {
+            long request = ++latestRequest;
+            waiting++;
+            while (inFlight) {
+                idle.awaitUninterruptibly();
+            }
+            waiting--;
+            if (request != latestRequest) {
+                count(collapsed, TOTAL_COLLAPSED);
+                return false;
+            }
+            if (matchesLastApplied(location)) {
+                count(skipped, TOTAL_SKIPPED);
+                return false;
+            }
+            inFlight = true;
+            lastApplied = null;
+        } finally {
+            lock.unlock();
+        }
+
+        boolean sent = false;
+        try {
+            sender.accept(location);
+            sent = true;
+            return true;
+        } finally {
+            lock.lock();
+            try {
+                lastApplied = sent ? location : null;
+                inFlight = false;
+                idle.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Forget the last fix, so the next command is always sent.
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            lastApplied = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Callers blocked behind the in-flight command; each will be collapsed unless it is the newest.
+     */
+    public int waitingCount() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Savings savings() {
+        return new Savings(requested.sum(), skipped.sum(), collapsed.sum());
+    }
+
+    public double getToleranceMeters() {
+        return toleranceMeters;
+    }
+
+    private boolean matchesLastApplied(GeoLocation location) {
+        return lastApplied != null
+                && altitude(lastApplied) == altitude(location)
+                && Haversine.distance(lastApplied.getLatitude(), lastApplied.getLongitude(),
+                location.getLatitude(), location.getLongitude()) <= toleranceMeters;
+    }
+
+    private static double altitude(GeoLocation location) {
+        return location.getAltitude() != null ? location.getAltitude() : 0.0;
+    }
+
+    private static void count(LongAdder local, LongAdder total) {
+        local.increment();
+        total.increment();
+    }
+
+    /**
+     * Location commands requested and how many never reached the driver.
+     * @param skipped repeats of the last applied fix
+     * @param collapsed commands superseded by a newer one before they were sent
+     */
+    public record Savings(long requested, long skipped, long collapsed) {
+
+        public long sent() {
+            return requested - skipped - collapsed;
+        }
+
+        public long saved() {
+            return skipped + collapsed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requested=%d sent=%d saved=%d (repeats=%d superseded=%d)",
+                    requested, sent(), saved(), skipped, collapsed);
+        }
+    }
+}
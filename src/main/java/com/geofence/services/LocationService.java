@@ -1,7 +1,14 @@
 package com.geofence.services;
 
 import com.geofence.driver.DriverManager;
+import com.geofence.geo.BoundaryAwareStepPlanner;
+import com.geofence.geo.DistanceCalculator;
+import com.geofence.geo.GreatCircleTrajectory;
+import com.geofence.geo.HaversineCalculator;
 import com.geofence.models.GeoLocation;
+import com.geofence.models.Platform;
+import com.geofence.time.SimulationClock;
+import com.geofence.time.SimulationClocks;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.ios.IOSDriver;
@@ -9,6 +16,9 @@ import org.openqa.selenium.html5.Location;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.util.List;
+
 /**
  * Service for handling device location operations.
  */
@@ -17,21 +27,72 @@ public class LocationService {
     private static final Logger log = LoggerFactory.getLogger(LocationService.class);
     private static final int DEFAULT_MOVEMENT_STEPS = 5;
     private static final int DEFAULT_STEP_DELAY_MS = 1000;
+    private static final long SETTLE_FALLBACK_MS = 500;
 
     private final AppiumDriver driver;
+    private final DistanceCalculator distanceCalculator;
+    private final LocationSettleDetector settleDetector;
+    private final SimulationClock clock;
+    private final LocationCommandCache commandCache;
 
     public LocationService() {
-        this.driver = DriverManager.getDriver();
+        this(DriverManager.getDriver());
     }
 
     public LocationService(AppiumDriver driver) {
+        this(driver, HaversineCalculator.INSTANCE);
+    }
+
+    public LocationService(AppiumDriver driver, DistanceCalculator distanceCalculator) {
+        this(driver, distanceCalculator, defaultSettleDetector(driver));
+    }
+
+    /**
+     * @param settleDetector decides when each location command has taken effect
+     */
+    public LocationService(AppiumDriver driver, DistanceCalculator distanceCalculator,
+                           LocationSettleDetector settleDetector) {
+        this(driver, distanceCalculator, settleDetector, SimulationClocks.current());
+    }
+
+    /**
+     * @param clock times step delays and route replays; give the settle detector the same clock
+     */
+    public LocationService(AppiumDriver driver, DistanceCalculator distanceCalculator,
+                           LocationSettleDetector settleDetector, SimulationClock clock) {
         this.driver = driver;
+        this.distanceCalculator = distanceCalculator;
+        this.settleDetector = settleDetector;
+        this.clock = clock;
+        this.commandCache = driver != null ? LocationCommandCache.forDriver(driver) : new LocationCommandCache();
+    }
+
+    /**
+     * Poll the location the driver reports; drivers that cannot report one get the
+     * former fixed 500 ms wait.
+     */
+    private static LocationSettleDetector defaultSettleDetector(AppiumDriver driver) {
+        if (driver instanceof AndroidDriver androidDriver) {
+            return LocationSettleDetector.forDriver(androidDriver, Platform.ANDROID, SETTLE_FALLBACK_MS);
+        }
+        if (driver instanceof IOSDriver iosDriver) {
+            return LocationSettleDetector.forDriver(iosDriver, Platform.IOS, SETTLE_FALLBACK_MS);
+        }
+        return null;
     }
 
     /**
-     * Set the device location to the specified coordinates.
+     * Set the device location to the specified coordinates and wait until the device
+     * reports it. Skipped when the device is already at that fix, or when a newer
+     * command for the same driver supersedes it.
      */
     public void setLocation(GeoLocation location) {
+        if (!commandCache.apply(location, this::sendLocation)) {
+            log.debug("Skipped redundant location command: {}", location);
+        }
+    }
+
+    private void sendLocation(GeoLocation location) {
         log.debug("Setting device location to: {}", location);
 
         double altitude = location.getAltitude() != null ? location.getAltitude() : 0.0;
@@ -48,7 +109,7 @@ public class LocationService {
         } else {
             throw new UnsupportedOperationException("setLocation not supported for this driver type");
         }
-        pause(500);
+        settleDetector.awaitSettled(location);
 
         log.info("Location set to: {}", location);
     }
@@ -62,49 +123,114 @@ public class LocationService {
 
     /**
      * Simulate gradual movement with custom parameters.
+     * Waypoints follow the great circle between the two locations and are due every
+     * delayMs, however long each location command takes.
      */
     public void simulateMovement(GeoLocation from, GeoLocation to, int steps, int delayMs) {
         log.info("Simulating movement from {} to {} in {} steps", from, to, steps);
+        followTrajectory(GreatCircleTrajectory.between(from, to).steps(steps), delayMs);
+    }
 
-        double latStep = (to.getLatitude() - from.getLatitude()) / steps;
-        double lonStep = (to.getLongitude() - from.getLongitude()) / steps;
+    /**
+     * Simulate movement with a waypoint every spacingMeters along the great circle.
+     */
+    public void simulateMovementEvery(GeoLocation from, GeoLocation to, double spacingMeters, int delayMs) {
+        log.info("Simulating movement from {} to {} every {} m", from, to, spacingMeters);
+        followTrajectory(GreatCircleTrajectory.between(from, to).spacedMeters(spacingMeters), delayMs);
+    }
 
-        for (int i = 0; i <= steps; i++) {
-            double currentLat = from.getLatitude() + (latStep * i);
-            double currentLon = from.getLongitude() + (lonStep * i);
+    /**
+     * Simulate a device travelling at the given speed, pushing a waypoint every delayMs.
+     */
+    public void simulateMovementAtSpeed(GeoLocation from, GeoLocation to, double speedMetersPerSecond, int delayMs) {
+        log.info("Simulating movement from {} to {} at {} m/s", from, to, speedMetersPerSecond);
+        followTrajectory(GreatCircleTrajectory.between(from, to)
+                .spacedSeconds(delayMs / 1000.0, speedMetersPerSecond), delayMs);
+    }
 
-            GeoLocation intermediate = GeoLocation.builder()
-                    .latitude(currentLat)
-                    .longitude(currentLon)
-                    .name("Step " + i)
-                    .build();
+    /**
+     * Simulate movement with waypoints planned around geofence boundaries: sparse far
+     * from any boundary, resolution-spaced where a crossing can happen.
+     */
+    public void simulateMovement(GeoLocation from, GeoLocation to, BoundaryAwareStepPlanner planner, int delayMs) {
+        GreatCircleTrajectory trajectory = GreatCircleTrajectory.between(from, to);
+        log.info("Simulating boundary-aware movement from {} to {} at {} m resolution",
+                from, to, planner.getResolutionMeters());
+
+        BoundaryAwareStepPlanner.Cursor waypoints = planner.plan(trajectory);
+        timeline(delayMs).run(() -> waypoints.next()
+                ? GeoLocation.of(waypoints.latitude(), waypoints.longitude()) : null);
+
+        log.info("Movement simulation completed with {} waypoints (a waypoint every {} m would push {})",
+                waypoints.index() + 1, planner.getResolutionMeters(),
+                Math.max(1, (long) Math.ceil(trajectory.lengthMeters() / planner.getResolutionMeters())) + 1);
+    }
 
-            setLocation(intermediate);
-            pause(delayMs);
-        }
+    /**
+     * Push the given fixes in order, one due every delayMs.
+     */
+    public void simulateWaypoints(List<GeoLocation> waypoints, int delayMs) {
+        log.info("Simulating movement through {} waypoints", waypoints.size());
+        timeline(delayMs).run(waypoints);
+    }
+
+    /**
+     * Replay a recorded GPX, NMEA or CSV route at the given speed.
+     */
+    public RouteReplayer.ReplayReport replayRoute(Path routeFile, RouteReplayer.Speed speed) {
+        return RouteReplayer.builder()
+                .target(this)
+                .speed(speed)
+                .clock(clock)
+                .build()
+                .replay(routeFile);
+    }
+
+    private void followTrajectory(GreatCircleTrajectory.Cursor waypoints, int delayMs) {
+        timeline(delayMs).run(() -> waypoints.next()
+                ? GeoLocation.of(waypoints.latitude(), waypoints.longitude()) : null);
 
         log.info("Movement simulation completed");
     }
 
+    /**
+     * Waypoints are due every delayMs from the start, however long each command takes.
+     */
+    private MovementTimeline timeline(int delayMs) {
+        return MovementTimeline.builder()
+                .target(this)
+                .intervalMillis(delayMs)
+                .clock(clock)
+                .build();
+    }
+
     /**
      * Check if a location is within a geofence.
      */
     public boolean isInsideGeofence(GeoLocation center, GeoLocation point, double radiusMeters) {
-        return point.isWithinRadius(center, radiusMeters);
+        return distanceCalculator.isWithinRadius(point, center, radiusMeters);
     }
 
     /**
      * Calculate distance between two locations.
      */
     public double calculateDistance(GeoLocation from, GeoLocation to) {
-        return from.distanceTo(to);
+        return distanceCalculator.distance(from, to);
     }
 
-    private void pause(long millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    public DistanceCalculator getDistanceCalculator() {
+        return distanceCalculator;
+    }
+
+    public LocationSettleDetector getSettleDetector() {
+        return settleDetector;
+    }
+
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    public LocationCommandCache getCommandCache() {
+        return commandCache;
     }
 }
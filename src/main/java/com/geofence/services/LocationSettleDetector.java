@@ -0,0 +1,236 @@
+package com.geofence.services;
+
+import com.geofence.geo.Haversine;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Platform;
+import com.geofence.time.SimulationClock;
+import com.geofence.time.SimulationClocks;
+import io.appium.java_client.remote.SupportsLocation;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.html5.Location;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Waits for a location command to take effect by polling a {@link SettleProbe} with
+ * exponential backoff, instead of sleeping a fixed time after every command. Returns as
+ * soon as the probe confirms the new fix, and gives up after a timeout.
+ * <p>
+ * The default probe compares the location the driver reports with the one just set.
+ * If the driver cannot report its location, the detector logs once and falls back to
+ * the fixed delay it replaced. Any other probe failure, such as a dropped HTTP request,
+ * counts as one failed poll and polling goes on until the timeout. Every wait is
+ * recorded in a {@link SettleTimeHistogram}, by default the shared one for the platform.
+ */
+public class LocationSettleDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(LocationSettleDetector.class);
+
+    /**
+     * Largest distance between the reported and requested fix that still counts as applied.
+     */
+    public static final double DEFAULT_TOLERANCE_METERS = 1.0;
+
+    private final Platform platform;
+    private final SettleProbe probe;
+    private final long initialPollMillis;
+    private final long maxPollMillis;
+    private final long timeoutMillis;
+    private final long fallbackMillis;
+    private final SettleTimeHistogram histogram;
+    private final SimulationClock clock;
+    private volatile boolean probeUnavailable;
+
+    private LocationSettleDetector(Builder builder) {
+        this.platform = builder.platform;
+        this.probe = builder.probe;
+        this.initialPollMillis = builder.initialPollMillis;
+        this.maxPollMillis = builder.maxPollMillis;
+        this.timeoutMillis = builder.timeoutMillis;
+        this.fallbackMillis = builder.fallbackMillis;
+        this.histogram = builder.histogram != null ? builder.histogram : SettleTimeHistogram.of(builder.platform);
+        this.clock = builder.clock != null ? builder.clock : SimulationClocks.current();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Detector that polls the driver's reported location, falling back to
+     * {@code fallbackMillis} of sleep when the driver cannot report one.
+     */
+    public static LocationSettleDetector forDriver(SupportsLocation driver, Platform platform, long fallbackMillis) {
+        return builder()
+                .platform(platform)
+                .probe(SettleProbe.reportedLocation(driver, DEFAULT_TOLERANCE_METERS))
+                .fallbackMillis(fallbackMillis)
+                .build();
+    }
+
+    /**
+     * Block until the probe confirms {@code target} or the timeout passes.
+     * @return true if the fix was confirmed; false after a timeout, an interrupt, or a fixed fallback wait
+     */
+    public boolean awaitSettled(GeoLocation target) {
+        if (probeUnavailable) {
+            sleep(fallbackMillis);
+            return false;
+        }
+        long start = clock.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long pollMillis = initialPollMillis;
+        while (true) {
+            boolean settled;
+            try {
+                settled = probe.hasSettled(target);
+            } catch (UnsupportedCommandException | UnsupportedOperationException e) {
+                probeUnavailable = true;
+                log.warn("{} settle probe unsupported ({}); using a fixed {} ms wait from now on",
+                        platform.getPlatformName(), e.getMessage(), fallbackMillis);
+                sleep(fallbackMillis);
+                return false;
+            } catch (RuntimeException e) {
+                log.debug("{} settle probe failed, polling again: {}", platform.getPlatformName(), e.getMessage());
+                settled = false;
+            }
+            long now = clock.nanoTime();
+            if (settled) {
+                histogram.record(now - start);
+                return true;
+            }
+            if (now >= deadline) {
+                histogram.recordTimeout();
+                log.warn("{} location {} not confirmed within {} ms", platform.getPlatformName(), target,
+                        timeoutMillis);
+                return false;
+            }
+            if (!sleep(Math.min(pollMillis, TimeUnit.NANOSECONDS.toMillis(deadline - now) + 1))) {
+                return false;
+            }
+            pollMillis = Math.min(maxPollMillis, pollMillis * 2);
+        }
+    }
+
+    public Platform getPlatform() {
+        return platform;
+    }
+
+    public SettleTimeHistogram getHistogram() {
+        return histogram;
+    }
+
+    private boolean sleep(long millis) {
+        return clock.sleepMillis(millis);
+    }
+
+    /**
+     * Tells whether the device has applied a requested fix.
+     */
+    @FunctionalInterface
+    public interface SettleProbe {
+        boolean hasSettled(GeoLocation target);
+
+        /**
+         * Settled once the driver reports a location within {@code toleranceMeters} of the target.
+         */
+        static SettleProbe reportedLocation(SupportsLocation driver, double toleranceMeters) {
+            return target -> {
+                Location reported = driver.location();
+                return reported != null && Haversine.distance(reported.getLatitude(), reported.getLongitude(),
+                        target.getLatitude(), target.getLongitude()) <= toleranceMeters;
+            };
+        }
+
+        /**
+         * Settled once a log line matches {@code signal}, for apps that log each fix they
+         * receive. {@code newLines} must return only lines not returned before, such as a
+         * logcat or syslog tail.
+         */
+        static SettleProbe logSignal(Supplier<? extends Collection<String>> newLines, Predicate<String> signal) {
+            return target -> newLines.get().stream().anyMatch(signal);
+        }
+    }
+
+    public static class Builder {
+        private Platform platform = Platform.ANDROID;
+        private SettleProbe probe;
+        private long initialPollMillis = 25;
+        private long maxPollMillis = 400;
+        private long timeoutMillis = 5000;
+        private long fallbackMillis = 500;
+        private SettleTimeHistogram histogram;
+        private SimulationClock clock;
+
+        public Builder platform(Platform platform) {
+            this.platform = platform;
+            return this;
+        }
+
+        public Builder probe(SettleProbe probe) {
+            this.probe = probe;
+            return this;
+        }
+
+        /**
+         * First gap between polls; each later gap doubles up to {@link #maxPollMillis}.
+         */
+        public Builder initialPollMillis(long initialPollMillis) {
+            this.initialPollMillis = initialPollMillis;
+            return this;
+        }
+
+        public Builder maxPollMillis(long maxPollMillis) {
+            this.maxPollMillis = maxPollMillis;
+            return this;
+        }
+
+        public Builder timeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+            return this;
+        }
+
+        /**
+         * Fixed wait used instead of polling once the probe has reported it is unsupported.
+         */
+        public Builder fallbackMillis(long fallbackMillis) {
+            this.fallbackMillis = fallbackMillis;
+            return this;
+        }
+
+        /**
+         * Record into this histogram instead of the platform's shared one.
+         */
+        public Builder histogram(SettleTimeHistogram histogram) {
+            this.histogram = histogram;
+            return this;
+        }
+
+        /**
+         * Clock to poll and sleep on instead of the process default.
+         */
+        public Builder clock(SimulationClock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public LocationSettleDetector build() {
+            if (probe == null || platform == null) {
+                throw new IllegalArgumentException("probe and platform must be set");
+            }
+            if (initialPollMillis < 1 || maxPollMillis < initialPollMillis) {
+                throw new IllegalArgumentException("Poll interval must satisfy 1 <= initial <= max: "
+                        + initialPollMillis + ", " + maxPollMillis);
+            }
+            if (timeoutMillis < 0 || fallbackMillis < 0) {
+                throw new IllegalArgumentException("timeoutMillis and fallbackMillis must be non-negative");
+            }
+            return new LocationSettleDetector(this);
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.geofence.services;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.time.SimulationClock;
+import com.geofence.time.SimulationClocks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Pushes waypoints to a device at fixed absolute deadlines: waypoint {@code i} is due
+ * {@code i * interval} after the start. Sleeping a fixed delay after each command makes
+ * every step last the delay plus the command's latency, so the simulated speed drifts
+ * further off the longer the route.
+ * <p>
+ * A {@link ScheduledExecutorService} acts only as the timer. Each push is handed to a
+ * virtual thread, so one timer thread serves any number of devices. With latency
+ * compensation on, each push fires early by a moving average of the recent command
+ * latency, so the fix lands on its deadline rather than one round trip after it. When
+ * commands cannot keep up, the {@link RouteReplayer.LagPolicy} decides whether the
+ * schedule slips or superseded waypoints are dropped. On a {@link SimulationClock} that is
+ * not a wall clock, each push simply sleeps on that clock until its deadline.
+ */
+public class MovementTimeline {
+
+    private static final Logger log = LoggerFactory.getLogger(MovementTimeline.class);
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("movement-timeline").factory());
+    private static final Executor VIRTUAL_THREADS = command ->
+            Thread.ofVirtual().name("movement-push").start(command);
+    private static final long CANCEL_WAIT_MILLIS = 5_000;
+
+    private final Consumer<GeoLocation> target;
+    private final long intervalNanos;
+    private final RouteReplayer.LagPolicy lagPolicy;
+    private final boolean compensateLatency;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final SimulationClock clock;
+
+    private MovementTimeline(Builder builder) {
+        this.target = builder.target;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(builder.intervalMillis);
+        this.lagPolicy = builder.lagPolicy;
+        this.compensateLatency = builder.compensateLatency;
+        this.scheduler = builder.scheduler;
+        this.executor = builder.executor;
+        this.clock = builder.clock != null ? builder.clock : SimulationClocks.current();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Push every waypoint on schedule and block until the last one has been applied.
+     * An interrupt stops the run: no further waypoint is pushed, a push already talking
+     * to the device is waited for (up to a few seconds) and what was pushed so far is
+     * returned with the interrupt flag restored.
+     */
+    public TimelineReport run(WaypointSource waypoints) {
+        Run run = new Run(waypoints);
+        run.schedule();
+        try {
+            return run.done.get();
+        } catch (InterruptedException e) {
+            return run.cancel();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Waypoint push failed", e.getCause());
+        }
+    }
+
+    public TimelineReport run(Iterable<GeoLocation> waypoints) {
+        return run(WaypointSource.of(waypoints));
+    }
+
+    /**
+     * Start pushing in the background; the future completes with the report, or
+     * exceptionally with the first failed push.
+     */
+    public CompletableFuture<TimelineReport> start(WaypointSource waypoints) {
+        Run run = new Run(waypoints);
+        run.schedule();
+        return run.done;
+    }
+
+    /**
+     * Pulls waypoints one at a time; returns null after the last one.
+     */
+    @FunctionalInterface
+    public interface WaypointSource {
+        GeoLocation next();
+
+        static WaypointSource of(Iterable<GeoLocation> waypoints) {
+            Iterator<GeoLocation> iterator = waypoints.iterator();
+            return () -> iterator.hasNext() ? iterator.next() : null;
+        }
+    }
+
+    /**
+     * State of one run. Pushes happen one at a time, each scheduling the next, so the
+     * fields are only touched by one thread at a time; the timer and executor handoffs
+     * order those accesses. {@link #report()} and {@link #cancel()} may race with a push
+     * and synchronize with it.
+     */
+    private final class Run {
+        private final WaypointSource source;
+        private final CompletableFuture<TimelineReport> done = new CompletableFuture<>();
+        private final long startNanos = clock.nanoTime();
+        private volatile boolean cancelled;
+        private boolean pushing;
+        private GeoLocation current;
+        private GeoLocation next;
+        private long index;
+        private long offsetNanos;
+        private long estimatedLatencyNanos;
+        private long pushed;
+        private long skipped;
+        private long totalLatenessNanos;
+        private long maxLatenessNanos;
+        private long totalLatencyNanos;
+        private double meanErrorNanos;
+        private double errorSquares;
+
+        Run(WaypointSource source) {
+            this.source = source;
+            this.current = source.next();
+            this.next = current != null ? source.next() : null;
+        }
+
+        long dueNanos(long waypoint) {
+            return startNanos + offsetNanos + waypoint * intervalNanos;
+        }
+
+        void advance() {
+            current = next;
+            next = current != null ? source.next() : null;
+            index++;
+        }
+
+        void schedule() {
+            try {
+                long now = clock.nanoTime();
+                while (current != null && lagPolicy == RouteReplayer.LagPolicy.SKIP && next != null
+                        && dueNanos(index + 1) - estimatedLatencyNanos <= now) {
+                    // The next waypoint is already due, so this one is superseded
+                    skipped++;
+                    advance();
+                }
+                if (current == null || cancelled) {
+                    finish();
+                    return;
+                }
+                long delay = Math.max(0, dueNanos(index) - estimatedLatencyNanos - now);
+                if (clock.isWallClock()) {
+                    scheduler.schedule(() -> {
+                        try {
+                            executor.execute(this::push);
+                        } catch (Throwable e) {
+                            done.completeExceptionally(e);
+                        }
+                    }, delay, TimeUnit.NANOSECONDS);
+                } else {
+                    executor.execute(() -> {
+                        if (!clock.sleepNanos(delay)) {
+                            cancelled = true;
+                        }
+                        push();
+                    });
+                }
+            } catch (Throwable e) {
+                // Errors too: nothing else would complete the run and run() would block forever
+                done.completeExceptionally(e);
+            }
+        }
+
+        void push() {
+            try {
+                synchronized (this) {
+                    if (cancelled) {
+                        finish();
+                        return;
+                    }
+                    pushing = true;
+                }
+                long fired = clock.nanoTime();
+                try {
+                    target.accept(current);
+                } finally {
+                    synchronized (this) {
+                        pushing = false;
+                    }
+                }
+                long landed = clock.nanoTime();
+                record(landed - fired, landed - dueNanos(index));
+                advance();
+                schedule();
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            }
+        }
+
+        synchronized void record(long latencyNanos, long errorNanos) {
+            pushed++;
+            totalLatencyNanos += latencyNanos;
+            if (compensateLatency) {
+                estimatedLatencyNanos = pushed == 1 ? latencyNanos
+                        : estimatedLatencyNanos + (latencyNanos - estimatedLatencyNanos) / 4;
+            }
+            long lateness = Math.max(0, errorNanos);
+            totalLatenessNanos += lateness;
+            maxLatenessNanos = Math.max(maxLatenessNanos, lateness);
+            double delta = errorNanos - meanErrorNanos;
+            meanErrorNanos += delta / pushed;
+            errorSquares += delta * (errorNanos - meanErrorNanos);
+            if (lagPolicy == RouteReplayer.LagPolicy.SHIFT && lateness > intervalNanos) {
+                // Slip the rest of the schedule rather than rushing to catch up
+                offsetNanos += lateness - intervalNanos;
+            }
+        }
+
+        /**
+         * Stop after an interrupt. Between pushes the run ends at once; a push already
+         * talking to the device finishes the run itself once its command returns.
+         */
+        TimelineReport cancel() {
+            try {
+                synchronized (this) {
+                    cancelled = true;
+                    if (!pushing) {
+                        finish();
+                    }
+                }
+                return done.get(CANCEL_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Waypoint push still running {} ms after the interrupt", CANCEL_WAIT_MILLIS);
+                return report();
+            } catch (ExecutionException e) {
+                log.warn("Waypoint push failed after the interrupt", e.getCause());
+                return report();
+            } catch (InterruptedException e) {
+                return report();
+            } finally {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void finish() {
+            TimelineReport report = report();
+            if (done.complete(report)) {
+                log.info("Movement timeline finished: {}", report);
+            }
+        }
+
+        synchronized TimelineReport report() {
+            return new TimelineReport(pushed, skipped,
+                    pushed > 0 ? totalLatenessNanos / pushed / 1e6 : 0,
+                    maxLatenessNanos / 1e6,
+                    pushed > 1 ? Math.sqrt(errorSquares / pushed) / 1e6 : 0,
+                    pushed > 0 ? totalLatencyNanos / pushed / 1e6 : 0,
+                    (clock.nanoTime() - startNanos) / 1e6);
+        }
+    }
+
+    /**
+     * Outcome of one run. Each push lands when its command returns; its error is the
+     * landing time minus its deadline.
+     * @param meanLatenessMillis mean landing error, counting early landings as zero
+     * @param maxLatenessMillis worst landing past the deadline
+     * @param jitterMillis standard deviation of the landing error
+     */
+    public record TimelineReport(long waypointsPushed, long waypointsSkipped, double meanLatenessMillis,
+                                 double maxLatenessMillis, double jitterMillis,
+                                 double meanCommandLatencyMillis, double wallMillis) {
+
+        @Override
+        public String toString() {
+            return String.format("pushed=%d skipped=%d lateness mean=%.1fms max=%.1fms jitter=%.1fms "
+                            + "command=%.1fms wall=%.0fms", waypointsPushed, waypointsSkipped, meanLatenessMillis,
+                    maxLatenessMillis, jitterMillis, meanCommandLatencyMillis, wallMillis);
+        }
+    }
+
+    public static class Builder {
+        private Consumer<GeoLocation> target;
+        private long intervalMillis = 1000;
+        private RouteReplayer.LagPolicy lagPolicy = RouteReplayer.LagPolicy.SHIFT;
+        private boolean compensateLatency = true;
+        private ScheduledExecutorService scheduler = TIMER;
+        private Executor executor = VIRTUAL_THREADS;
+        private SimulationClock clock;
+
+        public Builder target(LocationService locationService) {
+            this.target = locationService::setLocation;
+            return this;
+        }
+
+        public Builder target(Consumer<GeoLocation> target) {
+            this.target = target;
+            return this;
+        }
+
+        /**
+         * Gap between consecutive waypoint deadlines.
+         */
+        public Builder intervalMillis(long intervalMillis) {
+            this.intervalMillis = intervalMillis;
+            return this;
+        }
+
+        public Builder lagPolicy(RouteReplayer.LagPolicy lagPolicy) {
+            this.lagPolicy = lagPolicy;
+            return this;
+        }
+
+        /**
+         * Fire each push early by the recent command latency so it lands on its deadline.
+         */
+        public Builder compensateLatency(boolean compensateLatency) {
+            this.compensateLatency = compensateLatency;
+            return this;
+        }
+
+        /**
+         * Timer for deadlines; the default is one shared daemon thread.
+         */
+        public Builder scheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Runs each push; the default starts a virtual thread per push.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Clock for deadlines instead of the process default.
+         */
+        public Builder clock(SimulationClock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public MovementTimeline build() {
+            if (target == null || lagPolicy == null || scheduler == null || executor == null) {
+                throw new IllegalArgumentException("target, lagPolicy, scheduler and executor must be set");
+            }
+            if (intervalMillis < 0) {
+                throw new IllegalArgumentException("intervalMillis must be non-negative: " + intervalMillis);
+            }
+            return new MovementTimeline(this);
+        }
+    }
+}
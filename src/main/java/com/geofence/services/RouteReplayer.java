@@ -0,0 +1,349 @@
+package com.geofence.services;
+
+import com.geofence.geo.TrajectorySimplifier;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.routes.RouteFix;
+import com.geofence.routes.RouteReader;
+import com.geofence.routes.RouteReaders;
+import com.geofence.time.SimulationClock;
+import com.geofence.time.SimulationClocks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Replays a recorded route into a device, one fix at a time.
+ * <p>
+ * Fixes are pulled from a streaming {@link RouteReader} only when the previous location
+ * command has completed, so a slow device never lets the parser run ahead and memory
+ * stays constant. Each fix is due at its recorded offset from the first fix, divided by
+ * the speed factor. When a command takes longer than the gap to the next fix the
+ * {@link LagPolicy} decides whether the schedule slips or stale fixes are skipped.
+ * <p>
+ * With {@link Builder#simplify} the route first passes through a
+ * {@link TrajectorySimplifier}, so only fixes that change its shape by more than the
+ * tolerance, or sit next to a fence membership change, are pushed.
+ */
+public class RouteReplayer {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteReplayer.class);
+
+    private final Consumer<GeoLocation> target;
+    private final Speed speed;
+    private final LagPolicy lagPolicy;
+    private final long defaultIntervalMillis;
+    private final SimulationClock clock;
+    private final Double simplifyToleranceMeters;
+    private final List<Geofence> simplifyFences;
+
+    private RouteReplayer(Builder builder) {
+        this.target = builder.target;
+        this.speed = builder.speed;
+        this.lagPolicy = builder.lagPolicy;
+        this.defaultIntervalMillis = builder.defaultIntervalMillis;
+        this.clock = builder.clock != null ? builder.clock : SimulationClocks.current();
+        this.simplifyToleranceMeters = builder.simplifyToleranceMeters;
+        this.simplifyFences = List.copyOf(builder.simplifyFences);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Replay a GPX, NMEA or CSV file, detected from its extension.
+     */
+    public ReplayReport replay(Path routeFile) {
+        try (RouteReader reader = RouteReaders.open(routeFile)) {
+            return replay(reader);
+        }
+    }
+
+    /**
+     * Replay every fix of the reader. The caller keeps ownership of the reader.
+     */
+    public ReplayReport replay(RouteReader reader) {
+        SimplifiedRoute simplified = simplifyToleranceMeters != null ? new SimplifiedRoute(reader) : null;
+        RouteReader source = simplified != null ? simplified : reader;
+        long startNanos = clock.nanoTime();
+        RouteTimeline timeline = new RouteTimeline();
+        RouteFix current = source.next();
+        long currentTime = timeline.routeTime(current);
+        long offsetNanos = 0;
+        long read = current != null ? 1 : 0;
+        long pushed = 0;
+        long skipped = 0;
+        long totalLatencyNanos = 0;
+        long maxLatenessNanos = 0;
+
+        while (current != null) {
+            RouteFix next = source.next();
+            long nextTime = timeline.routeTime(next);
+            if (next != null) {
+                read++;
+            }
+
+            long now = clock.nanoTime();
+            if (!speed.isUnbounded()) {
+                long due = startNanos + offsetNanos + speed.scaledNanos(currentTime - timeline.firstTime);
+                if (lagPolicy == LagPolicy.SKIP && next != null
+                        && startNanos + offsetNanos + speed.scaledNanos(nextTime - timeline.firstTime) <= now) {
+                    // The next fix is already due, so this one is stale
+                    skipped++;
+                    current = next;
+                    currentTime = nextTime;
+                    continue;
+                }
+                if (due > now) {
+                    if (!clock.sleepNanos(due - now)) {
+                        break;
+                    }
+                } else {
+                    long lateness = now - due;
+                    maxLatenessNanos = Math.max(maxLatenessNanos, lateness);
+                    if (lagPolicy == LagPolicy.SHIFT) {
+                        offsetNanos += lateness;
+                    }
+                }
+            }
+
+            long commandStart = clock.nanoTime();
+            target.accept(current.toGeoLocation());
+            totalLatencyNanos += clock.nanoTime() - commandStart;
+            pushed++;
+
+            current = next;
+            currentTime = nextTime;
+        }
+
+        long dropped = 0;
+        if (simplified != null) {
+            read = simplified.read;
+            dropped = simplified.simplifier.report().droppedPoints();
+        }
+        ReplayReport report = new ReplayReport(read, dropped, pushed, skipped,
+                pushed > 0 ? totalLatencyNanos / pushed / 1_000_000.0 : 0,
+                TimeUnit.NANOSECONDS.toMillis(maxLatenessNanos),
+                TimeUnit.NANOSECONDS.toMillis(clock.nanoTime() - startNanos));
+        log.info("Route replay finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Route time of each fix in milliseconds, filling in fixes without timestamps at the
+     * default interval and never letting time run backwards.
+     */
+    private final class RouteTimeline {
+        private long firstTime = Long.MIN_VALUE;
+        private long lastTime;
+
+        long routeTime(RouteFix fix) {
+            if (fix == null) {
+                return lastTime;
+            }
+            long time;
+            if (firstTime == Long.MIN_VALUE) {
+                time = fix.hasTimestamp() ? fix.timestampMillis() : 0;
+                firstTime = time;
+            } else {
+                time = fix.hasTimestamp() ? Math.max(lastTime, fix.timestampMillis()) : lastTime + defaultIntervalMillis;
+            }
+            lastTime = time;
+            return time;
+        }
+    }
+
+    /**
+     * The fixes a {@link TrajectorySimplifier} keeps, pulled from the source as needed.
+     * Each fix is stamped with its route time before simplification, so a fix without a
+     * timestamp keeps its place on the timeline when its neighbours are dropped. Holds
+     * at most one simplifier window of fixes.
+     */
+    private final class SimplifiedRoute implements RouteReader {
+        private final RouteReader source;
+        private final RouteTimeline timeline = new RouteTimeline();
+        private final TrajectorySimplifier simplifier;
+        private final ArrayDeque<RouteFix> pending = new ArrayDeque<>();
+        private final ArrayDeque<RouteFix> kept = new ArrayDeque<>();
+        private long firstPending;
+        private long read;
+        private boolean exhausted;
+
+        SimplifiedRoute(RouteReader source) {
+            this.source = source;
+            this.simplifier = TrajectorySimplifier.builder()
+                    .toleranceMeters(simplifyToleranceMeters)
+                    .fences(simplifyFences)
+                    .clock(clock)
+                    .sink((latitude, longitude, index) -> keep(index))
+                    .build();
+        }
+
+        @Override
+        public RouteFix next() {
+            while (kept.isEmpty() && !exhausted) {
+                RouteFix fix = source.next();
+                if (fix == null) {
+                    exhausted = true;
+                    simplifier.finish();
+                    break;
+                }
+                pending.add(new RouteFix(fix.latitude(), fix.longitude(), fix.altitude(), timeline.routeTime(fix)));
+                simplifier.accept(fix.latitude(), fix.longitude(), read++);
+            }
+            return kept.poll();
+        }
+
+        /**
+         * The simplifier kept the fix with this index; every pending fix before it was dropped.
+         */
+        private void keep(long index) {
+            for (; firstPending < index; firstPending++) {
+                pending.poll();
+            }
+            kept.add(pending.poll());
+            firstPending++;
+        }
+
+        /**
+         * The source belongs to the caller of {@link #replay(RouteReader)}.
+         */
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * What to do when location commands cannot keep up with the route's timeline.
+     */
+    public enum LagPolicy {
+        /** Push every fix and let the rest of the schedule slip by the delay. */
+        SHIFT,
+        /** Stay on the original schedule by skipping fixes that are already superseded. */
+        SKIP
+    }
+
+    /**
+     * Replay speed as a multiple of the recorded timeline.
+     */
+    public record Speed(double factor) {
+
+        public Speed {
+            if (!(factor > 0)) {
+                throw new IllegalArgumentException("Speed factor must be positive: " + factor);
+            }
+        }
+
+        public static Speed realTime() {
+            return new Speed(1.0);
+        }
+
+        public static Speed scaled(double factor) {
+            return new Speed(factor);
+        }
+
+        /**
+         * Push fixes back to back, limited only by command latency.
+         */
+        public static Speed asFastAsPossible() {
+            return new Speed(Double.POSITIVE_INFINITY);
+        }
+
+        public boolean isUnbounded() {
+            return Double.isInfinite(factor);
+        }
+
+        long scaledNanos(long routeMillis) {
+            return (long) (routeMillis * 1_000_000.0 / factor);
+        }
+    }
+
+    /**
+     * Outcome of a replay.
+     * @param fixesDropped fixes the simplifier removed before replay; 0 without {@link Builder#simplify}
+     * @param maxLatenessMillis worst delay of a push past its scheduled time
+     */
+    public record ReplayReport(long fixesRead, long fixesDropped, long fixesPushed, long fixesSkipped,
+                               double meanCommandLatencyMillis, long maxLatenessMillis, long wallMillis) {
+    }
+
+    public static class Builder {
+        private Consumer<GeoLocation> target;
+        private Speed speed = Speed.realTime();
+        private LagPolicy lagPolicy = LagPolicy.SHIFT;
+        private long defaultIntervalMillis = 1000;
+        private SimulationClock clock;
+        private Double simplifyToleranceMeters;
+        private final List<Geofence> simplifyFences = new ArrayList<>();
+
+        public Builder target(LocationService locationService) {
+            this.target = locationService::setLocation;
+            return this;
+        }
+
+        public Builder target(Consumer<GeoLocation> target) {
+            this.target = target;
+            return this;
+        }
+
+        public Builder speed(Speed speed) {
+            this.speed = speed;
+            return this;
+        }
+
+        public Builder lagPolicy(LagPolicy lagPolicy) {
+            this.lagPolicy = lagPolicy;
+            return this;
+        }
+
+        /**
+         * Gap assumed between fixes that carry no timestamp.
+         */
+        public Builder defaultIntervalMillis(long defaultIntervalMillis) {
+            this.defaultIntervalMillis = defaultIntervalMillis;
+            return this;
+        }
+
+        /**
+         * Clock to schedule fixes on instead of the process default.
+         */
+        public Builder clock(SimulationClock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Simplify the route before replay, dropping fixes within toleranceMeters of the
+         * simplified path while keeping those next to a membership change of any fence.
+         */
+        public Builder simplify(double toleranceMeters, Collection<Geofence> fences) {
+            this.simplifyToleranceMeters = toleranceMeters;
+            this.simplifyFences.clear();
+            this.simplifyFences.addAll(fences);
+            return this;
+        }
+
+        public RouteReplayer build() {
+            if (target == null) {
+                throw new IllegalArgumentException("target must be set");
+            }
+            if (defaultIntervalMillis < 0) {
+                throw new IllegalArgumentException("defaultIntervalMillis must be non-negative: "
+                        + defaultIntervalMillis);
+            }
+            if (simplifyToleranceMeters != null && !(simplifyToleranceMeters >= 0)) {
+                throw new IllegalArgumentException("simplify toleranceMeters must be non-negative: "
+                        + simplifyToleranceMeters);
+            }
+            return new RouteReplayer(this);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.geofence.services;
+
+import com.geofence.models.Platform;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of how long location commands took to settle, in power-of-two
+ * millisecond buckets: [0, 1), [1, 2), [2, 4) ... with everything from 2^{@code BUCKETS - 2}
+ * ms up in the last bucket. Commands that never settled are counted separately.
+ * <p>
+ * {@link #of(Platform)} holds one shared histogram per platform, which
+ * {@link LocationSettleDetector} records into by default.
+ */
+public final class SettleTimeHistogram {
+
+    static final int BUCKETS = 18;
+
+    private static final Map<Platform, SettleTimeHistogram> BY_PLATFORM = new EnumMap<>(Platform.class);
+
+    static {
+        for (Platform platform : Platform.values()) {
+            BY_PLATFORM.put(platform, new SettleTimeHistogram());
+        }
+    }
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * The shared histogram for a platform.
+     */
+    public static SettleTimeHistogram of(Platform platform) {
+        return BY_PLATFORM.get(platform);
+    }
+
+    /**
+     * One summary line per platform that has recorded anything.
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+        BY_PLATFORM.forEach((platform, histogram) -> {
+            if (histogram.count() + histogram.timeouts() > 0) {
+                report.append(platform.getPlatformName()).append(": ").append(histogram).append('\n');
+            }
+        });
+        return report.toString();
+    }
+
+    public void record(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, nanos));
+        int bucket = millis == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+        counts.incrementAndGet(bucket);
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public void recordTimeout() {
+        timeouts.increment();
+    }
+
+    /**
+     * Settled commands recorded.
+     */
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    public long bucketCount(int bucket) {
+        return counts.get(bucket);
+    }
+
+    /**
+     * Exclusive upper bound of a bucket in milliseconds; the last bucket is unbounded.
+     */
+    public static long bucketLimitMillis(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    public double meanMillis() {
+        long count = count();
+        return count == 0 ? 0.0 : totalNanos.sum() / 1e6 / count;
+    }
+
+    public double maxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile (0-100), capped at the
+     * observed maximum; 0 before anything is recorded.
+     */
+    public double percentileMillis(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("percentile must be in [0, 100]: " + percentile);
+        }
+        long count = count();
+        if (count == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(bucketLimitMillis(i), maxMillis());
+            }
+        }
+        return maxMillis();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        totalNanos.reset();
+        maxNanos.set(0);
+        timeouts.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.1fms p50<=%.0fms p90<=%.0fms p99<=%.0fms max=%.1fms timeouts=%d",
+                count(), meanMillis(), percentileMillis(50), percentileMillis(90), percentileMillis(99),
+                maxMillis(), timeouts());
+    }
+}
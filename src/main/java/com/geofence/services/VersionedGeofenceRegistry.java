@@ -0,0 +1,268 @@
+package com.geofence.services;
+
+import com.geofence.models.GeoFenceRequest;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Geofences keyed by name that can be updated while other threads evaluate points.
+ * <p>
+ * Every version of the fence set is an immutable {@link Snapshot} with its own
+ * {@link GeofenceRegistry} grid, published through an {@link AtomicReference}. Readers
+ * take the current snapshot with one volatile read and never lock or see a half-applied
+ * change. Writers describe changes as a {@link Batch}. A new grid is derived from the
+ * previous one, copying only the cells the batch touches. Batches that arrive while another
+ * writer is publishing are folded into that writer's next version, so a burst of updates
+ * costs one copy rather than one per batch.
+ */
+public class VersionedGeofenceRegistry {
+
+    private final double cellSizeDegrees;
+    private final AtomicReference<Snapshot> current;
+    private final Queue<Batch> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public VersionedGeofenceRegistry() {
+        this(new GeofenceRegistry().getCellSizeDegrees());
+    }
+
+    public VersionedGeofenceRegistry(double cellSizeDegrees) {
+        GeofenceRegistry empty = new GeofenceRegistry(cellSizeDegrees);
+        this.cellSizeDegrees = empty.getCellSizeDegrees();
+        this.current = new AtomicReference<>(new Snapshot(0, Collections.emptyMap(), empty));
+    }
+
+    /**
+     * The fence set as of the latest published version.
+     */
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    public long version() {
+        return current.get().version();
+    }
+
+    /**
+     * Containment against the current snapshot, tagged with the version that produced it.
+     */
+    public Containment findContaining(GeoLocation point) {
+        Snapshot snapshot = current.get();
+        return new Containment(snapshot.version(), snapshot.findContaining(point));
+    }
+
+    public Batch batch() {
+        return new Batch(this);
+    }
+
+    /**
+     * Add a fence, replacing any fence of the same name.
+     * @return the first version that contains the change
+     */
+    public long put(Geofence fence) {
+        return batch().put(fence).commit();
+    }
+
+    public long putAll(Collection<Geofence> fences) {
+        Batch batch = batch();
+        fences.forEach(batch::put);
+        return batch.commit();
+    }
+
+    /**
+     * @return the first version without the fence
+     */
+    public long remove(String name) {
+        return batch().remove(name).commit();
+    }
+
+    /**
+     * Queue the batch and wait until a version containing it is published. Whichever writer
+     * holds the lock applies every queued batch, in arrival order, to one new snapshot.
+     */
+    private long commit(Batch batch) {
+        pending.add(batch);
+        writeLock.lock();
+        try {
+            if (batch.version == 0) {
+                publishPending();
+            }
+            return batch.version;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void publishPending() {
+        Snapshot base = current.get();
+        Map<String, Integer> ids = new HashMap<>(base.ids);
+        Map<Integer, Geofence> changes = new LinkedHashMap<>();
+        int size = base.size();
+        List<Batch> applied = new ArrayList<>();
+        Batch batch;
+        while ((batch = pending.poll()) != null) {
+            for (Mutation mutation : batch.mutations) {
+                Integer id = ids.get(mutation.name());
+                if (mutation.fence() != null) {
+                    if (id == null) {
+                        id = size++;
+                        ids.put(mutation.name(), id);
+                    }
+                    changes.put(id, mutation.fence());
+                } else if (id != null) {
+                    // Keep ids dense: the last fence takes over the removed fence's id
+                    ids.remove(mutation.name());
+                    int last = --size;
+                    if (id != last) {
+                        Geofence moved = changes.containsKey(last) ? changes.get(last) : base.grid.get(last);
+                        changes.put(id, moved);
+                        ids.put(moved.name(), id);
+                    }
+                }
+            }
+            applied.add(batch);
+        }
+
+        GeofenceRegistry grid = base.grid.withChanges(changes, size);
+        long version = base.version() + 1;
+        current.set(new Snapshot(version, ids, grid));
+        for (Batch done : applied) {
+            done.version = version;
+        }
+    }
+
+    /**
+     * One immutable version of the fence set. Safe to share between any number of threads.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final Map<String, Integer> ids;
+        private final GeofenceRegistry grid;
+
+        private Snapshot(long version, Map<String, Integer> ids, GeofenceRegistry grid) {
+            this.version = version;
+            this.ids = ids;
+            this.grid = grid;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public List<Geofence> findContaining(GeoLocation point) {
+            return grid.findContaining(point);
+        }
+
+        /**
+         * @see GeofenceRegistry#candidateIds(double, double, int[])
+         */
+        public int candidateIds(double latitude, double longitude, int[] out) {
+            return grid.candidateIds(latitude, longitude, out);
+        }
+
+        public Geofence get(int id) {
+            return grid.get(id);
+        }
+
+        public Geofence get(String name) {
+            Integer id = ids.get(name);
+            return id != null ? grid.get(id) : null;
+        }
+
+        public boolean contains(String name) {
+            return ids.containsKey(name);
+        }
+
+        /**
+         * Fences by id. A replaced fence keeps its id; removing a fence hands its id to the
+         * fence that had the highest one.
+         */
+        public List<Geofence> getAll() {
+            return grid.getAll();
+        }
+
+        public int size() {
+            return grid.size();
+        }
+    }
+
+    /**
+     * Containment result and the fence set version it was computed against.
+     */
+    public record Containment(long version, List<Geofence> fences) {
+    }
+
+    /**
+     * Changes applied together: no snapshot holds only part of a batch.
+     */
+    public static final class Batch {
+        private final VersionedGeofenceRegistry registry;
+        private final List<Mutation> mutations = new ArrayList<>();
+        private boolean committed;
+        private volatile long version;
+
+        private Batch(VersionedGeofenceRegistry registry) {
+            this.registry = registry;
+        }
+
+        public Batch put(Geofence fence) {
+            Objects.requireNonNull(fence, "fence must not be null");
+            checkOpen();
+            if (fence.name() == null) {
+                throw new IllegalArgumentException("Versioned fences need a name: " + fence);
+            }
+            mutations.add(new Mutation(fence.name(), fence));
+            return this;
+        }
+
+        public Batch put(GeoFenceRequest request) {
+            return put(Geofence.fromRequest(request));
+        }
+
+        public Batch remove(String name) {
+            Objects.requireNonNull(name, "name must not be null");
+            checkOpen();
+            mutations.add(new Mutation(name, null));
+            return this;
+        }
+
+        public int size() {
+            return mutations.size();
+        }
+
+        /**
+         * Publish the batch. A batch can only be committed once.
+         * @return the first version that contains every change in the batch
+         */
+        public long commit() {
+            checkOpen();
+            committed = true;
+            return registry.commit(this);
+        }
+
+        private void checkOpen() {
+            if (committed) {
+                throw new IllegalStateException("Batch already committed");
+            }
+        }
+    }
+
+    /**
+     * A put, or a removal when {@code fence} is null.
+     */
+    private record Mutation(String name, Geofence fence) {
+    }
+}
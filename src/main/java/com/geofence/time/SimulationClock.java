@@ -0,0 +1,34 @@
+package com.geofence.time;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Source of time and sleeps for everything that waits on a device: settle polling,
+ * movement timelines, route replay and page retries. Real device runs use
+ * {@link SystemClock}; runs against a stub driver can use a {@link VirtualClock} so
+ * every wait completes at once while the logic still sees time pass.
+ */
+public interface SimulationClock {
+
+    /**
+     * Monotonic time in nanoseconds, comparable only with other readings of this clock.
+     */
+    long nanoTime();
+
+    /**
+     * Let {@code nanos} of this clock's time pass.
+     * @return false if the thread was interrupted; the interrupt flag is left set
+     */
+    boolean sleepNanos(long nanos);
+
+    default boolean sleepMillis(long millis) {
+        return sleepNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * Whether time passes on its own, so a real timer can be used to wait for deadlines.
+     */
+    default boolean isWallClock() {
+        return true;
+    }
+}
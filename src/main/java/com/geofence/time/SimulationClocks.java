@@ -0,0 +1,45 @@
+package com.geofence.time;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process-wide default clock, picked up by services and helpers that are not given one
+ * explicitly. The wall clock unless {@code -Dgeofence.clock=virtual} is set or a test
+ * installs another with {@link #use(SimulationClock)}.
+ */
+public final class SimulationClocks {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulationClocks.class);
+
+    private static volatile SimulationClock current = createDefault();
+
+    private SimulationClocks() {
+    }
+
+    public static SimulationClock current() {
+        return current;
+    }
+
+    /**
+     * Make {@code clock} the default for everything created from now on.
+     */
+    public static void use(SimulationClock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("clock must not be null");
+        }
+        current = clock;
+    }
+
+    public static SimulationClock system() {
+        return SystemClock.INSTANCE;
+    }
+
+    private static SimulationClock createDefault() {
+        if ("virtual".equalsIgnoreCase(System.getProperty("geofence.clock"))) {
+            log.info("Virtual clock forced by geofence.clock property; waits will not sleep");
+            return new VirtualClock();
+        }
+        return SystemClock.INSTANCE;
+    }
+}
@@ -0,0 +1,26 @@
+package com.geofence.time;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall clock: {@link System#nanoTime()} and real sleeps.
+ */
+public enum SystemClock implements SimulationClock {
+    INSTANCE;
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public boolean sleepNanos(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.geofence.time;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock whose time only moves when someone sleeps on it: a sleep advances the clock by
+ * its duration and returns at once. A stub-driver run that would wait minutes on settle
+ * polls and step delays finishes in milliseconds with the same sequence of decisions.
+ * <p>
+ * Time is shared by every thread using the clock, so concurrent sleepers each advance it;
+ * use one clock per device when devices run in parallel.
+ */
+public final class VirtualClock implements SimulationClock {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicLong sleeps = new AtomicLong();
+
+    @Override
+    public long nanoTime() {
+        return nanos.get();
+    }
+
+    @Override
+    public boolean sleepNanos(long duration) {
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        sleeps.incrementAndGet();
+        advance(duration);
+        return true;
+    }
+
+    @Override
+    public boolean isWallClock() {
+        return false;
+    }
+
+    /**
+     * Move time forward without counting a sleep, e.g. to stand in for command latency.
+     */
+    public void advance(long duration) {
+        if (duration > 0) {
+            nanos.addAndGet(duration);
+        }
+    }
+
+    public long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos.get());
+    }
+
+    public long sleepCount() {
+        return sleeps.get();
+    }
+}
@@ -0,0 +1,117 @@
+package com.geofence.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geofence.models.Geofence;
+import com.geofence.services.GeofenceCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts JSON geofence test data into a binary {@link GeofenceCatalog}.
+ * Understands the layouts under {@code testdata/}:
+ * <ul>
+ *   <li>a JSON array of {@code GeoFenceRequest} objects (latitude, longitude, radius, name)</li>
+ *   <li>{@code geofence-scenarios.json}: fences from each scenario's {@code geofenceCenter}
+ *       and {@code radiusMeters}, named by scenario id</li>
+ *   <li>{@code api-payloads.json}: an object of named payloads, each fence named by its key</li>
+ * </ul>
+ * Usage: {@code GeofenceCatalogConverter <input.json> <output.gfc> [cellSizeDegrees]}
+ */
+public final class GeofenceCatalogConverter {
+
+    private static final Logger log = LoggerFactory.getLogger(GeofenceCatalogConverter.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private GeofenceCatalogConverter() {
+    }
+
+    public static List<Geofence> readFences(Path json) throws IOException {
+        return readFences(objectMapper.readTree(json.toFile()));
+    }
+
+    /**
+     * @throws IllegalArgumentException naming the entry when a coordinate or radius is missing
+     *                                  or not a number
+     */
+    public static List<Geofence> readFences(JsonNode root) {
+        List<Geofence> fences = new ArrayList<>();
+        if (root.isArray()) {
+            for (JsonNode request : root) {
+                String name = textOrNull(request.get("name"));
+                String entry = name != null ? name : "#" + fences.size();
+                fences.add(Geofence.of(name, requiredDouble(request, "latitude", entry),
+                        requiredDouble(request, "longitude", entry), requiredDouble(request, "radius", entry)));
+            }
+        } else if (root.path("scenarios").isArray()) {
+            for (JsonNode scenario : root.get("scenarios")) {
+                String id = textOrNull(scenario.get("id"));
+                String entry = id != null ? id : "#" + fences.size();
+                JsonNode center = scenario.path("geofenceCenter");
+                fences.add(Geofence.of(id, requiredDouble(center, "latitude", entry),
+                        requiredDouble(center, "longitude", entry), requiredDouble(scenario, "radiusMeters", entry)));
+            }
+        } else if (root.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> payloads = root.fields();
+            while (payloads.hasNext()) {
+                Map.Entry<String, JsonNode> payload = payloads.next();
+                JsonNode value = payload.getValue();
+                String entry = payload.getKey();
+                fences.add(Geofence.of(entry, requiredDouble(value, "latitude", entry),
+                        requiredDouble(value, "longitude", entry), requiredDouble(value, "radius", entry)));
+            }
+        } else {
+            throw new IllegalArgumentException("Unrecognized geofence JSON: expected an array or object");
+        }
+        return fences;
+    }
+
+    /**
+     * Convert a JSON file to a catalog file with the registry's default grid.
+     * @return the number of fences written
+     */
+    public static int convert(Path json, Path catalog) throws IOException {
+        List<Geofence> fences = readFences(json);
+        GeofenceCatalog.write(fences, catalog);
+        log.info("Wrote {} fences from {} to {}", fences.size(), json, catalog);
+        return fences.size();
+    }
+
+    public static int convert(Path json, Path catalog, double cellSizeDegrees) throws IOException {
+        List<Geofence> fences = readFences(json);
+        GeofenceCatalog.write(fences, catalog, cellSizeDegrees);
+        log.info("Wrote {} fences from {} to {}", fences.size(), json, catalog);
+        return fences.size();
+    }
+
+    private static double requiredDouble(JsonNode node, String field, String entry) {
+        JsonNode value = node.path(field);
+        if (!value.isNumber()) {
+            throw new IllegalArgumentException("Geofence entry " + entry + " has no numeric '" + field + "'");
+        }
+        return value.asDouble();
+    }
+
+    private static String textOrNull(JsonNode node) {
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: GeofenceCatalogConverter <input.json> <output.gfc> [cellSizeDegrees]");
+            System.exit(2);
+        }
+        if (args.length > 2) {
+            convert(Path.of(args[0]), Path.of(args[1]), Double.parseDouble(args[2]));
+        } else {
+            convert(Path.of(args[0]), Path.of(args[1]));
+        }
+    }
+}
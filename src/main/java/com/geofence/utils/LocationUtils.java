@@ -1,12 +1,27 @@
 package com.geofence.utils;
 
+import com.geofence.geo.GreatCircleTrajectory;
+import com.geofence.geo.Haversine;
+import com.geofence.models.Platform;
+import com.geofence.services.LocationCommandCache;
+import com.geofence.services.LocationSettleDetector;
+import com.geofence.time.SimulationClocks;
 import io.appium.java_client.android.AndroidDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 public class LocationUtils {
     
     private static final Logger logger = LoggerFactory.getLogger(LocationUtils.class);
+    private static final long SETTLE_FALLBACK_MS = 1000;
+
+    // One detector per driver, so a driver that cannot report its location is only probed once
+    private static final Map<AndroidDriver, LocationSettleDetector> SETTLE_DETECTORS =
+            Collections.synchronizedMap(new WeakHashMap<>());
     
     private LocationUtils() {
         // Private constructor to hide implicit public one
@@ -94,8 +109,12 @@ public class LocationUtils {
                 );
 
         driver.setLocation(seleniumLocation);
+        // Moved outside LocationService, so its cached last fix is stale
+        LocationCommandCache.forDriver(driver).invalidate();
 
-        sleep(1000); // Wait for location to take effect
+        // Wait until the device reports the new fix
+        settleDetector(driver).awaitSettled(
+                com.geofence.models.GeoLocation.of(location.getLatitude(), location.getLongitude()));
 
         logger.info("Location successfully set to: {}", location);
     }
@@ -104,13 +123,12 @@ public class LocationUtils {
     public static void simulateMovement(AndroidDriver driver, GeoLocation start, GeoLocation end, int steps, int delayMs) {
         logger.info("Simulating movement from {} to {}", start, end);
 
-        double latStep = (end.getLatitude() - start.getLatitude()) / steps;
-        double lonStep = (end.getLongitude() - start.getLongitude()) / steps;
+        GreatCircleTrajectory.Cursor waypoints = GreatCircleTrajectory.between(
+                start.getLatitude(), start.getLongitude(), end.getLatitude(), end.getLongitude()).steps(steps);
 
-        for (int i = 0; i <= steps; i++) {
-            double currentLat = start.getLatitude() + (latStep * i);
-            double currentLon = start.getLongitude() + (lonStep * i);
-            GeoLocation intermediateLocation = new GeoLocation(currentLat, currentLon, "Step " + i);
+        while (waypoints.next()) {
+            GeoLocation intermediateLocation = new GeoLocation(
+                    waypoints.latitude(), waypoints.longitude(), "Step " + waypoints.index());
             setLocation(driver, intermediateLocation);
             sleep(delayMs);
         }
@@ -146,20 +164,8 @@ public class LocationUtils {
 
     // Calculate distance between two locations
     public static double calculateDistance(GeoLocation loc1, GeoLocation loc2) {
-        final double EARTH_RADIUS_METERS = 6371000.0; // in meters
-
-        double lat1Rad = Math.toRadians(loc1.getLatitude());
-        double lat2Rad = Math.toRadians(loc2.getLatitude());
-        double deltaLatRad = Math.toRadians(loc2.getLatitude() - loc1.getLatitude());
-        double deltaLonRad = Math.toRadians(loc2.getLongitude() - loc1.getLongitude());
-
-        double a = Math.sin(deltaLatRad / 2) * Math.sin(deltaLatRad / 2) +
-                Math.cos(lat1Rad) * Math.cos(lat2Rad) *
-                Math.sin(deltaLonRad / 2) * Math.sin(deltaLonRad / 2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return EARTH_RADIUS_METERS * c;
+        return Haversine.distance(loc1.getLatitude(), loc1.getLongitude(),
+                loc2.getLatitude(), loc2.getLongitude());
     }
 
     // Verify if location is inside geofence
@@ -171,11 +177,12 @@ public class LocationUtils {
         return inside;
     }
 
+    private static LocationSettleDetector settleDetector(AndroidDriver driver) {
+        return SETTLE_DETECTORS.computeIfAbsent(driver,
+                d -> LocationSettleDetector.forDriver(d, Platform.ANDROID, SETTLE_FALLBACK_MS));
+    }
+
     private static void sleep(int millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        SimulationClocks.current().sleepMillis(millis);
     }
 }
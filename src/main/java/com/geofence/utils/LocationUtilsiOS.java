@@ -1,28 +1,51 @@
 package com.geofence.utils;
 
+import com.geofence.geo.GreatCircleTrajectory;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Platform;
+import com.geofence.services.LocationCommandCache;
+import com.geofence.services.LocationSettleDetector;
+import com.geofence.time.SimulationClocks;
 import io.appium.java_client.ios.IOSDriver;
 import org.openqa.selenium.html5.Location;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 /**
  * Location utilities for iOS testing.
  */
 public class LocationUtilsiOS {
 
+    private static final long SETTLE_FALLBACK_MS = 2000;
+
+    // One detector per driver, so a driver that cannot report its location is only probed once
+    private static final Map<IOSDriver, LocationSettleDetector> SETTLE_DETECTORS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
     /**
      * Set device location on iOS
      */
     public static void setLocation(IOSDriver driver, double latitude, double longitude, double altitude) {
         System.out.printf("Setting iOS location to: (%.6f, %.6f)%n", latitude, longitude);
 
+        boolean sent = false;
         try {
             Location location = new Location(latitude, longitude, altitude);
             driver.setLocation(location);
+            sent = true;
             System.out.println("iOS Location set successfully!");
         } catch (Exception e) {
             System.err.println("Warning: Could not set iOS location - " + e.getMessage());
         }
+        // Moved outside LocationService, so its cached last fix is stale
+        LocationCommandCache.forDriver(driver).invalidate();
 
-        sleep(2000);
+        // A fix that was never sent will not settle, so do not wait for it
+        if (sent) {
+            settleDetector(driver).awaitSettled(GeoLocation.of(latitude, longitude));
+        }
     }
 
     /**
@@ -67,25 +90,23 @@ public class LocationUtilsiOS {
                                         LocationUtils.GeoLocation to, int steps, int delayMs) {
         System.out.println("iOS: Simulating movement from " + from + " to " + to);
 
-        double latStep = (to.getLatitude() - from.getLatitude()) / steps;
-        double lonStep = (to.getLongitude() - from.getLongitude()) / steps;
-
-        for (int i = 0; i <= steps; i++) {
-            double lat = from.getLatitude() + (latStep * i);
-            double lon = from.getLongitude() + (lonStep * i);
+        GreatCircleTrajectory.Cursor waypoints = GreatCircleTrajectory.between(
+                from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude()).steps(steps);
 
-            setLocation(driver, lat, lon, 0);
+        while (waypoints.next()) {
+            setLocation(driver, waypoints.latitude(), waypoints.longitude(), 0);
             sleep(delayMs);
         }
 
         System.out.println("iOS: Movement simulation complete!");
     }
 
+    private static LocationSettleDetector settleDetector(IOSDriver driver) {
+        return SETTLE_DETECTORS.computeIfAbsent(driver,
+                d -> LocationSettleDetector.forDriver(d, Platform.IOS, SETTLE_FALLBACK_MS));
+    }
+
     private static void sleep(int ms) {
-        try {
-            Thread.sleep(ms);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        SimulationClocks.current().sleepMillis(ms);
     }
 }
\ No newline at end of file
@@ -4,10 +4,14 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.geofence.models.GeoFenceRequest;
+import com.geofence.services.GeofenceCatalog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 
 /**
  * Utility class for loading test data from JSON files.
@@ -60,6 +64,29 @@ public class TestDataLoader {
         }
     }
 
+    /**
+     * Open a binary geofence catalog from test data. A catalog on the file system is
+     * memory-mapped; one packed inside a jar is read into memory.
+     */
+    public static GeofenceCatalog loadCatalog(String filename) {
+        String path = TEST_DATA_PATH + filename;
+        try {
+            URL url = TestDataLoader.class.getClassLoader().getResource(path);
+            if (url == null) {
+                throw new IllegalArgumentException("File not found: " + path);
+            }
+            if ("file".equals(url.getProtocol())) {
+                return GeofenceCatalog.open(Path.of(url.toURI()));
+            }
+            try (InputStream is = url.openStream()) {
+                return GeofenceCatalog.wrap(ByteBuffer.wrap(is.readAllBytes()));
+            }
+        } catch (Exception e) {
+            log.error("Failed to load geofence catalog from {}: {}", path, e.getMessage());
+            throw new RuntimeException("Failed to load test data: " + filename, e);
+        }
+    }
+
     public static GeoFenceRequest loadApiPayload(String payloadName) {
         JsonNode root = loadJsonNode("api-payloads.json");
         JsonNode payload = root.get(payloadName);
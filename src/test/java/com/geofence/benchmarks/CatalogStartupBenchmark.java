@@ -0,0 +1,106 @@
+package com.geofence.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geofence.models.GeoFenceRequest;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.services.GeofenceCatalog;
+import com.geofence.services.GeofenceRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start cost of getting from a fence file on disk to the first answered containment
+ * query: parsing JSON with Jackson and building a {@link GeofenceRegistry}, versus mapping
+ * a {@link GeofenceCatalog}. Each measurement is the first call in a fresh JVM. Input files
+ * are generated once into the temp directory and reused by later forks; their names carry
+ * the catalog format and generator versions, so a change to either regenerates them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class CatalogStartupBenchmark {
+
+    private static final GeoLocation QUERY = GeoLocation.of(38.0, -122.0);
+    // Bump when setUp generates different fences
+    private static final int GENERATOR_VERSION = 1;
+
+    @Param({"10000", "100000", "1000000"})
+    public int fenceCount;
+
+    private Path json;
+    private Path catalog;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path directory = Path.of(System.getProperty("java.io.tmpdir"));
+        String name = "geofence-startup-v" + GeofenceCatalog.FORMAT_VERSION + "-g" + GENERATOR_VERSION
+                + "-" + fenceCount;
+        json = directory.resolve(name + ".json");
+        catalog = directory.resolve(name + ".gfc");
+        if (Files.exists(json) && Files.exists(catalog)) {
+            return;
+        }
+        Random random = new Random(7);
+        List<GeoFenceRequest> requests = new ArrayList<>(fenceCount);
+        List<Geofence> fences = new ArrayList<>(fenceCount);
+        for (int i = 0; i < fenceCount; i++) {
+            GeoFenceRequest request = GeoFenceRequest.builder()
+                    .name("fence-" + i)
+                    .latitude(36.0 + random.nextDouble() * 4.0)
+                    .longitude(-124.0 + random.nextDouble() * 4.0)
+                    .radius(50 + random.nextDouble() * 450)
+                    .build();
+            requests.add(request);
+            fences.add(Geofence.fromRequest(request));
+        }
+        new ObjectMapper().writeValue(json.toFile(), requests);
+        GeofenceCatalog.write(fences, catalog);
+    }
+
+    @Benchmark
+    public List<Geofence> jsonStartup() throws IOException {
+        List<GeoFenceRequest> requests = new ObjectMapper().readValue(json.toFile(), new TypeReference<>() {
+        });
+        GeofenceRegistry registry = new GeofenceRegistry();
+        for (GeoFenceRequest request : requests) {
+            registry.register(Geofence.fromRequest(request));
+        }
+        return registry.findContaining(QUERY);
+    }
+
+    @Benchmark
+    public List<Geofence> catalogStartup() throws IOException {
+        return GeofenceCatalog.open(catalog).findContaining(QUERY);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CatalogStartupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
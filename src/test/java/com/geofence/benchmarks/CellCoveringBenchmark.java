@@ -0,0 +1,106 @@
+package com.geofence.benchmarks;
+
+import com.geofence.models.CoveredGeofence;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.services.GeofenceCoveringIndex;
+import com.geofence.services.GeofenceRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Containment queries through a {@link GeofenceCoveringIndex} versus the grid
+ * {@link GeofenceRegistry}, for 1,000 fences in a one-degree square with radii spread
+ * log-uniformly over 50 m - 5 km. The overall cell hit rate is printed per level.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CellCoveringBenchmark {
+
+    private static final int FENCES = 1000;
+    private static final int QUERY_POINTS = 4096;
+
+    @Param({"16", "18", "20"})
+    public int level;
+
+    private GeofenceCoveringIndex index;
+    private GeofenceRegistry registry;
+    private GeoLocation[] queries;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(17);
+        registry = new GeofenceRegistry();
+        List<CoveredGeofence> coverings = new ArrayList<>(FENCES);
+        for (int i = 0; i < FENCES; i++) {
+            double radius = 50 * Math.pow(100, random.nextDouble());
+            Geofence fence = Geofence.of("fence-" + i, 37 + random.nextDouble(), -123 + random.nextDouble(), radius);
+            registry.register(fence);
+            coverings.add(CoveredGeofence.of(fence, level));
+        }
+        index = new GeofenceCoveringIndex(coverings);
+
+        queries = new GeoLocation[QUERY_POINTS];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            queries[i] = GeoLocation.of(37 + random.nextDouble(), -123 + random.nextDouble());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void printHitRate() {
+        long lookups = 0;
+        long exactChecks = 0;
+        for (CoveredGeofence.Stats stats : index.stats()) {
+            lookups += stats.lookups();
+            exactChecks += stats.exactChecks();
+        }
+        System.out.printf("%nLevel %d: %.3f of fence lookups answered by the cell map%n",
+                level, lookups == 0 ? 0.0 : 1.0 - (double) exactChecks / lookups);
+    }
+
+    @Benchmark
+    public List<Geofence> coveringIndex() {
+        GeoLocation point = nextQuery();
+        return index.findContaining(point.getLatitude(), point.getLongitude());
+    }
+
+    @Benchmark
+    public List<Geofence> registry() {
+        return registry.findContaining(nextQuery());
+    }
+
+    private GeoLocation nextQuery() {
+        cursor = (cursor + 1) & (QUERY_POINTS - 1);
+        return queries[cursor];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CellCoveringBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.geofence.benchmarks;
+
+import com.geofence.geo.DistanceCalculator;
+import com.geofence.geo.DistanceMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of each {@link DistanceMode} on point pairs about 100 m apart.
+ * Run {@link DistanceErrorReport} for the matching accuracy figures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(DistanceCalculatorBenchmark.PAIRS)
+public class DistanceCalculatorBenchmark {
+
+    static final int PAIRS = 4096;
+
+    @Param({"EQUIRECTANGULAR", "HAVERSINE", "VINCENTY"})
+    public String mode;
+
+    private DistanceCalculator calculator;
+    private double[] fromLatitudes;
+    private double[] fromLongitudes;
+    private double[] toLatitudes;
+    private double[] toLongitudes;
+
+    @Setup
+    public void setUp() {
+        calculator = DistanceMode.valueOf(mode).calculator();
+        Random random = new Random(8);
+        fromLatitudes = new double[PAIRS];
+        fromLongitudes = new double[PAIRS];
+        toLatitudes = new double[PAIRS];
+        toLongitudes = new double[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            fromLatitudes[i] = random.nextDouble() * 160 - 80;
+            fromLongitudes[i] = random.nextDouble() * 360 - 180;
+            toLatitudes[i] = fromLatitudes[i] + (random.nextDouble() - 0.5) * 0.002;
+            toLongitudes[i] = fromLongitudes[i] + (random.nextDouble() - 0.5) * 0.002;
+        }
+    }
+
+    @Benchmark
+    public double distance() {
+        double sum = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            sum += calculator.distance(fromLatitudes[i], fromLongitudes[i], toLatitudes[i], toLongitudes[i]);
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DistanceCalculatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
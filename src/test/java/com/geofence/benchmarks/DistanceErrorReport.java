@@ -0,0 +1,62 @@
+package com.geofence.benchmarks;
+
+import com.geofence.geo.DistanceCalculator;
+import com.geofence.geo.DistanceMode;
+import com.geofence.models.GeoLocation;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Error bounds of each {@link DistanceMode} against the WGS84 ellipsoid (Vincenty)
+ * for a 100 m fence: absolute distance error for points near the boundary, and the
+ * share of points whose inside/outside verdict differs from the ellipsoidal one.
+ * The last column isolates each mode's approximation error against spherical Haversine.
+ */
+public class DistanceErrorReport {
+
+    private static final int SAMPLES = 200_000;
+    private static final double RADIUS_METERS = 100.0;
+
+    public static void main(String[] args) {
+        double maxLatitude = args.length > 0 ? Double.parseDouble(args[0]) : 80;
+        DistanceCalculator reference = DistanceMode.VINCENTY.calculator();
+        DistanceCalculator sphere = DistanceMode.HAVERSINE.calculator();
+
+        System.out.printf("Radius %.0f m, %d samples, |latitude| <= %.0f%n", RADIUS_METERS, SAMPLES, maxLatitude);
+        System.out.printf("%-16s %12s %12s %12s %14s %16s%n", "mode", "mean err m", "p99 err m", "max err m",
+                "misclassified", "max vs sphere m");
+
+        for (DistanceMode mode : DistanceMode.values()) {
+            DistanceCalculator calculator = mode.calculator();
+            Random random = new Random(42);
+            double[] errors = new double[SAMPLES];
+            double sum = 0;
+            int misclassified = 0;
+            double maxSphereError = 0;
+
+            for (int i = 0; i < SAMPLES; i++) {
+                GeoLocation center = GeoLocation.of((random.nextDouble() * 2 - 1) * maxLatitude,
+                        random.nextDouble() * 360 - 180);
+                // Points spread over 0-2x the radius so the verdicts exercise the boundary
+                double distance = random.nextDouble() * 2 * RADIUS_METERS;
+                double bearing = random.nextDouble() * 2 * Math.PI;
+                GeoLocation point = center.offset(Math.cos(bearing) * distance, Math.sin(bearing) * distance);
+
+                double expected = reference.distance(point, center);
+                double actual = calculator.distance(point, center);
+                errors[i] = Math.abs(actual - expected);
+                sum += errors[i];
+                maxSphereError = Math.max(maxSphereError, Math.abs(actual - sphere.distance(point, center)));
+                if ((actual <= RADIUS_METERS) != (expected <= RADIUS_METERS)) {
+                    misclassified++;
+                }
+            }
+
+            Arrays.sort(errors);
+            System.out.printf("%-16s %12.4f %12.4f %12.4f %13.3f%% %16.2e%n", mode, sum / SAMPLES,
+                    errors[(int) (SAMPLES * 0.99)], errors[SAMPLES - 1], 100.0 * misclassified / SAMPLES,
+                    maxSphereError);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.geofence.benchmarks;
+
+import com.geofence.geo.DistanceKernel;
+import com.geofence.geo.DistanceKernelFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SIMD Vector API kernel versus the scalar Haversine loop for bulk distances and containment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@OperationsPerInvocation(DistanceKernelBenchmark.POINTS)
+public class DistanceKernelBenchmark {
+
+    static final int POINTS = 1 << 20;
+    private static final double CENTER_LAT = 37.7749;
+    private static final double CENTER_LON = -122.4194;
+
+    @Param({"scalar", "best"})
+    public String kernelName;
+
+    private DistanceKernel kernel;
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[] distances;
+    private BitSet inside;
+
+    @Setup
+    public void setUp() {
+        kernel = "best".equals(kernelName) ? DistanceKernelFactory.best() : DistanceKernelFactory.scalar();
+        Random random = new Random(17);
+        latitudes = new double[POINTS];
+        longitudes = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = CENTER_LAT + (random.nextDouble() - 0.5) * 0.05;
+            longitudes[i] = CENTER_LON + (random.nextDouble() - 0.5) * 0.05;
+        }
+        distances = new double[POINTS];
+        inside = new BitSet(POINTS);
+    }
+
+    @Benchmark
+    public double[] distances() {
+        kernel.distances(latitudes, longitudes, POINTS, CENTER_LAT, CENTER_LON, distances);
+        return distances;
+    }
+
+    @Benchmark
+    public int containedIn() {
+        return kernel.containedIn(latitudes, longitudes, POINTS, CENTER_LAT, CENTER_LON, 1000, inside);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DistanceKernelBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
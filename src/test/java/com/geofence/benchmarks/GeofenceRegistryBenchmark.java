@@ -0,0 +1,95 @@
+package com.geofence.benchmarks;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.services.GeofenceRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Containment query throughput of {@link GeofenceRegistry} versus a linear Haversine scan.
+ * Fences are scattered over a fixed 4x4 degree region, so density grows with the fence count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeofenceRegistryBenchmark {
+
+    private static final int QUERY_POINTS = 4096;
+
+    @Param({"10000", "100000", "1000000"})
+    public int fenceCount;
+
+    private GeofenceRegistry registry;
+    private List<Geofence> fences;
+    private GeoLocation[] queries;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        registry = new GeofenceRegistry();
+        fences = new ArrayList<>(fenceCount);
+        for (int i = 0; i < fenceCount; i++) {
+            Geofence fence = Geofence.of("fence-" + i,
+                    36.0 + random.nextDouble() * 4.0,
+                    -124.0 + random.nextDouble() * 4.0,
+                    50 + random.nextDouble() * 450);
+            fences.add(fence);
+        }
+        registry.registerAll(fences);
+
+        queries = new GeoLocation[QUERY_POINTS];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            queries[i] = GeoLocation.of(36.0 + random.nextDouble() * 4.0, -124.0 + random.nextDouble() * 4.0);
+        }
+    }
+
+    @Benchmark
+    public List<Geofence> registryLookup() {
+        return registry.findContaining(nextQuery());
+    }
+
+    @Benchmark
+    public int linearScan() {
+        GeoLocation point = nextQuery();
+        int hits = 0;
+        for (Geofence fence : fences) {
+            if (fence.contains(point)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private GeoLocation nextQuery() {
+        cursor = (cursor + 1) & (QUERY_POINTS - 1);
+        return queries[cursor];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GeofenceRegistryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package com.geofence.benchmarks;
+
+import com.geofence.geo.Geohash;
+import com.geofence.geo.Morton;
+import com.geofence.geo.MortonIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of {@link MortonIndex} over recorded positions scattered across a
+ * 4x4 degree region: key lookup, geohash cell scans and 200 m radius queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MortonIndexBenchmark {
+
+    private static final int QUERY_POINTS = 4096;
+
+    @Param({"100000", "1000000", "5000000"})
+    public int pointCount;
+
+    private MortonIndex index;
+    private double[] queryLatitudes;
+    private double[] queryLongitudes;
+    private long[] queryKeys;
+    private long[] queryCells;
+    private int[] out;
+    private int cursor;
+    private long visited;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(16);
+        MortonIndex.Builder builder = MortonIndex.builder(pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            builder.add(36.0 + random.nextDouble() * 4.0, -124.0 + random.nextDouble() * 4.0, i);
+        }
+        index = builder.build();
+
+        queryLatitudes = new double[QUERY_POINTS];
+        queryLongitudes = new double[QUERY_POINTS];
+        queryKeys = new long[QUERY_POINTS];
+        queryCells = new long[QUERY_POINTS];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            queryLatitudes[i] = 36.0 + random.nextDouble() * 4.0;
+            queryLongitudes[i] = -124.0 + random.nextDouble() * 4.0;
+            queryKeys[i] = Morton.encode(queryLatitudes[i], queryLongitudes[i]);
+            queryCells[i] = Geohash.toKeyPrefix(Geohash.fromKey(queryKeys[i], 7));
+        }
+        out = new int[pointCount];
+    }
+
+    @Benchmark
+    public int lowerBound() {
+        return index.lowerBound(queryKeys[next()]);
+    }
+
+    @Benchmark
+    public long geohashCellScan() {
+        return index.forEachInPrefix(queryCells[next()], 35, (id, key) -> visited += id);
+    }
+
+    @Benchmark
+    public int radiusQuery() {
+        int i = next();
+        return index.withinRadius(queryLatitudes[i], queryLongitudes[i], 200, out);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (QUERY_POINTS - 1);
+        return cursor;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MortonIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
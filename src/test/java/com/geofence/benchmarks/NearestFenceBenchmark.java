@@ -0,0 +1,94 @@
+package com.geofence.benchmarks;
+
+import com.geofence.models.FenceDistance;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.services.GeofenceProximityIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * k-nearest-fence query through {@link GeofenceProximityIndex} versus sorting every fence
+ * by signed distance. Fences are scattered over a 4x4 degree region.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NearestFenceBenchmark {
+
+    private static final int QUERY_POINTS = 1024;
+
+    @Param({"10000", "100000", "1000000"})
+    public int fenceCount;
+
+    @Param({"1", "10", "100"})
+    public int k;
+
+    private List<Geofence> fences;
+    private GeofenceProximityIndex index;
+    private GeoLocation[] queries;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(18);
+        fences = new ArrayList<>(fenceCount);
+        for (int i = 0; i < fenceCount; i++) {
+            fences.add(Geofence.of("fence-" + i, 36 + random.nextDouble() * 4, -124 + random.nextDouble() * 4,
+                    50 + random.nextDouble() * 450));
+        }
+        index = new GeofenceProximityIndex(fences);
+        queries = new GeoLocation[QUERY_POINTS];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            queries[i] = GeoLocation.of(36 + random.nextDouble() * 4, -124 + random.nextDouble() * 4);
+        }
+    }
+
+    @Benchmark
+    public List<FenceDistance> bestFirst() {
+        return index.nearest(nextQuery(), k);
+    }
+
+    @Benchmark
+    public List<FenceDistance> sortAll() {
+        GeoLocation point = nextQuery();
+        List<FenceDistance> all = new ArrayList<>(fences.size());
+        for (Geofence fence : fences) {
+            all.add(new FenceDistance(fence, point.distanceTo(fence.center()) - fence.radiusMeters()));
+        }
+        all.sort(Comparator.comparingDouble(FenceDistance::signedDistanceMeters));
+        return all.subList(0, k);
+    }
+
+    private GeoLocation nextQuery() {
+        cursor = (cursor + 1) & (QUERY_POINTS - 1);
+        return queries[cursor];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NearestFenceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
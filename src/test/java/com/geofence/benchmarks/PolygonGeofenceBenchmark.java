@@ -0,0 +1,112 @@
+package com.geofence.benchmarks;
+
+import com.geofence.models.PolygonGeofence;
+import com.geofence.models.PreparedPolygonGeofence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polygon containment per point: full edge scan versus latitude edge buckets versus
+ * buckets plus a 256 x 256 raster, at 10, 1,000 and 100,000 vertices.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(PolygonGeofenceBenchmark.POINTS)
+public class PolygonGeofenceBenchmark {
+
+    static final int POINTS = 1024;
+    private static final int GRID_RESOLUTION = 256;
+
+    @Param({"10", "1000", "100000"})
+    public int vertices;
+
+    private PolygonGeofence polygon;
+    private PreparedPolygonGeofence banded;
+    private PreparedPolygonGeofence rastered;
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(10);
+        double[] vertexLats = new double[vertices];
+        double[] vertexLons = new double[vertices];
+        for (int i = 0; i < vertices; i++) {
+            // Wavy ring around San Francisco about 1.3 km across, with GPS-scale jitter
+            double angle = 2 * Math.PI * i / vertices;
+            double radius = 0.006 + 0.002 * Math.sin(3 * angle) + 0.001 * Math.sin(7 * angle + 1)
+                    + random.nextDouble() * 1e-5;
+            vertexLats[i] = 37.7749 + radius * Math.sin(angle);
+            vertexLons[i] = -122.4194 + radius * Math.cos(angle);
+        }
+        polygon = PolygonGeofence.of("Benchmark", vertexLats, vertexLons);
+        banded = polygon.prepare();
+        rastered = polygon.prepare(GRID_RESOLUTION);
+
+        latitudes = new double[POINTS];
+        longitudes = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = 37.7749 + (random.nextDouble() - 0.5) * 0.024;
+            longitudes[i] = -122.4194 + (random.nextDouble() - 0.5) * 0.024;
+        }
+    }
+
+    @Benchmark
+    public int edgeScan() {
+        int inside = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (polygon.contains(latitudes[i], longitudes[i])) {
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    @Benchmark
+    public int edgeBuckets() {
+        int inside = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (banded.contains(latitudes[i], longitudes[i])) {
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    @Benchmark
+    public int raster() {
+        int inside = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (rastered.contains(latitudes[i], longitudes[i])) {
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PolygonGeofenceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.geofence.benchmarks;
+
+import com.geofence.geo.Haversine;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.PreparedGeofence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-check cost of a {@link PreparedGeofence} versus recomputing the center's trig
+ * and radius thresholds on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(PreparedGeofenceBenchmark.POINTS)
+public class PreparedGeofenceBenchmark {
+
+    static final int POINTS = 16384;
+    private static final double RADIUS_METERS = 100.0;
+
+    private GeoLocation center;
+    private PreparedGeofence prepared;
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3);
+        center = GeoLocation.of(37.7749, -122.4194);
+        prepared = PreparedGeofence.of(center, RADIUS_METERS);
+        latitudes = new double[POINTS];
+        longitudes = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            // Points within ~300 m so most checks land near the fence
+            latitudes[i] = center.getLatitude() + (random.nextDouble() - 0.5) * 0.006;
+            longitudes[i] = center.getLongitude() + (random.nextDouble() - 0.5) * 0.006;
+        }
+    }
+
+    @Benchmark
+    public double distanceRecomputedTrig() {
+        double sum = 0;
+        for (int i = 0; i < POINTS; i++) {
+            sum += Haversine.distance(latitudes[i], longitudes[i], center.getLatitude(), center.getLongitude());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double distancePrepared() {
+        double sum = 0;
+        for (int i = 0; i < POINTS; i++) {
+            sum += prepared.distanceTo(latitudes[i], longitudes[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int containsRecomputed() {
+        int inside = 0;
+        double centerRad = Math.toRadians(center.getLatitude());
+        for (int i = 0; i < POINTS; i++) {
+            if (Haversine.isWithinRadius(latitudes[i], longitudes[i], center.getLatitude(), center.getLongitude(),
+                    Math.cos(centerRad), Math.sin(centerRad), RADIUS_METERS)) {
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    @Benchmark
+    public int containsPrepared() {
+        int inside = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (prepared.contains(latitudes[i], longitudes[i])) {
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PreparedGeofenceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
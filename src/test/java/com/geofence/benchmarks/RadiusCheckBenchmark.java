@@ -0,0 +1,87 @@
+package com.geofence.benchmarks;
+
+import com.geofence.models.GeoLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GeoLocation#isWithinRadius} fast path versus always computing Haversine,
+ * on workloads with a varying share of points near the 100 m fence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(RadiusCheckBenchmark.POINTS)
+public class RadiusCheckBenchmark {
+
+    static final int POINTS = 65536;
+    private static final double RADIUS_METERS = 100.0;
+
+    @Param({"0.0", "0.2", "0.5", "1.0"})
+    public double nearFraction;
+
+    private GeoLocation center;
+    private GeoLocation[] points;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(11);
+        center = GeoLocation.of(37.7749, -122.4194);
+        points = new GeoLocation[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            boolean near = random.nextDouble() < nearFraction;
+            double distance = near
+                    ? random.nextDouble() * 2 * RADIUS_METERS
+                    : RADIUS_METERS * (5 + random.nextDouble() * 5000);
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            points[i] = center.offset(Math.cos(bearing) * distance, Math.sin(bearing) * distance);
+        }
+    }
+
+    @Benchmark
+    public int fastPath() {
+        int inside = 0;
+        for (GeoLocation point : points) {
+            if (point.isWithinRadius(center, RADIUS_METERS)) {
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    @Benchmark
+    public int exactHaversine() {
+        int inside = 0;
+        for (GeoLocation point : points) {
+            if (point.distanceTo(center) <= RADIUS_METERS) {
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RadiusCheckBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
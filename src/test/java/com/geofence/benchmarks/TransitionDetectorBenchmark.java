@@ -0,0 +1,100 @@
+package com.geofence.benchmarks;
+
+import com.geofence.models.Geofence;
+import com.geofence.services.GeofenceTransitionDetector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-core update throughput of {@link GeofenceTransitionDetector} with many devices
+ * random-walking through a field of fences.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransitionDetectorBenchmark {
+
+    private static final int TRACE_LENGTH = 1 << 20;
+
+    @Param({"10000"})
+    public int fenceCount;
+
+    @Param({"1000", "100000"})
+    public int deviceCount;
+
+    private GeofenceTransitionDetector detector;
+    private long[] deviceIds;
+    private double[] latitudes;
+    private double[] longitudes;
+    private int cursor;
+    private long clock;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        Random random = new Random(23);
+        List<Geofence> fences = new ArrayList<>(fenceCount);
+        for (int i = 0; i < fenceCount; i++) {
+            fences.add(Geofence.of("fence-" + i, 36.0 + random.nextDouble() * 2,
+                    -124.0 + random.nextDouble() * 2, 50 + random.nextDouble() * 450));
+        }
+        detector = GeofenceTransitionDetector.builder()
+                .fences(fences)
+                .hysteresisMeters(10)
+                .dwellMillis(60_000)
+                .listener((deviceId, fenceIndex, transition, timestampMillis) -> blackhole.consume(fenceIndex))
+                .build();
+
+        // Pre-generate a random-walk trace so the benchmark measures only the detector
+        double[] deviceLat = new double[deviceCount];
+        double[] deviceLon = new double[deviceCount];
+        for (int d = 0; d < deviceCount; d++) {
+            deviceLat[d] = 36.0 + random.nextDouble() * 2;
+            deviceLon[d] = -124.0 + random.nextDouble() * 2;
+        }
+        deviceIds = new long[TRACE_LENGTH];
+        latitudes = new double[TRACE_LENGTH];
+        longitudes = new double[TRACE_LENGTH];
+        for (int i = 0; i < TRACE_LENGTH; i++) {
+            int d = i % deviceCount;
+            deviceLat[d] += (random.nextDouble() - 0.5) * 1e-3;
+            deviceLon[d] += (random.nextDouble() - 0.5) * 1e-3;
+            deviceIds[i] = d;
+            latitudes[i] = deviceLat[d];
+            longitudes[i] = deviceLon[d];
+        }
+    }
+
+    @Benchmark
+    public void update() {
+        int i = cursor;
+        cursor = (i + 1) & (TRACE_LENGTH - 1);
+        detector.update(deviceIds[i], clock++, latitudes[i], longitudes[i]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TransitionDetectorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,128 @@
+package com.geofence.benchmarks;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.services.VersionedGeofenceRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read throughput of {@link VersionedGeofenceRegistry} on four reader threads while
+ * background writers keep replacing fences. With copy-on-write snapshots readers never
+ * wait on writers, so throughput should barely move as writers are added.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class VersionedRegistryBenchmark {
+
+    private static final int QUERY_POINTS = 4096;
+
+    @Param({"10000", "100000"})
+    public int fenceCount;
+
+    @Param({"0", "1", "4"})
+    public int writers;
+
+    @Param({"100"})
+    public int fencesPerBatch;
+
+    private VersionedGeofenceRegistry registry;
+    private GeoLocation[] queries;
+    private final List<Thread> writerThreads = new ArrayList<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong commits = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        registry = new VersionedGeofenceRegistry();
+        List<Geofence> fences = new ArrayList<>(fenceCount);
+        for (int i = 0; i < fenceCount; i++) {
+            fences.add(randomFence(random, i));
+        }
+        registry.putAll(fences);
+
+        queries = new GeoLocation[QUERY_POINTS];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            queries[i] = GeoLocation.of(36.0 + random.nextDouble() * 4.0, -124.0 + random.nextDouble() * 4.0);
+        }
+
+        running.set(true);
+        for (int w = 0; w < writers; w++) {
+            long seed = 100 + w;
+            Thread writer = new Thread(() -> writeUntilStopped(seed), "fence-writer-" + w);
+            writer.setDaemon(true);
+            writer.start();
+            writerThreads.add(writer);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        running.set(false);
+        for (Thread writer : writerThreads) {
+            writer.join();
+        }
+        writerThreads.clear();
+        System.out.printf("%n%d commits reached version %d%n", commits.get(), registry.version());
+    }
+
+    @Benchmark
+    public int read() {
+        VersionedGeofenceRegistry.Containment containment =
+                registry.findContaining(queries[ThreadLocalRandom.current().nextInt(QUERY_POINTS)]);
+        return containment.fences().size();
+    }
+
+    private void writeUntilStopped(long seed) {
+        Random random = new Random(seed);
+        while (running.get()) {
+            VersionedGeofenceRegistry.Batch batch = registry.batch();
+            for (int i = 0; i < fencesPerBatch; i++) {
+                batch.put(randomFence(random, random.nextInt(fenceCount)));
+            }
+            batch.commit();
+            commits.incrementAndGet();
+        }
+    }
+
+    private static Geofence randomFence(Random random, int id) {
+        return Geofence.of("fence-" + id,
+                36.0 + random.nextDouble() * 4.0,
+                -124.0 + random.nextDouble() * 4.0,
+                50 + random.nextDouble() * 450);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VersionedRegistryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -6,6 +6,9 @@ import com.geofence.driver.DriverManager;
 import com.geofence.listeners.TestListener;
 import com.geofence.models.ExecutionMode;
 import com.geofence.models.Platform;
+import com.geofence.services.LocationCommandCache;
+import com.geofence.services.SettleTimeHistogram;
+import com.geofence.time.SimulationClocks;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.ios.IOSDriver;
@@ -14,6 +17,7 @@ import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Optional;
@@ -113,6 +117,22 @@ public abstract class BaseTest {
         }
     }
 
+    /**
+     * Log how long location commands took to settle on each platform during the suite,
+     * and how many commands the location cache saved.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void logSettleTimes() {
+        String report = SettleTimeHistogram.report();
+        if (!report.isEmpty()) {
+            log.info("Location settle times:\n{}", report);
+        }
+        LocationCommandCache.Savings savings = LocationCommandCache.totals();
+        if (savings.requested() > 0) {
+            log.info("Location commands: {}", savings);
+        }
+    }
+
     /**
      * Get the driver cast to AndroidDriver. Use when you need Android-specific methods.
      */
@@ -232,11 +252,7 @@ public abstract class BaseTest {
     }
 
     protected void pause(long millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        SimulationClocks.current().sleepMillis(millis);
     }
 
     protected boolean isAndroid() {
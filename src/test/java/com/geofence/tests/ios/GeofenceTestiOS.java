@@ -3,6 +3,7 @@ package com.geofence.tests.ios;
 import com.geofence.dataproviders.GeofenceDataProvider.TestLocations;
 import com.geofence.listeners.RetryAnalyzer;
 import com.geofence.models.GeoLocation;
+import com.geofence.services.GeofenceService;
 import com.geofence.services.LocationService;
 import io.qameta.allure.*;
 import org.testng.Assert;
@@ -17,12 +18,15 @@ import org.testng.annotations.Test;
 public class GeofenceTestiOS extends BaseTestiOS {
 
     private static final double GEOFENCE_RADIUS_METERS = 100.0;
+    private static final double BOUNDARY_RESOLUTION_METERS = 5.0;
     private LocationService locationService;
+    private GeofenceService geofenceService;
 
     @Override
     protected void onDriverInitialized() {
         super.onDriverInitialized();
         locationService = new LocationService(driver);
+        geofenceService = new GeofenceService(locationService, GEOFENCE_RADIUS_METERS);
     }
 
     @Test(priority = 1, 
@@ -81,4 +85,31 @@ public class GeofenceTestiOS extends BaseTestiOS {
         log.info("iOS exit alert triggered - device is {:.2f}m from geofence center", distance);
         Allure.step("iOS geofence exit detected at " + distance + "m from center");
     }
+
+    @Test(priority = 3,
+          description = "TC-iOS-003: Verify iOS device exits geofence along boundary-aware waypoints",
+          retryAnalyzer = RetryAnalyzer.class)
+    @Story("iOS Geofence Exit Detection")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Move iOS device out of the geofence with waypoints dense only near the boundary")
+    public void testBoundaryAwareExitiOS() {
+        log.info("TC-iOS-003: iOS Boundary-Aware Exit Test");
+
+        // Arrange
+        Assert.assertNotNull(driver, "iOS Driver should be initialized");
+        pause(3000);
+        GeoLocation center = TestLocations.GEOFENCE_CENTER;
+        GeoLocation outsideLocation = TestLocations.OUTSIDE_150M;
+        locationService.setLocation(center);
+
+        // Act
+        geofenceService.simulateGeofenceExit(center, outsideLocation, BOUNDARY_RESOLUTION_METERS);
+        boolean isOutside = geofenceService.verifyOutsideGeofence(center, outsideLocation);
+        double distance = locationService.calculateDistance(center, outsideLocation);
+
+        // Assert
+        Assert.assertTrue(isOutside, "iOS Device should be outside the geofence");
+        log.info("iOS boundary-aware exit ended {:.2f}m from geofence center", distance);
+        Allure.step("iOS geofence exit at " + BOUNDARY_RESOLUTION_METERS + "m boundary resolution");
+    }
 }
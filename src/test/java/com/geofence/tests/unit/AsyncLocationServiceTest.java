@@ -0,0 +1,140 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.services.AsyncGeofenceService;
+import com.geofence.services.AsyncLocationService;
+import com.geofence.services.GeofenceService;
+import com.geofence.services.LocationService;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class AsyncLocationServiceTest {
+
+    private static final GeoLocation CENTER = GeoLocation.of(37.7749, -122.4194);
+
+    @Test(description = "Dozens of devices move concurrently in about the time one device takes")
+    public void testDevicesRunConcurrentlyOnVirtualThreads() {
+        // Arrange: 40 devices, each command blocking 50 ms like a driver round trip
+        int devices = 40;
+        List<Boolean> virtual = Collections.synchronizedList(new ArrayList<>());
+        List<AsyncLocationService> services = new ArrayList<>();
+        for (int i = 0; i < devices; i++) {
+            services.add(new AsyncLocationService(new RecordingLocationService(50, virtual)));
+        }
+        GeoLocation destination = GeoLocation.of(37.7800, -122.4194);
+
+        // Act: five steps are six waypoints per device, 300 ms each and 12 s one device at a time
+        long start = System.nanoTime();
+        CompletableFuture.allOf(services.stream()
+                .map(service -> service.simulateMovement(CENTER, destination, 5, 0))
+                .toArray(CompletableFuture[]::new)).join();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        Assert.assertEquals(virtual.size(), devices * 6);
+        Assert.assertTrue(virtual.stream().allMatch(Boolean::booleanValue), "Commands should run on virtual threads");
+        Assert.assertTrue(elapsedMillis < 3000, "Took " + elapsedMillis + " ms");
+    }
+
+    @Test(description = "Commands for one device run one at a time in submission order")
+    public void testCommandsKeepSubmissionOrder() {
+        // Arrange
+        RecordingLocationService device = new RecordingLocationService(1, new ArrayList<>());
+        AsyncLocationService service = new AsyncLocationService(device);
+        List<GeoLocation> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            expected.add(GeoLocation.of(37.0 + i * 0.001, -122.0));
+        }
+
+        // Act
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (GeoLocation location : expected) {
+            futures.add(service.setLocation(location));
+        }
+        futures.forEach(CompletableFuture::join);
+
+        // Assert
+        Assert.assertEquals(device.applied, expected);
+        Assert.assertEquals(device.maxConcurrent, 1);
+    }
+
+    @Test(description = "A failed command fails its own future and later commands still run")
+    public void testFailureDoesNotBlockQueue() {
+        // Arrange
+        RecordingLocationService device = new RecordingLocationService(0, new ArrayList<>());
+        AsyncLocationService service = new AsyncLocationService(device);
+
+        // Act
+        CompletableFuture<Void> failed = service.submit(() -> {
+            throw new IllegalStateException("session lost");
+        });
+        CompletableFuture<Void> next = service.setLocation(CENTER);
+
+        // Assert
+        CompletionException error = Assert.expectThrows(CompletionException.class, failed::join);
+        Assert.assertTrue(error.getCause() instanceof IllegalStateException);
+        next.join();
+        Assert.assertEquals(device.applied, List.of(CENTER));
+    }
+
+    @Test(description = "Geofence flows share the device's command queue")
+    public void testGeofenceFlowsShareQueue() {
+        // Arrange
+        RecordingLocationService device = new RecordingLocationService(0, new ArrayList<>());
+        GeofenceService geofenceService = new GeofenceService(device, 100.0);
+        AsyncLocationService commands = new AsyncLocationService(device);
+        AsyncGeofenceService flows = new AsyncGeofenceService(geofenceService, commands);
+        GeoLocation outside = GeoLocation.of(37.7769, -122.4194);
+
+        // Act
+        CompletableFuture<Void> moved = commands.setLocation(outside);
+        CompletableFuture<GeofenceService.GeofenceStatus> status = flows.placeDeviceAt(CENTER, CENTER);
+
+        // Assert
+        moved.join();
+        Assert.assertTrue(status.join().isInside());
+        Assert.assertEquals(device.applied, List.of(outside, CENTER));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new AsyncGeofenceService(geofenceService,
+                new AsyncLocationService(new RecordingLocationService(0, new ArrayList<>()))));
+    }
+
+    /**
+     * Records each fix instead of sending it to a driver, blocking for a fixed time per command.
+     */
+    private static class RecordingLocationService extends LocationService {
+        private final long commandMillis;
+        private final List<Boolean> virtual;
+        private final List<GeoLocation> applied = Collections.synchronizedList(new ArrayList<>());
+        private int running;
+        private int maxConcurrent;
+
+        RecordingLocationService(long commandMillis, List<Boolean> virtual) {
+            super(null);
+            this.commandMillis = commandMillis;
+            this.virtual = virtual;
+        }
+
+        @Override
+        public void setLocation(GeoLocation location) {
+            synchronized (this) {
+                maxConcurrent = Math.max(maxConcurrent, ++running);
+            }
+            virtual.add(Thread.currentThread().isVirtual());
+            try {
+                Thread.sleep(commandMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            applied.add(location);
+            synchronized (this) {
+                running--;
+            }
+        }
+    }
+}
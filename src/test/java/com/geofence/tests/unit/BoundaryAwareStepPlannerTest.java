@@ -0,0 +1,205 @@
+package com.geofence.tests.unit;
+
+import com.geofence.geo.BoundaryAwareStepPlanner;
+import com.geofence.geo.GreatCircleTrajectory;
+import com.geofence.geo.HaversineCalculator;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.services.GeofenceService;
+import com.geofence.services.LocationService;
+import com.geofence.time.VirtualClock;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class BoundaryAwareStepPlannerTest {
+
+    private static final GeoLocation CENTER = GeoLocation.of(37.7749, -122.4194);
+
+    @Test(description = "Every boundary crossing falls inside a step no longer than the resolution")
+    public void testCrossingResolution() {
+        // Arrange
+        Random random = new Random(11);
+        for (int run = 0; run < 200; run++) {
+            List<Geofence> fences = new ArrayList<>();
+            for (int f = 0; f < 1 + random.nextInt(4); f++) {
+                GeoLocation center = CENTER.offset((random.nextDouble() - 0.5) * 600, (random.nextDouble() - 0.5) * 600);
+                fences.add(new Geofence("F" + f, center, 20 + random.nextDouble() * 200));
+            }
+            double resolution = 0.5 + random.nextDouble() * 5;
+            BoundaryAwareStepPlanner planner = BoundaryAwareStepPlanner.builder()
+                    .fences(fences)
+                    .resolutionMeters(resolution)
+                    .maxSpacingMeters(150)
+                    .build();
+            GeoLocation from = CENTER.offset((random.nextDouble() - 0.5) * 1000, (random.nextDouble() - 0.5) * 1000);
+            GeoLocation to = CENTER.offset((random.nextDouble() - 0.5) * 1000, (random.nextDouble() - 0.5) * 1000);
+            GreatCircleTrajectory trajectory = GreatCircleTrajectory.between(from, to);
+
+            // Act
+            BoundaryAwareStepPlanner.Cursor cursor = planner.plan(trajectory);
+            cursor.next();
+            double previousPosition = cursor.distanceMeters();
+            double[] previous = {cursor.latitude(), cursor.longitude()};
+            double[] sample = new double[2];
+            while (cursor.next()) {
+                double step = cursor.distanceMeters() - previousPosition;
+
+                // Assert
+                Assert.assertTrue(step <= 150 + 1e-9, "Step " + step + " exceeds max spacing");
+                if (step > resolution + 1e-9) {
+                    for (double d = 0; d <= step; d += 0.25) {
+                        trajectory.interpolate((previousPosition + d) / trajectory.lengthMeters(), sample);
+                        for (Geofence fence : fences) {
+                            Assert.assertEquals(fence.contains(GeoLocation.of(sample[0], sample[1])),
+                                    fence.contains(GeoLocation.of(previous[0], previous[1])),
+                                    "Crossing inside a " + step + " m step");
+                        }
+                    }
+                }
+                previousPosition = cursor.distanceMeters();
+                previous = new double[]{cursor.latitude(), cursor.longitude()};
+            }
+            Assert.assertTrue(cursor.isLast());
+            Assert.assertEquals(previous[0], to.getLatitude());
+            Assert.assertEquals(previous[1], to.getLongitude());
+        }
+    }
+
+    @Test(description = "At the five-step walk's resolution the planner never pushes more than its six fixes")
+    public void testNoMoreWaypointsThanFixedSteps() {
+        // Arrange: the fixed walk is six fixes, length / 5 apart
+        double[] distances = {150, 300, 1000};
+        int[] expectedEntry = {5, 4, 3};
+
+        for (int i = 0; i < distances.length; i++) {
+            GreatCircleTrajectory trajectory = GreatCircleTrajectory.between(CENTER.offset(distances[i], 0), CENTER);
+            double resolution = trajectory.lengthMeters() / 5;
+            BoundaryAwareStepPlanner planner = BoundaryAwareStepPlanner.builder()
+                    .fence(CENTER, 100)
+                    .resolutionMeters(resolution)
+                    .maxSpacingMeters(trajectory.lengthMeters())
+                    .build();
+
+            // Act
+            BoundaryAwareStepPlanner.Cursor cursor = planner.plan(trajectory);
+            int waypoints = 0;
+            while (cursor.next()) {
+                waypoints++;
+            }
+
+            // Assert
+            Assert.assertEquals(waypoints, expectedEntry[i], "Entry from " + distances[i] + " m");
+        }
+    }
+
+    @Test(description = "Default geofence entry and exit keep the six-fix walk")
+    public void testDefaultEntryAndExitKeepFixedWalk() {
+        // Arrange
+        List<GeoLocation> applied = new ArrayList<>();
+        GeofenceService geofenceService = new GeofenceService(recordingService(applied), 100.0);
+        GeoLocation outside = CENTER.offset(150, 0);
+
+        // Act
+        geofenceService.simulateGeofenceEntry(CENTER, outside);
+        int entryPushes = applied.size();
+        geofenceService.simulateGeofenceExit(CENTER, outside);
+
+        // Assert
+        Assert.assertEquals(entryPushes, 6);
+        Assert.assertEquals(applied.size() - entryPushes, 6);
+    }
+
+    @Test(description = "Boundary-aware moves take at least 3x fewer commands than uniform steps at the same resolution")
+    public void testResolutionOverloadCutsRoundTrips() {
+        // Arrange
+        List<GeoLocation> applied = new ArrayList<>();
+        LocationService locationService = recordingService(applied);
+        GeofenceService geofenceService = new GeofenceService(locationService, 100.0);
+
+        for (double distance : new double[]{150, 300}) {
+            GeoLocation outside = CENTER.offset(distance, 0);
+            for (double resolution : new double[]{1, 2, 5}) {
+                // Act
+                applied.clear();
+                geofenceService.simulateGeofenceEntry(CENTER, outside, resolution);
+                int entryPushes = applied.size();
+                GeoLocation entryEnd = applied.get(entryPushes - 1);
+                applied.clear();
+                geofenceService.simulateGeofenceExit(CENTER, outside, resolution);
+                int exitPushes = applied.size();
+                applied.clear();
+                locationService.simulateMovementEvery(outside, CENTER, resolution, 1000);
+                int uniformPushes = applied.size();
+
+                // Assert
+                String label = distance + " m at " + resolution + " m";
+                Assert.assertEquals(entryEnd, CENTER, label);
+                Assert.assertTrue(entryPushes * 3 <= uniformPushes, label + ": " + entryPushes + " vs " + uniformPushes);
+                Assert.assertTrue(exitPushes * 3 <= uniformPushes, label + ": " + exitPushes + " vs " + uniformPushes);
+            }
+        }
+    }
+
+    @Test(description = "A 150 m entry at 5 m resolution takes 8 fixes where uniform steps take 32")
+    public void testResolutionOverloadFixCount() {
+        // Arrange
+        List<GeoLocation> applied = new ArrayList<>();
+        GeofenceService geofenceService = new GeofenceService(recordingService(applied), 100.0);
+        GeoLocation outside = CENTER.offset(150, 0);
+
+        // Act
+        geofenceService.simulateGeofenceEntry(CENTER, outside, 5.0);
+        int entryPushes = applied.size();
+        geofenceService.simulateGeofenceExit(CENTER, outside, 5.0);
+
+        // Assert
+        Assert.assertEquals(entryPushes, 8);
+        Assert.assertEquals(applied.size() - entryPushes, 7);
+        Assert.assertEquals(applied.get(0), outside);
+        Assert.assertEquals(applied.get(applied.size() - 1), outside);
+    }
+
+    @Test(description = "Paths far from every fence move at the maximum spacing")
+    public void testMaxSpacingAwayFromFences() {
+        // Arrange
+        BoundaryAwareStepPlanner planner = BoundaryAwareStepPlanner.builder()
+                .fence(CENTER.offset(50_000, 0), 100)
+                .resolutionMeters(1)
+                .maxSpacingMeters(50)
+                .build();
+
+        // Act
+        BoundaryAwareStepPlanner.Cursor cursor = planner.plan(CENTER, CENTER.offset(0, 1000));
+        int waypoints = 0;
+        while (cursor.next()) {
+            waypoints++;
+        }
+
+        // Assert
+        Assert.assertEquals(waypoints, 21);
+    }
+
+    @Test(description = "Invalid spacing settings are rejected")
+    public void testValidation() {
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> BoundaryAwareStepPlanner.builder().resolutionMeters(0).build());
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> BoundaryAwareStepPlanner.builder().resolutionMeters(10).maxSpacingMeters(5).build());
+    }
+
+    /**
+     * Location service that records each fix instead of sending it to a device.
+     */
+    private static LocationService recordingService(List<GeoLocation> applied) {
+        return new LocationService(null, HaversineCalculator.INSTANCE, null, new VirtualClock()) {
+            @Override
+            public void setLocation(GeoLocation location) {
+                applied.add(location);
+            }
+        };
+    }
+}
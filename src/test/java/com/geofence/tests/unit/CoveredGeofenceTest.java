@@ -0,0 +1,132 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.CoveredGeofence;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.models.PreparedGeofence;
+import com.geofence.services.GeofenceService;
+import com.geofence.services.LocationService;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Random;
+
+public class CoveredGeofenceTest {
+
+    @DataProvider(name = "coverings")
+    public Object[][] coverings() {
+        return new Object[][]{
+                {37.7749, -122.4194, 50.0, 22},
+                {37.7749, -122.4194, 500.0, 20},
+                {37.7749, -122.4194, 5_000.0, 18},
+                {-16.5, 179.9995, 300.0, 20},
+                {89.999, 45.0, 400.0, 14},
+                {0.0, 0.0, 1_000.0, 12},
+        };
+    }
+
+    @Test(dataProvider = "coverings", description = "Covered containment matches the exact check everywhere")
+    public void testMatchesExactContainment(double latitude, double longitude, double radius, int level) {
+        // Arrange
+        Geofence fence = Geofence.of("Fence", latitude, longitude, radius);
+        CoveredGeofence covered = CoveredGeofence.of(fence, level);
+        PreparedGeofence exact = PreparedGeofence.of(fence);
+        Random random = new Random(17);
+        GeoLocation center = fence.center();
+
+        for (int i = 0; i < 50_000; i++) {
+            double north = (random.nextDouble() - 0.5) * radius * 3;
+            double east = (random.nextDouble() - 0.5) * radius * 3;
+            GeoLocation point = center.offset(north, east);
+            if (Math.abs(point.getLatitude()) > 90) {
+                continue;
+            }
+
+            // Act
+            boolean inside = covered.contains(point);
+
+            // Assert
+            Assert.assertEquals(inside, exact.contains(point), "Containment at " + point);
+        }
+    }
+
+    @Test(description = "Points right at the radius are decided by the exact check")
+    public void testPointsOnTheBoundary() {
+        // Arrange
+        Geofence fence = Geofence.of("Fence", 37.7749, -122.4194, 250);
+        CoveredGeofence covered = CoveredGeofence.of(fence, 24);
+        PreparedGeofence exact = PreparedGeofence.of(fence);
+
+        for (int degrees = 0; degrees < 360; degrees++) {
+            double bearing = Math.toRadians(degrees);
+            for (double offset : new double[]{-1e-4, 0, 1e-4}) {
+                GeoLocation point = fence.center().offset(Math.cos(bearing) * (250 + offset),
+                        Math.sin(bearing) * (250 + offset));
+
+                // Assert
+                Assert.assertEquals(covered.contains(point), exact.contains(point), "Containment at " + point);
+            }
+        }
+    }
+
+    @Test(description = "Finer levels answer more lookups from the cell map")
+    public void testHitRateGrowsWithLevel() {
+        // Arrange
+        Geofence fence = Geofence.of("Fence", 37.7749, -122.4194, 500);
+        Random random = new Random(18);
+        double previous = -1;
+
+        for (int level = 16; level <= 22; level += 2) {
+            CoveredGeofence covered = CoveredGeofence.of(fence, level);
+
+            // Act
+            for (int i = 0; i < 20_000; i++) {
+                covered.contains(fence.center().offset((random.nextDouble() - 0.5) * 1500,
+                        (random.nextDouble() - 0.5) * 1500));
+            }
+            CoveredGeofence.Stats stats = covered.stats();
+
+            // Assert
+            Assert.assertEquals(stats.lookups(), 20_000);
+            Assert.assertTrue(stats.hitRate() > previous, "Hit rate at level " + level + ": " + stats.hitRate());
+            previous = stats.hitRate();
+        }
+        Assert.assertTrue(previous > 0.95, "Hit rate at level 22: " + previous);
+    }
+
+    @Test(description = "Levels that would need too many cells are rejected")
+    public void testRejectsOversizedCoverings() {
+        Geofence fence = Geofence.of("Large", 37.7749, -122.4194, 5_000);
+        Assert.assertThrows(IllegalArgumentException.class, () -> CoveredGeofence.of(fence, 26));
+        Assert.assertThrows(IllegalArgumentException.class, () -> CoveredGeofence.of(fence, 4));
+    }
+
+    @Test(description = "Service containment with coverings matches the registry and reports per-fence stats")
+    public void testServiceUsesCoverings() {
+        // Arrange
+        GeofenceService service = new GeofenceService(new LocationService(null), 100.0);
+        Random random = new Random(19);
+        for (int i = 0; i < 200; i++) {
+            service.getRegistry().register(Geofence.of("Fence " + i, 37.70 + random.nextDouble() * 0.1,
+                    -122.50 + random.nextDouble() * 0.1, 50 + random.nextDouble() * 4_950));
+        }
+        GeoLocation[] points = new GeoLocation[5_000];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = GeoLocation.of(37.70 + random.nextDouble() * 0.1, -122.50 + random.nextDouble() * 0.1);
+        }
+
+        // Act
+        service.precomputeCoverings(20);
+        List<CoveredGeofence.Stats> stats = service.getCoverageStats();
+
+        // Assert
+        for (GeoLocation point : points) {
+            Assert.assertEquals(service.findContainingGeofences(point), service.getRegistry().findContaining(point));
+        }
+        Assert.assertEquals(stats.size(), 200);
+        long lookups = service.getCoverageStats().stream().mapToLong(CoveredGeofence.Stats::lookups).sum();
+        Assert.assertTrue(lookups > 0);
+    }
+}
@@ -0,0 +1,220 @@
+package com.geofence.tests.unit;
+
+import com.geofence.geo.GreatCircleTrajectory;
+import com.geofence.geo.HaversineCalculator;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.models.GeofenceCrossing;
+import com.geofence.models.GeofenceTransition;
+import com.geofence.models.MovementPath;
+import com.geofence.services.GeofenceService;
+import com.geofence.services.LocationService;
+import com.geofence.time.VirtualClock;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class CrossingPredictionTest {
+
+    private static final GeoLocation CENTER = GeoLocation.of(37.7749, -122.4194);
+
+    private GeofenceService geofenceService;
+
+    @BeforeMethod
+    public void setUp() {
+        geofenceService = new GeofenceService(new LocationService(null), 100.0);
+    }
+
+    @Test(description = "A path through the center enters and exits at the radius with interpolated times")
+    public void testPathThroughCenter() {
+        // Arrange
+        Geofence fence = new Geofence("SF", CENTER, 100);
+        MovementPath path = MovementPath.greatCircle(CENTER.offset(150, 0), CENTER.offset(-150, 0), 1_000, 30_000);
+
+        // Act
+        List<GeofenceCrossing> crossings = geofenceService.predictCrossings(path, List.of(fence));
+
+        // Assert
+        Assert.assertEquals(crossings.size(), 2);
+        GeofenceCrossing entry = crossings.get(0);
+        GeofenceCrossing exit = crossings.get(1);
+        Assert.assertEquals(entry.transition(), GeofenceTransition.ENTER);
+        Assert.assertEquals(exit.transition(), GeofenceTransition.EXIT);
+        Assert.assertEquals(entry.fraction(), 50.0 / 300, 1e-6);
+        Assert.assertEquals(entry.timestampMillis(), 6_000);
+        Assert.assertEquals(exit.timestampMillis(), 26_000);
+        Assert.assertEquals(entry.location().distanceTo(CENTER), 100, 1e-3);
+        Assert.assertEquals(exit.location().distanceTo(CENTER), 100, 1e-3);
+    }
+
+    @Test(description = "A path starting inside only exits, one ending inside only enters")
+    public void testOneSidedPaths() {
+        // Arrange
+        Geofence fence = new Geofence("SF", CENTER, 100);
+
+        // Act
+        List<GeofenceCrossing> leaving = geofenceService.predictCrossings(
+                MovementPath.greatCircle(CENTER, CENTER.offset(0, 300), 0, 1_000), List.of(fence));
+        List<GeofenceCrossing> arriving = geofenceService.predictCrossings(
+                MovementPath.straight(CENTER.offset(0, 300), CENTER, 0, 1_000), List.of(fence));
+        List<GeofenceCrossing> missing = geofenceService.predictCrossings(
+                MovementPath.greatCircle(CENTER.offset(200, -300), CENTER.offset(200, 300), 0, 1_000), List.of(fence));
+
+        // Assert
+        Assert.assertEquals(leaving.size(), 1);
+        Assert.assertEquals(leaving.get(0).transition(), GeofenceTransition.EXIT);
+        Assert.assertEquals(arriving.size(), 1);
+        Assert.assertEquals(arriving.get(0).transition(), GeofenceTransition.ENTER);
+        Assert.assertEquals(arriving.get(0).location().distanceTo(CENTER), 100, 0.05);
+        Assert.assertTrue(missing.isEmpty());
+    }
+
+    @Test(description = "Predicted crossings match a dense walk along random paths")
+    public void testMatchesDenseSampling() {
+        // Arrange
+        Random random = new Random(12);
+        for (int run = 0; run < 300; run++) {
+            List<Geofence> fences = new ArrayList<>();
+            for (int f = 0; f < 3; f++) {
+                fences.add(new Geofence("F" + f, CENTER.offset((random.nextDouble() - 0.5) * 2000,
+                        (random.nextDouble() - 0.5) * 2000), 50 + random.nextDouble() * 500));
+            }
+            GeoLocation from = CENTER.offset((random.nextDouble() - 0.5) * 3000, (random.nextDouble() - 0.5) * 3000);
+            GeoLocation to = CENTER.offset((random.nextDouble() - 0.5) * 3000, (random.nextDouble() - 0.5) * 3000);
+            boolean greatCircle = random.nextBoolean();
+            MovementPath path = new MovementPath(from, to, 0, 60_000,
+                    greatCircle ? MovementPath.Shape.GREAT_CIRCLE : MovementPath.Shape.STRAIGHT);
+
+            // Act
+            List<GeofenceCrossing> crossings = geofenceService.predictCrossings(path, fences);
+
+            // Assert
+            GreatCircleTrajectory trajectory = GreatCircleTrajectory.between(from, to);
+            int samples = 4000;
+            int expectedCrossings = 0;
+            for (Geofence fence : fences) {
+                boolean inside = fence.contains(from);
+                for (int i = 1; i <= samples; i++) {
+                    GeoLocation point = pointAt(path, trajectory, (double) i / samples);
+                    if (fence.contains(point) != inside) {
+                        inside = !inside;
+                        expectedCrossings++;
+                    }
+                }
+            }
+            Assert.assertEquals(crossings.size(), expectedCrossings, "Crossings for run " + run);
+            double tolerance = greatCircle ? 1e-3 : 0.5;
+            for (int i = 0; i < crossings.size(); i++) {
+                GeofenceCrossing crossing = crossings.get(i);
+                Assert.assertEquals(crossing.location().distanceTo(crossing.fence().center()),
+                        crossing.fence().radiusMeters(), tolerance);
+                if (i > 0) {
+                    Assert.assertTrue(crossing.fraction() >= crossings.get(i - 1).fraction());
+                }
+            }
+        }
+    }
+
+    @Test(description = "Registry overload predicts against every registered fence")
+    public void testRegistryOverload() {
+        // Arrange
+        geofenceService.getRegistry().register(new Geofence("A", CENTER, 100));
+        geofenceService.getRegistry().register(new Geofence("B", CENTER.offset(1000, 0), 100));
+
+        // Act
+        List<GeofenceCrossing> crossings = geofenceService.predictCrossings(
+                MovementPath.greatCircle(CENTER.offset(-500, 0), CENTER.offset(1500, 0), 0, 10_000));
+
+        // Assert
+        Assert.assertEquals(crossings.size(), 4);
+        Assert.assertEquals(crossings.get(0).fence().name(), "A");
+        Assert.assertEquals(crossings.get(3).fence().name(), "B");
+    }
+
+    @Test(description = "Entry and exit push only the start, both sides of the crossing and the end")
+    public void testEntryAndExitPushFourFixes() {
+        // Arrange
+        VirtualClock clock = new VirtualClock();
+        List<GeoLocation> applied = new ArrayList<>();
+        GeofenceService service = new GeofenceService(recordingService(clock, applied), 100.0);
+        GeoLocation outside = CENTER.offset(150, 0);
+        Geofence fence = new Geofence("SF", CENTER, 100);
+
+        // Act
+        List<GeofenceCrossing> entry = service.simulateGeofenceEntryAtCrossing(CENTER, outside);
+        List<GeoLocation> entryFixes = new ArrayList<>(applied);
+        applied.clear();
+        List<GeofenceCrossing> exit = service.simulateGeofenceExitAtCrossing(CENTER, outside);
+
+        // Assert
+        Assert.assertEquals(entry.size(), 1);
+        Assert.assertEquals(entry.get(0).transition(), GeofenceTransition.ENTER);
+        Assert.assertEquals(entryFixes.size(), 4);
+        Assert.assertEquals(entryFixes.get(0), outside);
+        Assert.assertFalse(fence.contains(entryFixes.get(1)));
+        Assert.assertTrue(fence.contains(entryFixes.get(2)));
+        Assert.assertEquals(entryFixes.get(1).distanceTo(CENTER), 101, 1e-2);
+        Assert.assertEquals(entryFixes.get(2).distanceTo(CENTER), 99, 1e-2);
+        Assert.assertEquals(entryFixes.get(3), CENTER);
+
+        Assert.assertEquals(exit.size(), 1);
+        Assert.assertEquals(exit.get(0).transition(), GeofenceTransition.EXIT);
+        Assert.assertEquals(applied.size(), 4);
+        Assert.assertTrue(fence.contains(applied.get(1)));
+        Assert.assertFalse(fence.contains(applied.get(2)));
+        Assert.assertEquals(applied.get(3), outside);
+        Assert.assertEquals(clock.elapsedMillis(), 6_000L);
+    }
+
+    @Test(description = "A path through several fences costs two fixes per crossing plus its endpoints")
+    public void testCrossingsAcrossSeveralFences() {
+        // Arrange
+        List<GeoLocation> applied = new ArrayList<>();
+        GeofenceService service = new GeofenceService(recordingService(new VirtualClock(), applied), 100.0);
+        List<Geofence> fences = List.of(new Geofence("A", CENTER, 100),
+                new Geofence("B", CENTER.offset(1000, 0), 100));
+        GeoLocation from = CENTER.offset(-500, 0);
+        GeoLocation to = CENTER.offset(1500, 0);
+
+        // Act
+        List<GeofenceCrossing> crossings = service.simulateCrossings(from, to, fences, 1.0);
+
+        // Assert: a uniform walk at the same 1 m spacing would push about 2,000 fixes
+        Assert.assertEquals(crossings.size(), 4);
+        Assert.assertEquals(applied.size(), 10);
+        for (int i = 0; i < crossings.size(); i++) {
+            Geofence fence = crossings.get(i).fence();
+            boolean entering = crossings.get(i).transition() == GeofenceTransition.ENTER;
+            Assert.assertEquals(fence.contains(applied.get(1 + 2 * i)), !entering, "Before crossing " + i);
+            Assert.assertEquals(fence.contains(applied.get(2 + 2 * i)), entering, "After crossing " + i);
+        }
+        Assert.assertThrows(IllegalArgumentException.class, () -> service.simulateCrossings(from, to, fences, 0));
+    }
+
+    /**
+     * Records each fix instead of sending it to a driver; waits pass in virtual time.
+     */
+    private static LocationService recordingService(VirtualClock clock, List<GeoLocation> applied) {
+        return new LocationService(null, HaversineCalculator.INSTANCE, null, clock) {
+            @Override
+            public void setLocation(GeoLocation location) {
+                applied.add(location);
+            }
+        };
+    }
+
+    private static GeoLocation pointAt(MovementPath path, GreatCircleTrajectory trajectory, double fraction) {
+        if (path.shape() == MovementPath.Shape.GREAT_CIRCLE) {
+            double[] point = new double[2];
+            trajectory.interpolate(fraction, point);
+            return GeoLocation.of(point[0], point[1]);
+        }
+        return GeoLocation.of(
+                path.from().getLatitude() + fraction * (path.to().getLatitude() - path.from().getLatitude()),
+                path.from().getLongitude() + fraction * (path.to().getLongitude() - path.from().getLongitude()));
+    }
+}
@@ -0,0 +1,114 @@
+package com.geofence.tests.unit;
+
+import com.geofence.geo.DistanceCalculator;
+import com.geofence.geo.DistanceMode;
+import com.geofence.models.GeoLocation;
+import com.geofence.services.LocationService;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+public class DistanceCalculatorTest {
+
+    @Test(description = "Haversine mode matches GeoLocation exactly")
+    public void testHaversineMatchesGeoLocation() {
+        // Arrange
+        DistanceCalculator calculator = DistanceMode.HAVERSINE.calculator();
+        Random random = new Random(8);
+
+        for (int i = 0; i < 10_000; i++) {
+            GeoLocation a = GeoLocation.of(random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180);
+            GeoLocation b = a.offset((random.nextDouble() - 0.5) * 400, (random.nextDouble() - 0.5) * 400);
+
+            // Act & Assert
+            Assert.assertEquals(calculator.distance(a, b), a.distanceTo(b), 0.0);
+            Assert.assertEquals(calculator.isWithinRadius(b, a, 100.0), b.isWithinRadius(a, 100.0));
+        }
+    }
+
+    @Test(description = "Vincenty reproduces the reference geodesic from Flinders Peak to Buninyong")
+    public void testVincentyReferenceDistance() {
+        // Arrange
+        double lat1 = -(37 + 57 / 60.0 + 3.72030 / 3600);
+        double lon1 = 144 + 25 / 60.0 + 29.52440 / 3600;
+        double lat2 = -(37 + 39 / 60.0 + 10.15610 / 3600);
+        double lon2 = 143 + 55 / 60.0 + 35.38390 / 3600;
+
+        // Act
+        double distance = DistanceMode.VINCENTY.calculator().distance(lat1, lon1, lat2, lon2);
+
+        // Assert
+        Assert.assertEquals(distance, 54972.271, 0.001);
+    }
+
+    @Test(description = "Vincenty handles coincident, equatorial and antipodal points")
+    public void testVincentyEdgeCases() {
+        // Arrange
+        DistanceCalculator calculator = DistanceMode.VINCENTY.calculator();
+
+        // Act & Assert
+        Assert.assertEquals(calculator.distance(10, 20, 10, 20), 0.0);
+        Assert.assertEquals(calculator.distance(0, 0, 0, 1), 111319.491, 0.001);
+        Assert.assertTrue(calculator.distance(0, 0, 0.5, 179.7) > 19_900_000);
+    }
+
+    @Test(description = "Spherical modes stay within 0.7% of the ellipsoid at 100 m")
+    public void testErrorBoundAtHundredMeters() {
+        // Arrange
+        DistanceCalculator reference = DistanceMode.VINCENTY.calculator();
+        Random random = new Random(100);
+
+        for (DistanceMode mode : DistanceMode.values()) {
+            DistanceCalculator calculator = mode.calculator();
+            for (int i = 0; i < 10_000; i++) {
+                GeoLocation center = GeoLocation.of(random.nextDouble() * 160 - 80, random.nextDouble() * 360 - 180);
+                double bearing = random.nextDouble() * 2 * Math.PI;
+                GeoLocation point = center.offset(Math.cos(bearing) * 100, Math.sin(bearing) * 100);
+
+                // Act
+                double error = Math.abs(calculator.distance(center, point) - reference.distance(center, point));
+
+                // Assert
+                Assert.assertTrue(error < 0.7, mode + " error " + error + " at " + point);
+            }
+        }
+    }
+
+    @Test(description = "Equirectangular agrees with Haversine across the antimeridian")
+    public void testEquirectangularAntimeridian() {
+        // Arrange
+        DistanceCalculator calculator = DistanceMode.EQUIRECTANGULAR.calculator();
+
+        // Act
+        double distance = calculator.distance(0, 179.9995, 0, -179.9995);
+
+        // Assert
+        Assert.assertEquals(distance, GeoLocation.of(0, 179.9995).distanceTo(GeoLocation.of(0, -179.9995)), 1e-6);
+    }
+
+    @Test(description = "LocationService measures with the configured calculator")
+    public void testLocationServiceUsesCalculator() {
+        // Arrange
+        LocationService service = new LocationService(null, DistanceMode.VINCENTY.calculator());
+        GeoLocation from = GeoLocation.of(0, 0);
+        GeoLocation to = GeoLocation.of(0, 1);
+
+        // Act
+        double distance = service.calculateDistance(from, to);
+
+        // Assert
+        Assert.assertEquals(distance, 111319.491, 0.001);
+        Assert.assertTrue(Math.abs(distance - from.distanceTo(to)) > 100, "Expected ellipsoidal distance");
+    }
+
+    @Test(description = "Blank mode means Haversine and unknown modes are rejected")
+    public void testModeFromString() {
+        Assert.assertEquals(DistanceMode.fromString("vincenty"), DistanceMode.VINCENTY);
+        Assert.assertEquals(DistanceMode.fromString(null), DistanceMode.HAVERSINE);
+        Assert.assertEquals(DistanceMode.fromString(" "), DistanceMode.HAVERSINE);
+        IllegalArgumentException error = Assert.expectThrows(IllegalArgumentException.class,
+                () -> DistanceMode.fromString("haversin"));
+        Assert.assertTrue(error.getMessage().contains("EQUIRECTANGULAR, HAVERSINE, VINCENTY"), error.getMessage());
+    }
+}
@@ -0,0 +1,62 @@
+package com.geofence.tests.unit;
+
+import com.geofence.geo.DistanceKernel;
+import com.geofence.geo.DistanceKernelFactory;
+import com.geofence.geo.Haversine;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+public class DistanceKernelTest {
+
+    private static final int POINTS = 100_003;
+
+    @Test(description = "Best available kernel matches the scalar reference")
+    public void testBestKernelMatchesScalar() {
+        // Arrange
+        Random random = new Random(99);
+        double[] latitudes = new double[POINTS];
+        double[] longitudes = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = 37.7749 + (random.nextDouble() - 0.5) * 0.02;
+            longitudes[i] = -122.4194 + (random.nextDouble() - 0.5) * 0.02;
+        }
+        DistanceKernel best = DistanceKernelFactory.best();
+        DistanceKernel scalar = DistanceKernelFactory.scalar();
+        double[] bestDistances = new double[POINTS];
+        double[] scalarDistances = new double[POINTS];
+        BitSet bestInside = new BitSet(POINTS);
+        BitSet scalarInside = new BitSet(POINTS);
+
+        // Act
+        best.distances(latitudes, longitudes, POINTS, 37.7749, -122.4194, bestDistances);
+        scalar.distances(latitudes, longitudes, POINTS, 37.7749, -122.4194, scalarDistances);
+        int bestCount = best.containedIn(latitudes, longitudes, POINTS, 37.7749, -122.4194, 500, bestInside);
+        int scalarCount = scalar.containedIn(latitudes, longitudes, POINTS, 37.7749, -122.4194, 500, scalarInside);
+
+        // Assert
+        for (int i = 0; i < POINTS; i++) {
+            Assert.assertEquals(bestDistances[i], scalarDistances[i], 1e-6, best.name() + " distance " + i);
+        }
+        Assert.assertEquals(bestInside, scalarInside, best.name() + " containment must be identical");
+        Assert.assertEquals(bestCount, scalarCount);
+    }
+
+    @Test(description = "Scalar kernel reproduces Haversine.distance exactly")
+    public void testScalarKernelIsExact() {
+        // Arrange
+        double[] latitudes = {37.7749, 37.7763, 40.7128};
+        double[] longitudes = {-122.4194, -122.4194, -74.0060};
+        double[] out = new double[3];
+
+        // Act
+        DistanceKernelFactory.scalar().distances(latitudes, longitudes, 3, 37.7749, -122.4194, out);
+
+        // Assert
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(out[i], Haversine.distance(latitudes[i], longitudes[i], 37.7749, -122.4194), 0.0);
+        }
+    }
+}
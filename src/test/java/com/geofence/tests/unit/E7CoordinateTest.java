@@ -0,0 +1,128 @@
+package com.geofence.tests.unit;
+
+import com.geofence.geo.E7;
+import com.geofence.models.E7Coordinate;
+import com.geofence.models.E7PointBatch;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.services.GeofenceRegistry;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+public class E7CoordinateTest {
+
+    @Test(description = "Degrees survive a round trip through E7 within half a unit")
+    public void testRoundTripPrecision() {
+        // Arrange
+        Random random = new Random(15);
+
+        for (int i = 0; i < 10_000; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+
+            // Act
+            E7Coordinate coordinate = E7Coordinate.of(latitude, longitude);
+
+            // Assert
+            Assert.assertEquals(coordinate.latitude(), latitude, 5e-8);
+            Assert.assertEquals(coordinate.longitude(), longitude, 5e-8);
+        }
+    }
+
+    @Test(description = "Packing keeps the sign of both halves")
+    public void testPackUnpackNegativeValues() {
+        // Arrange
+        E7Coordinate coordinate = E7Coordinate.of(-33.8688, -151.2093);
+
+        // Act
+        long packed = coordinate.pack();
+
+        // Assert
+        Assert.assertEquals(E7.latitudeE7(packed), -338_688_000);
+        Assert.assertEquals(E7.longitudeE7(packed), -1_512_093_000);
+        Assert.assertEquals(E7Coordinate.unpack(packed), coordinate);
+        Assert.assertEquals(E7.pack(-33.8688, -151.2093), packed);
+    }
+
+    @Test(description = "Extreme coordinates pack and unpack exactly")
+    public void testExtremes() {
+        for (double[] corner : new double[][]{{90, 180}, {-90, -180}, {90, -180}, {-90, 180}, {0, 0}}) {
+            long packed = E7.pack(corner[0], corner[1]);
+            Assert.assertEquals(E7.latitude(packed), corner[0], 0.0);
+            Assert.assertEquals(E7.longitude(packed), corner[1], 0.0);
+        }
+    }
+
+    @Test(description = "E7 ordering matches degree ordering")
+    public void testOrderingPreserved() {
+        // Arrange
+        E7Coordinate south = E7Coordinate.of(37.7748, -122.40);
+        E7Coordinate north = E7Coordinate.of(37.7749, -122.50);
+        E7Coordinate northEast = E7Coordinate.of(37.7749, -122.49);
+
+        // Assert
+        Assert.assertTrue(south.compareTo(north) < 0);
+        Assert.assertTrue(north.compareTo(northEast) < 0);
+        Assert.assertEquals(north.compareTo(E7Coordinate.of(37.7749, -122.50)), 0);
+    }
+
+    @Test(description = "Out-of-range coordinates are rejected")
+    public void testRangeValidation() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> E7Coordinate.of(90.1, 0));
+        Assert.assertThrows(IllegalArgumentException.class, () -> E7Coordinate.of(0, -180.1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> E7Coordinate.of(Double.NaN, 0));
+        Assert.assertThrows(IllegalArgumentException.class, () -> E7.pack(Double.NEGATIVE_INFINITY, 0));
+        Assert.assertThrows(IllegalArgumentException.class, () -> E7.pack(0, Double.POSITIVE_INFINITY));
+        Assert.assertThrows(IllegalArgumentException.class, () -> E7.pack(0, Double.NaN));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new E7Coordinate(900_000_001, 0));
+    }
+
+    @Test(description = "Point batch stores eight bytes per point and converts back")
+    public void testPointBatch() {
+        // Arrange
+        E7PointBatch batch = new E7PointBatch(0);
+        GeoLocation location = GeoLocation.of(37.7749, -122.4194);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            batch.add(location.getLatitude() + i * 1e-4, location.getLongitude());
+        }
+
+        // Assert
+        Assert.assertEquals(batch.size(), 100);
+        Assert.assertEquals(batch.latitude(42), 37.7749 + 42 * 1e-4, 5e-8);
+        Assert.assertEquals(batch.longitudeE7(42), -1_224_194_000);
+        Assert.assertEquals(batch.toGeoPointBatch().size(), 100);
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> batch.packed(100));
+    }
+
+    @Test(description = "Registry candidates from packed E7 match the degree query")
+    public void testRegistryPackedQueryMatchesDegrees() {
+        // Arrange
+        Random random = new Random(16);
+        GeofenceRegistry registry = new GeofenceRegistry(0.01);
+        for (int i = 0; i < 500; i++) {
+            registry.register(Geofence.of("Fence " + i, 37.70 + random.nextDouble() * 0.2,
+                    -122.50 + random.nextDouble() * 0.2, 50 + random.nextDouble() * 500));
+        }
+        int[] byDegrees = new int[500];
+        int[] byE7 = new int[500];
+
+        for (int i = 0; i < 5_000; i++) {
+            double latitude = 37.70 + random.nextDouble() * 0.2;
+            double longitude = -122.50 + random.nextDouble() * 0.2;
+
+            // Act
+            int degreeCount = registry.candidateIds(latitude, longitude, byDegrees);
+            int e7Count = registry.candidateIds(E7.pack(latitude, longitude), byE7);
+
+            // Assert
+            Assert.assertEquals(e7Count, degreeCount, "Candidate count at point " + i);
+            for (int c = 0; c < degreeCount; c++) {
+                Assert.assertEquals(byE7[c], byDegrees[c]);
+            }
+        }
+    }
+}
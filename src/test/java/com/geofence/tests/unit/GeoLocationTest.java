@@ -0,0 +1,69 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.GeoLocation;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+public class GeoLocationTest {
+
+    @Test(description = "Fast-path isWithinRadius agrees with exact Haversine everywhere")
+    public void testIsWithinRadiusMatchesExactDistance() {
+        // Arrange
+        Random random = new Random(2024);
+        int mismatches = 0;
+
+        for (int i = 0; i < 200_000; i++) {
+            GeoLocation center = GeoLocation.of(random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180);
+            double radius = Math.pow(10, random.nextDouble() * 6);
+            GeoLocation point = randomPointNear(random, center, radius);
+
+            // Act
+            boolean actual = point.isWithinRadius(center, radius);
+
+            // Assert
+            if (actual != (point.distanceTo(center) <= radius)) {
+                mismatches++;
+            }
+        }
+        Assert.assertEquals(mismatches, 0, "Fast path must never disagree with distanceTo");
+    }
+
+    @Test(description = "Points exactly on the Haversine boundary are resolved by the exact path")
+    public void testBoundaryPoints() {
+        // Arrange
+        GeoLocation center = GeoLocation.of(37.7749, -122.4194);
+        GeoLocation point = GeoLocation.of(37.77579, -122.4194);
+        double exact = point.distanceTo(center);
+
+        // Act & Assert
+        Assert.assertTrue(point.isWithinRadius(center, exact), "Point at exactly the radius is inside");
+        Assert.assertFalse(point.isWithinRadius(center, Math.nextDown(exact)), "Point just past the radius is outside");
+    }
+
+    @Test(description = "Fences near the poles and across the antimeridian")
+    public void testPolarAndAntimeridian() {
+        // Arrange
+        GeoLocation pole = GeoLocation.of(89.9999, 0);
+        GeoLocation dateline = GeoLocation.of(-16.5, 179.9999);
+
+        // Act & Assert
+        Assert.assertTrue(GeoLocation.of(89.9999, 180).isWithinRadius(pole, 50));
+        Assert.assertTrue(GeoLocation.of(-16.5, -179.9999).isWithinRadius(dateline, 30));
+        Assert.assertFalse(GeoLocation.of(-16.5, -179.999).isWithinRadius(dateline, 30));
+    }
+
+    private GeoLocation randomPointNear(Random random, GeoLocation center, double radius) {
+        double scale = switch (random.nextInt(4)) {
+            case 0 -> 1 + (random.nextDouble() - 0.5) * 1e-8;
+            case 1 -> random.nextDouble() * 2;
+            case 2 -> random.nextDouble() * 50;
+            default -> 1 + (random.nextDouble() - 0.5) * 1e-3;
+        };
+        double bearing = random.nextDouble() * 2 * Math.PI;
+        GeoLocation point = center.offset(Math.cos(bearing) * radius * scale, Math.sin(bearing) * radius * scale);
+        double latitude = Math.max(-90, Math.min(90, point.getLatitude()));
+        return GeoLocation.of(latitude, point.getLongitude());
+    }
+}
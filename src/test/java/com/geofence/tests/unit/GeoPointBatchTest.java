@@ -0,0 +1,56 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.models.GeoPointBatch;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+public class GeoPointBatchTest {
+
+    @Test(description = "Batch distances and containment match per-point GeoLocation results")
+    public void testBatchMatchesPerPointResults() {
+        // Arrange
+        Random random = new Random(5);
+        GeoLocation center = GeoLocation.of(37.7749, -122.4194);
+        GeoPointBatch batch = new GeoPointBatch(4);
+        GeoLocation[] points = new GeoLocation[10_000];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = GeoLocation.of(37.77 + random.nextDouble() * 0.01, -122.42 + random.nextDouble() * 0.01);
+            batch.add(points[i]);
+        }
+        double[] distances = new double[batch.size()];
+        BitSet inside = new BitSet(batch.size());
+
+        // Act
+        batch.distancesTo(center, distances);
+        int count = batch.containedIn(center, 300, inside);
+
+        // Assert
+        for (int i = 0; i < points.length; i++) {
+            Assert.assertEquals(distances[i], points[i].distanceTo(center), 0.0, "Distance for point " + i);
+            Assert.assertEquals(inside.get(i), points[i].isWithinRadius(center, 300), "Containment for point " + i);
+        }
+        Assert.assertEquals(count, inside.cardinality());
+    }
+
+    @Test(description = "containedIn clears bits left over from a previous scan")
+    public void testContainedInClearsStaleBits() {
+        // Arrange
+        GeoPointBatch batch = new GeoPointBatch();
+        batch.add(37.7749, -122.4194);
+        batch.add(40.7128, -74.0060);
+        BitSet out = new BitSet(2);
+        out.set(1);
+
+        // Act
+        int count = batch.containedIn(GeoLocation.of(37.7749, -122.4194), 100, out);
+
+        // Assert
+        Assert.assertEquals(count, 1);
+        Assert.assertTrue(out.get(0));
+        Assert.assertFalse(out.get(1), "New York should not stay marked inside");
+    }
+}
@@ -0,0 +1,74 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.models.GeoPointBatch;
+import com.geofence.models.Geofence;
+import com.geofence.services.GeofenceBatchEvaluator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class GeofenceBatchEvaluatorTest {
+
+    @Test(description = "Parallel evaluation returns the same hits as a nested loop, in point order")
+    public void testMatchesNestedLoop() {
+        // Arrange
+        Random random = new Random(12);
+        List<Geofence> fences = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            fences.add(Geofence.of("f" + i, 37.70 + random.nextDouble() * 0.1,
+                    -122.50 + random.nextDouble() * 0.1, 100 + random.nextDouble() * 900));
+        }
+        GeoPointBatch points = new GeoPointBatch();
+        for (int i = 0; i < 50_000; i++) {
+            points.add(37.70 + random.nextDouble() * 0.1, -122.50 + random.nextDouble() * 0.1);
+        }
+        GeofenceBatchEvaluator evaluator = new GeofenceBatchEvaluator(fences);
+
+        // Act
+        GeofenceBatchEvaluator.ContainmentHits hits = evaluator.evaluate(points, new ForkJoinPool(4));
+
+        // Assert
+        List<Long> expected = new ArrayList<>();
+        for (int p = 0; p < points.size(); p++) {
+            GeoLocation point = points.get(p);
+            List<Long> pointHits = new ArrayList<>();
+            for (int f = 0; f < fences.size(); f++) {
+                if (fences.get(f).contains(point)) {
+                    pointHits.add(((long) p << 32) | f);
+                }
+            }
+            pointHits.sort(null);
+            expected.addAll(pointHits);
+        }
+        List<Long> actual = new ArrayList<>();
+        for (int i = 0; i < hits.size(); i++) {
+            actual.add(((long) hits.pointIndex(i) << 32) | hits.fenceIndex(i));
+        }
+        actual.sort(null);
+        Assert.assertEquals(actual, expected);
+        for (int i = 1; i < hits.size(); i++) {
+            Assert.assertTrue(hits.pointIndex(i - 1) <= hits.pointIndex(i), "Hits must be ordered by point");
+        }
+
+        BitSet column = hits.pointsInside(0);
+        Assert.assertEquals(column.cardinality(), hits.countsPerFence()[0]);
+    }
+
+    @Test(description = "Empty batches produce no hits")
+    public void testEmptyBatch() {
+        // Arrange
+        GeofenceBatchEvaluator evaluator = new GeofenceBatchEvaluator(List.of(Geofence.of("SF", 37.7749, -122.4194, 100)));
+
+        // Act
+        GeofenceBatchEvaluator.ContainmentHits hits = evaluator.evaluate(new GeoPointBatch(0));
+
+        // Assert
+        Assert.assertEquals(hits.size(), 0);
+    }
+}
@@ -0,0 +1,163 @@
+package com.geofence.tests.unit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.services.GeofenceCatalog;
+import com.geofence.services.GeofenceRegistry;
+import com.geofence.utils.GeofenceCatalogConverter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+public class GeofenceCatalogTest {
+
+    @Test(description = "A mapped catalog holds the same fences and answers like the registry")
+    public void testCatalogMatchesRegistry() throws Exception {
+        // Arrange
+        Random random = new Random(5);
+        List<Geofence> fences = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            fences.add(Geofence.of("fence-" + i, 37.70 + random.nextDouble() * 0.2,
+                    -122.50 + random.nextDouble() * 0.2, 50 + random.nextDouble() * 2000));
+        }
+        fences.add(Geofence.of("Bay Area", 37.7749, -122.4194, 80_000));
+        fences.add(Geofence.of("Dateline", 0.0, 179.9995, 500));
+        fences.add(Geofence.of(null, 37.75, -122.45, 300));
+        fences.add(Geofence.of("Caf\u00e9 \u2615", 37.76, -122.42, 120));
+        GeofenceRegistry registry = new GeofenceRegistry();
+        registry.registerAll(fences);
+        Path file = Files.createTempFile("fences", ".gfc");
+
+        try {
+            // Act
+            GeofenceCatalog.write(fences, file);
+            GeofenceCatalog catalog = GeofenceCatalog.open(file);
+
+            // Assert
+            Assert.assertEquals(catalog.size(), fences.size());
+            Assert.assertEquals(catalog.getAll(), fences, "Every fence should decode exactly, names included");
+            for (int i = 0; i < 3000; i++) {
+                GeoLocation point = GeoLocation.of(37.68 + random.nextDouble() * 0.24,
+                        -122.52 + random.nextDouble() * 0.24);
+                Assert.assertEquals(new HashSet<>(catalog.findContaining(point)),
+                        new HashSet<>(registry.findContaining(point)), "Mismatch for point " + point);
+            }
+            Assert.assertEquals(catalog.findContaining(GeoLocation.of(0.0, -179.9999)),
+                    List.of(Geofence.of("Dateline", 0.0, 179.9995, 500)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(description = "Id queries write at most out.length ids but report every match")
+    public void testFindContainingIdsIsBounded() throws Exception {
+        // Arrange
+        List<Geofence> fences = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            fences.add(Geofence.of("nested-" + i, 37.7749, -122.4194, 100 + i * 10));
+        }
+        Path file = Files.createTempFile("fences", ".gfc");
+
+        try {
+            GeofenceCatalog.write(fences, file);
+            GeofenceCatalog catalog = GeofenceCatalog.wrap(ByteBuffer.wrap(Files.readAllBytes(file)));
+            int[] out = new int[4];
+
+            // Act
+            int count = catalog.findContainingIds(37.7749, -122.4194, out);
+
+            // Assert
+            Assert.assertEquals(count, 10);
+            Assert.assertEquals(out, new int[]{0, 1, 2, 3});
+            Assert.assertEquals(catalog.findContainingIds(40.7128, -74.0060, out), 0);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(description = "Files that are not whole catalogs are rejected at open")
+    public void testRejectsCorruptFiles() throws Exception {
+        // Arrange
+        Path file = Files.createTempFile("fences", ".gfc");
+
+        try {
+            GeofenceCatalog.write(List.of(Geofence.of("Home", 37.7749, -122.4194, 100)), file);
+            byte[] bytes = Files.readAllBytes(file);
+            byte[] truncated = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+
+            // Act & Assert
+            Assert.assertThrows(IllegalArgumentException.class,
+                    () -> GeofenceCatalog.wrap(ByteBuffer.wrap(truncated)));
+            Assert.assertThrows(IllegalArgumentException.class,
+                    () -> GeofenceCatalog.wrap(ByteBuffer.wrap("{\"not\": \"a catalog\"}".getBytes())));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(description = "The converter reads every JSON test data layout")
+    public void testConvertsTestData() throws Exception {
+        // Arrange
+        Path scenarios = testData("geofence-scenarios.json");
+        Path payloads = testData("api-payloads.json");
+        Path requests = Files.createTempFile("requests", ".json");
+        Files.writeString(requests, "[{\"name\": \"Home\", \"latitude\": 37.7749, \"longitude\": -122.4194, "
+                + "\"radius\": 100, \"title\": \"ignored\"}]");
+        Path file = Files.createTempFile("fences", ".gfc");
+
+        try {
+            // Act
+            int scenarioCount = GeofenceCatalogConverter.convert(scenarios, file);
+            GeofenceCatalog scenarioCatalog = GeofenceCatalog.open(file);
+            List<Geofence> payloadFences = GeofenceCatalogConverter.readFences(payloads);
+            List<Geofence> requestFences = GeofenceCatalogConverter.readFences(requests);
+
+            // Assert
+            Assert.assertEquals(scenarioCount, 4);
+            Assert.assertEquals(scenarioCatalog.get(0), Geofence.of("TC-001", 37.7749, -122.4194, 100));
+            Assert.assertEquals(payloadFences.get(2), Geofence.of("workGeofence", 37.7849, -122.4094, 200));
+            Assert.assertEquals(requestFences, List.of(Geofence.of("Home", 37.7749, -122.4194, 100)));
+        } finally {
+            Files.deleteIfExists(requests);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(description = "The converter rejects entries with a missing or misspelled field")
+    public void testRejectsIncompleteEntries() throws Exception {
+        // Arrange
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode misspelled = mapper.readTree("[{\"name\": \"Home\", \"latitude\": 37.7749, "
+                + "\"longtitude\": -122.4194, \"radius\": 100}]");
+        JsonNode missingRadius = mapper.readTree("{\"scenarios\": [{\"id\": \"TC-9\", "
+                + "\"geofenceCenter\": {\"latitude\": 1, \"longitude\": 2}}]}");
+        JsonNode textRadius = mapper.readTree("{\"work\": {\"latitude\": 1, \"longitude\": 2, \"radius\": \"big\"}}");
+
+        // Act & Assert
+        IllegalArgumentException error = Assert.expectThrows(IllegalArgumentException.class,
+                () -> GeofenceCatalogConverter.readFences(misspelled));
+        Assert.assertTrue(error.getMessage().contains("Home") && error.getMessage().contains("longitude"),
+                error.getMessage());
+        error = Assert.expectThrows(IllegalArgumentException.class,
+                () -> GeofenceCatalogConverter.readFences(missingRadius));
+        Assert.assertTrue(error.getMessage().contains("TC-9") && error.getMessage().contains("radiusMeters"),
+                error.getMessage());
+        error = Assert.expectThrows(IllegalArgumentException.class,
+                () -> GeofenceCatalogConverter.readFences(textRadius));
+        Assert.assertTrue(error.getMessage().contains("work"), error.getMessage());
+    }
+
+    private static Path testData(String name) throws Exception {
+        return Path.of(GeofenceCatalogTest.class.getClassLoader().getResource("testdata/" + name).toURI());
+    }
+}
@@ -0,0 +1,131 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.FenceDistance;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.services.GeofenceProximityIndex;
+import com.geofence.services.GeofenceService;
+import com.geofence.services.LocationService;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class GeofenceProximityIndexTest {
+
+    @Test(description = "k-nearest results match sorting every fence by signed distance")
+    public void testMatchesFullSort() {
+        // Arrange
+        Random random = new Random(18);
+        List<Geofence> fences = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            fences.add(Geofence.of("Fence " + i, 37 + random.nextDouble(), -123 + random.nextDouble(),
+                    50 * Math.pow(100, random.nextDouble())));
+        }
+        GeofenceProximityIndex index = new GeofenceProximityIndex(fences);
+
+        for (int q = 0; q < 200; q++) {
+            GeoLocation point = GeoLocation.of(36.8 + random.nextDouble() * 1.4, -123.2 + random.nextDouble() * 1.4);
+            int k = 1 + random.nextInt(20);
+
+            // Act
+            List<FenceDistance> nearest = index.nearest(point, k);
+
+            // Assert
+            List<FenceDistance> expected = sortAll(fences, point);
+            Assert.assertEquals(nearest.size(), k);
+            for (int i = 0; i < k; i++) {
+                Assert.assertEquals(nearest.get(i).fence(), expected.get(i).fence(), "Rank " + i + " at " + point);
+                Assert.assertEquals(nearest.get(i).signedDistanceMeters(), expected.get(i).signedDistanceMeters(), 1e-6);
+            }
+        }
+    }
+
+    @Test(description = "Signed distance is negative inside a fence and positive outside")
+    public void testSignedDistance() {
+        // Arrange
+        Geofence small = Geofence.of("Small", 37.7749, -122.4194, 100);
+        Geofence large = Geofence.of("Large", 37.7749, -122.4194, 1_000);
+        Geofence far = Geofence.of("Far", 37.80, -122.4194, 200);
+        GeofenceProximityIndex index = new GeofenceProximityIndex(List.of(small, far, large));
+        GeoLocation point = small.center().offset(300, 0);
+
+        // Act
+        List<FenceDistance> nearest = index.nearest(point, 3);
+
+        // Assert
+        Assert.assertEquals(nearest.get(0).fence(), large);
+        Assert.assertEquals(nearest.get(0).signedDistanceMeters(), -700, 0.01);
+        Assert.assertTrue(nearest.get(0).isInside());
+        Assert.assertEquals(nearest.get(1).fence(), small);
+        Assert.assertEquals(nearest.get(1).signedDistanceMeters(), 200, 0.01);
+        Assert.assertEquals(nearest.get(1).boundaryDistanceMeters(), 200, 0.01);
+        Assert.assertEquals(nearest.get(2).fence(), far);
+        Assert.assertFalse(nearest.get(2).isInside());
+    }
+
+    @Test(description = "Queries across the antimeridian and near a pole find the true neighbours")
+    public void testWrapAround() {
+        // Arrange
+        Random random = new Random(19);
+        List<Geofence> fences = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            double latitude = i % 2 == 0 ? -10 + random.nextDouble() * 20 : 85 + random.nextDouble() * 5;
+            double longitude = random.nextDouble() * 360 - 180;
+            fences.add(Geofence.of("Fence " + i, latitude, longitude, 100 + random.nextDouble() * 900));
+        }
+        GeofenceProximityIndex index = new GeofenceProximityIndex(fences);
+
+        for (GeoLocation point : new GeoLocation[]{GeoLocation.of(0, 179.99), GeoLocation.of(0, -179.99),
+                GeoLocation.of(89.9, 0), GeoLocation.of(-89, 45)}) {
+            // Act
+            List<FenceDistance> nearest = index.nearest(point, 5);
+
+            // Assert
+            List<FenceDistance> expected = sortAll(fences, point);
+            for (int i = 0; i < 5; i++) {
+                Assert.assertEquals(nearest.get(i).fence(), expected.get(i).fence(), "Rank " + i + " at " + point);
+            }
+        }
+    }
+
+    @Test(description = "k larger than the fence count returns every fence; k of zero returns none")
+    public void testEdgeCounts() {
+        List<Geofence> fences = List.of(Geofence.of("A", 0, 0, 10), Geofence.of("B", 1, 1, 10));
+        GeofenceProximityIndex index = new GeofenceProximityIndex(fences);
+
+        Assert.assertEquals(index.nearest(GeoLocation.of(0, 0), 10).size(), 2);
+        Assert.assertTrue(index.nearest(GeoLocation.of(0, 0), 0).isEmpty());
+        Assert.assertTrue(new GeofenceProximityIndex(List.of()).nearest(GeoLocation.of(0, 0), 3).isEmpty());
+        Assert.assertThrows(IllegalArgumentException.class, () -> index.nearest(GeoLocation.of(0, 0), -1));
+    }
+
+    @Test(description = "GeofenceService answers k-nearest queries over its registry")
+    public void testServiceNearestFences() {
+        // Arrange
+        GeofenceService service = new GeofenceService(new LocationService(null), 100.0);
+        service.getRegistry().register(Geofence.of("Near", 37.7749, -122.4194, 100));
+        service.getRegistry().register(Geofence.of("Far", 38.0, -122.4194, 100));
+
+        // Act
+        List<FenceDistance> first = service.nearestFences(GeoLocation.of(37.7749, -122.4194), 1);
+        service.getRegistry().register(Geofence.of("Nearer", 37.7749, -122.4194, 500));
+        List<FenceDistance> second = service.nearestFences(GeoLocation.of(37.7749, -122.4194), 1);
+
+        // Assert
+        Assert.assertEquals(first.get(0).fence().name(), "Near");
+        Assert.assertEquals(second.get(0).fence().name(), "Nearer");
+    }
+
+    private static List<FenceDistance> sortAll(List<Geofence> fences, GeoLocation point) {
+        List<FenceDistance> all = new ArrayList<>();
+        for (Geofence fence : fences) {
+            all.add(new FenceDistance(fence, point.distanceTo(fence.center()) - fence.radiusMeters()));
+        }
+        all.sort(Comparator.comparingDouble(FenceDistance::signedDistanceMeters));
+        return all;
+    }
+}
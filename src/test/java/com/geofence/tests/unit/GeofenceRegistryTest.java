@@ -0,0 +1,81 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.services.GeofenceRegistry;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class GeofenceRegistryTest {
+
+    @Test(description = "Registry returns exactly the fences a linear Haversine scan finds")
+    public void testFindContainingMatchesLinearScan() {
+        // Arrange
+        Random random = new Random(42);
+        GeofenceRegistry registry = new GeofenceRegistry();
+        List<Geofence> fences = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Geofence fence = Geofence.of("fence-" + i,
+                    37.70 + random.nextDouble() * 0.2,
+                    -122.50 + random.nextDouble() * 0.2,
+                    50 + random.nextDouble() * 2000);
+            fences.add(fence);
+            registry.register(fence);
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            GeoLocation point = GeoLocation.of(37.68 + random.nextDouble() * 0.24,
+                    -122.52 + random.nextDouble() * 0.24);
+
+            // Act
+            Set<Geofence> actual = new HashSet<>(registry.findContaining(point));
+
+            // Assert
+            Set<Geofence> expected = new HashSet<>();
+            for (Geofence fence : fences) {
+                if (point.isWithinRadius(fence.center(), fence.radiusMeters())) {
+                    expected.add(fence);
+                }
+            }
+            Assert.assertEquals(actual, expected, "Mismatch for point " + point);
+        }
+    }
+
+    @Test(description = "Fences crossing the antimeridian are found from both sides")
+    public void testAntimeridianFence() {
+        // Arrange
+        GeofenceRegistry registry = new GeofenceRegistry(0.7);
+        Geofence fence = Geofence.of("Dateline", 0.0, 179.9995, 500);
+        registry.register(fence);
+
+        // Act
+        List<Geofence> east = registry.findContaining(GeoLocation.of(0.0, -179.9999));
+        List<Geofence> west = registry.findContaining(GeoLocation.of(0.0, 179.9990));
+
+        // Assert
+        Assert.assertEquals(east, List.of(fence), "Point east of the dateline should be inside");
+        Assert.assertEquals(west, List.of(fence), "Point west of the dateline should be inside");
+    }
+
+    @Test(description = "Very large fences are kept out of the grid but still matched")
+    public void testOversizedFence() {
+        // Arrange
+        GeofenceRegistry registry = new GeofenceRegistry();
+        Geofence region = Geofence.of("Bay Area", 37.7749, -122.4194, 80_000);
+        registry.register(region);
+
+        // Act
+        List<Geofence> inside = registry.findContaining(GeoLocation.of(37.3382, -121.8863));
+        List<Geofence> outside = registry.findContaining(GeoLocation.of(40.7128, -74.0060));
+
+        // Assert
+        Assert.assertEquals(inside, List.of(region), "San Jose should be inside the region");
+        Assert.assertTrue(outside.isEmpty(), "New York should be outside the region");
+    }
+}
@@ -0,0 +1,128 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.models.GeofenceEvent;
+import com.geofence.models.GeofenceTransition;
+import com.geofence.services.GeofenceTransitionDetector;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class GeofenceTransitionDetectorTest {
+
+    private static final GeoLocation CENTER = GeoLocation.of(37.7749, -122.4194);
+
+    @Test(description = "Entry, dwell and exit are reported once each for a simple path")
+    public void testEnterDwellExit() {
+        // Arrange
+        GeofenceTransitionDetector.EventCollector collector = new GeofenceTransitionDetector.EventCollector();
+        GeofenceTransitionDetector detector = GeofenceTransitionDetector.builder()
+                .fences(List.of(new Geofence("SF", CENTER, 100)))
+                .dwellMillis(10_000)
+                .listener(collector)
+                .build();
+
+        // Act
+        detector.update(1, 0, CENTER.offset(150, 0));
+        detector.update(1, 1_000, CENTER.offset(50, 0));
+        detector.update(1, 5_000, CENTER);
+        detector.update(1, 11_000, CENTER.offset(-20, 0));
+        detector.update(1, 12_000, CENTER.offset(-30, 0));
+        detector.update(1, 13_000, CENTER.offset(-150, 0));
+
+        // Assert
+        Assert.assertEquals(collector.getEvents(), List.of(
+                new GeofenceEvent(1, 0, GeofenceTransition.ENTER, 1_000),
+                new GeofenceEvent(1, 0, GeofenceTransition.DWELL, 11_000),
+                new GeofenceEvent(1, 0, GeofenceTransition.EXIT, 13_000)));
+        Assert.assertFalse(detector.isInside(1, 0));
+    }
+
+    @Test(description = "Hysteresis suppresses flapping on the boundary")
+    public void testHysteresisSuppressesJitter() {
+        // Arrange
+        GeofenceTransitionDetector.EventCollector collector = new GeofenceTransitionDetector.EventCollector();
+        GeofenceTransitionDetector detector = GeofenceTransitionDetector.builder()
+                .fences(List.of(new Geofence("SF", CENTER, 100)))
+                .hysteresisMeters(20)
+                .listener(collector)
+                .build();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            detector.update(7, i * 1_000L, CENTER.offset(i % 2 == 0 ? 95 : 110, 0));
+        }
+
+        // Assert
+        Assert.assertEquals(collector.getEvents(), List.of(new GeofenceEvent(7, 0, GeofenceTransition.ENTER, 0)));
+        Assert.assertTrue(detector.isInside(7, 0), "Jitter within the hysteresis band keeps the device inside");
+    }
+
+    @Test(description = "Detector matches a brute-force oracle for many devices and fences")
+    public void testMatchesBruteForceOracle() {
+        // Arrange
+        Random random = new Random(31);
+        List<Geofence> fences = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            fences.add(Geofence.of("f" + i, 37.70 + random.nextDouble() * 0.1,
+                    -122.50 + random.nextDouble() * 0.1, 50 + random.nextDouble() * 500));
+        }
+        GeofenceTransitionDetector.EventCollector collector = new GeofenceTransitionDetector.EventCollector();
+        GeofenceTransitionDetector detector = GeofenceTransitionDetector.builder()
+                .fences(fences)
+                .hysteresisMeters(15)
+                .dwellMillis(5_000)
+                .listener(collector)
+                .build();
+        List<GeofenceEvent> expected = new ArrayList<>();
+        Map<Long, Long> oracleState = new HashMap<>();
+        GeoLocation[] positions = new GeoLocation[50];
+        for (int d = 0; d < positions.length; d++) {
+            positions[d] = GeoLocation.of(37.70 + random.nextDouble() * 0.1, -122.50 + random.nextDouble() * 0.1);
+        }
+
+        // Act
+        for (long t = 0; t < 400_000; t += 1_000) {
+            for (int d = 0; d < positions.length; d++) {
+                positions[d] = positions[d].offset((random.nextDouble() - 0.5) * 120, (random.nextDouble() - 0.5) * 120);
+                detector.update(d, t, positions[d]);
+                oracleUpdate(fences, oracleState, expected, d, t, positions[d], 15, 5_000);
+            }
+        }
+
+        // Assert
+        Assert.assertEquals(sorted(collector.getEvents()), sorted(expected));
+        Assert.assertTrue(expected.size() > 100, "Random walk should produce plenty of transitions");
+    }
+
+    private void oracleUpdate(List<Geofence> fences, Map<Long, Long> state, List<GeofenceEvent> events,
+                              long device, long t, GeoLocation position, double hysteresis, long dwell) {
+        for (int f = 0; f < fences.size(); f++) {
+            Geofence fence = fences.get(f);
+            long key = device * 100_000 + f;
+            Long enteredAt = state.get(key);
+            if (enteredAt == null) {
+                if (position.isWithinRadius(fence.center(), fence.radiusMeters())) {
+                    state.put(key, t << 1);
+                    events.add(new GeofenceEvent(device, f, GeofenceTransition.ENTER, t));
+                }
+            } else if (!position.isWithinRadius(fence.center(), fence.radiusMeters() + hysteresis)) {
+                state.remove(key);
+                events.add(new GeofenceEvent(device, f, GeofenceTransition.EXIT, t));
+            } else if ((enteredAt & 1) == 0 && t - (enteredAt >>> 1) >= dwell) {
+                state.put(key, enteredAt | 1);
+                events.add(new GeofenceEvent(device, f, GeofenceTransition.DWELL, t));
+            }
+        }
+    }
+
+    private List<String> sorted(List<GeofenceEvent> events) {
+        return events.stream().map(GeofenceEvent::toString).sorted().toList();
+    }
+}
@@ -0,0 +1,113 @@
+package com.geofence.tests.unit;
+
+import com.geofence.geo.GreatCircleTrajectory;
+import com.geofence.models.GeoLocation;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class GreatCircleTrajectoryTest {
+
+    private static final GeoLocation SAN_FRANCISCO = GeoLocation.of(37.7749, -122.4194);
+    private static final GeoLocation NEW_YORK = GeoLocation.of(40.7128, -74.0060);
+
+    @Test(description = "Step trajectories start and end exactly at the endpoints")
+    public void testStepsHitEndpoints() {
+        // Arrange
+        GreatCircleTrajectory.Cursor cursor = GreatCircleTrajectory.between(SAN_FRANCISCO, NEW_YORK).steps(5);
+
+        // Act
+        List<GeoLocation> waypoints = cursor.stream().collect(Collectors.toList());
+
+        // Assert
+        Assert.assertEquals(waypoints.size(), 6);
+        Assert.assertEquals(waypoints.get(0), SAN_FRANCISCO);
+        Assert.assertEquals(waypoints.get(5), NEW_YORK);
+        Assert.assertEquals(waypoints.get(3).getName(), "Step 3");
+    }
+
+    @Test(description = "Waypoints are evenly spaced along the great circle")
+    public void testEvenSpacing() {
+        // Arrange
+        GreatCircleTrajectory trajectory = GreatCircleTrajectory.between(SAN_FRANCISCO, NEW_YORK);
+        double expectedSegment = trajectory.lengthMeters() / 100;
+        GreatCircleTrajectory.Cursor cursor = trajectory.steps(100);
+        GeoLocation previous = null;
+
+        // Act & Assert
+        while (cursor.next()) {
+            GeoLocation current = GeoLocation.of(cursor.latitude(), cursor.longitude());
+            if (previous != null) {
+                Assert.assertEquals(previous.distanceTo(current), expectedSegment, 1e-3);
+                // Every waypoint lies on the great circle: distances via it add up
+                Assert.assertEquals(SAN_FRANCISCO.distanceTo(current) + current.distanceTo(NEW_YORK),
+                        trajectory.lengthMeters(), 1e-3);
+            }
+            previous = current;
+        }
+        Assert.assertEquals(trajectory.lengthMeters(), SAN_FRANCISCO.distanceTo(NEW_YORK), 1e-3);
+    }
+
+    @Test(description = "Meter spacing yields fixed-length segments and a short final segment")
+    public void testMeterSpacing() {
+        // Arrange
+        GeoLocation end = SAN_FRANCISCO.offset(105, 0);
+        GreatCircleTrajectory.Cursor cursor = GreatCircleTrajectory.between(SAN_FRANCISCO, end).spacedMeters(10);
+        double[] lats = new double[cursor.count()];
+        double[] lons = new double[cursor.count()];
+
+        // Act
+        cursor.forEachRemaining((index, latitude, longitude) -> {
+            lats[index] = latitude;
+            lons[index] = longitude;
+        });
+
+        // Assert
+        Assert.assertEquals(cursor.count(), 12);
+        Assert.assertEquals(GeoLocation.of(lats[0], lons[0]).distanceTo(GeoLocation.of(lats[1], lons[1])), 10, 1e-6);
+        Assert.assertEquals(GeoLocation.of(lats[10], lons[10]).distanceTo(end), 5, 1e-6);
+        Assert.assertEquals(lats[11], end.getLatitude());
+    }
+
+    @Test(description = "Time spacing converts speed and interval to meters")
+    public void testSecondSpacing() {
+        // Arrange
+        GreatCircleTrajectory trajectory = GreatCircleTrajectory.between(SAN_FRANCISCO, SAN_FRANCISCO.offset(0, 300));
+
+        // Act
+        GreatCircleTrajectory.Cursor cursor = trajectory.spacedSeconds(2, 15);
+
+        // Assert
+        Assert.assertEquals(cursor.count(), 11);
+    }
+
+    @Test(description = "Paths across the antimeridian take the short way round")
+    public void testAntimeridian() {
+        // Arrange
+        GreatCircleTrajectory.Cursor cursor = GreatCircleTrajectory.between(0, 179.5, 0, -179.5).steps(2);
+
+        // Act
+        cursor.next();
+        cursor.next();
+
+        // Assert
+        Assert.assertEquals(Math.abs(cursor.longitude()), 180.0, 1e-9);
+        Assert.assertEquals(cursor.latitude(), 0.0, 1e-9);
+    }
+
+    @Test(description = "Coincident endpoints produce repeated points and antipodes are rejected")
+    public void testDegenerateEndpoints() {
+        // Arrange
+        GreatCircleTrajectory.Cursor cursor = GreatCircleTrajectory.between(SAN_FRANCISCO, SAN_FRANCISCO).steps(3);
+
+        // Act & Assert
+        while (cursor.next()) {
+            Assert.assertEquals(cursor.latitude(), SAN_FRANCISCO.getLatitude(), 1e-12);
+            Assert.assertEquals(cursor.longitude(), SAN_FRANCISCO.getLongitude(), 1e-12);
+        }
+        Assert.assertEquals(GreatCircleTrajectory.between(SAN_FRANCISCO, SAN_FRANCISCO).spacedMeters(5).count(), 2);
+        Assert.assertThrows(IllegalArgumentException.class, () -> GreatCircleTrajectory.between(10, 20, -10, -160));
+    }
+}
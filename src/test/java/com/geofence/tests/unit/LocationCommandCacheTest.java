@@ -0,0 +1,122 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.services.LocationCommandCache;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class LocationCommandCacheTest {
+
+    private static final GeoLocation CENTER = GeoLocation.of(37.7749, -122.4194);
+
+    @Test(description = "Repeats of the last applied fix never reach the driver")
+    public void testSkipsRepeatedFix() {
+        // Arrange
+        LocationCommandCache cache = new LocationCommandCache();
+        List<GeoLocation> sent = new ArrayList<>();
+        GeoLocation outside = GeoLocation.of(37.7763, -122.4194);
+
+        // Act: place at the center, then start an exit from the center
+        cache.apply(CENTER, sent::add);
+        boolean repeated = cache.apply(GeoLocation.of(37.7749, -122.4194), sent::add);
+        cache.apply(outside, sent::add);
+        cache.apply(CENTER, sent::add);
+
+        // Assert
+        Assert.assertFalse(repeated);
+        Assert.assertEquals(sent, List.of(CENTER, outside, CENTER));
+        Assert.assertEquals(cache.savings().requested(), 4L);
+        Assert.assertEquals(cache.savings().skipped(), 1L);
+        Assert.assertEquals(cache.savings().sent(), 3L);
+    }
+
+    @Test(description = "Fixes beyond the tolerance or at another altitude are sent")
+    public void testToleranceAndAltitude() {
+        // Arrange: 1.1 m apart
+        LocationCommandCache cache = new LocationCommandCache(1.0);
+        List<GeoLocation> sent = new ArrayList<>();
+        GeoLocation nearby = GeoLocation.of(37.77490005, -122.4194);
+        GeoLocation farther = GeoLocation.of(37.77491, -122.4194);
+        GeoLocation higher = GeoLocation.builder().latitude(37.77491).longitude(-122.4194).altitude(30.0).build();
+
+        // Act
+        cache.apply(CENTER, sent::add);
+        cache.apply(nearby, sent::add);
+        cache.apply(farther, sent::add);
+        cache.apply(higher, sent::add);
+
+        // Assert
+        Assert.assertEquals(sent, List.of(CENTER, farther, higher));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new LocationCommandCache(-1));
+    }
+
+    @Test(description = "A failed or externally changed fix is not trusted")
+    public void testFailureAndInvalidateForgetFix() {
+        // Arrange
+        LocationCommandCache cache = new LocationCommandCache();
+        List<GeoLocation> sent = new ArrayList<>();
+
+        // Act
+        Assert.assertThrows(IllegalStateException.class, () -> cache.apply(CENTER, location -> {
+            throw new IllegalStateException("session lost");
+        }));
+        cache.apply(CENTER, sent::add);
+        cache.invalidate();
+        cache.apply(CENTER, sent::add);
+
+        // Assert
+        Assert.assertEquals(sent, List.of(CENTER, CENTER));
+        Assert.assertEquals(cache.savings().saved(), 0L);
+    }
+
+    @Test(description = "Commands queued behind an in-flight one collapse to the newest")
+    public void testCollapsesSupersededBurst() throws InterruptedException {
+        // Arrange: the first command blocks in the driver until released
+        LocationCommandCache cache = new LocationCommandCache();
+        List<GeoLocation> sent = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread first = Thread.ofVirtual().start(() -> cache.apply(CENTER, location -> {
+            started.countDown();
+            awaitQuietly(release);
+            sent.add(location);
+        }));
+        started.await();
+
+        // Act: five more fixes arrive while the driver is busy
+        List<Thread> burst = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            GeoLocation waypoint = GeoLocation.of(37.7749 + i * 0.0001, -122.4194);
+            burst.add(Thread.ofVirtual().start(() -> cache.apply(waypoint, sent::add)));
+        }
+        // Release the driver only once all five are queued behind it
+        while (cache.waitingCount() < 5) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        first.join();
+        for (Thread thread : burst) {
+            thread.join();
+        }
+
+        // Assert: only the newest of the burst was sent
+        Assert.assertEquals(sent.size(), 2);
+        Assert.assertEquals(sent.get(0), CENTER);
+        Assert.assertEquals(cache.savings().collapsed(), 4L);
+        Assert.assertEquals(cache.savings().sent(), 2L);
+        Assert.assertEquals(cache.waitingCount(), 0);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
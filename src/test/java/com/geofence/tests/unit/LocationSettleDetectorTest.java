@@ -0,0 +1,170 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Platform;
+import com.geofence.services.LocationSettleDetector;
+import com.geofence.services.SettleTimeHistogram;
+import com.geofence.time.VirtualClock;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LocationSettleDetectorTest {
+
+    private static final GeoLocation TARGET = GeoLocation.of(37.7749, -122.4194);
+
+    @Test(description = "Returns as soon as the probe confirms the fix, backing off between polls")
+    public void testReturnsOnceSettled() {
+        // Arrange: the device reports the new fix on the fourth poll
+        AtomicInteger polls = new AtomicInteger();
+        SettleTimeHistogram histogram = new SettleTimeHistogram();
+        VirtualClock clock = new VirtualClock();
+        LocationSettleDetector detector = LocationSettleDetector.builder()
+                .probe(target -> polls.incrementAndGet() >= 4)
+                .initialPollMillis(5)
+                .maxPollMillis(10)
+                .histogram(histogram)
+                .clock(clock)
+                .build();
+
+        // Act
+        boolean settled = detector.awaitSettled(TARGET);
+
+        // Assert: waits of 5, 10 and 10 ms between the four polls
+        Assert.assertTrue(settled);
+        Assert.assertEquals(polls.get(), 4);
+        Assert.assertEquals(clock.elapsedMillis(), 25L);
+        Assert.assertEquals(clock.sleepCount(), 3L);
+        Assert.assertEquals(histogram.count(), 1L);
+        Assert.assertEquals(histogram.timeouts(), 0L);
+    }
+
+    @Test(description = "Gives up at the timeout and counts it")
+    public void testTimesOut() {
+        // Arrange
+        SettleTimeHistogram histogram = new SettleTimeHistogram();
+        VirtualClock clock = new VirtualClock();
+        LocationSettleDetector detector = LocationSettleDetector.builder()
+                .probe(target -> false)
+                .initialPollMillis(10)
+                .maxPollMillis(40)
+                .timeoutMillis(100)
+                .histogram(histogram)
+                .clock(clock)
+                .build();
+
+        // Act
+        boolean settled = detector.awaitSettled(TARGET);
+
+        // Assert: waits of 10, 20 and 40 ms, then the last wait is cut to just past the deadline
+        Assert.assertTrue(!settled);
+        Assert.assertEquals(clock.elapsedMillis(), 101L);
+        Assert.assertEquals(histogram.count(), 0L);
+        Assert.assertEquals(histogram.timeouts(), 1L);
+    }
+
+    @Test(description = "A probe the driver cannot serve falls back to the fixed wait and is not retried")
+    public void testFallsBackWhenProbeFails() {
+        // Arrange
+        AtomicInteger polls = new AtomicInteger();
+        VirtualClock clock = new VirtualClock();
+        LocationSettleDetector detector = LocationSettleDetector.builder()
+                .platform(Platform.IOS)
+                .probe(target -> {
+                    polls.incrementAndGet();
+                    throw new UnsupportedOperationException("location not supported");
+                })
+                .fallbackMillis(20)
+                .histogram(new SettleTimeHistogram())
+                .clock(clock)
+                .build();
+
+        // Act
+        boolean first = detector.awaitSettled(TARGET);
+        boolean second = detector.awaitSettled(TARGET);
+
+        // Assert
+        Assert.assertTrue(!first && !second);
+        Assert.assertEquals(polls.get(), 1, "The failing probe should only be tried once");
+        Assert.assertEquals(clock.elapsedMillis(), 40L, "Both calls should wait the fallback");
+    }
+
+    @Test(description = "A transient probe failure counts as a failed poll and never disables probing")
+    public void testTransientProbeFailureKeepsPolling() {
+        // Arrange: the first two polls of each wait hit a dropped connection
+        AtomicInteger polls = new AtomicInteger();
+        VirtualClock clock = new VirtualClock();
+        LocationSettleDetector detector = LocationSettleDetector.builder()
+                .probe(target -> {
+                    if (polls.incrementAndGet() % 3 != 0) {
+                        throw new WebDriverException("connection reset");
+                    }
+                    return true;
+                })
+                .fallbackMillis(500)
+                .histogram(new SettleTimeHistogram())
+                .clock(clock)
+                .build();
+
+        // Act
+        boolean first = detector.awaitSettled(TARGET);
+        boolean second = detector.awaitSettled(TARGET);
+
+        // Assert: each wait polled three times, backing off 25 then 50 ms, and never fell back
+        Assert.assertTrue(first && second);
+        Assert.assertEquals(polls.get(), 6);
+        Assert.assertEquals(clock.elapsedMillis(), 150L);
+    }
+
+    @Test(description = "Log signal probe settles on the first matching new line")
+    public void testLogSignalProbe() {
+        // Arrange
+        List<List<String>> batches = new ArrayList<>(List.of(
+                List.of("GnssLocationProvider: reportLocation idle"),
+                List.of(),
+                List.of("GeofenceApp: fix applied 37.7749,-122.4194")));
+        LocationSettleDetector.SettleProbe probe = LocationSettleDetector.SettleProbe.logSignal(
+                () -> batches.isEmpty() ? List.of() : batches.remove(0), line -> line.contains("fix applied"));
+        LocationSettleDetector detector = LocationSettleDetector.builder()
+                .probe(probe)
+                .initialPollMillis(1)
+                .histogram(new SettleTimeHistogram())
+                .build();
+
+        // Act
+        boolean settled = detector.awaitSettled(TARGET);
+
+        // Assert
+        Assert.assertTrue(settled);
+        Assert.assertTrue(batches.isEmpty());
+    }
+
+    @Test(description = "Histogram percentiles report power-of-two bucket bounds")
+    public void testHistogramPercentiles() {
+        // Arrange
+        SettleTimeHistogram histogram = new SettleTimeHistogram();
+
+        // Act: 90 fast settles of 3 ms and 10 slow ones of 700 ms
+        for (int i = 0; i < 90; i++) {
+            histogram.record(3_000_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(700_000_000);
+        }
+        histogram.recordTimeout();
+
+        // Assert
+        Assert.assertEquals(histogram.count(), 100L);
+        Assert.assertEquals(histogram.timeouts(), 1L);
+        Assert.assertEquals(histogram.percentileMillis(50), 4.0, 1e-9);
+        Assert.assertEquals(histogram.percentileMillis(90), 4.0, 1e-9);
+        Assert.assertEquals(histogram.percentileMillis(99), 700.0, 1e-9, "Capped at the observed maximum");
+        Assert.assertEquals(histogram.meanMillis(), 72.7, 1e-9);
+        Assert.assertEquals(histogram.bucketCount(2), 90L);
+        Assert.assertThrows(IllegalArgumentException.class, () -> histogram.percentileMillis(101));
+    }
+}
@@ -0,0 +1,46 @@
+package com.geofence.tests.unit;
+
+import com.geofence.utils.LongLongHashMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongLongHashMapTest {
+
+    @Test(description = "Random puts and removes agree with java.util.HashMap")
+    public void testMatchesHashMap() {
+        // Arrange
+        Random random = new Random(8);
+        LongLongHashMap map = new LongLongHashMap(4);
+        Map<Long, Long> reference = new HashMap<>();
+
+        // Act
+        for (int i = 0; i < 500_000; i++) {
+            long key = random.nextInt(5_000) - 2_500L;
+            if (i % 1000 == 0) {
+                key = Long.MIN_VALUE;
+            }
+            if (random.nextBoolean()) {
+                long value = random.nextLong();
+                map.put(key, value);
+                reference.put(key, value);
+            } else {
+                Assert.assertEquals(map.remove(key), reference.remove(key) != null, "remove " + key);
+            }
+        }
+
+        // Assert
+        Assert.assertEquals(map.size(), reference.size());
+        for (long key = -2_500; key < 2_500; key++) {
+            Assert.assertEquals(map.get(key, -1), reference.getOrDefault(key, -1L).longValue(), "get " + key);
+        }
+        Assert.assertEquals(map.containsKey(Long.MIN_VALUE), reference.containsKey(Long.MIN_VALUE));
+
+        Map<Long, Long> visited = new HashMap<>();
+        map.forEach((key, value) -> Assert.assertNull(visited.put(key, value), "visited twice " + key));
+        Assert.assertEquals(visited, reference);
+    }
+}
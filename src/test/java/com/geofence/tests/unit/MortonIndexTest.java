@@ -0,0 +1,180 @@
+package com.geofence.tests.unit;
+
+import com.geofence.geo.Geohash;
+import com.geofence.geo.Haversine;
+import com.geofence.geo.Morton;
+import com.geofence.geo.MortonIndex;
+import com.geofence.models.BoundingBox;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class MortonIndexTest {
+
+    @Test(description = "Geohash matches the reference encoding and its cell holds the point")
+    public void testGeohashReferenceValue() {
+        // Act
+        String geohash = Geohash.encode(57.64911, 10.40744, 11);
+        BoundingBox bounds = Geohash.bounds(geohash);
+
+        // Assert
+        Assert.assertEquals(geohash, "u4pruydqqvj");
+        Assert.assertTrue(bounds.contains(57.64911, 10.40744));
+        Assert.assertEquals(Geohash.bounds("u").minLatitude(), 45.0, 1e-12);
+        Assert.assertEquals(Geohash.bounds("u").maxLongitude(), 45.0, 1e-12);
+        Assert.assertEquals(Geohash.fromKey(Geohash.toKeyPrefix("9q8yyk"), 6), "9q8yyk");
+        Assert.assertThrows(IllegalArgumentException.class, () -> Geohash.toKeyPrefix("9qa"));
+    }
+
+    @Test(description = "Morton keys decode to within a centimeter and share geohash prefixes")
+    public void testMortonRoundTrip() {
+        // Arrange
+        Random random = new Random(16);
+
+        for (int i = 0; i < 10_000; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+
+            // Act
+            long key = Morton.encode(latitude, longitude);
+
+            // Assert
+            Assert.assertTrue(key >= 0);
+            Assert.assertTrue(Haversine.distance(latitude, longitude, Morton.latitude(key), Morton.longitude(key)) < 0.02);
+            Assert.assertEquals(Morton.prefix(key, 30), Geohash.toKeyPrefix(Geohash.encode(latitude, longitude, 6)));
+        }
+    }
+
+    @Test(description = "Bulk load sorts keys and keeps ids attached")
+    public void testBulkLoadSorts() {
+        // Arrange
+        Random random = new Random(17);
+        MortonIndex.Builder builder = MortonIndex.builder(0);
+        long[] expected = new long[50_000];
+        for (int i = 0; i < expected.length; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            expected[i] = Morton.encode(latitude, longitude);
+            builder.add(latitude, longitude, i);
+        }
+        long[] byId = expected.clone();
+        Arrays.sort(expected);
+
+        // Act
+        MortonIndex index = builder.build();
+
+        // Assert
+        Assert.assertEquals(index.size(), expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(index.key(i), expected[i]);
+            Assert.assertEquals(index.key(i), byId[index.id(i)]);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextLong() >>> (64 - Morton.KEY_BITS);
+            int expectedBound = Arrays.binarySearch(expected, key);
+            if (expectedBound < 0) {
+                expectedBound = -expectedBound - 1;
+            }
+            Assert.assertEquals(index.lowerBound(key), expectedBound, "Lower bound of " + key);
+        }
+        Assert.assertEquals(index.lowerBound(expected[0]), 0);
+        Assert.assertEquals(index.lowerBound(Long.MAX_VALUE), expected.length);
+    }
+
+    @Test(description = "Geohash cell scan returns exactly the points in the cell")
+    public void testCellScanMatchesBruteForce() {
+        // Arrange
+        Random random = new Random(18);
+        List<GeoLocation> locations = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            locations.add(GeoLocation.of(37.70 + random.nextDouble() * 0.15, -122.50 + random.nextDouble() * 0.15));
+        }
+        MortonIndex index = MortonIndex.ofLocations(locations);
+        String cell = Geohash.encode(37.7749, -122.4194, 6);
+        int expected = 0;
+        for (GeoLocation location : locations) {
+            if (Geohash.encode(location, 6).equals(cell)) {
+                expected++;
+            }
+        }
+        int[] seen = new int[1];
+
+        // Act
+        int count = index.forEachInCell(cell, (id, key) -> {
+            Assert.assertEquals(Geohash.encode(locations.get(id), 6), cell);
+            seen[0]++;
+        });
+
+        // Assert
+        Assert.assertEquals(count, expected);
+        Assert.assertEquals(seen[0], expected);
+        Assert.assertTrue(expected > 0);
+    }
+
+    @Test(description = "Radius queries match a linear scan, including near the antimeridian and poles")
+    public void testWithinRadiusMatchesBruteForce() {
+        // Arrange
+        Random random = new Random(19);
+        double[][] centers = {{37.7749, -122.4194}, {-16.5, 179.999}, {89.95, 10}, {0, 0}};
+        List<GeoLocation> locations = new ArrayList<>();
+        for (double[] center : centers) {
+            for (int i = 0; i < 5_000; i++) {
+                GeoLocation base = GeoLocation.of(center[0], center[1]);
+                locations.add(base.offset((random.nextDouble() - 0.5) * 4_000, (random.nextDouble() - 0.5) * 4_000));
+            }
+        }
+        MortonIndex index = MortonIndex.ofLocations(locations);
+        int[] out = new int[locations.size()];
+
+        for (double[] center : centers) {
+            for (double radius : new double[]{0, 50, 500, 1_500, 100_000}) {
+                int expected = 0;
+                for (int i = 0; i < index.size(); i++) {
+                    if (Haversine.distance(center[0], center[1], index.latitude(i), index.longitude(i)) <= radius) {
+                        expected++;
+                    }
+                }
+
+                // Act
+                int count = index.withinRadius(center[0], center[1], radius, out);
+
+                // Assert
+                Assert.assertEquals(count, expected, "Matches at " + Arrays.toString(center) + " r=" + radius);
+            }
+        }
+    }
+
+    @Test(description = "Fence centers within the largest radius give every containing fence")
+    public void testFenceCandidates() {
+        // Arrange
+        Random random = new Random(20);
+        List<Geofence> fences = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            fences.add(Geofence.of("Fence " + i, 37.70 + random.nextDouble() * 0.1,
+                    -122.50 + random.nextDouble() * 0.1, 50 + random.nextDouble() * 450));
+        }
+        MortonIndex index = MortonIndex.ofFences(fences);
+        int[] candidates = new int[fences.size()];
+        GeoLocation point = GeoLocation.of(37.75, -122.45);
+
+        // Act
+        int count = index.withinRadius(point, 500, candidates);
+        int containing = 0;
+        for (int i = 0; i < count; i++) {
+            if (fences.get(candidates[i]).contains(point)) {
+                containing++;
+            }
+        }
+
+        // Assert
+        long expected = fences.stream().filter(fence -> fence.contains(point)).count();
+        Assert.assertEquals(containing, expected);
+        Assert.assertTrue(count < fences.size() / 4);
+    }
+}
@@ -0,0 +1,198 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.services.MovementTimeline;
+import com.geofence.services.RouteReplayer;
+import com.geofence.time.VirtualClock;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+public class MovementTimelineTest {
+
+    @Test(description = "Waypoints land on absolute deadlines instead of drifting by the command latency")
+    public void testCompensatesCommandLatency() {
+        // Arrange: 30 ms commands every 50 ms; sleeping after each command would take 800 ms
+        VirtualClock clock = new VirtualClock();
+        List<GeoLocation> applied = Collections.synchronizedList(new ArrayList<>());
+        MovementTimeline timeline = MovementTimeline.builder()
+                .target(virtualDevice(clock, 30, applied))
+                .intervalMillis(50)
+                .clock(clock)
+                .build();
+
+        // Act
+        MovementTimeline.TimelineReport report = timeline.run(waypoints(10));
+
+        // Assert: the last deadline is 450 ms after the start and no push lands a full command late
+        Assert.assertEquals(report.waypointsPushed(), 10L);
+        Assert.assertEquals(report.waypointsSkipped(), 0L);
+        Assert.assertEquals(applied, waypoints(10));
+        Assert.assertEquals(report.wallMillis(), 450.0, 1e-9, report.toString());
+        Assert.assertEquals(report.meanCommandLatencyMillis(), 30.0, 1e-9, report.toString());
+        Assert.assertEquals(report.meanLatenessMillis(), 4.0, 1e-9, report.toString());
+        Assert.assertEquals(report.maxLatenessMillis(), 30.0, 1e-9, report.toString());
+    }
+
+    @Test(description = "SKIP drops superseded waypoints but always pushes the destination")
+    public void testSkipPolicyKeepsSchedule() {
+        // Arrange: commands far slower than the 10 ms interval
+        VirtualClock clock = new VirtualClock();
+        List<GeoLocation> applied = Collections.synchronizedList(new ArrayList<>());
+        MovementTimeline timeline = MovementTimeline.builder()
+                .target(virtualDevice(clock, 60, applied))
+                .intervalMillis(10)
+                .lagPolicy(RouteReplayer.LagPolicy.SKIP)
+                .clock(clock)
+                .build();
+
+        // Act
+        MovementTimeline.TimelineReport report = timeline.run(waypoints(30));
+
+        // Assert: five 60 ms pushes cover the 290 ms schedule
+        Assert.assertEquals(report.waypointsPushed(), 5L, report.toString());
+        Assert.assertEquals(report.waypointsSkipped(), 25L, report.toString());
+        Assert.assertEquals(applied.size(), 5);
+        Assert.assertEquals(applied.get(applied.size() - 1), waypoints(30).get(29));
+        Assert.assertEquals(report.wallMillis(), 300.0, 1e-9, report.toString());
+    }
+
+    @Test(description = "On the wall clock SHIFT pushes every waypoint in order when commands overrun the interval")
+    public void testShiftPolicyPushesEveryWaypoint() {
+        // Arrange
+        List<GeoLocation> applied = Collections.synchronizedList(new ArrayList<>());
+        MovementTimeline timeline = MovementTimeline.builder()
+                .target(slowDevice(20, applied))
+                .intervalMillis(5)
+                .build();
+
+        // Act
+        MovementTimeline.TimelineReport report = timeline.run(waypoints(8));
+
+        // Assert
+        Assert.assertEquals(applied, waypoints(8));
+        Assert.assertEquals(report.waypointsSkipped(), 0L);
+        Assert.assertTrue(report.wallMillis() >= 160, report.toString());
+    }
+
+    @Test(description = "A failed push stops the run and surfaces the error")
+    public void testFailedPushPropagates() {
+        // Arrange
+        List<GeoLocation> applied = new ArrayList<>();
+        MovementTimeline timeline = MovementTimeline.builder()
+                .target(location -> {
+                    if (applied.size() == 2) {
+                        throw new UnsupportedOperationException("session lost");
+                    }
+                    applied.add(location);
+                })
+                .intervalMillis(0)
+                .build();
+
+        // Act / Assert
+        Assert.assertThrows(UnsupportedOperationException.class, () -> timeline.run(waypoints(5)));
+        Assert.assertEquals(applied.size(), 2);
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> MovementTimeline.builder().target(location -> { }).intervalMillis(-1).build());
+    }
+
+    @Test(description = "An Error from the target fails the run instead of leaving it blocked", timeOut = 10_000)
+    public void testErrorFromTargetPropagates() {
+        // Arrange
+        MovementTimeline timeline = MovementTimeline.builder()
+                .target(location -> {
+                    throw new AssertionError("unexpected fix");
+                })
+                .intervalMillis(0)
+                .build();
+
+        // Act / Assert
+        AssertionError error = Assert.expectThrows(AssertionError.class, () -> timeline.run(waypoints(3)));
+        Assert.assertEquals(error.getMessage(), "unexpected fix");
+    }
+
+    @Test(description = "An interrupt waits for the push in flight and pushes nothing after it", timeOut = 10_000)
+    public void testInterruptWaitsForInFlightPush() throws Exception {
+        // Arrange: the first command blocks until released
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<GeoLocation> applied = Collections.synchronizedList(new ArrayList<>());
+        MovementTimeline timeline = MovementTimeline.builder()
+                .target(location -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    applied.add(location);
+                })
+                .intervalMillis(0)
+                .build();
+        AtomicReference<MovementTimeline.TimelineReport> report = new AtomicReference<>();
+        AtomicInteger appliedAtReturn = new AtomicInteger(-1);
+        AtomicBoolean interruptRestored = new AtomicBoolean();
+        Thread runner = new Thread(() -> {
+            report.set(timeline.run(waypoints(5)));
+            appliedAtReturn.set(applied.size());
+            interruptRestored.set(Thread.currentThread().isInterrupted());
+        });
+
+        // Act
+        runner.start();
+        entered.await();
+        runner.interrupt();
+        // Release only once run() has seen the interrupt and is waiting on the push
+        Thread.State state;
+        while ((state = runner.getState()) != Thread.State.TIMED_WAITING && state != Thread.State.TERMINATED) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        runner.join();
+
+        // Assert: run returned only after the first command landed, and no other was sent
+        Assert.assertEquals(appliedAtReturn.get(), 1);
+        Assert.assertEquals(report.get().waypointsPushed(), 1L, report.get().toString());
+        Assert.assertTrue(interruptRestored.get());
+        Assert.assertEquals(applied.size(), 1);
+    }
+
+    /**
+     * Device whose commands take commandMillis of virtual time.
+     */
+    private static Consumer<GeoLocation> virtualDevice(VirtualClock clock, long commandMillis,
+                                                       List<GeoLocation> applied) {
+        return location -> {
+            clock.advance(TimeUnit.MILLISECONDS.toNanos(commandMillis));
+            applied.add(location);
+        };
+    }
+
+    private static Consumer<GeoLocation> slowDevice(long commandMillis, List<GeoLocation> applied) {
+        return location -> {
+            try {
+                Thread.sleep(commandMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            applied.add(location);
+        };
+    }
+
+    private static List<GeoLocation> waypoints(int count) {
+        List<GeoLocation> waypoints = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            waypoints.add(GeoLocation.of(37.7749 + i * 0.0001, -122.4194));
+        }
+        return waypoints;
+    }
+}
@@ -0,0 +1,103 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.models.PolygonGeofence;
+import com.geofence.models.PreparedPolygonGeofence;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Random;
+
+public class PolygonGeofenceTest {
+
+    private static final PolygonGeofence SQUARE = PolygonGeofence.of("Square",
+            new double[]{0, 0, 1, 1}, new double[]{0, 1, 1, 0});
+
+    @Test(description = "Ray casting separates inside and outside points of a square")
+    public void testSquareContainment() {
+        Assert.assertTrue(SQUARE.contains(0.5, 0.5));
+        Assert.assertFalse(SQUARE.contains(1.5, 0.5));
+        Assert.assertFalse(SQUARE.contains(0.5, -0.5));
+        Assert.assertTrue(SQUARE.prepare().contains(0.5, 0.5));
+        Assert.assertFalse(SQUARE.prepare(8).contains(-0.5, 0.5));
+    }
+
+    @Test(description = "Closing vertex is dropped and degenerate rings are rejected")
+    public void testConstruction() {
+        // Arrange
+        List<GeoLocation> ring = List.of(GeoLocation.of(0, 0), GeoLocation.of(0, 1),
+                GeoLocation.of(1, 1), GeoLocation.of(0, 0));
+
+        // Act
+        PolygonGeofence triangle = PolygonGeofence.of("Triangle", ring);
+
+        // Assert
+        Assert.assertEquals(triangle.getVertexCount(), 3);
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> PolygonGeofence.of("Line", new double[]{0, 1}, new double[]{0, 1}));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> PolygonGeofence.of("Bad", new double[]{0, 1, 95}, new double[]{0, 1, 2}));
+    }
+
+    @Test(description = "Prepared polygons agree with the full edge scan for every point")
+    public void testPreparedMatchesNaive() {
+        // Arrange
+        Random random = new Random(9);
+        for (int vertices : new int[]{3, 10, 1000, 20_000}) {
+            PolygonGeofence polygon = randomStar(random, vertices);
+            PreparedPolygonGeofence banded = polygon.prepare();
+            PreparedPolygonGeofence rastered = polygon.prepare(64);
+
+            for (int i = 0; i < 20_000; i++) {
+                // Mix random points with points on and next to vertices
+                double lat;
+                double lon;
+                if (random.nextBoolean()) {
+                    lat = 37.7 + (random.nextDouble() - 0.5) * 0.03;
+                    lon = -122.4 + (random.nextDouble() - 0.5) * 0.03;
+                } else {
+                    int v = random.nextInt(vertices);
+                    lat = polygon.getLatitude(v) + (random.nextInt(3) - 1) * 1e-12;
+                    lon = polygon.getLongitude(v) + (random.nextInt(3) - 1) * 1e-12;
+                }
+
+                // Act
+                boolean expected = polygon.contains(lat, lon);
+
+                // Assert
+                Assert.assertEquals(banded.contains(lat, lon), expected, "Banded at " + lat + "," + lon);
+                Assert.assertEquals(rastered.contains(lat, lon), expected, "Rastered at " + lat + "," + lon);
+            }
+        }
+    }
+
+    @Test(description = "Raster decides most cells of a simple polygon without edge tests")
+    public void testRasterBoundaryFraction() {
+        // Arrange
+        PolygonGeofence polygon = randomStar(new Random(1), 50);
+
+        // Act
+        PreparedPolygonGeofence prepared = polygon.prepare(256);
+
+        // Assert
+        Assert.assertTrue(prepared.getBoundaryCellFraction() < 0.1,
+                "Boundary fraction " + prepared.getBoundaryCellFraction());
+        Assert.assertEquals(polygon.prepare().getBoundaryCellFraction(), 1.0);
+    }
+
+    /**
+     * Star-shaped polygon around San Francisco with random radii, so it is simple but concave.
+     */
+    private static PolygonGeofence randomStar(Random random, int vertices) {
+        double[] lats = new double[vertices];
+        double[] lons = new double[vertices];
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            double radius = 0.002 + random.nextDouble() * 0.01;
+            lats[i] = 37.7 + radius * Math.sin(angle);
+            lons[i] = -122.4 + radius * Math.cos(angle);
+        }
+        return PolygonGeofence.of("Star", lats, lons);
+    }
+}
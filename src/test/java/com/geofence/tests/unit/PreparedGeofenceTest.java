@@ -0,0 +1,44 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.models.PreparedGeofence;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+public class PreparedGeofenceTest {
+
+    @Test(description = "Prepared fence gives the same distance and containment as GeoLocation")
+    public void testMatchesGeoLocation() {
+        // Arrange
+        Random random = new Random(77);
+
+        for (int i = 0; i < 100_000; i++) {
+            GeoLocation center = GeoLocation.of(random.nextDouble() * 170 - 85, random.nextDouble() * 360 - 180);
+            double radius = Math.pow(10, random.nextDouble() * 5);
+            PreparedGeofence fence = PreparedGeofence.of(center, radius);
+            double scale = random.nextBoolean() ? 1 + (random.nextDouble() - 0.5) * 1e-8 : random.nextDouble() * 3;
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            GeoLocation point = center.offset(Math.cos(bearing) * radius * scale, Math.sin(bearing) * radius * scale);
+
+            // Act
+            boolean inside = fence.contains(point);
+            double distance = fence.distanceTo(point);
+
+            // Assert
+            Assert.assertEquals(inside, point.isWithinRadius(center, radius), "Containment for " + point);
+            Assert.assertEquals(distance, center.distanceTo(point), 0.0, "Distance for " + point);
+        }
+    }
+
+    @Test(description = "Angular radius is the radius divided by the Earth radius")
+    public void testAngularRadius() {
+        // Arrange
+        PreparedGeofence fence = PreparedGeofence.of(GeoLocation.of(37.7749, -122.4194), 6371.0);
+
+        // Act & Assert
+        Assert.assertEquals(fence.getAngularRadius(), 0.001, 1e-15);
+        Assert.assertEquals(fence.getCosLatitude(), Math.cos(Math.toRadians(37.7749)), 0.0);
+    }
+}
@@ -0,0 +1,326 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.routes.RouteFix;
+import com.geofence.routes.RouteFormat;
+import com.geofence.routes.RouteReader;
+import com.geofence.routes.RouteReaders;
+import com.geofence.services.RouteReplayer;
+import com.geofence.time.VirtualClock;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class RouteReplayTest {
+
+    private static final GeoLocation GEOFENCE_CENTER = GeoLocation.of(37.7749, -122.4194);
+    private static final long START_MILLIS = Instant.parse("2024-05-01T17:30:00Z").toEpochMilli();
+
+    @DataProvider(name = "routeFiles")
+    public Object[][] routeFiles() {
+        return new Object[][]{
+                {"testdata/routes/sf-walk.gpx"},
+                {"testdata/routes/sf-walk.nmea"},
+                {"testdata/routes/sf-walk.csv"}
+        };
+    }
+
+    @Test(description = "Every format yields the same walk into the geofence", dataProvider = "routeFiles")
+    public void testReadRoute(String path) {
+        // Arrange
+        List<RouteFix> fixes = new ArrayList<>();
+
+        // Act
+        try (RouteReader reader = RouteReaders.openResource(path)) {
+            RouteFix fix;
+            while ((fix = reader.next()) != null) {
+                fixes.add(fix);
+            }
+        }
+
+        // Assert
+        Assert.assertEquals(fixes.size(), 11);
+        Assert.assertEquals(fixes.get(0).timestampMillis(), START_MILLIS);
+        Assert.assertEquals(fixes.get(10).timestampMillis(), START_MILLIS + 20_000);
+        Assert.assertEquals(fixes.get(0).toGeoLocation().distanceTo(GEOFENCE_CENTER), 150, 0.5);
+        Assert.assertEquals(fixes.get(10).toGeoLocation().distanceTo(GEOFENCE_CENTER), 0, 0.5);
+    }
+
+    @Test(description = "NMEA sentences with bad checksums or no fix are skipped")
+    public void testNmeaValidation() {
+        // Arrange
+        String log = String.join("\n",
+                "$GPRMC,173000.00,A,3746.5749,N,12225.1640,W,0.0,180.0,010524,,,A*4F",
+                "$GPRMC,173001.00,V,,,,,,,010524,,,N",
+                "$GPGSV,3,1,11,01,40,083,46*7C",
+                "$GNGGA,173002.00,3746.5668,S,12225.1640,E,1,08,0.9,12.5,M,-25.0,M,,",
+                "garbage");
+
+        // Act
+        List<RouteFix> fixes = readAll(log, RouteFormat.NMEA);
+
+        // Assert
+        Assert.assertEquals(fixes.size(), 1);
+        Assert.assertEquals(fixes.get(0).latitude(), -(37 + 46.5668 / 60), 1e-9);
+        Assert.assertEquals(fixes.get(0).longitude(), 122 + 25.164 / 60, 1e-9);
+        Assert.assertEquals(fixes.get(0).altitude(), 12.5);
+    }
+
+    @Test(description = "A dated RMC at midnight advances the date once, and GGA altitude merges in either order")
+    public void testNmeaMidnightRollover() {
+        // Arrange: RMC before GGA, as most receivers emit them
+        String log = String.join("\n",
+                "$GPRMC,235959.00,A,3746.5749,N,12225.1640,W,0.0,180.0,310524,,,A",
+                "$GPGGA,235959.00,3746.5749,N,12225.1640,W,1,08,0.9,12.0,M,-25.0,M,,",
+                "$GPRMC,000000.00,A,3746.5668,N,12225.1640,W,0.0,180.0,010624,,,A",
+                "$GPGGA,000000.00,3746.5668,N,12225.1640,W,1,08,0.9,12.5,M,-25.0,M,,",
+                "$GPGGA,000001.00,3746.5588,N,12225.1640,W,1,08,0.9,13.0,M,-25.0,M,,",
+                "$GPRMC,000001.00,A,3746.5588,N,12225.1640,W,0.0,180.0,010624,,,A");
+        long midnight = Instant.parse("2024-06-01T00:00:00Z").toEpochMilli();
+
+        // Act
+        List<RouteFix> fixes = readAll(log, RouteFormat.NMEA);
+
+        // Assert
+        Assert.assertEquals(fixes.size(), 3);
+        Assert.assertEquals(fixes.get(0).timestampMillis(), midnight - 1000);
+        Assert.assertEquals(fixes.get(1).timestampMillis(), midnight);
+        Assert.assertEquals(fixes.get(2).timestampMillis(), midnight + 1000);
+        Assert.assertEquals(fixes.get(0).altitude(), 12.0);
+        Assert.assertEquals(fixes.get(1).altitude(), 12.5);
+        Assert.assertEquals(fixes.get(2).altitude(), 13.0);
+    }
+
+    @Test(description = "Undated midnight rollover still advances the day, and a bogus RMC date keeps the previous one")
+    public void testNmeaUndatedRolloverAndBogusDate() {
+        // Arrange
+        String ggaOnly = String.join("\n",
+                "$GPGGA,235959.00,3746.5749,N,12225.1640,W,1,08,0.9,12.0,M,-25.0,M,,",
+                "$GPGGA,000000.00,3746.5668,N,12225.1640,W,1,08,0.9,12.5,M,-25.0,M,,");
+        String bogusDate = String.join("\n",
+                "$GPRMC,173000.00,A,3746.5749,N,12225.1640,W,0.0,180.0,010524,,,A",
+                "$GPRMC,173002.00,A,3746.5668,N,12225.1640,W,0.0,180.0,000000,,,A");
+
+        // Act
+        List<RouteFix> undated = readAll(ggaOnly, RouteFormat.NMEA);
+        List<RouteFix> dated = readAll(bogusDate, RouteFormat.NMEA);
+
+        // Assert
+        Assert.assertEquals(undated.size(), 2);
+        Assert.assertEquals(undated.get(0).timestampMillis(), 86_399_000L);
+        Assert.assertEquals(undated.get(1).timestampMillis(), 86_400_000L);
+        Assert.assertEquals(dated.size(), 2);
+        Assert.assertEquals(dated.get(1).timestampMillis(), START_MILLIS + 2000);
+    }
+
+    @Test(description = "Headerless CSV uses latitude, longitude, timestamp order")
+    public void testHeaderlessCsv() {
+        // Act
+        List<RouteFix> fixes = readAll("37.7749,-122.4194,1000\n37.775,-122.4195\n", RouteFormat.CSV);
+
+        // Assert
+        Assert.assertEquals(fixes.size(), 2);
+        Assert.assertEquals(fixes.get(0).timestampMillis(), 1000);
+        Assert.assertFalse(fixes.get(1).hasTimestamp());
+        Assert.assertThrows(IllegalArgumentException.class, () -> readAll("lat,lon\nabc,1\n", RouteFormat.CSV));
+    }
+
+    @Test(description = "Readers stream a large route without buffering it")
+    public void testStreamsLargeRoute() {
+        // Arrange: a 2 million row CSV generated on the fly, never held in memory
+        int rows = 2_000_000;
+        InputStream rowsStream = new SequenceInputStream(new Enumeration<>() {
+            private int row;
+
+            @Override
+            public boolean hasMoreElements() {
+                return row < rows;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                String line = (37 + (row % 1000) * 1e-5) + ",-122.4," + row * 1000L + "\n";
+                row++;
+                return new ByteArrayInputStream(line.getBytes(StandardCharsets.US_ASCII));
+            }
+        });
+
+        // Act
+        long count = 0;
+        long lastTimestamp = -1;
+        try (RouteReader reader = RouteReaders.open(rowsStream, RouteFormat.CSV)) {
+            RouteFix fix;
+            while ((fix = reader.next()) != null) {
+                count++;
+                lastTimestamp = fix.timestampMillis();
+            }
+        }
+
+        // Assert
+        Assert.assertEquals(count, rows);
+        Assert.assertEquals(lastTimestamp, (rows - 1) * 1000L);
+    }
+
+    @Test(description = "As-fast-as-possible replay pushes every fix in order without waiting")
+    public void testAsFastAsPossible() {
+        // Arrange
+        List<GeoLocation> pushed = new ArrayList<>();
+        RouteReplayer replayer = RouteReplayer.builder()
+                .target(pushed::add)
+                .speed(RouteReplayer.Speed.asFastAsPossible())
+                .build();
+
+        // Act
+        RouteReplayer.ReplayReport report;
+        try (RouteReader reader = RouteReaders.openResource("testdata/routes/sf-walk.gpx")) {
+            report = replayer.replay(reader);
+        }
+
+        // Assert
+        Assert.assertEquals(report.fixesPushed(), 11);
+        Assert.assertEquals(report.fixesSkipped(), 0);
+        Assert.assertTrue(report.wallMillis() < 1000, "Took " + report.wallMillis() + " ms");
+        Assert.assertEquals(pushed.get(10).distanceTo(GEOFENCE_CENTER), 0, 0.5);
+    }
+
+    @Test(description = "Scaled replay follows the recorded timeline")
+    public void testScaledReplayTiming() {
+        // Arrange: 20 s of route at 100x takes 200 ms
+        VirtualClock clock = new VirtualClock();
+        RouteReplayer replayer = RouteReplayer.builder()
+                .target(location -> { })
+                .speed(RouteReplayer.Speed.scaled(100))
+                .clock(clock)
+                .build();
+
+        // Act
+        RouteReplayer.ReplayReport report;
+        try (RouteReader reader = RouteReaders.openResource("testdata/routes/sf-walk.csv")) {
+            report = replayer.replay(reader);
+        }
+
+        // Assert
+        Assert.assertEquals(report.fixesPushed(), 11);
+        Assert.assertEquals(report.wallMillis(), 200L);
+        Assert.assertEquals(report.maxLatenessMillis(), 0L);
+    }
+
+    @Test(description = "A slow device skips superseded fixes under SKIP and slips the schedule under SHIFT")
+    public void testLagPolicies() {
+        // Arrange: fixes every 20 ms of replay time, commands taking 50 ms of virtual time
+        String route = buildCsv(21, 2000);
+        VirtualClock skipClock = new VirtualClock();
+        VirtualClock shiftClock = new VirtualClock();
+
+        // Act
+        RouteReplayer.ReplayReport skipping = RouteReplayer.builder()
+                .target(location -> skipClock.advance(TimeUnit.MILLISECONDS.toNanos(50)))
+                .speed(RouteReplayer.Speed.scaled(100))
+                .lagPolicy(RouteReplayer.LagPolicy.SKIP)
+                .clock(skipClock)
+                .build()
+                .replay(RouteReaders.open(stream(route), RouteFormat.CSV));
+        RouteReplayer.ReplayReport shifting = RouteReplayer.builder()
+                .target(location -> shiftClock.advance(TimeUnit.MILLISECONDS.toNanos(50)))
+                .speed(RouteReplayer.Speed.scaled(100))
+                .lagPolicy(RouteReplayer.LagPolicy.SHIFT)
+                .clock(shiftClock)
+                .build()
+                .replay(RouteReaders.open(stream(route), RouteFormat.CSV));
+
+        // Assert: SKIP stays on the 400 ms schedule plus the last command, SHIFT pushes back to back
+        Assert.assertEquals(skipping.fixesSkipped(), 12L);
+        Assert.assertEquals(skipping.fixesPushed() + skipping.fixesSkipped(), 21);
+        Assert.assertEquals(skipping.wallMillis(), 450L);
+        Assert.assertEquals(shifting.fixesPushed(), 21);
+        Assert.assertEquals(shifting.fixesSkipped(), 0);
+        Assert.assertEquals(shifting.wallMillis(), 21 * 50L);
+    }
+
+    @Test(description = "Simplified replay pushes only the fixes around the fence crossing, on the recorded timeline")
+    public void testSimplifiedReplay() {
+        // Arrange: a straight 150 m walk to the center of a 100 m fence
+        List<GeoLocation> pushed = new ArrayList<>();
+        VirtualClock clock = new VirtualClock();
+        RouteReplayer replayer = RouteReplayer.builder()
+                .target(pushed::add)
+                .speed(RouteReplayer.Speed.scaled(100))
+                .simplify(5, List.of(new Geofence("SF", GEOFENCE_CENTER, 100)))
+                .clock(clock)
+                .build();
+
+        // Act
+        RouteReplayer.ReplayReport report;
+        try (RouteReader reader = RouteReaders.openResource("testdata/routes/sf-walk.csv")) {
+            report = replayer.replay(reader);
+        }
+
+        // Assert: the start, the last fix outside, the first fix inside and the end
+        Assert.assertEquals(report.fixesRead(), 11L);
+        Assert.assertEquals(report.fixesDropped(), 7L);
+        Assert.assertEquals(report.fixesPushed(), 4L);
+        Assert.assertEquals(report.wallMillis(), 200L);
+        Assert.assertEquals(pushed.get(1).getAltitude(), 13.5);
+        Assert.assertFalse(pushed.get(1).isWithinRadius(GEOFENCE_CENTER, 100));
+        Assert.assertTrue(pushed.get(2).isWithinRadius(GEOFENCE_CENTER, 100));
+        Assert.assertEquals(pushed.get(3).distanceTo(GEOFENCE_CENTER), 0, 0.5);
+    }
+
+    @Test(description = "Fixes without timestamps keep their place on the timeline when neighbours are dropped")
+    public void testSimplifiedReplayWithoutTimestamps() {
+        // Arrange: 21 untimed fixes in a straight line, one second apart by default
+        StringBuilder csv = new StringBuilder("latitude,longitude\n");
+        for (int i = 0; i < 21; i++) {
+            csv.append(37.7749 + i * 1e-5).append(",-122.4194\n");
+        }
+        VirtualClock clock = new VirtualClock();
+        RouteReplayer replayer = RouteReplayer.builder()
+                .target(location -> { })
+                .speed(RouteReplayer.Speed.scaled(100))
+                .simplify(1, List.of())
+                .clock(clock)
+                .build();
+
+        // Act
+        RouteReplayer.ReplayReport report = replayer.replay(RouteReaders.open(stream(csv.toString()), RouteFormat.CSV));
+
+        // Assert: the end point is still due 20 s of route time after the start
+        Assert.assertEquals(report.fixesPushed(), 2L);
+        Assert.assertEquals(report.fixesDropped(), 19L);
+        Assert.assertEquals(report.wallMillis(), 200L);
+    }
+
+    private static String buildCsv(int rows, long intervalMillis) {
+        StringBuilder csv = new StringBuilder("latitude,longitude,timestamp\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(37.7749 + i * 1e-5).append(",-122.4194,").append(i * intervalMillis).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static List<RouteFix> readAll(String content, RouteFormat format) {
+        List<RouteFix> fixes = new ArrayList<>();
+        try (RouteReader reader = RouteReaders.open(stream(content), format)) {
+            RouteFix fix;
+            while ((fix = reader.next()) != null) {
+                fixes.add(fix);
+            }
+        }
+        return fixes;
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
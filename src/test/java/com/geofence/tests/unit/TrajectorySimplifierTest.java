@@ -0,0 +1,150 @@
+package com.geofence.tests.unit;
+
+import com.geofence.geo.TrajectorySimplifier;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.time.VirtualClock;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+public class TrajectorySimplifierTest {
+
+    private static final GeoLocation START = GeoLocation.of(37.7749, -122.4194);
+
+    @Test(description = "A noisy straight walk collapses to its endpoints")
+    public void testStraightLineCollapses() {
+        // Arrange: the sink only buffers, so the push cost is an estimate
+        List<long[]> output = new ArrayList<>();
+        TrajectorySimplifier simplifier = TrajectorySimplifier.builder()
+                .toleranceMeters(5)
+                .pushCostMillis(1500)
+                .sink((lat, lon, ts) -> output.add(new long[]{ts}))
+                .build();
+        Random random = new Random(13);
+
+        // Act
+        for (int i = 0; i <= 1000; i++) {
+            GeoLocation point = START.offset(i * 2.0, (random.nextDouble() - 0.5) * 4);
+            simplifier.accept(point, i * 1000L);
+        }
+        TrajectorySimplifier.Report report = simplifier.finish();
+
+        // Assert
+        Assert.assertEquals(output.size(), 2);
+        Assert.assertEquals(output.get(0)[0], 0L);
+        Assert.assertEquals(output.get(1)[0], 1_000_000L);
+        Assert.assertEquals(report.inputPoints(), 1001);
+        Assert.assertEquals(report.droppedPoints(), 999);
+        Assert.assertEquals(report.replayMillisSaved(), 999 * 1500L);
+        Assert.assertTrue(report.replaySavingsEstimated());
+    }
+
+    @Test(description = "Savings come from the measured push time, which simplifyMillis excludes")
+    public void testMeasuredPushCost() {
+        // Arrange: each push to the device takes 40 ms
+        VirtualClock clock = new VirtualClock();
+        TrajectorySimplifier simplifier = TrajectorySimplifier.builder()
+                .toleranceMeters(5)
+                .clock(clock)
+                .sink((lat, lon, ts) -> clock.advance(TimeUnit.MILLISECONDS.toNanos(40)))
+                .build();
+
+        // Act
+        for (int i = 0; i <= 100; i++) {
+            simplifier.accept(START.offset(i * 2.0, 0), i * 1000L);
+        }
+        TrajectorySimplifier.Report report = simplifier.finish();
+
+        // Assert
+        Assert.assertEquals(report.keptPoints(), 2L);
+        Assert.assertEquals(report.sinkMillis(), 80L);
+        Assert.assertEquals(report.simplifyMillis(), 0L);
+        Assert.assertEquals(report.replayMillisSaved(), 99 * 40L);
+        Assert.assertFalse(report.replaySavingsEstimated());
+    }
+
+    @Test(description = "Dropped points stay within tolerance and membership changes are kept, across windows")
+    public void testToleranceAndMembership() {
+        // Arrange
+        Random random = new Random(31);
+        List<Geofence> fences = List.of(new Geofence("A", START.offset(200, 100), 80),
+                new Geofence("B", START.offset(-150, 300), 120));
+        for (int run = 0; run < 50; run++) {
+            List<GeoLocation> input = new ArrayList<>();
+            double north = 0;
+            double east = 0;
+            double heading = random.nextDouble() * 2 * Math.PI;
+            for (int i = 0; i < 3000; i++) {
+                heading += (random.nextDouble() - 0.5) * 0.6;
+                north += Math.cos(heading) * 3;
+                east += Math.sin(heading) * 3;
+                input.add(START.offset(north, east));
+            }
+            List<Integer> kept = new ArrayList<>();
+            double tolerance = 1 + random.nextDouble() * 10;
+            TrajectorySimplifier simplifier = TrajectorySimplifier.builder()
+                    .toleranceMeters(tolerance)
+                    .fences(fences)
+                    .windowSize(64 + random.nextInt(512))
+                    .sink((lat, lon, ts) -> kept.add((int) ts))
+                    .build();
+
+            // Act
+            for (int i = 0; i < input.size(); i++) {
+                simplifier.accept(input.get(i), i);
+            }
+            TrajectorySimplifier.Report report = simplifier.finish();
+
+            // Assert
+            Assert.assertEquals(report.keptPoints(), kept.size());
+            Assert.assertEquals((int) kept.get(0), 0);
+            Assert.assertEquals((int) kept.get(kept.size() - 1), input.size() - 1);
+            for (int k = 1; k < kept.size(); k++) {
+                int from = kept.get(k - 1);
+                int to = kept.get(k);
+                Assert.assertTrue(to > from, "Output must be an ordered subsequence");
+                for (int i = from + 1; i < to; i++) {
+                    Assert.assertTrue(distanceToSegment(input.get(i), input.get(from), input.get(to)) <= tolerance + 1e-6,
+                            "Point " + i + " too far from the simplified route");
+                    for (Geofence fence : fences) {
+                        Assert.assertEquals(fence.contains(input.get(i)), fence.contains(input.get(i - 1)),
+                                "Membership change at dropped point " + i);
+                        Assert.assertEquals(fence.contains(input.get(i)), fence.contains(input.get(i + 1)),
+                                "Membership change after dropped point " + i);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(description = "Invalid settings and use after finish are rejected")
+    public void testValidation() {
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> TrajectorySimplifier.builder().toleranceMeters(1).build());
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> TrajectorySimplifier.builder().windowSize(2).sink((lat, lon, ts) -> { }).build());
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> TrajectorySimplifier.builder().pushCostMillis(-1).sink((lat, lon, ts) -> { }).build());
+
+        TrajectorySimplifier simplifier = TrajectorySimplifier.builder().sink((lat, lon, ts) -> { }).build();
+        simplifier.finish();
+        Assert.assertThrows(IllegalStateException.class, () -> simplifier.accept(START, 0));
+    }
+
+    private static double distanceToSegment(GeoLocation point, GeoLocation a, GeoLocation b) {
+        double metersPerDegree = Math.toRadians(GeoLocation.EARTH_RADIUS_METERS);
+        double metersPerLonDegree = metersPerDegree * Math.cos(Math.toRadians(a.getLatitude()));
+        double px = (point.getLongitude() - a.getLongitude()) * metersPerLonDegree;
+        double py = (point.getLatitude() - a.getLatitude()) * metersPerDegree;
+        double dx = (b.getLongitude() - a.getLongitude()) * metersPerLonDegree;
+        double dy = (b.getLatitude() - a.getLatitude()) * metersPerDegree;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared > 0 ? Math.max(0, Math.min(1, (px * dx + py * dy) / lengthSquared)) : 0;
+        return Math.hypot(px - t * dx, py - t * dy);
+    }
+}
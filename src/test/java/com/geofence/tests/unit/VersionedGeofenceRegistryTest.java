@@ -0,0 +1,198 @@
+package com.geofence.tests.unit;
+
+import com.geofence.models.GeoFenceRequest;
+import com.geofence.models.GeoLocation;
+import com.geofence.models.Geofence;
+import com.geofence.services.VersionedGeofenceRegistry;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class VersionedGeofenceRegistryTest {
+
+    private static final GeoLocation CENTER = GeoLocation.of(37.7749, -122.4194);
+
+    @Test(description = "Each commit publishes a new version and leaves older snapshots untouched")
+    public void testSnapshotsAreImmutable() {
+        // Arrange
+        VersionedGeofenceRegistry registry = new VersionedGeofenceRegistry();
+        VersionedGeofenceRegistry.Snapshot empty = registry.snapshot();
+
+        // Act
+        long added = registry.put(Geofence.of("Office", 37.7749, -122.4194, 200));
+        VersionedGeofenceRegistry.Snapshot withOffice = registry.snapshot();
+        long shrunk = registry.put(Geofence.of("Office", 37.7749, -122.4194, 1));
+        VersionedGeofenceRegistry.Snapshot shrunkOffice = registry.snapshot();
+        long removed = registry.remove("Office");
+
+        // Assert
+        Assert.assertEquals(empty.version(), 0L);
+        Assert.assertEquals(added, 1L);
+        Assert.assertEquals(shrunk, 2L);
+        Assert.assertEquals(removed, 3L);
+        Assert.assertEquals(registry.version(), 3L);
+        Assert.assertTrue(empty.findContaining(CENTER.offset(50, 0)).isEmpty());
+        Assert.assertEquals(withOffice.findContaining(CENTER.offset(50, 0)).size(), 1);
+        Assert.assertTrue(shrunkOffice.findContaining(CENTER.offset(50, 0)).isEmpty(),
+                "Replacing a fence by name should drop the old radius");
+        Assert.assertEquals(shrunkOffice.size(), 1);
+        Assert.assertEquals(registry.snapshot().size(), 0);
+        Assert.assertEquals(withOffice.get("Office").radiusMeters(), 200.0);
+    }
+
+    @Test(description = "A batch is applied as one version")
+    public void testBatchIsAtomic() {
+        // Arrange
+        VersionedGeofenceRegistry registry = new VersionedGeofenceRegistry();
+        registry.put(Geofence.of("Old", 37.7749, -122.4194, 100));
+        VersionedGeofenceRegistry.Batch batch = registry.batch()
+                .remove("Old")
+                .put(Geofence.of("A", 37.7749, -122.4194, 300))
+                .put(GeoFenceRequest.builder().name("B").latitude(37.7749).longitude(-122.4194).radius(400).build());
+
+        // Act
+        long version = batch.commit();
+        VersionedGeofenceRegistry.Containment containment = registry.findContaining(CENTER);
+
+        // Assert
+        Assert.assertEquals(version, 2L);
+        Assert.assertEquals(containment.version(), 2L);
+        Assert.assertEquals(containment.fences().size(), 2);
+        Assert.assertTrue(!registry.snapshot().contains("Old"));
+        Assert.assertThrows(IllegalStateException.class, batch::commit);
+        Assert.assertThrows(IllegalStateException.class, () -> batch.remove("A"));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> registry.put(new Geofence(null, CENTER, 10)));
+    }
+
+    @Test(description = "Versions derived batch by batch answer like a registry rebuilt from scratch")
+    public void testDerivedVersionsMatchFullRebuild() {
+        // Arrange
+        Random random = new Random(19);
+        VersionedGeofenceRegistry registry = new VersionedGeofenceRegistry();
+        Map<String, Geofence> expected = new HashMap<>();
+
+        for (int round = 0; round < 40; round++) {
+            // Act: random puts, replacements and removals, some touching fences added in the same batch
+            VersionedGeofenceRegistry.Batch batch = registry.batch();
+            for (int i = 0; i < 25; i++) {
+                String name = "fence-" + random.nextInt(120);
+                if (random.nextInt(3) == 0) {
+                    batch.remove(name);
+                    expected.remove(name);
+                } else {
+                    Geofence fence = Geofence.of(name, 37.70 + random.nextDouble() * 0.1,
+                            -122.50 + random.nextDouble() * 0.1, 50 + random.nextDouble() * 1500);
+                    batch.put(fence);
+                    expected.put(name, fence);
+                }
+            }
+            batch.commit();
+
+            // Assert
+            VersionedGeofenceRegistry.Snapshot snapshot = registry.snapshot();
+            Assert.assertEquals(snapshot.size(), expected.size());
+            Assert.assertEquals(new HashSet<>(snapshot.getAll()), new HashSet<>(expected.values()));
+            for (Geofence fence : expected.values()) {
+                Assert.assertEquals(snapshot.get(fence.name()), fence);
+            }
+            for (int i = 0; i < 50; i++) {
+                GeoLocation point = GeoLocation.of(37.69 + random.nextDouble() * 0.12,
+                        -122.51 + random.nextDouble() * 0.12);
+                Set<Geofence> inside = new HashSet<>();
+                for (Geofence fence : expected.values()) {
+                    if (fence.contains(point)) {
+                        inside.add(fence);
+                    }
+                }
+                Assert.assertEquals(new HashSet<>(snapshot.findContaining(point)), inside,
+                        "Mismatch in version " + snapshot.version() + " at " + point);
+            }
+        }
+    }
+
+    @Test(description = "Readers running beside writers only ever see whole batches and rising versions")
+    public void testConcurrentReadersSeeConsistentSnapshots() throws Exception {
+        // Arrange: every batch gives both fences the same new radius
+        VersionedGeofenceRegistry registry = new VersionedGeofenceRegistry();
+        registry.batch()
+                .put(Geofence.of("Left", 37.7749, -122.4194, 10))
+                .put(Geofence.of("Right", 37.7749, -122.4194, 10))
+                .commit();
+        int writers = 4;
+        int batchesPerWriter = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 2);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> writes = new ArrayList<>();
+        List<Future<String>> reads = new ArrayList<>();
+
+        // Act
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            writes.add(pool.submit(() -> {
+                start.await();
+                long last = 0;
+                for (int i = 0; i < batchesPerWriter; i++) {
+                    double radius = 10 + writer * 1000 + i;
+                    long version = registry.batch()
+                            .put(Geofence.of("Left", 37.7749, -122.4194, radius))
+                            .put(Geofence.of("Right", 37.7749, -122.4194, radius))
+                            .commit();
+                    if (version <= last || registry.snapshot().version() < version) {
+                        return -1L;
+                    }
+                    last = version;
+                }
+                return last;
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            reads.add(pool.submit(() -> {
+                start.await();
+                long lastVersion = 0;
+                while (writing.get()) {
+                    VersionedGeofenceRegistry.Snapshot snapshot = registry.snapshot();
+                    if (snapshot.version() < lastVersion) {
+                        return "version went backwards at " + snapshot.version();
+                    }
+                    lastVersion = snapshot.version();
+                    double left = snapshot.get("Left").radiusMeters();
+                    double right = snapshot.get("Right").radiusMeters();
+                    if (left != right || snapshot.findContaining(CENTER).size() != 2) {
+                        return "partial batch in version " + snapshot.version();
+                    }
+                }
+                return "ok";
+            }));
+        }
+        start.countDown();
+        for (Future<Long> write : writes) {
+            Assert.assertTrue(write.get(30, TimeUnit.SECONDS) > 0, "Commit versions should rise and be visible");
+        }
+        writing.set(false);
+        for (Future<String> read : reads) {
+            Assert.assertEquals(read.get(30, TimeUnit.SECONDS), "ok");
+        }
+        pool.shutdown();
+
+        // Assert
+        long version = registry.version();
+        Assert.assertTrue(version >= 2 && version <= 1 + writers * batchesPerWriter,
+                "Batches should never publish more versions than commits: " + version);
+        Assert.assertEquals(registry.snapshot().size(), 2);
+    }
+}
@@ -0,0 +1,116 @@
+package com.geofence.tests.unit;
+
+import com.geofence.geo.HaversineCalculator;
+import com.geofence.models.GeoLocation;
+import com.geofence.routes.RouteReader;
+import com.geofence.routes.RouteReaders;
+import com.geofence.services.LocationService;
+import com.geofence.services.LocationSettleDetector;
+import com.geofence.services.RouteReplayer;
+import com.geofence.services.SettleTimeHistogram;
+import com.geofence.time.SimulationClocks;
+import com.geofence.time.SystemClock;
+import com.geofence.time.VirtualClock;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class VirtualClockTest {
+
+    private static final GeoLocation CENTER = GeoLocation.of(37.7749, -122.4194);
+
+    @Test(description = "A settle timeout passes in virtual time without sleeping")
+    public void testSettleTimeoutInVirtualTime() {
+        // Arrange
+        VirtualClock clock = new VirtualClock();
+        SettleTimeHistogram histogram = new SettleTimeHistogram();
+        LocationSettleDetector detector = LocationSettleDetector.builder()
+                .probe(target -> false)
+                .timeoutMillis(5000)
+                .histogram(histogram)
+                .clock(clock)
+                .build();
+
+        // Act
+        long start = System.nanoTime();
+        boolean settled = detector.awaitSettled(CENTER);
+        long realMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert: polls back off 25, 50 ... 400 ms until 5 s of virtual time have passed
+        Assert.assertFalse(settled);
+        Assert.assertEquals(histogram.timeouts(), 1L);
+        Assert.assertTrue(clock.elapsedMillis() >= 5000 && clock.elapsedMillis() <= 5001, "" + clock.elapsedMillis());
+        Assert.assertTrue(realMillis < 1000, "Took " + realMillis + " ms");
+    }
+
+    @Test(description = "A 20 second route replays at real-time speed in virtual time")
+    public void testRouteReplayInVirtualTime() {
+        // Arrange
+        VirtualClock clock = new VirtualClock();
+        List<GeoLocation> pushed = new ArrayList<>();
+        RouteReplayer replayer = RouteReplayer.builder()
+                .target(pushed::add)
+                .speed(RouteReplayer.Speed.realTime())
+                .clock(clock)
+                .build();
+
+        // Act
+        long start = System.nanoTime();
+        RouteReplayer.ReplayReport report;
+        try (RouteReader reader = RouteReaders.openResource("testdata/routes/sf-walk.gpx")) {
+            report = replayer.replay(reader);
+        }
+        long realMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        Assert.assertEquals(pushed.size(), 11);
+        Assert.assertEquals(report.wallMillis(), 20_000L);
+        Assert.assertEquals(report.maxLatenessMillis(), 0L);
+        Assert.assertTrue(realMillis < 1000, "Took " + realMillis + " ms");
+    }
+
+    @Test(description = "Movement against a stub driver keeps its timeline but finishes at once")
+    public void testMovementInVirtualTime() {
+        // Arrange: each command stands in for a 300 ms round trip
+        VirtualClock clock = new VirtualClock();
+        List<GeoLocation> applied = new ArrayList<>();
+        LocationService locationService = new LocationService(null, HaversineCalculator.INSTANCE, null, clock) {
+            @Override
+            public void setLocation(GeoLocation location) {
+                clock.advance(TimeUnit.MILLISECONDS.toNanos(300));
+                applied.add(location);
+            }
+        };
+
+        // Act: six waypoints due every second
+        long start = System.nanoTime();
+        locationService.simulateMovement(CENTER, GeoLocation.of(37.7800, -122.4194));
+        long realMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert: latency compensation lands the last waypoint exactly on its 5 s deadline
+        Assert.assertEquals(applied.size(), 6);
+        Assert.assertEquals(clock.elapsedMillis(), 5000L);
+        Assert.assertTrue(realMillis < 1000, "Took " + realMillis + " ms");
+    }
+
+    @Test(description = "The process default is the wall clock and can be swapped for tests")
+    public void testDefaultClock() {
+        // Arrange
+        VirtualClock clock = new VirtualClock();
+
+        // Act / Assert
+        Assert.assertEquals(SimulationClocks.current(), SystemClock.INSTANCE);
+        try (RouteReader reader = RouteReaders.openResource("testdata/routes/sf-walk.csv")) {
+            SimulationClocks.use(clock);
+            Assert.assertEquals(SimulationClocks.current(), clock);
+            Assert.assertEquals(RouteReplayer.builder().target(location -> { }).build().replay(reader).wallMillis(),
+                    20_000L);
+        } finally {
+            SimulationClocks.use(SimulationClocks.system());
+        }
+        Assert.assertThrows(IllegalArgumentException.class, () -> SimulationClocks.use(null));
+    }
+}